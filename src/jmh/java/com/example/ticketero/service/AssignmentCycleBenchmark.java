@@ -0,0 +1,164 @@
+package com.example.ticketero.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.ticketero.config.OutboxProperties;
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.OutboxEventRepository;
+import com.example.ticketero.repository.QueueWatermarkRepository;
+import com.example.ticketero.repository.TicketRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Un ciclo de asignación completo (AssignmentService.processTicketAssignments) contra repositorios
+ * en memoria: lecturas, plan, cambios de estado, pre-aviso RN-012 y escritura por lote.
+ * El contador {@code queries} son las llamadas a repositorios del último ciclo: no debe crecer
+ * con queueDepth (tickets en espera por cola). JMH lo muestra por iteración; el resultado final
+ * es la suma de las iteraciones.
+ * <p>
+ * Cada ciclo parte del mismo estado: los asesores vuelven a AVAILABLE y la cabeza de cada cola a
+ * EN_ESPERA al leerlos, como si vinieran de la BD.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssignmentCycleBenchmark {
+
+    @Param({"10", "100"})
+    int advisorCount;
+
+    @Param({"10", "1000", "100000"})
+    int queueDepth;
+
+    private final LongAdder calls = new LongAdder();
+    private List<Advisor> advisors;
+    private int[] initialWorkload;
+    private Map<QueueType, List<Ticket>> queues;
+    private LocalDateTime now;
+    private AssignmentService assignmentService;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Queries {
+        public long queries;
+    }
+
+    @Setup
+    public void setUp() {
+        // Sin configuración de Logback el nivel es DEBUG: el log de cada asignación dominaría la medición
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+
+        now = LocalDateTime.now();
+        QueueType[] queueTypes = QueueType.values();
+
+        advisors = new ArrayList<>(advisorCount);
+        initialWorkload = new int[advisorCount];
+        for (int i = 0; i < advisorCount; i++) {
+            initialWorkload[i] = (i * 7) % 60;
+            advisors.add(Advisor.builder()
+                .id((long) i)
+                .name("Asesor " + i)
+                .moduleNumber(i + 1)
+                .queueTypes(List.of(queueTypes[i % queueTypes.length], queueTypes[(i + 1) % queueTypes.length]))
+                .build());
+        }
+
+        queues = new EnumMap<>(QueueType.class);
+        long id = 0;
+        for (QueueType queueType : queueTypes) {
+            List<Ticket> queue = new ArrayList<>(queueDepth);
+            int critical = queueDepth / 10;
+            for (int i = 0; i < queueDepth; i++) {
+                long minutesAgo = i < critical
+                    ? queueType.getMaxWaitTimeMinutes() + critical - i
+                    : (long) (queueDepth - i) * queueType.getMaxWaitTimeMinutes() / (2L * queueDepth);
+                queue.add(Ticket.builder()
+                    .id(id++)
+                    .codigoReferencia(UUID.randomUUID())
+                    .numero(queueType.getPrefix() + i)
+                    .branchOffice("Sucursal Centro")
+                    .queueType(queueType)
+                    .queueSeq((long) i + 1)
+                    .createdAt(now.minusMinutes(minutesAgo))
+                    .build());
+            }
+            queues.put(queueType, queue);
+        }
+
+        TicketRepository ticketRepository = InMemoryRepositories.answering(TicketRepository.class, Map.of(
+            "findQueueHead", args -> queueHead((QueueType) args[0], (Pageable) args[1]),
+            "saveAll", args -> args[0]), calls);
+        AdvisorRepository advisorRepository = InMemoryRepositories.answering(AdvisorRepository.class, Map.of(
+            "findByStatus", args -> availableAdvisors(),
+            "saveAll", args -> args[0]), calls);
+        QueuePositions queuePositions = new QueuePositions(InMemoryRepositories.answering(
+            QueueWatermarkRepository.class, Map.of("advance", args -> 1), calls));
+        OutboxService outboxService = new OutboxService(InMemoryRepositories.answering(
+            OutboxEventRepository.class, Map.of("saveAll", args -> args[0]), calls),
+            null, new OutboxProperties(true, 500, 7));
+
+        assignmentService = new AssignmentService(ticketRepository, advisorRepository, new AssignmentPlanner(),
+            outboxService, queuePositions, event -> { });
+    }
+
+    @Benchmark
+    public int processTicketAssignments(Queries queries) {
+        long before = calls.sum();
+        int assigned = assignmentService.processTicketAssignments();
+        queries.queries = calls.sum() - before;
+        return assigned;
+    }
+
+    private List<Advisor> availableAdvisors() {
+        for (int i = 0; i < advisors.size(); i++) {
+            Advisor advisor = advisors.get(i);
+            advisor.setStatus(AdvisorStatus.AVAILABLE);
+            advisor.setWorkloadMinutes(initialWorkload[i]);
+            advisor.setAssignedTicketsCount(0);
+            advisor.setLastAssignedAt(now.minusMinutes(i % 30));
+        }
+        return advisors;
+    }
+
+    private List<Ticket> queueHead(QueueType queueType, Pageable pageable) {
+        List<Ticket> queue = queues.get(queueType);
+        List<Ticket> head = new ArrayList<>(queue.subList(0, Math.min(pageable.getPageSize(), queue.size())));
+        for (Ticket ticket : head) {
+            ticket.setStatus(TicketStatus.EN_ESPERA);
+            ticket.setAssignedAdvisor(null);
+            ticket.setAssignedModuleNumber(null);
+            ticket.setAssignedAt(null);
+        }
+        return head;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Un ciclo de asignación completo en memoria (AssignmentPlanner.plan): arma el pool de asesores y
+ * empareja las cabezas de las cuatro colas. queueDepth son los tickets en espera por cola que recibe
+ * el ciclo; un 10% de ellos ya superó el tiempo máximo de su cola (RN-016).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssignmentPlannerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int advisorCount;
+
+    @Param({"10", "100", "1000"})
+    int queueDepth;
+
+    private final AssignmentPlanner planner = new AssignmentPlanner();
+    private List<Advisor> advisors;
+    private Map<QueueType, List<Ticket>> queueHeads;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        now = LocalDateTime.now();
+        QueueType[] queueTypes = QueueType.values();
+
+        advisors = new ArrayList<>(advisorCount);
+        for (int i = 0; i < advisorCount; i++) {
+            // Cada asesor atiende dos colas contiguas, con cargas distintas para ejercitar RN-004
+            advisors.add(Advisor.builder()
+                .id((long) i)
+                .name("Asesor " + i)
+                .status(AdvisorStatus.AVAILABLE)
+                .moduleNumber(i + 1)
+                .queueTypes(List.of(queueTypes[i % queueTypes.length], queueTypes[(i + 1) % queueTypes.length]))
+                .workloadMinutes((i * 7) % 60)
+                .lastAssignedAt(now.minusMinutes(i % 30))
+                .build());
+        }
+
+        queueHeads = new EnumMap<>(QueueType.class);
+        long id = 0;
+        for (QueueType queueType : queueTypes) {
+            List<Ticket> head = new ArrayList<>(queueDepth);
+            int critical = queueDepth / 10;
+            for (int i = 0; i < queueDepth; i++) {
+                long minutesAgo = i < critical
+                    ? queueType.getMaxWaitTimeMinutes() + critical - i
+                    : (long) (queueDepth - i) * queueType.getMaxWaitTimeMinutes() / (2L * queueDepth);
+                head.add(Ticket.builder()
+                    .id(id++)
+                    .codigoReferencia(UUID.randomUUID())
+                    .numero(queueType.getPrefix() + i)
+                    .queueType(queueType)
+                    .status(TicketStatus.EN_ESPERA)
+                    .createdAt(now.minusMinutes(minutesAgo))
+                    .build());
+            }
+            queueHeads.put(queueType, head);
+        }
+    }
+
+    @Benchmark
+    public List<AssignmentPlanner.Assignment> plan() {
+        return planner.plan(advisors, queueHeads, now);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ticketero.service;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Repositorios falsos para los benchmarks en memoria: cada método nombrado retorna un valor fijo (o
+ * calculado con los argumentos) y el resto falla, de modo que un benchmark no pueda tocar la BD sin
+ * notarlo.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static <T> T returning(Class<T> repository, Map<String, Object> results) {
+        Map<String, Function<Object[], Object>> answers = new HashMap<>();
+        results.forEach((method, result) -> answers.put(method, args -> result));
+        return answering(repository, answers, new LongAdder());
+    }
+
+    /**
+     * Cada método nombrado calcula su resultado con los argumentos de la llamada; {@code calls}
+     * cuenta las llamadas (las consultas que haría el repositorio real).
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T answering(Class<T> repository, Map<String, Function<Object[], Object>> answers, LongAdder calls) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "toString" -> "InMemory" + repository.getSimpleName();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(repository.getSimpleName() + "." + method.getName());
+                    }
+                    calls.increment();
+                    yield answer.apply(args);
+                }
+            });
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Armado del texto de cada plantilla de Telegram (MessageService.buildMessageText), que corre una
+ * vez por envío.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTextBenchmark {
+
+    @Param({"TOTEM_TICKET_CREADO", "TOTEM_PROXIMO_TURNO", "TOTEM_ES_TU_TURNO"})
+    MessageTemplate template;
+
+    private Mensaje mensaje;
+
+    @Setup
+    public void setUp() {
+        Ticket ticket = Ticket.builder()
+            .id(1L)
+            .numero("C42")
+            .telefono("+56912345678")
+            .queueType(QueueType.CAJA)
+            .status(TicketStatus.ATENDIENDO)
+            .positionInQueue(7)
+            .estimatedWaitMinutes(35)
+            .assignedAdvisor(Advisor.builder().id(1L).name("María López").moduleNumber(3).build())
+            .assignedModuleNumber(3)
+            .createdAt(LocalDateTime.now())
+            .build();
+        mensaje = Mensaje.builder().ticket(ticket).plantilla(template).build();
+    }
+
+    @Benchmark
+    public String buildMessageText() {
+        return MessageService.buildMessageText(mensaje);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.EstimationProperties;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.QueueDailyStatsRepository;
+import com.example.ticketero.repository.TicketRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lo que cuesta responder una consulta de posición y mantener la fila al día, sin BD:
+ * la posición en LiveQueueIndex, la espera estimada de WaitTimeEstimator y el alta y baja de un
+ * ticket (lo que produce cada creación y cada asignación).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueuePositionBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 15, 8, 0);
+
+    @Param({"100", "10000", "100000"})
+    int queueDepth;
+
+    @Param({"20"})
+    int advisorCount;
+
+    private LiveQueueIndex liveQueueIndex;
+    private WaitTimeEstimator waitTimeEstimator;
+    private long head;
+    private long tail;
+    private long probe;
+
+    @Setup
+    public void setUp() {
+        List<Ticket> waiting = new ArrayList<>(queueDepth);
+        for (long id = 0; id < queueDepth; id++) {
+            waiting.add(ticket(id));
+        }
+        head = 0;
+        tail = queueDepth;
+        liveQueueIndex = new LiveQueueIndex(InMemoryRepositories.returning(TicketRepository.class,
+            Map.of("findAllWaiting", waiting)));
+        liveQueueIndex.rebuild();
+
+        List<Advisor> advisors = new ArrayList<>(advisorCount);
+        for (int i = 0; i < advisorCount; i++) {
+            advisors.add(Advisor.builder()
+                .id((long) i)
+                .status(i % 3 == 0 ? AdvisorStatus.AVAILABLE : AdvisorStatus.BUSY)
+                .queueTypes(List.of(QueueType.CAJA, QueueType.values()[i % QueueType.values().length]))
+                .build());
+        }
+        waitTimeEstimator = new WaitTimeEstimator(
+            InMemoryRepositories.returning(AdvisorRepository.class, Map.of("findAll", advisors)),
+            InMemoryRepositories.returning(TicketRepository.class, Map.of("findByStatusOrderByCreatedAtAsc", List.of())),
+            InMemoryRepositories.returning(QueueDailyStatsRepository.class, Map.of("findByIdBusinessDate", List.of())),
+            new EstimationProperties(true, 0.2));
+        waitTimeEstimator.rebuild();
+    }
+
+    @Benchmark
+    public OptionalInt positionOf() {
+        // Recorre la fila de punta a punta para no medir siempre el mismo camino del árbol
+        long id = head + (probe++ % (tail - head));
+        return liveQueueIndex.positionOf(QueueType.CAJA, id, BASE.plusSeconds(id));
+    }
+
+    @Benchmark
+    public int estimatedWaitMinutes() {
+        return waitTimeEstimator.estimatedWaitMinutes(QueueType.CAJA, (int) (probe++ % queueDepth) + 1);
+    }
+
+    @Benchmark
+    public int createAndAssign() {
+        long created = tail++;
+        liveQueueIndex.onTicketStatusChanged(event(created, null, TicketStatus.EN_ESPERA));
+        long assigned = head++;
+        liveQueueIndex.onTicketStatusChanged(event(assigned, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO));
+        return liveQueueIndex.waitingCount(QueueType.CAJA);
+    }
+
+    private static Ticket ticket(long id) {
+        return Ticket.builder()
+            .id(id)
+            .queueType(QueueType.CAJA)
+            .status(TicketStatus.EN_ESPERA)
+            .createdAt(BASE.plusSeconds(id))
+            .build();
+    }
+
+    private static TicketStatusChangedEvent event(long id, TicketStatus previous, TicketStatus next) {
+        return new TicketStatusChangedEvent(id, "C" + id, "Sucursal Centro", QueueType.CAJA, previous, next,
+            BASE.plusSeconds(id), null, null, null, null, BASE);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.TicketeroApplication;
+import com.example.ticketero.model.enums.QueueType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.config.TaskManagementConfigUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Los pasos de la creación de un ticket que van a PostgreSQL: el número visible
+ * (TicketNumberAllocator, un viaje por bloque) y el número de llegada en la cola
+ * (QueuePositions.issue, un nextval por ticket).
+ * <p>
+ * Corre contra un PostgreSQL 16 levantado con Testcontainers. Para usar otra BD hay que pedirlo
+ * con las propiedades del benchmark {@code jmh.db.url}, {@code jmh.db.username} y
+ * {@code jmh.db.password}; DATABASE_URL no se toma, para no escribir por descuido en la BD de la
+ * aplicación. Los @Scheduled no se activan: solo corre el camino medido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketNumberingBenchmark {
+
+    // Quita el procesador de @Scheduled que registra @EnableScheduling: sin él no se programa ninguna tarea
+    private static final BeanFactoryPostProcessor WITHOUT_SCHEDULING = beanFactory ->
+        ((BeanDefinitionRegistry) beanFactory).removeBeanDefinition(
+            TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME);
+
+    @Param({"1", "10", "100"})
+    int blockSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private TicketNumberAllocator ticketNumberAllocator;
+    private QueuePositions queuePositions;
+    // Sucursal propia por corrida: cada bloque parte de un contador nuevo
+    private String branchOffice;
+
+    @Setup
+    public void start() {
+        // Como argumentos de línea de comandos: deben ganarle a application.yml
+        List<String> args = new ArrayList<>();
+        String url = System.getProperty("jmh.db.url");
+        if (url != null) {
+            args.add("--spring.datasource.url=" + url);
+            args.add("--spring.datasource.username=" + System.getProperty("jmh.db.username", "postgres"));
+            args.add("--spring.datasource.password=" + System.getProperty("jmh.db.password", ""));
+        } else {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+            args.add("--spring.datasource.url=" + postgres.getJdbcUrl());
+            args.add("--spring.datasource.username=" + postgres.getUsername());
+            args.add("--spring.datasource.password=" + postgres.getPassword());
+        }
+        args.add("--ticketero.numbering.block-size=" + blockSize);
+        // Solo el camino medido: sin consumidores del outbox ni log de SQL
+        args.add("--ticketero.outbox.relay-enabled=false");
+        args.add("--telegram.stub=true");
+        args.add("--logging.level.org.hibernate.SQL=WARN");
+        args.add("--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+
+        context = new SpringApplicationBuilder(TicketeroApplication.class)
+            .web(WebApplicationType.NONE)
+            .initializers(context -> context.addBeanFactoryPostProcessor(WITHOUT_SCHEDULING))
+            .run(args.toArray(String[]::new));
+        ticketNumberAllocator = context.getBean(TicketNumberAllocator.class);
+        queuePositions = context.getBean(QueuePositions.class);
+        branchOffice = "jmh-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @TearDown
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    public String nextNumber() {
+        return ticketNumberAllocator.nextNumber(branchOffice, QueueType.CAJA);
+    }
+
+    @Benchmark
+    public QueuePositions.Issued issueQueueSeq() {
+        return queuePositions.issue(QueueType.CAJA);
+    }
+}
@@ -0,0 +1,423 @@
+package com.example.ticketero.loadtest;
+
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Jornada completa de una sucursal contra la API REST de una instancia en ejecución.
+ * <p>
+ * Cada cola recibe llegadas de Poisson a su tasa por hora. Cada cliente es un hilo virtual que
+ * crea su ticket en el tótem, consulta su posición hasta que lo llaman y, una vez asignado, ocupa
+ * al asesor un tiempo de atención lognormal con media {@link QueueType#getAverageTimeMinutes()};
+ * al cumplirse, el asesor lo cierra con {@code POST /api/admin/tickets/{codigoReferencia}/complete}.
+ * Un supervisor refresca el dashboard en paralelo.
+ * <p>
+ * El reloj simulado corre speedup veces más rápido que el real: llegadas, consultas y atenciones
+ * se comprimen, el servidor no. Al final reporta, por endpoint, latencias p50/p90/p99; el retraso
+ * de asignación (desde que hay ticket y asesor libre hasta que el servidor asigna, en ms reales);
+ * la espera hasta la asignación por cola (en minutos simulados); y las sentencias SQL por request,
+ * si la instancia expone hibernate.statements (HIBERNATE_STATISTICS=true).
+ * <p>
+ * Supone que la simulación y la aplicación comparten reloj (misma máquina) y que ningún otro
+ * cliente usa los asesores durante la corrida.
+ */
+public class BranchDaySimulation {
+
+    private static final String CREATE = "POST /api/tickets";
+    private static final String POSITION = "GET /api/tickets/{numero}/position";
+    private static final String DETAIL = "GET /api/tickets/{codigoReferencia}";
+    private static final String COMPLETE = "POST /api/admin/tickets/{codigoReferencia}/complete";
+    private static final String DASHBOARD = "GET /api/admin/dashboard";
+    private static final String ADVISORS = "GET /api/admin/advisors";
+    private static final String ADVISOR_STATUS = "PUT /api/admin/advisors/{id}/status";
+
+    private static final String ASSIGNMENT_LAG = "assignment lag (ms)";
+
+    private final SimulationConfig config;
+    private final HttpClient http;
+    private final ObjectMapper json;
+
+    private final LatencyRecorder endpoints = new LatencyRecorder();
+    private final LatencyRecorder assignments = new LatencyRecorder();
+    private final Map<String, String> firstErrors = new ConcurrentHashMap<>();
+    // Desde cuándo está libre cada asesor (por nombre, como lo informa TicketResponse)
+    private final Map<String, LocalDateTime> advisorFreeSince = new ConcurrentHashMap<>();
+    private final Queue<Thread> customers = new ConcurrentLinkedQueue<>();
+    private final AtomicLong customerIds = new AtomicLong();
+    private final long runId = System.currentTimeMillis() / 1_000 % 100_000;
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+
+    private volatile long startNanos;
+
+    public BranchDaySimulation(SimulationConfig config) {
+        this.config = config;
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+        this.json = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimulationConfig config;
+        try {
+            config = SimulationConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        new BranchDaySimulation(config).run();
+    }
+
+    public void run() throws InterruptedException, IOException {
+        System.out.printf("Simulating %s at %s, %.0fx (%s simulated in %s real), seed %d%n",
+            config.duration(), config.baseUrl(), config.speedup(), config.duration(),
+            config.toReal(config.duration()), config.seed());
+
+        openAdvisors();
+        OptionalDouble statementsBefore = preparedStatements();
+        startNanos = System.nanoTime();
+        long endOfDay = startNanos + config.toReal(config.duration()).toNanos();
+
+        List<Thread> arrivals = new ArrayList<>();
+        Random seeds = new Random(config.seed());
+        config.arrivalsPerHour().forEach((queueType, perHour) -> {
+            if (perHour > 0) {
+                Random random = new Random(seeds.nextLong());
+                arrivals.add(Thread.ofVirtual().name("arrivals-" + queueType)
+                    .start(() -> arrivals(queueType, perHour, random, endOfDay)));
+            }
+        });
+        Thread supervisor = Thread.ofVirtual().name("supervisor").start(this::supervisor);
+
+        reportProgressUntil(endOfDay);
+        for (Thread thread : arrivals) {
+            thread.join();
+        }
+
+        // Cierre de la sucursal: no llega nadie más, se espera a los que ya tienen ticket
+        long drainDeadline = System.nanoTime() + config.drainTimeout().toNanos();
+        int unfinished = 0;
+        for (Thread customer : customers) {
+            long remaining = drainDeadline - System.nanoTime();
+            if (remaining > 0) {
+                customer.join(Duration.ofNanos(remaining));
+            }
+            if (customer.isAlive()) {
+                customer.interrupt();
+                unfinished++;
+            }
+        }
+        supervisor.interrupt();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+        OptionalDouble statementsAfter = preparedStatements();
+        writeReport(elapsed, unfinished, statementsBefore, statementsAfter);
+    }
+
+    // Deja disponibles a los asesores desconectados; los ocupados con tickets ajenos a la simulación se advierten
+    private void openAdvisors() {
+        JsonNode advisors = call(ADVISORS, get("/api/admin/advisors"));
+        if (advisors == null || !advisors.isArray() || advisors.isEmpty()) {
+            throw new IllegalStateException("No advisors available at " + config.baseUrl() + firstErrors.values());
+        }
+        Map<QueueType, Integer> coverage = new EnumMap<>(QueueType.class);
+        for (JsonNode advisor : advisors) {
+            AdvisorStatus status = AdvisorStatus.valueOf(advisor.path("status").asText());
+            if (status == AdvisorStatus.OFFLINE) {
+                String body = "{\"status\":\"AVAILABLE\",\"reason\":\"Simulación de carga\"}";
+                call(ADVISOR_STATUS, request("/api/admin/advisors/" + advisor.path("id").asLong())
+                    .PUT(HttpRequest.BodyPublishers.ofString(body)).build());
+            } else if (status == AdvisorStatus.BUSY) {
+                System.err.printf("Advisor %s is BUSY with a ticket outside the simulation%n",
+                    advisor.path("name").asText());
+            }
+            advisorFreeSince.put(advisor.path("name").asText(), LocalDateTime.now());
+            advisor.path("queueTypes").forEach(queue -> coverage.merge(QueueType.valueOf(queue.asText()), 1, Integer::sum));
+        }
+        System.out.printf("Advisors per queue: %s%n", coverage);
+        config.arrivalsPerHour().forEach((queueType, perHour) -> {
+            if (perHour > 0 && !coverage.containsKey(queueType)) {
+                System.err.printf("No advisor serves %s: its tickets will never be assigned%n", queueType);
+            }
+        });
+    }
+
+    private void arrivals(QueueType queueType, double perHour, Random random, long endOfDay) {
+        long next = startNanos;
+        while (true) {
+            // Llegadas de Poisson: entre una y otra, una exponencial de media 1/tasa
+            double hours = -Math.log(1 - random.nextDouble()) / perHour;
+            next += config.toReal(Duration.ofNanos((long) (hours * 3_600_000_000_000L))).toNanos();
+            if (next >= endOfDay || !sleepUntil(next)) {
+                return;
+            }
+            long customerId = customerIds.incrementAndGet();
+            Random customerRandom = new Random(random.nextLong());
+            customers.add(Thread.ofVirtual().name("customer-" + customerId)
+                .start(() -> customer(customerId, queueType, customerRandom)));
+        }
+    }
+
+    private void customer(long customerId, QueueType queueType, Random random) {
+        // RUT único por corrida y cliente: uno con ticket activo no puede sacar otro
+        String body = """
+            {"nationalId":"S%05d%08d","telefono":"+569%08d","branchOffice":"%s","queueType":"%s"}"""
+            .formatted(runId, customerId, random.nextInt(100_000_000), config.branchOffice(), queueType);
+        JsonNode ticket = call(CREATE, request("/api/tickets").POST(HttpRequest.BodyPublishers.ofString(body)).build());
+        if (ticket == null) {
+            rejected.incrementAndGet();
+            return;
+        }
+        created.incrementAndGet();
+        String numero = ticket.path("numero").asText();
+        String codigoReferencia = ticket.path("identificador").asText();
+
+        // Consulta su posición hasta que lo llaman
+        Duration poll = config.toReal(config.pollInterval());
+        while (true) {
+            if (!sleep(poll)) {
+                return;
+            }
+            JsonNode position = call(POSITION, get("/api/tickets/" + encode(numero) + "/position"));
+            if (position == null) {
+                continue;
+            }
+            TicketStatus status = TicketStatus.valueOf(position.path("status").asText());
+            if (status == TicketStatus.ATENDIENDO) {
+                break;
+            }
+            if (!status.isActive()) {
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+
+        JsonNode detail = call(DETAIL, get("/api/tickets/" + codigoReferencia));
+        if (detail == null || detail.path("assignedAt").isNull()) {
+            return;
+        }
+        LocalDateTime createdAt = LocalDateTime.parse(detail.path("createdAt").asText());
+        LocalDateTime assignedAt = LocalDateTime.parse(detail.path("assignedAt").asText());
+        String advisor = detail.path("assignedAdvisor").asText();
+        recordAssignment(queueType, createdAt, assignedAt, advisor);
+
+        // La atención empezó en assignedAt, no cuando el cliente se enteró
+        Duration service = serviceTime(queueType, random);
+        Duration served = Duration.between(assignedAt, LocalDateTime.now());
+        if (!sleep(config.toReal(service).minus(served))) {
+            return;
+        }
+        // Libre desde que pide cerrar: la siguiente asignación puede ocurrir antes de recibir la respuesta
+        LocalDateTime freeSince = LocalDateTime.now();
+        if (call(COMPLETE, request("/api/admin/tickets/" + codigoReferencia + "/complete")
+                .POST(HttpRequest.BodyPublishers.noBody()).build()) != null) {
+            advisorFreeSince.put(advisor, freeSince);
+            completed.incrementAndGet();
+        }
+    }
+
+    private void recordAssignment(QueueType queueType, LocalDateTime createdAt, LocalDateTime assignedAt,
+                                  String advisor) {
+        LocalDateTime freeSince = advisorFreeSince.getOrDefault(advisor, createdAt);
+        LocalDateTime ready = createdAt.isAfter(freeSince) ? createdAt : freeSince;
+        assignments.record(ASSIGNMENT_LAG, Math.max(0, Duration.between(ready, assignedAt).toNanos() / 1e6));
+        Duration wait = config.toSimulated(Duration.between(createdAt, assignedAt));
+        assignments.record("wait until assigned, " + queueType + " (simulated min)", wait.toMillis() / 60_000.0);
+    }
+
+    // Lognormal con media el promedio de la cola y el coeficiente de variación configurado
+    private Duration serviceTime(QueueType queueType, Random random) {
+        double mean = queueType.getAverageTimeMinutes();
+        double sigma2 = Math.log(1 + config.serviceTimeCv() * config.serviceTimeCv());
+        double minutes = Math.exp(Math.log(mean) - sigma2 / 2 + Math.sqrt(sigma2) * random.nextGaussian());
+        return Duration.ofMillis((long) (minutes * 60_000));
+    }
+
+    private void supervisor() {
+        if (config.dashboardInterval().isZero()) {
+            return;
+        }
+        Duration interval = config.toReal(config.dashboardInterval());
+        while (sleep(interval)) {
+            call(DASHBOARD, get("/api/admin/dashboard"));
+        }
+    }
+
+    private void reportProgressUntil(long endOfDay) {
+        Duration step = config.toReal(Duration.ofHours(1));
+        for (long tick = startNanos + step.toNanos(); tick < endOfDay; tick += step.toNanos()) {
+            if (!sleepUntil(tick)) {
+                return;
+            }
+            printProgress();
+        }
+        sleepUntil(endOfDay);
+        printProgress();
+    }
+
+    private void printProgress() {
+        Duration simulated = config.toSimulated(Duration.ofNanos(System.nanoTime() - startNanos));
+        System.out.printf("[%02d:%02d] created %d, completed %d, in branch %d%n",
+            simulated.toHours(), simulated.toMinutesPart(), created.get(), completed.get(),
+            created.get() - completed.get() - dropped.get());
+    }
+
+    private void writeReport(Duration elapsed, int unfinished, OptionalDouble before, OptionalDouble after)
+            throws IOException {
+        Map<String, LatencyRecorder.Summary> byEndpoint = endpoints.summarize();
+        Map<String, LatencyRecorder.Summary> byFlow = assignments.summarize();
+        long requests = endpoints.totalCount();
+        Double statements = before.isPresent() && after.isPresent() ? after.getAsDouble() - before.getAsDouble() : null;
+
+        System.out.printf("%nFinished in %s: created %d, rejected %d, completed %d, dropped %d, unfinished %d%n",
+            elapsed, created.get(), rejected.get(), completed.get(), dropped.get(), unfinished);
+        System.out.printf("%n%-56s %8s %7s %9s %9s %9s %9s%n", "", "count", "errors", "p50", "p90", "p99", "max");
+        byEndpoint.forEach((name, summary) -> printRow(name + " (ms)", summary));
+        byFlow.forEach(this::printRow);
+        if (statements != null) {
+            System.out.printf("%nSQL statements: %.0f, %.2f per request (includes background jobs)%n",
+                statements, statements / Math.max(1, requests));
+        } else {
+            System.out.printf("%nSQL statements: n/a (start the application with HIBERNATE_STATISTICS=true)%n");
+        }
+        firstErrors.forEach((endpoint, error) -> System.err.printf("First error on %s: %s%n", endpoint, error));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("elapsed", elapsed);
+        report.put("tickets", Map.of("created", created.get(), "rejected", rejected.get(),
+            "completed", completed.get(), "dropped", dropped.get(), "unfinished", unfinished));
+        report.put("endpointsMillis", byEndpoint);
+        report.put("assignments", byFlow);
+        report.put("requests", requests);
+        report.put("sqlStatements", statements);
+        report.put("sqlStatementsPerRequest", statements != null ? statements / Math.max(1, requests) : null);
+        report.put("firstErrors", firstErrors);
+        if (config.report().getParent() != null) {
+            Files.createDirectories(config.report().getParent());
+        }
+        json.writeValue(config.report().toFile(), report);
+        System.out.printf("Report written to %s%n", config.report());
+    }
+
+    private void printRow(String name, LatencyRecorder.Summary summary) {
+        System.out.printf("%-56s %8d %7d %9.1f %9.1f %9.1f %9.1f%n", name, summary.count(), summary.errors(),
+            summary.p50(), summary.p90(), summary.p99(), summary.max());
+    }
+
+    // Sentencias preparadas por Hibernate desde que arrancó la instancia, si expone la métrica
+    private OptionalDouble preparedStatements() {
+        try {
+            HttpResponse<String> response = http.send(get("/actuator/metrics/hibernate.statements?tag=status:prepared"),
+                HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return OptionalDouble.empty();
+            }
+            return OptionalDouble.of(json.readTree(response.body()).path("measurements").path(0).path("value").asDouble());
+        } catch (IOException e) {
+            return OptionalDouble.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return OptionalDouble.empty();
+        }
+    }
+
+    /**
+     * Ejecuta la llamada midiendo su latencia bajo el nombre del endpoint; null si falla.
+     */
+    private JsonNode call(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            double millis = (System.nanoTime() - start) / 1e6;
+            if (response.statusCode() / 100 != 2) {
+                endpoints.recordError(endpoint);
+                firstErrors.putIfAbsent(endpoint, response.statusCode() + " " + response.body());
+                return null;
+            }
+            endpoints.record(endpoint, millis);
+            return response.body().isEmpty() ? json.nullNode() : json.readTree(response.body());
+        } catch (IOException e) {
+            endpoints.recordError(endpoint);
+            firstErrors.putIfAbsent(endpoint, e.toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(config.baseUrl() + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json");
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static boolean sleep(Duration duration) {
+        return sleepUntil(System.nanoTime() + duration.toNanos());
+    }
+
+    // false si el hilo fue interrumpido (fin del drenaje)
+    private static boolean sleepUntil(long nanoTime) {
+        try {
+            long remaining = nanoTime - System.nanoTime();
+            if (remaining > 0) {
+                Thread.sleep(Duration.ofNanos(remaining));
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ticketero.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Muestras por nombre (un endpoint, el retraso de asignación...) y sus percentiles.
+ * <p>
+ * Guarda cada muestra: una jornada simulada son decenas de miles, y así los percentiles son exactos.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String name, double value) {
+        samples.computeIfAbsent(name, key -> new Samples()).add(value);
+    }
+
+    public void recordError(String name) {
+        samples.computeIfAbsent(name, key -> new Samples()).error();
+    }
+
+    public long totalCount() {
+        return samples.values().stream().mapToLong(Samples::count).sum();
+    }
+
+    /**
+     * Resumen por nombre, en orden alfabético.
+     */
+    public Map<String, Summary> summarize() {
+        Map<String, Summary> result = new LinkedHashMap<>();
+        new TreeMap<>(samples).forEach((name, values) -> result.put(name, values.summary()));
+        return result;
+    }
+
+    public record Summary(long count, long errors, double p50, double p90, double p99, double max) {}
+
+    private static final class Samples {
+        private double[] values = new double[256];
+        private int size;
+        private long errors;
+
+        synchronized void add(double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        synchronized void error() {
+            errors++;
+        }
+
+        synchronized long count() {
+            return size + errors;
+        }
+
+        synchronized Summary summary() {
+            double[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return new Summary(size, errors, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                percentile(sorted, 0.99), size > 0 ? sorted[size - 1] : Double.NaN);
+        }
+
+        // Nearest-rank: el menor valor que deja al menos la fracción p de las muestras a su izquierda
+        private static double percentile(double[] sorted, double p) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.ticketero.loadtest;
+
+import com.example.ticketero.model.enums.QueueType;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parámetros de BranchDaySimulation, como opciones {@code --clave=valor}.
+ * <p>
+ * Las duraciones (ISO-8601: PT8H, PT30S) y las tasas de llegada están en tiempo simulado; speedup
+ * indica cuántos segundos simulados transcurren por segundo real.
+ */
+public record SimulationConfig(
+    URI baseUrl,
+    String branchOffice,
+    double speedup,
+    Duration duration,
+    Duration drainTimeout,
+    Map<QueueType, Double> arrivalsPerHour,
+    double serviceTimeCv,
+    Duration pollInterval,
+    Duration dashboardInterval,
+    Path report,
+    long seed
+) {
+
+    // Llegadas por hora de una sucursal mediana en hora punta
+    private static final Map<QueueType, Double> DEFAULT_ARRIVALS = Map.of(
+        QueueType.CAJA, 60.0,
+        QueueType.PERSONAL_BANKER, 20.0,
+        QueueType.EMPRESAS, 10.0,
+        QueueType.GERENCIA, 4.0
+    );
+
+    static final String USAGE = """
+        Opciones (tiempos en ISO-8601, simulados salvo drain-timeout):
+          --base-url=http://localhost:8082      URL base de la aplicación
+          --branch=Sucursal Simulación          sucursal de los tickets creados
+          --speedup=60                          segundos simulados por segundo real
+          --duration=PT8H                       largo de la jornada simulada
+          --drain-timeout=PT5M                  espera real máxima para los tickets pendientes al cierre
+          --rate.CAJA=60                        llegadas por hora de la cola (una opción por QueueType, 0 la apaga)
+          --service-cv=0.5                      coeficiente de variación del tiempo de atención
+          --poll-interval=PT30S                 cada cuánto consulta su posición un cliente
+          --dashboard-interval=PT1M             cada cuánto refresca el supervisor el dashboard (PT0S lo apaga)
+          --report=target/load-simulation.json  reporte JSON
+          --seed=<n>                            semilla para repetir la misma jornada
+        """;
+
+    public SimulationConfig {
+        if (speedup <= 0) {
+            throw new IllegalArgumentException("speedup must be positive: " + speedup);
+        }
+        if (serviceTimeCv < 0) {
+            throw new IllegalArgumentException("service-cv must not be negative: " + serviceTimeCv);
+        }
+        if (pollInterval.isZero() || pollInterval.isNegative()) {
+            throw new IllegalArgumentException("poll-interval must be positive: " + pollInterval);
+        }
+        arrivalsPerHour = Collections.unmodifiableMap(new EnumMap<>(arrivalsPerHour));
+    }
+
+    public static SimulationConfig parse(String... args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unrecognized argument: " + arg + "\n" + USAGE);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        Map<QueueType, Double> arrivals = new EnumMap<>(DEFAULT_ARRIVALS);
+        for (QueueType queueType : QueueType.values()) {
+            String rate = options.remove("rate." + queueType.name());
+            if (rate != null) {
+                arrivals.put(queueType, Double.parseDouble(rate));
+            }
+        }
+
+        SimulationConfig config = new SimulationConfig(
+            URI.create(stripTrailingSlash(options.remove("base-url"), "http://localhost:8082")),
+            options.getOrDefault("branch", "Sucursal Simulación"),
+            Double.parseDouble(options.getOrDefault("speedup", "60")),
+            Duration.parse(options.getOrDefault("duration", "PT8H")),
+            Duration.parse(options.getOrDefault("drain-timeout", "PT5M")),
+            arrivals,
+            Double.parseDouble(options.getOrDefault("service-cv", "0.5")),
+            Duration.parse(options.getOrDefault("poll-interval", "PT30S")),
+            Duration.parse(options.getOrDefault("dashboard-interval", "PT1M")),
+            Path.of(options.getOrDefault("report", "target/load-simulation.json")),
+            options.containsKey("seed") ? Long.parseLong(options.get("seed")) : System.nanoTime()
+        );
+
+        options.keySet().removeAll(Set.of("branch", "speedup", "duration", "drain-timeout",
+            "service-cv", "poll-interval", "dashboard-interval", "report", "seed"));
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + options.keySet() + "\n" + USAGE);
+        }
+        return config;
+    }
+
+    /**
+     * Duración real equivalente a una duración simulada.
+     */
+    public Duration toReal(Duration simulated) {
+        return Duration.ofNanos((long) (simulated.toNanos() / speedup));
+    }
+
+    /**
+     * Duración simulada equivalente a una duración real.
+     */
+    public Duration toSimulated(Duration real) {
+        return Duration.ofNanos((long) (real.toNanos() * speedup));
+    }
+
+    private static String stripTrailingSlash(String url, String defaultUrl) {
+        String value = url != null ? url : defaultUrl;
+        return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.ticketero;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
@@ -9,6 +10,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
  * Sistema de gestión de tickets con notificaciones en tiempo real
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EnableScheduling
 public class TicketeroApplication {
 
@@ -0,0 +1,18 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Configuración del archivo frío de particiones vencidas.
+ *
+ * @param directory  directorio local de los segmentos (un .ndjson.gz por tabla y día)
+ * @param chunkSize  filas leídas por consulta al volcar una partición
+ */
+@ConfigurationProperties(prefix = "ticketero.archive")
+public record ArchiveProperties(
+    @DefaultValue("archive") Path directory,
+    @DefaultValue("5000") int chunkSize
+) {}
@@ -0,0 +1,26 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Configuración de la escritura de auditoría.
+ *
+ * @param async            false: todos los eventos se guardan en la transacción que los genera
+ * @param syncEventTypes   eventos que siempre se guardan en la transacción que los genera (cumplimiento);
+ *                         por defecto ninguno
+ * @param bufferSize       eventos en el buffer del escritor; lleno, el resto espera como excedente
+ * @param batchSize        eventos por INSERT multi-fila
+ * @param retryDelay       espera antes de reintentar un lote que falló
+ */
+@ConfigurationProperties(prefix = "ticketero.audit")
+public record AuditProperties(
+    @DefaultValue("true") boolean async,
+    @DefaultValue Set<String> syncEventTypes,
+    @DefaultValue("10000") int bufferSize,
+    @DefaultValue("500") int batchSize,
+    @DefaultValue("1s") Duration retryDelay
+) {}
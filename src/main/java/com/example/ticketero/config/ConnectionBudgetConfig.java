@@ -0,0 +1,135 @@
+package com.example.ticketero.config;
+
+import com.example.ticketero.model.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reparto del pool de Hikari entre tareas de fondo y requests HTTP.
+ * <p>
+ * Con hilos virtuales Tomcat ya no limita los requests simultáneos, y cada uno puede tomar una
+ * conexión: sin tope, una ráfaga de requests deja a los schedulers esperando conexión. Al arrancar
+ * se reservan una conexión por hilo de scheduler de subsistema y por hilo de fondo propio, y el resto
+ * queda para requests de /api, que esperan un permiso antes de entrar o reciben 503.
+ */
+@Configuration
+@Slf4j
+public class ConnectionBudgetConfig {
+
+    // Hilos propios que van a la BD: assignment-dispatcher, audit-writer, dashboard-stream y sse-sender
+    static final int DEDICATED_WORKERS = 4;
+
+    @Bean
+    public FilterRegistrationBean<RequestPermitFilter> requestPermitFilter(DataSource dataSource,
+                                                                           ExecutionProperties properties,
+                                                                           ObjectMapper objectMapper,
+                                                                           MeterRegistry meterRegistry) {
+        int requestConnections = requestConnections(poolSize(dataSource), properties);
+        FilterRegistrationBean<RequestPermitFilter> registration = new FilterRegistrationBean<>(new RequestPermitFilter(
+            requestConnections, properties.requestPermitTimeout(), objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    /**
+     * Conexiones que quedan para requests; falla si son menos que el mínimo configurado.
+     */
+    static int requestConnections(int poolSize, ExecutionProperties properties) {
+        int background = properties.schedulerThreads() + DEDICATED_WORKERS;
+        int requests = poolSize - background;
+        if (requests < properties.minRequestConnections()) {
+            throw new IllegalStateException(String.format(
+                "Connection pool of %d leaves %d connections for requests after %d background threads, "
+                    + "at least %d required: raise spring.datasource.hikari.maximum-pool-size "
+                    + "or lower the ticketero.execution thread counts",
+                poolSize, requests, background, properties.minRequestConnections()));
+        }
+        log.info("Connection pool of {}: {} reserved for background threads, {} for requests",
+            poolSize, background, requests);
+        return requests;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Connection budget requires a Hikari data source", e);
+        }
+    }
+
+    /**
+     * Deja pasar a lo más tantos requests como conexiones les tocan: un request no toma más de una
+     * conexión a la vez (TicketService.create reserva el número antes de abrir su transacción).
+     * Solo cuenta el despacho inicial: un stream SSE libera su permiso cuando el hilo del request retorna.
+     */
+    static final class RequestPermitFilter extends OncePerRequestFilter {
+
+        private final Semaphore permits;
+        private final long timeoutNanos;
+        private final ObjectMapper objectMapper;
+        private final Counter rejected;
+
+        RequestPermitFilter(int permits, Duration timeout, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+            this.permits = new Semaphore(permits);
+            this.timeoutNanos = timeout.toNanos();
+            this.objectMapper = objectMapper;
+            this.rejected = Counter.builder("ticketero.http.requests.rejected")
+                .description("Requests rejected with 503 because no database connection was free in time")
+                .register(meterRegistry);
+            Gauge.builder("ticketero.http.request.permits.available", this.permits, Semaphore::availablePermits)
+                .description("Request permits not in use, out of the connections left for requests")
+                .register(meterRegistry);
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                reject(response);
+                return;
+            }
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void reject(HttpServletResponse response) throws IOException {
+            rejected.increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("Server busy, retry later", HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del panel de supervisión: cache de snapshots y stream en vivo.
+ *
+ * @param maxStaleness         antigüedad máxima de un snapshot servido desde cache cuando no hubo cambios
+ * @param maxUpdatesPerSecond  deltas por segundo como máximo hacia las pantallas de supervisión
+ */
+@ConfigurationProperties(prefix = "ticketero.dashboard")
+public record DashboardProperties(
+    @DefaultValue("1s") Duration maxStaleness,
+    @DefaultValue("2") int maxUpdatesPerSecond
+) {}
@@ -0,0 +1,16 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración de la estimación de espera por ticket.
+ *
+ * @param enabled    false: la espera es posición × promedio fijo de la cola
+ * @param smoothing  peso de cada atención terminada en los promedios móviles (0-1); más alto reacciona antes
+ */
+@ConfigurationProperties(prefix = "ticketero.eta")
+public record EstimationProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("0.2") double smoothing
+) {}
@@ -0,0 +1,36 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Hilos de los schedulers por subsistema y reparto de conexiones del pool entre tareas de fondo y
+ * requests HTTP.
+ *
+ * @param assignmentThreads       hilos del barrido de asignación
+ * @param messagingThreads        hilos del envío de mensajes, reintentos y relay del outbox
+ * @param maintenanceThreads      hilos de la mantención de colas (cabezas, críticos, limpieza diaria)
+ * @param metricsThreads          hilos de métricas y reconciliación de contadores
+ * @param minRequestConnections   conexiones que deben quedar para requests; con menos, la app no arranca
+ * @param requestPermitTimeout    espera máxima de un request por una conexión libre antes de responder 503
+ */
+@ConfigurationProperties(prefix = "ticketero.execution")
+public record ExecutionProperties(
+    @DefaultValue("1") int assignmentThreads,
+    @DefaultValue("3") int messagingThreads,
+    @DefaultValue("2") int maintenanceThreads,
+    @DefaultValue("1") int metricsThreads,
+    @DefaultValue("2") int minRequestConnections,
+    @DefaultValue("5s") Duration requestPermitTimeout
+) {
+
+    /**
+     * Hilos de schedulers de subsistema que pueden tener una conexión tomada al mismo tiempo. El
+     * scheduler por defecto (spring.task.scheduling) no cuenta: los heartbeats no van a la BD.
+     */
+    public int schedulerThreads() {
+        return assignmentThreads + messagingThreads + maintenanceThreads + metricsThreads;
+    }
+}
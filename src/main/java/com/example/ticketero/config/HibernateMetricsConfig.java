@@ -0,0 +1,38 @@
+package com.example.ticketero.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sentencias SQL preparadas y cerradas por Hibernate en /actuator/metrics/hibernate.statements,
+ * con los mismos nombres que hibernate-micrometer (sin publicar para la versión de Hibernate de
+ * Spring Boot). Solo con hibernate.generate_statistics, que tiene costo por sentencia.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+public class HibernateMetricsConfig {
+
+    @Bean
+    public MeterBinder hibernateStatementMetrics(EntityManagerFactory entityManagerFactory) {
+        return statementMetrics(entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+    }
+
+    static MeterBinder statementMetrics(Statistics statistics) {
+        return registry -> {
+            FunctionCounter.builder("hibernate.statements", statistics, Statistics::getPrepareStatementCount)
+                .tag("status", "prepared")
+                .description("Statements prepared by Hibernate")
+                .register(registry);
+            FunctionCounter.builder("hibernate.statements", statistics, Statistics::getCloseStatementCount)
+                .tag("status", "closed")
+                .description("Statements closed by Hibernate")
+                .register(registry);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del despacho de mensajes Telegram.
+ *
+ * @param batchSize              mensajes que se reclaman de la BD por viaje
+ * @param maxConcurrentSends     envíos simultáneos como máximo hacia Telegram
+ * @param lease                  tiempo que un mensaje reclamado queda reservado para este nodo
+ * @param perRecipientInterval   separación mínima entre dos mensajes al mismo destinatario
+ */
+@ConfigurationProperties(prefix = "ticketero.messaging")
+public record MessagingProperties(
+    @DefaultValue("100") int batchSize,
+    @DefaultValue("16") int maxConcurrentSends,
+    @DefaultValue("60s") Duration lease,
+    @DefaultValue("1s") Duration perRecipientInterval
+) {}
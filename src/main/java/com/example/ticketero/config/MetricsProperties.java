@@ -0,0 +1,19 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Set;
+
+/**
+ * Configuración de las métricas de negocio.
+ *
+ * @param statementsPerRequest   registrar las sentencias SQL por request HTTP
+ * @param branches               sucursales que se etiquetan por nombre en los tiempos de ticket; el
+ *                               resto va como "other" (branchOffice es texto libre del request)
+ */
+@ConfigurationProperties(prefix = "ticketero.metrics")
+public record MetricsProperties(
+    @DefaultValue("true") boolean statementsPerRequest,
+    @DefaultValue Set<String> branches
+) {}
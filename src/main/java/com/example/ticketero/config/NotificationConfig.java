@@ -0,0 +1,32 @@
+package com.example.ticketero.config;
+
+import com.example.ticketero.notification.NotificationGateway;
+import com.example.ticketero.notification.StubNotificationGateway;
+import com.example.ticketero.notification.TelegramNotificationGateway;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+@Configuration
+@Slf4j
+public class NotificationConfig {
+
+    @Bean
+    public NotificationGateway notificationGateway(TelegramProperties telegramProperties, ObjectMapper objectMapper,
+                                                   Environment environment) {
+        if (telegramProperties.enabled()) {
+            return new TelegramNotificationGateway(telegramProperties, objectMapper);
+        }
+        // El stub solo se pide a propósito: un token que falta en producción no debe silenciar los avisos
+        if (!telegramProperties.stub() && !environment.acceptsProfiles(Profiles.of("dev", "test"))) {
+            throw new IllegalStateException(
+                "telegram.bot-token is not set: set TELEGRAM_BOT_TOKEN, or telegram.stub=true to keep "
+                    + "notifications in the in-process stub");
+        }
+        log.warn("telegram.bot-token is not set, notifications will be handled by the in-process stub");
+        return new StubNotificationGateway();
+    }
+}
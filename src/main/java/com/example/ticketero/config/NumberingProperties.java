@@ -0,0 +1,14 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración de la numeración de tickets.
+ *
+ * @param blockSize cantidad de números que se reservan en la base de datos por cada viaje
+ */
+@ConfigurationProperties(prefix = "ticketero.numbering")
+public record NumberingProperties(
+    @DefaultValue("10") int blockSize
+) {}
@@ -0,0 +1,18 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración del outbox y de sus consumidores.
+ *
+ * @param relayEnabled    false: este nodo escribe eventos pero no los consume
+ * @param batchSize       eventos que un consumidor procesa por transacción
+ * @param retentionDays   días que se conservan los eventos ya consumidos (permite reprocesarlos)
+ */
+@ConfigurationProperties(prefix = "ticketero.outbox")
+public record OutboxProperties(
+    @DefaultValue("true") boolean relayEnabled,
+    @DefaultValue("500") int batchSize,
+    @DefaultValue("7") int retentionDays
+) {}
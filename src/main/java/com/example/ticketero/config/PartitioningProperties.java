@@ -0,0 +1,18 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración de las particiones diarias de ticket, mensaje y audit_log.
+ *
+ * @param enabled        mantener las particiones al arrancar y en la limpieza diaria
+ * @param precreateDays  días futuros con partición creada por adelantado
+ * @param retentionDays  días que se mantienen en las tablas vivas antes de pasar al schema archive
+ */
+@ConfigurationProperties(prefix = "ticketero.partitioning")
+public record PartitioningProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("7") int precreateDays,
+    @DefaultValue("7") int retentionDays
+) {}
@@ -0,0 +1,99 @@
+package com.example.ticketero.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Sentencias SQL que prepara Hibernate durante cada request HTTP, en
+ * ticketero.http.db.statements con las mismas etiquetas method/uri que http.server.requests.
+ * <p>
+ * Cuenta en el hilo del request: lo que se escribe después en otros hilos (relay del outbox,
+ * auditoría, mensajería) no se atribuye al request que lo originó.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ticketero.metrics.statements-per-request", havingValue = "true", matchIfMissing = true)
+public class RequestStatementMetricsConfig {
+
+    private final StatementCounter statementCounter = new StatementCounter();
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public StatementsPerRequestFilter statementsPerRequestFilter(MeterRegistry meterRegistry) {
+        return new StatementsPerRequestFilter(statementCounter, meterRegistry);
+    }
+
+    /**
+     * Cuenta las sentencias preparadas en el hilo actual entre begin() y end(); fuera de un request
+     * solo deja pasar el SQL.
+     */
+    static final class StatementCounter implements StatementInspector {
+
+        private final ThreadLocal<int[]> current = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            int[] count = current.get();
+            if (count != null) {
+                count[0]++;
+            }
+            return sql;
+        }
+
+        void begin() {
+            current.set(new int[1]);
+        }
+
+        int end() {
+            int[] count = current.get();
+            current.remove();
+            return count != null ? count[0] : 0;
+        }
+    }
+
+    static final class StatementsPerRequestFilter extends OncePerRequestFilter {
+
+        private final StatementCounter statementCounter;
+        private final MeterRegistry meterRegistry;
+
+        StatementsPerRequestFilter(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+            this.statementCounter = statementCounter;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            statementCounter.begin();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                int statements = statementCounter.end();
+                // Patrón de la ruta (/api/tickets/{codigoReferencia}) para no abrir una serie por ticket
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder("ticketero.http.db.statements")
+                    .description("SQL statements prepared while serving the request")
+                    .tags("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(statements);
+            }
+        }
+    }
+}
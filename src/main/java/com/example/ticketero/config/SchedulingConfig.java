@@ -1,12 +1,82 @@
 package com.example.ticketero.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+/**
+ * Un scheduler por subsistema, para que una tarea lenta (reintentos de mensajes, limpieza diaria)
+ * no atrase las de otro. Los @Scheduled eligen el suyo con {@code scheduler = SchedulingConfig.X};
+ * los que no indican ninguno (heartbeats SSE) usan taskScheduler, configurado con
+ * spring.task.scheduling.
+ * <p>
+ * Los schedulers usan hilos de plataforma: son pocos y de larga vida. Los requests de Tomcat y las
+ * tareas @Async usan hilos virtuales con spring.threads.virtual.enabled.
+ */
 @Configuration
 @EnableScheduling
 @EnableAsync
 public class SchedulingConfig {
-    // Configuración automática de Spring Boot para schedulers
-}
\ No newline at end of file
+
+    public static final String ASSIGNMENT = "assignmentTaskScheduler";
+    public static final String MESSAGING = "messagingTaskScheduler";
+    public static final String MAINTENANCE = "maintenanceTaskScheduler";
+    public static final String METRICS = "metricsTaskScheduler";
+
+    @Bean(name = ASSIGNMENT)
+    public ThreadPoolTaskScheduler assignmentTaskScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                           ExecutionProperties properties) {
+        return scheduler(builder, "assignment-", properties.assignmentThreads());
+    }
+
+    @Bean(name = MESSAGING)
+    public ThreadPoolTaskScheduler messagingTaskScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                          ExecutionProperties properties) {
+        return scheduler(builder, "messaging-", properties.messagingThreads());
+    }
+
+    @Bean(name = MAINTENANCE)
+    public ThreadPoolTaskScheduler maintenanceTaskScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                            ExecutionProperties properties) {
+        return scheduler(builder, "maintenance-", properties.maintenanceThreads());
+    }
+
+    @Bean(name = METRICS)
+    public ThreadPoolTaskScheduler metricsTaskScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                        ExecutionProperties properties) {
+        return scheduler(builder, "metrics-", properties.metricsThreads());
+    }
+
+    // Boot no crea el suyo si ya hay otros TaskScheduler
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    // Los schedulers también son Executor, así que Boot tampoco crea el ejecutor de @Async y MVC
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(ThreadPoolTaskSchedulerBuilder builder, String prefix,
+                                                     int threads) {
+        return builder.poolSize(Math.max(1, threads)).threadNamePrefix(prefix).build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de los streams SSE de tickets y pantallas de sucursal.
+ *
+ * @param timeout  vida máxima de una conexión; el EventSource del navegador reconecta solo al vencer
+ */
+@ConfigurationProperties(prefix = "ticketero.stream")
+public record StreamProperties(
+    @DefaultValue("30m") Duration timeout
+) {}
@@ -0,0 +1,36 @@
+package com.example.ticketero.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del cliente de la Bot API de Telegram.
+ *
+ * @param botToken             token del bot; vacío solo se admite con el stub (ver {@code stub})
+ * @param apiUrl               URL base de la API, sin el token
+ * @param chatId               chat fijo al que se envían todos los mensajes (ambientes de prueba)
+ * @param connectTimeout       tiempo máximo para abrir la conexión
+ * @param requestTimeout       tiempo máximo de espera por cada respuesta
+ * @param maxRateLimitRetries  reintentos ante un 429 respetando {@code retry_after}
+ * @param stub                 usar el stub en memoria en vez de Telegram; sin token y fuera de los
+ *                             perfiles dev y test, la aplicación no arranca si no está activo
+ * @param webhookSecret        secret_token configurado en setWebhook; sin él el webhook rechaza todo
+ */
+@ConfigurationProperties(prefix = "telegram")
+public record TelegramProperties(
+    String botToken,
+    @DefaultValue("https://api.telegram.org/bot") String apiUrl,
+    String chatId,
+    @DefaultValue("5s") Duration connectTimeout,
+    @DefaultValue("10s") Duration requestTimeout,
+    @DefaultValue("3") int maxRateLimitRetries,
+    @DefaultValue("false") boolean stub,
+    String webhookSecret
+) {
+
+    public boolean enabled() {
+        return botToken != null && !botToken.isBlank();
+    }
+}
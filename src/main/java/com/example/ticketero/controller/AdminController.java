@@ -4,16 +4,24 @@ import com.example.ticketero.model.dto.request.AdvisorStatusRequest;
 import com.example.ticketero.model.dto.response.*;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.service.AdvisorService;
+import com.example.ticketero.service.AssignmentService;
 import com.example.ticketero.service.AuditService;
-import com.example.ticketero.service.DashboardService;
+import com.example.ticketero.service.DashboardSnapshotCache;
+import com.example.ticketero.service.DashboardStream;
 import com.example.ticketero.service.QueueService;
+import com.example.ticketero.service.SnapshotCache.Snapshot;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -21,27 +29,31 @@ import java.util.List;
 @Slf4j
 public class AdminController {
 
-    private final DashboardService dashboardService;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final DashboardStream dashboardStream;
     private final QueueService queueService;
     private final AdvisorService advisorService;
     private final AuditService auditService;
+    private final AssignmentService assignmentService;
 
     @GetMapping("/dashboard")
     public ResponseEntity<DashboardResponse> getDashboard() {
-        DashboardResponse response = dashboardService.getDashboard();
-        return ResponseEntity.ok(response);
+        return conditional(dashboardSnapshotCache.dashboard());
+    }
+
+    @GetMapping(value = "/dashboard/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard() {
+        return dashboardStream.subscribe();
     }
 
     @GetMapping("/summary")
     public ResponseEntity<PerformanceSummaryResponse> getPerformanceSummary() {
-        PerformanceSummaryResponse response = dashboardService.getPerformanceSummary();
-        return ResponseEntity.ok(response);
+        return conditional(dashboardSnapshotCache.performanceSummary());
     }
 
     @GetMapping("/queues")
     public ResponseEntity<List<QueueSummaryResponse>> getAllQueues() {
-        List<QueueSummaryResponse> response = queueService.getAllQueuesSummary();
-        return ResponseEntity.ok(response);
+        return conditional(dashboardSnapshotCache.queues());
     }
 
     @GetMapping("/queues/{type}")
@@ -78,15 +90,34 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/tickets/{codigoReferencia}/complete")
+    public ResponseEntity<Void> completeTicket(@PathVariable UUID codigoReferencia) {
+        log.info("Completing ticket {}", codigoReferencia);
+        assignmentService.completeTicket(codigoReferencia);
+        return ResponseEntity.noContent().build();
+    }
+
+    // day acota el trail a un día y habilita la búsqueda en el archivo frío; branchOffice separa
+    // tickets con el mismo número
     @GetMapping("/audit/ticket/{ticketId}")
-    public ResponseEntity<AuditEventResponse> getTicketAudit(@PathVariable String ticketId) {
-        AuditEventResponse response = auditService.getAuditTrail("TICKET", ticketId);
+    public ResponseEntity<AuditEventResponse> getTicketAudit(
+            @PathVariable String ticketId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day,
+            @RequestParam(required = false) String branchOffice) {
+        AuditEventResponse response = auditService.getAuditTrail("TICKET", ticketId, day, branchOffice);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/audit/advisor/{advisorId}")
-    public ResponseEntity<AuditEventResponse> getAdvisorAudit(@PathVariable String advisorId) {
-        AuditEventResponse response = auditService.getAuditTrail("ADVISOR", advisorId);
+    public ResponseEntity<AuditEventResponse> getAdvisorAudit(
+            @PathVariable String advisorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        AuditEventResponse response = auditService.getAuditTrail("ADVISOR", advisorId, day, null);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    // Con ETag en la respuesta, Spring compara If-None-Match y responde 304 sin serializar el cuerpo
+    private static <T> ResponseEntity<T> conditional(Snapshot<T> snapshot) {
+        return ResponseEntity.ok().eTag(snapshot.etag()).body(snapshot.value());
+    }
+}
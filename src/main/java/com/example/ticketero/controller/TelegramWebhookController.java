@@ -0,0 +1,53 @@
+package com.example.ticketero.controller;
+
+import com.example.ticketero.config.TelegramProperties;
+import com.example.ticketero.service.TelegramChatService;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Webhook de la Bot API (setWebhook con secret_token). Solo atiende /start para vincular el chat del
+ * cliente; cualquier otro update se acepta y se ignora, para que Telegram no lo reintente.
+ */
+@RestController
+@RequestMapping("/api/telegram")
+@RequiredArgsConstructor
+@Slf4j
+public class TelegramWebhookController {
+
+    static final String SECRET_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+    private final TelegramProperties telegramProperties;
+    private final TelegramChatService telegramChatService;
+
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> onUpdate(@RequestHeader(value = SECRET_HEADER, required = false) String secret,
+                                         @RequestBody JsonNode update) {
+        if (!validSecret(secret)) {
+            log.warn("Telegram webhook call rejected: missing or wrong secret token");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        JsonNode message = update.path("message");
+        JsonNode chatId = message.path("chat").path("id");
+        if (chatId.isValueNode() && message.path("text").isTextual()) {
+            telegramChatService.linkFromStart(chatId.asText(), message.path("text").asText());
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    private boolean validSecret(String secret) {
+        String expected = telegramProperties.webhookSecret();
+        if (expected == null || expected.isBlank() || secret == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -5,11 +5,14 @@ import com.example.ticketero.model.dto.response.TicketByRutResponse;
 import com.example.ticketero.model.dto.response.TicketPositionResponse;
 import com.example.ticketero.model.dto.response.TicketResponse;
 import com.example.ticketero.service.TicketService;
+import com.example.ticketero.service.TicketUpdateStream;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -20,6 +23,7 @@ import java.util.UUID;
 public class TicketController {
 
     private final TicketService ticketService;
+    private final TicketUpdateStream ticketUpdateStream;
 
     @PostMapping
     public ResponseEntity<TicketResponse> create(@Valid @RequestBody TicketRequest request) {
@@ -35,12 +39,24 @@ public class TicketController {
             .orElse(ResponseEntity.notFound().build());
     }
 
+    // El número se reinicia cada día y por sucursal: se busca el de hoy en la sucursal indicada
     @GetMapping("/{numero}/position")
-    public ResponseEntity<TicketPositionResponse> getPosition(@PathVariable String numero) {
-        TicketPositionResponse response = ticketService.getPosition(numero);
+    public ResponseEntity<TicketPositionResponse> getPosition(@PathVariable String numero,
+                                                              @RequestParam String branchOffice) {
+        TicketPositionResponse response = ticketService.getPosition(branchOffice, numero);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/{numero}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPosition(@PathVariable String numero, @RequestParam String branchOffice) {
+        return ticketUpdateStream.subscribe(branchOffice, numero);
+    }
+
+    @GetMapping(value = "/branches/{branchOffice}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBranchDisplay(@PathVariable String branchOffice) {
+        return ticketUpdateStream.subscribeDisplay(branchOffice);
+    }
+
     @GetMapping("/by-rut/{nationalId}")
     public ResponseEntity<TicketByRutResponse> getByRut(@PathVariable String nationalId) {
         TicketByRutResponse response = ticketService.findByRut(nationalId);
@@ -0,0 +1,31 @@
+package com.example.ticketero.event;
+
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transición de estado de un asesor (AVAILABLE, BUSY, OFFLINE), con las colas que atiende.
+ */
+public record AdvisorStatusChangedEvent(
+    Long advisorId,
+    String name,
+    List<QueueType> queueTypes,
+    AdvisorStatus previousStatus,
+    AdvisorStatus newStatus,
+    LocalDateTime occurredAt
+) {
+    public static AdvisorStatusChangedEvent of(Advisor advisor, AdvisorStatus previousStatus) {
+        return new AdvisorStatusChangedEvent(
+            advisor.getId(),
+            advisor.getName(),
+            advisor.getQueueTypes() != null ? List.copyOf(advisor.getQueueTypes()) : List.of(),
+            previousStatus,
+            advisor.getStatus(),
+            LocalDateTime.now()
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.ticketero.event;
+
+import com.example.ticketero.model.enums.QueueType;
+
+import java.util.Set;
+
+/**
+ * queue_daily_stats cambió para esas colas. Lo publica QueueStatsRecorder en la transacción del
+ * lote del outbox, después del cambio de ticket que lo originó.
+ */
+public record QueueStatsUpdatedEvent(Set<QueueType> queueTypes) {
+}
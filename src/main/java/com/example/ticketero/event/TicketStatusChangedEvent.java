@@ -0,0 +1,43 @@
+package com.example.ticketero.event;
+
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transición de estado de un ticket. previousStatus es null cuando el ticket recién se crea.
+ * Lleva el asesor, el módulo y la hora de asignación para que los suscriptores no tengan que releer el ticket.
+ */
+public record TicketStatusChangedEvent(
+    Long ticketId,
+    String numero,
+    String branchOffice,
+    QueueType queueType,
+    TicketStatus previousStatus,
+    TicketStatus newStatus,
+    LocalDateTime createdAt,
+    Long assignedAdvisorId,
+    String assignedAdvisor,
+    Integer assignedModuleNumber,
+    LocalDateTime assignedAt,
+    LocalDateTime occurredAt
+) {
+    public static TicketStatusChangedEvent of(Ticket ticket, TicketStatus previousStatus) {
+        return new TicketStatusChangedEvent(
+            ticket.getId(),
+            ticket.getNumero(),
+            ticket.getBranchOffice(),
+            ticket.getQueueType(),
+            previousStatus,
+            ticket.getStatus(),
+            ticket.getCreatedAt(),
+            ticket.getAssignedAdvisor() != null ? ticket.getAssignedAdvisor().getId() : null,
+            ticket.getAssignedAdvisor() != null ? ticket.getAssignedAdvisor().getName() : null,
+            ticket.getAssignedModuleNumber(),
+            ticket.getAssignedAt(),
+            LocalDateTime.now()
+        );
+    }
+}
@@ -4,8 +4,10 @@ import com.example.ticketero.model.dto.response.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.List;
 
@@ -43,6 +45,14 @@ public class GlobalExceptionHandler {
             .body(new ErrorResponse(ex.getMessage(), 409));
     }
 
+    @ExceptionHandler(TicketNotServingException.class)
+    public ResponseEntity<ErrorResponse> handleTicketNotServing(TicketNotServingException ex) {
+        log.error("Ticket not being served: {}", ex.getMessage());
+        return ResponseEntity
+            .status(409)
+            .body(new ErrorResponse(ex.getMessage(), 409));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleBadRequest(IllegalArgumentException ex) {
         log.error("Bad request: {}", ex.getMessage());
@@ -51,6 +61,22 @@ public class GlobalExceptionHandler {
             .body(new ErrorResponse(ex.getMessage(), 400));
     }
 
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponse> handleMissingParameter(MissingServletRequestParameterException ex) {
+        log.error("Missing parameter: {}", ex.getParameterName());
+        return ResponseEntity
+            .badRequest()
+            .body(new ErrorResponse(ex.getMessage(), 400));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        log.error("Invalid parameter {}: {}", ex.getName(), ex.getValue());
+        return ResponseEntity
+            .badRequest()
+            .body(new ErrorResponse("Invalid value for parameter " + ex.getName(), 400));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneral(Exception ex) {
         log.error("Unexpected error", ex);
@@ -1,5 +1,7 @@
 package com.example.ticketero.exception;
 
+import java.util.UUID;
+
 public class TicketNotFoundException extends RuntimeException {
     public TicketNotFoundException(String numero) {
         super("No existe ticket con número: " + numero);
@@ -8,4 +10,8 @@ public class TicketNotFoundException extends RuntimeException {
     public TicketNotFoundException(Long id) {
         super("No existe ticket con ID: " + id);
     }
+
+    public TicketNotFoundException(UUID codigoReferencia) {
+        super("No existe ticket con código de referencia: " + codigoReferencia);
+    }
 }
\ No newline at end of file
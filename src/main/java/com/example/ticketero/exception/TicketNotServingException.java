@@ -0,0 +1,7 @@
+package com.example.ticketero.exception;
+
+public class TicketNotServingException extends RuntimeException {
+    public TicketNotServingException(String numero) {
+        super("El ticket " + numero + " no está en atención");
+    }
+}
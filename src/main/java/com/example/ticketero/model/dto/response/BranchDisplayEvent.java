@@ -0,0 +1,23 @@
+package com.example.ticketero.model.dto.response;
+
+import com.example.ticketero.model.enums.QueueType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Actualización para la pantalla de una sucursal. lastCall es null cuando solo cambiaron las colas.
+ */
+public record BranchDisplayEvent(
+    String branchOffice,
+    TicketCall lastCall,
+    Map<QueueType, Integer> waitingByQueue,
+    LocalDateTime lastUpdated
+) {
+    public record TicketCall(
+        String numero,
+        QueueType queueType,
+        String assignedAdvisor,
+        Integer assignedModuleNumber
+    ) {}
+}
@@ -0,0 +1,29 @@
+package com.example.ticketero.model.dto.response;
+
+import com.example.ticketero.model.enums.QueueType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cambios del dashboard respecto del último enviado. Solo incluye los campos que cambiaron:
+ * summary y cada cola traen los contadores nuevos por nombre de campo. Una alerta se identifica
+ * por type y recommendedAction (que nombra la cola); alertsRaised trae las nuevas o con datos
+ * distintos y alertsCleared las que dejaron de estar.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record DashboardDelta(
+    LocalDateTime timestamp,
+    Map<String, Object> summary,
+    Map<QueueType, Map<String, Object>> queues,
+    List<DashboardResponse.AlertResponse> alertsRaised,
+    List<DashboardResponse.AlertResponse> alertsCleared
+) {
+    @JsonIgnore
+    public boolean isEmpty() {
+        return summary.isEmpty() && queues.isEmpty() && alertsRaised.isEmpty() && alertsCleared.isEmpty();
+    }
+}
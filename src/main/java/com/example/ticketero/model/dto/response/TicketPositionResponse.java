@@ -4,6 +4,7 @@ import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 public record TicketPositionResponse(
     String numero,
@@ -15,4 +16,60 @@ public record TicketPositionResponse(
     Integer assignedModuleNumber,
     String message,
     LocalDateTime lastUpdated
-) {}
\ No newline at end of file
+) {
+    /**
+     * Respuesta con la espera fija de la cola: posición × promedio de QueueType.
+     */
+    public static TicketPositionResponse of(String numero,
+                                            TicketStatus status,
+                                            int positionInQueue,
+                                            QueueType queueType,
+                                            String assignedAdvisor,
+                                            Integer assignedModuleNumber) {
+        return of(numero, status, positionInQueue, positionInQueue * queueType.getAverageTimeMinutes(),
+            queueType, assignedAdvisor, assignedModuleNumber);
+    }
+
+    /**
+     * Respuesta con una espera ya estimada (WaitTimeEstimator).
+     */
+    public static TicketPositionResponse of(String numero,
+                                            TicketStatus status,
+                                            int positionInQueue,
+                                            int estimatedWaitMinutes,
+                                            QueueType queueType,
+                                            String assignedAdvisor,
+                                            Integer assignedModuleNumber) {
+        String message = switch (status) {
+            case EN_ESPERA -> "Tu ticket está en espera. Posición: " + positionInQueue;
+            case PROXIMO -> "¡Pronto será tu turno! Por favor acércate a la sucursal.";
+            case ATENDIENDO -> "Dirígete al módulo " + assignedModuleNumber + " - Asesor: " + assignedAdvisor;
+            case COMPLETADO -> "Tu atención ha sido completada. Gracias por tu visita.";
+            default -> "Estado: " + status.getDescription();
+        };
+
+        return new TicketPositionResponse(
+            numero,
+            status,
+            positionInQueue,
+            estimatedWaitMinutes,
+            queueType,
+            assignedAdvisor,
+            assignedModuleNumber,
+            message,
+            LocalDateTime.now()
+        );
+    }
+
+    /**
+     * true si ambas respuestas informan lo mismo al cliente, sin considerar lastUpdated.
+     */
+    public boolean sameContentAs(TicketPositionResponse other) {
+        return other != null
+            && Objects.equals(status, other.status)
+            && Objects.equals(positionInQueue, other.positionInQueue)
+            && Objects.equals(estimatedWaitMinutes, other.estimatedWaitMinutes)
+            && Objects.equals(assignedAdvisor, other.assignedAdvisor)
+            && Objects.equals(assignedModuleNumber, other.assignedModuleNumber);
+    }
+}
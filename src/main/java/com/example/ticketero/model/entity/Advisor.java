@@ -21,7 +21,8 @@ import java.util.List;
 public class Advisor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "advisor_id_seq")
+    @SequenceGenerator(name = "advisor_id_seq", sequenceName = "advisor_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class Mensaje {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mensaje_id_seq")
+    @SequenceGenerator(name = "mensaje_id_seq", sequenceName = "mensaje_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -46,6 +47,10 @@ public class Mensaje {
     @Builder.Default
     private Integer intentos = 0;
 
+    // Chat de Telegram del cliente, resuelto al reclamar el lote; no se guarda con el mensaje
+    @Transient
+    private String chatId;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
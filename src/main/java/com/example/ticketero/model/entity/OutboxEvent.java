@@ -0,0 +1,72 @@
+package com.example.ticketero.model.entity;
+
+import com.example.ticketero.model.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Evento del outbox. El payload lleva el estado del agregado al momento del cambio, de modo que los
+ * consumidores no dependen de releerlo (puede haber cambiado de nuevo cuando procesan el evento).
+ */
+@Entity
+@Table(name = "outbox_event")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_id_seq")
+    @SequenceGenerator(name = "outbox_event_id_seq", sequenceName = "outbox_event_id_seq", allocationSize = 50)
+    private Long id;
+
+    // Lo asigna la BD (pg_current_xact_id de la transacción que inserta)
+    @Column(insertable = false, updatable = false)
+    private Long txid;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private OutboxEventType eventType;
+
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 50)
+    private String aggregateId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private Map<String, Object> payload;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+
+    public String text(String key) {
+        Object value = payload.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    public Long number(String key) {
+        Object value = payload.get(key);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    public LocalDateTime timestamp(String key) {
+        String value = text(key);
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
+}
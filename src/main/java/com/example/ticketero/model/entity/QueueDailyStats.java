@@ -0,0 +1,153 @@
+package com.example.ticketero.model.entity;
+
+import com.example.ticketero.model.enums.QueueType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Estadísticas de una cola en un día. Se mantienen con upsert incremental (ver QueueStatsRecorder),
+ * de modo que los promedios se leen de una fila en vez de recorrer los tickets del día.
+ */
+@Entity
+@Table(name = "queue_daily_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueueDailyStats {
+
+    // Límites superiores (exclusivos) de los tramos del histograma de espera; el último tramo es >= 60
+    public static final int[] WAIT_BUCKET_LIMITS_MINUTES = {5, 10, 15, 30, 60};
+
+    @EmbeddedId
+    private Key id;
+
+    @Builder.Default
+    @Column(name = "assigned_count", nullable = false)
+    private long assignedCount = 0;
+
+    @Builder.Default
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount = 0;
+
+    @Builder.Default
+    @Column(name = "wait_seconds_sum", nullable = false)
+    private long waitSecondsSum = 0;
+
+    @Builder.Default
+    @Column(name = "wait_seconds_max", nullable = false)
+    private long waitSecondsMax = 0;
+
+    @Builder.Default
+    @Column(name = "service_seconds_sum", nullable = false)
+    private long serviceSecondsSum = 0;
+
+    @Builder.Default
+    @Column(name = "service_seconds_max", nullable = false)
+    private long serviceSecondsMax = 0;
+
+    @Builder.Default
+    @Column(name = "wait_lt_5m", nullable = false)
+    private long waitLt5m = 0;
+
+    @Builder.Default
+    @Column(name = "wait_lt_10m", nullable = false)
+    private long waitLt10m = 0;
+
+    @Builder.Default
+    @Column(name = "wait_lt_15m", nullable = false)
+    private long waitLt15m = 0;
+
+    @Builder.Default
+    @Column(name = "wait_lt_30m", nullable = false)
+    private long waitLt30m = 0;
+
+    @Builder.Default
+    @Column(name = "wait_lt_60m", nullable = false)
+    private long waitLt60m = 0;
+
+    @Builder.Default
+    @Column(name = "wait_ge_60m", nullable = false)
+    private long waitGe60m = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public static QueueDailyStats empty(LocalDate businessDate, QueueType queueType) {
+        return QueueDailyStats.builder()
+            .id(new Key(businessDate, queueType))
+            .build();
+    }
+
+    public QueueType getQueueType() {
+        return id.getQueueType();
+    }
+
+    /**
+     * Suma una asignación (espera = assignedAt - createdAt) a los contadores y al histograma.
+     */
+    public void addWait(long waitSeconds) {
+        long seconds = Math.max(0, waitSeconds);
+        assignedCount++;
+        waitSecondsSum += seconds;
+        waitSecondsMax = Math.max(waitSecondsMax, seconds);
+
+        long minutes = seconds / 60;
+        if (minutes < WAIT_BUCKET_LIMITS_MINUTES[0]) waitLt5m++;
+        else if (minutes < WAIT_BUCKET_LIMITS_MINUTES[1]) waitLt10m++;
+        else if (minutes < WAIT_BUCKET_LIMITS_MINUTES[2]) waitLt15m++;
+        else if (minutes < WAIT_BUCKET_LIMITS_MINUTES[3]) waitLt30m++;
+        else if (minutes < WAIT_BUCKET_LIMITS_MINUTES[4]) waitLt60m++;
+        else waitGe60m++;
+    }
+
+    /**
+     * Suma una atención completada (completedAt - assignedAt).
+     */
+    public void addService(long serviceSeconds) {
+        long seconds = Math.max(0, serviceSeconds);
+        completedCount++;
+        serviceSecondsSum += seconds;
+        serviceSecondsMax = Math.max(serviceSecondsMax, seconds);
+    }
+
+    /** Promedio de espera del día en minutos, o null si aún no hay asignaciones. */
+    public Double getAverageWaitMinutes() {
+        return assignedCount > 0 ? waitSecondsSum / 60.0 / assignedCount : null;
+    }
+
+    /** Promedio de atención del día en minutos, o null si aún no hay tickets completados. */
+    public Double getAverageServiceMinutes() {
+        return completedCount > 0 ? serviceSecondsSum / 60.0 / completedCount : null;
+    }
+
+    public long[] getWaitHistogram() {
+        return new long[] {waitLt5m, waitLt10m, waitLt15m, waitLt30m, waitLt60m, waitGe60m};
+    }
+
+    @Embeddable
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(name = "business_date", nullable = false)
+        private LocalDate businessDate;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "queue_type", nullable = false, length = 20)
+        private QueueType queueType;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ticketero.model.entity;
+
+import com.example.ticketero.model.enums.QueueType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "queue_watermark")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueueWatermark {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "queue_type", nullable = false, length = 20)
+    private QueueType queueType;
+
+    // Mayor queue_seq ya atendido en la cola
+    @Column(name = "served_seq", nullable = false)
+    private Long servedSeq;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
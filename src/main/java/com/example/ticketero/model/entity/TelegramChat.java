@@ -0,0 +1,33 @@
+package com.example.ticketero.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "telegram_chat")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TelegramChat {
+
+    // Un chat por cliente, identificado por el teléfono con que saca sus tickets
+    @Id
+    @Column(length = 20)
+    private String telefono;
+
+    @Column(name = "chat_id", nullable = false, length = 50)
+    private String chatId;
+
+    @Column(name = "linked_at", nullable = false)
+    private LocalDateTime linkedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.linkedAt = LocalDateTime.now();
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
@@ -18,13 +19,14 @@ import java.util.UUID;
 public class Ticket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_id_seq")
+    @SequenceGenerator(name = "ticket_id_seq", sequenceName = "ticket_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "codigo_referencia", nullable = false, unique = true)
     private UUID codigoReferencia;
 
-    @Column(nullable = false, unique = true, length = 10)
+    @Column(nullable = false, length = 10)
     private String numero;
 
     @Column(name = "national_id", nullable = false, length = 20)
@@ -44,10 +46,16 @@ public class Ticket {
     @Column(nullable = false, length = 20)
     private TicketStatus status;
 
-    @Column(name = "position_in_queue", nullable = false)
+    // Número de llegada en la cola: la posición actual es queueSeq - queue_watermark.served_seq
+    @Column(name = "queue_seq", updatable = false)
+    private Long queueSeq;
+
+    // Posición y espera al crearse el ticket. Los servicios las recalculan en memoria para
+    // responder; nunca se reescriben en la BD
+    @Column(name = "position_in_queue", nullable = false, updatable = false)
     private Integer positionInQueue;
 
-    @Column(name = "estimated_wait_minutes", nullable = false)
+    @Column(name = "estimated_wait_minutes", nullable = false, updatable = false)
     private Integer estimatedWaitMinutes;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -76,7 +84,9 @@ public class Ticket {
     @PrePersist
     protected void onCreate() {
         if (this.createdAt == null) {
-            this.createdAt = LocalDateTime.now();
+            // Misma precisión que guarda PostgreSQL: createdAt es parte de la clave del ticket en
+            // LiveQueueIndex y debe coincidir con el valor que se lee después desde la BD
+            this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         }
         this.updatedAt = LocalDateTime.now();
         if (this.codigoReferencia == null) {
@@ -0,0 +1,52 @@
+package com.example.ticketero.model.entity;
+
+import com.example.ticketero.model.enums.QueueType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ticket_sequence")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketSequence {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "last_value", nullable = false)
+    private Long lastValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @Embeddable
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(name = "branch_office", nullable = false, length = 100)
+        private String branchOffice;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "queue_type", nullable = false, length = 20)
+        private QueueType queueType;
+
+        @Column(name = "business_date", nullable = false)
+        private LocalDate businessDate;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.ticketero.model.enums;
+
+/**
+ * Cambios de estado que se publican en el outbox (ver OutboxService).
+ */
+public enum OutboxEventType {
+    TICKET_CREADO,
+    TICKET_ASIGNADO,
+    TICKET_PROXIMO,
+    TICKET_COMPLETADO
+}
@@ -18,4 +18,5 @@ public enum TicketStatus {
 
     public String getDescription() { return description; }
     public boolean isActive() { return isActive; }
+    public boolean isWaiting() { return this == EN_ESPERA || this == PROXIMO; }
 }
\ No newline at end of file
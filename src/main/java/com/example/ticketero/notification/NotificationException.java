@@ -0,0 +1,23 @@
+package com.example.ticketero.notification;
+
+/**
+ * Error al entregar una notificación al proveedor.
+ */
+public class NotificationException extends RuntimeException {
+
+    private final int statusCode;
+
+    public NotificationException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public NotificationException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.ticketero.notification;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Canal de salida de las notificaciones al cliente.
+ * Las implementaciones no bloquean al llamador: el resultado llega en el future.
+ */
+public interface NotificationGateway {
+
+    /**
+     * Envía un texto (HTML) al chat del cliente.
+     *
+     * @param chatId chat de Telegram del cliente; null si aún no vincula su chat
+     * @return future con el id del mensaje en el proveedor; falla con {@link NotificationException}
+     */
+    CompletableFuture<String> send(String chatId, String text);
+}
@@ -0,0 +1,40 @@
+package com.example.ticketero.notification;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reemplazo en memoria de Telegram para desarrollo local y tests: no hace llamadas de red
+ * y guarda los últimos mensajes para poder inspeccionarlos.
+ */
+@Slf4j
+public class StubNotificationGateway implements NotificationGateway {
+
+    private static final int MAX_RETAINED = 1000;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Deque<SentNotification> sent = new ConcurrentLinkedDeque<>();
+
+    public record SentNotification(String messageId, String chatId, String text) {}
+
+    @Override
+    public CompletableFuture<String> send(String chatId, String text) {
+        String messageId = "msg_" + sequence.incrementAndGet();
+        sent.addLast(new SentNotification(messageId, chatId, text));
+        while (sent.size() > MAX_RETAINED) {
+            sent.pollFirst();
+        }
+        log.debug("Stub notification {} to {}: {}", messageId, chatId, text);
+        return CompletableFuture.completedFuture(messageId);
+    }
+
+    public List<SentNotification> sent() {
+        return new ArrayList<>(sent);
+    }
+}
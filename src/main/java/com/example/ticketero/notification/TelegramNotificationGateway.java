@@ -0,0 +1,122 @@
+package com.example.ticketero.notification;
+
+import com.example.ticketero.config.TelegramProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envía mensajes con la Bot API de Telegram (sendMessage) usando {@link HttpClient} asíncrono.
+ * <p>
+ * Un único cliente HTTP/2 se comparte entre todos los envíos, por lo que las conexiones se
+ * reutilizan y multiplexan. Ante un 429 se respeta {@code retry_after} sin bloquear hilos:
+ * el reintento se agenda con un executor diferido.
+ */
+@Slf4j
+public class TelegramNotificationGateway implements NotificationGateway {
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final TelegramProperties properties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI sendMessageUri;
+
+    public TelegramNotificationGateway(TelegramProperties properties, ObjectMapper objectMapper) {
+        this(properties, objectMapper, HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(properties.connectTimeout())
+            .build());
+    }
+
+    TelegramNotificationGateway(TelegramProperties properties, ObjectMapper objectMapper, HttpClient httpClient) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.httpClient = httpClient;
+        this.sendMessageUri = URI.create(properties.apiUrl() + properties.botToken() + "/sendMessage");
+    }
+
+    @Override
+    public CompletableFuture<String> send(String customerChatId, String text) {
+        String chatId = properties.chatId() != null && !properties.chatId().isBlank()
+            ? properties.chatId()
+            : customerChatId;
+        if (chatId == null || chatId.isBlank()) {
+            return CompletableFuture.failedFuture(
+                new NotificationException("Customer has not linked a Telegram chat", 0));
+        }
+
+        String body = objectMapper.createObjectNode()
+            .put("chat_id", chatId)
+            .put("text", text)
+            .put("parse_mode", "HTML")
+            .toString();
+
+        HttpRequest request = HttpRequest.newBuilder(sendMessageUri)
+            .timeout(properties.requestTimeout())
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+
+        return send(request, 0);
+    }
+
+    private CompletableFuture<String> send(HttpRequest request, int rateLimitRetries) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .thenCompose(response -> {
+                if (response.statusCode() == 429 && rateLimitRetries < properties.maxRateLimitRetries()) {
+                    Duration wait = retryAfter(response);
+                    log.warn("Telegram rate limit reached, retrying in {} ms", wait.toMillis());
+                    Executor delayed = CompletableFuture.delayedExecutor(wait.toMillis(), TimeUnit.MILLISECONDS);
+                    return CompletableFuture.supplyAsync(() -> request, delayed)
+                        .thenCompose(retry -> send(retry, rateLimitRetries + 1));
+                }
+                return CompletableFuture.completedFuture(messageIdOf(response));
+            });
+    }
+
+    private String messageIdOf(HttpResponse<String> response) {
+        JsonNode json = parse(response);
+        if (response.statusCode() / 100 != 2 || !json.path("ok").asBoolean(false)) {
+            throw new NotificationException(
+                "Telegram responded " + response.statusCode() + ": " + json.path("description").asText(""),
+                response.statusCode());
+        }
+        return json.path("result").path("message_id").asText();
+    }
+
+    private Duration retryAfter(HttpResponse<String> response) {
+        // Telegram informa la espera en el cuerpo (parameters.retry_after) y a veces en el header
+        int seconds = parse(response).path("parameters").path("retry_after").asInt(0);
+        if (seconds <= 0) {
+            seconds = response.headers().firstValue("Retry-After")
+                .map(value -> {
+                    try {
+                        return Integer.parseInt(value.trim());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                })
+                .orElse(0);
+        }
+        return seconds > 0 ? Duration.ofSeconds(seconds) : DEFAULT_RETRY_AFTER;
+    }
+
+    private JsonNode parse(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body() == null ? "" : response.body());
+        } catch (IOException e) {
+            throw new NotificationException("Invalid Telegram response: " + response.statusCode(), e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,8 @@ public interface AdvisorRepository extends JpaRepository<Advisor, Long> {
     
     long countByStatus(AdvisorStatus status);
 
+    long countByStatusIn(Collection<AdvisorStatus> statuses);
+
     // Query para asignación inteligente
     @Query("""
         SELECT a FROM Advisor a 
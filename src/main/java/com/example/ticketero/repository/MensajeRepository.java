@@ -4,11 +4,13 @@ import com.example.ticketero.model.entity.Mensaje;
 import com.example.ticketero.model.enums.EstadoEnvio;
 import com.example.ticketero.model.enums.MessageTemplate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -38,4 +40,32 @@ public interface MensajeRepository extends JpaRepository<Mensaje, Long> {
         ORDER BY m.fechaProgramada ASC
         """)
     List<Mensaje> findRetryableMessages(@Param("now") LocalDateTime now);
-}
\ No newline at end of file
+
+    // Despacho por lotes: varios nodos pueden reclamar en paralelo sin bloquearse entre sí
+    @Query(value = """
+        SELECT id FROM mensaje
+        WHERE estado_envio = :estado
+        AND intentos < :maxIntentos
+        AND fecha_programada <= :now
+        ORDER BY fecha_programada ASC
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<Long> lockDueMessageIds(@Param("estado") String estado,
+                                 @Param("maxIntentos") int maxIntentos,
+                                 @Param("now") LocalDateTime now,
+                                 @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Mensaje m SET m.fechaProgramada = :leaseUntil WHERE m.id IN :ids")
+    int leaseUntil(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Query("""
+        SELECT m FROM Mensaje m
+        JOIN FETCH m.ticket t
+        LEFT JOIN FETCH t.assignedAdvisor
+        WHERE m.id IN :ids
+        ORDER BY m.id ASC
+        """)
+    List<Mensaje> findWithTicketByIdIn(@Param("ids") Collection<Long> ids);
+}
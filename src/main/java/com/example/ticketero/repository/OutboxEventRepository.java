@@ -0,0 +1,35 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Eventos posteriores a (txid, id), solo de transacciones anteriores a la más antigua aún abierta:
+    // una transacción abierta puede confirmar después eventos con id menor a los ya visibles
+    @Query(value = """
+        SELECT * FROM outbox_event
+        WHERE (txid, id) > (:txid, :id)
+          AND txid < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT)
+        ORDER BY txid, id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<OutboxEvent> findAfter(@Param("txid") long txid, @Param("id") long id, @Param("limit") int limit);
+
+    // Solo lo que todos los consumidores ya dejaron atrás
+    @Modifying
+    @Query(value = """
+        DELETE FROM outbox_event
+        WHERE created_at < :cutoff
+          AND txid < (SELECT COALESCE(MIN(last_txid), 0) FROM outbox_offset)
+        """, nativeQuery = true)
+    int deleteConsumedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,80 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.QueueDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface QueueDailyStatsRepository extends JpaRepository<QueueDailyStats, QueueDailyStats.Key> {
+
+    List<QueueDailyStats> findByIdBusinessDate(LocalDate businessDate);
+
+    // Suma atómica de un delta a la fila del día: crea la fila si no existe.
+    // Varios nodos pueden registrar a la vez sin perder incrementos (el conflicto serializa sobre la fila).
+    @Modifying
+    @Query(value = """
+        INSERT INTO queue_daily_stats (
+            business_date, queue_type, assigned_count, completed_count,
+            wait_seconds_sum, wait_seconds_max, service_seconds_sum, service_seconds_max,
+            wait_lt_5m, wait_lt_10m, wait_lt_15m, wait_lt_30m, wait_lt_60m, wait_ge_60m, updated_at)
+        VALUES (
+            :businessDate, :queueType, :assignedCount, :completedCount,
+            :waitSecondsSum, :waitSecondsMax, :serviceSecondsSum, :serviceSecondsMax,
+            :waitLt5m, :waitLt10m, :waitLt15m, :waitLt30m, :waitLt60m, :waitGe60m, CURRENT_TIMESTAMP)
+        ON CONFLICT (business_date, queue_type) DO UPDATE SET
+            assigned_count = queue_daily_stats.assigned_count + EXCLUDED.assigned_count,
+            completed_count = queue_daily_stats.completed_count + EXCLUDED.completed_count,
+            wait_seconds_sum = queue_daily_stats.wait_seconds_sum + EXCLUDED.wait_seconds_sum,
+            wait_seconds_max = GREATEST(queue_daily_stats.wait_seconds_max, EXCLUDED.wait_seconds_max),
+            service_seconds_sum = queue_daily_stats.service_seconds_sum + EXCLUDED.service_seconds_sum,
+            service_seconds_max = GREATEST(queue_daily_stats.service_seconds_max, EXCLUDED.service_seconds_max),
+            wait_lt_5m = queue_daily_stats.wait_lt_5m + EXCLUDED.wait_lt_5m,
+            wait_lt_10m = queue_daily_stats.wait_lt_10m + EXCLUDED.wait_lt_10m,
+            wait_lt_15m = queue_daily_stats.wait_lt_15m + EXCLUDED.wait_lt_15m,
+            wait_lt_30m = queue_daily_stats.wait_lt_30m + EXCLUDED.wait_lt_30m,
+            wait_lt_60m = queue_daily_stats.wait_lt_60m + EXCLUDED.wait_lt_60m,
+            wait_ge_60m = queue_daily_stats.wait_ge_60m + EXCLUDED.wait_ge_60m,
+            updated_at = CURRENT_TIMESTAMP
+        """, nativeQuery = true)
+    int accumulate(
+        @Param("businessDate") LocalDate businessDate,
+        @Param("queueType") String queueType,
+        @Param("assignedCount") long assignedCount,
+        @Param("completedCount") long completedCount,
+        @Param("waitSecondsSum") long waitSecondsSum,
+        @Param("waitSecondsMax") long waitSecondsMax,
+        @Param("serviceSecondsSum") long serviceSecondsSum,
+        @Param("serviceSecondsMax") long serviceSecondsMax,
+        @Param("waitLt5m") long waitLt5m,
+        @Param("waitLt10m") long waitLt10m,
+        @Param("waitLt15m") long waitLt15m,
+        @Param("waitLt30m") long waitLt30m,
+        @Param("waitLt60m") long waitLt60m,
+        @Param("waitGe60m") long waitGe60m
+    );
+
+    default void accumulate(QueueDailyStats delta) {
+        accumulate(
+            delta.getId().getBusinessDate(),
+            delta.getQueueType().name(),
+            delta.getAssignedCount(),
+            delta.getCompletedCount(),
+            delta.getWaitSecondsSum(),
+            delta.getWaitSecondsMax(),
+            delta.getServiceSecondsSum(),
+            delta.getServiceSecondsMax(),
+            delta.getWaitLt5m(),
+            delta.getWaitLt10m(),
+            delta.getWaitLt15m(),
+            delta.getWaitLt30m(),
+            delta.getWaitLt60m(),
+            delta.getWaitGe60m()
+        );
+    }
+}
@@ -2,52 +2,67 @@ package com.example.ticketero.repository;
 
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
-import com.example.ticketero.model.enums.TicketStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface QueueStatsRepository extends JpaRepository<Ticket, Long> {
 
-    // Estadísticas por cola - usando queries derivadas simples
-    long countByQueueTypeAndStatusAndCreatedAtBetween(
-        QueueType queueType, 
-        TicketStatus status,
-        LocalDateTime startDate,
-        LocalDateTime endDate
-    );
+    /**
+     * Fila del agregado por cola: estado en vivo de una QueueType. Los acumulados del día
+     * (completados, promedios) se leen de queue_daily_stats.
+     */
+    interface QueueAggregate {
+        String getQueueType();
+        long getWaiting();
+        long getServing();
+        long getCritical();
+    }
 
-    // Queries JPQL simples para estadísticas
-    @Query("""
-        SELECT AVG(CAST(t.actualServiceTimeMinutes AS double)) FROM Ticket t 
-        WHERE t.queueType = :queueType 
-        AND t.status = 'COMPLETADO' 
-        AND t.completedAt BETWEEN :startDate AND :endDate
-        """)
-    Double getAverageServiceTimeBetween(
-        @Param("queueType") QueueType queueType,
-        @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate
-    );
+    /**
+     * Tickets activos de una cola en un estado, para reconciliar QueueStateCounters.
+     */
+    interface StatusCount {
+        String getQueueType();
+        String getStatus();
+        long getTotal();
+    }
 
-    @Query("""
-        SELECT t FROM Ticket t 
-        WHERE t.queueType = :queueType 
-        AND t.assignedAt IS NOT NULL 
-        AND t.createdAt BETWEEN :startDate AND :endDate
-        """)
-    List<Ticket> findAssignedTicketsBetween(
-        @Param("queueType") QueueType queueType,
-        @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate
+    // Estado en vivo de todas las colas: una sola pasada por los tickets activos
+    @Query(value = """
+        SELECT t.queue_type AS "queueType",
+               COUNT(*) FILTER (WHERE t.status IN ('EN_ESPERA', 'PROXIMO')) AS "waiting",
+               COUNT(*) FILTER (WHERE t.status = 'ATENDIENDO') AS "serving",
+               COUNT(*) FILTER (WHERE t.status IN ('EN_ESPERA', 'PROXIMO') AND t.created_at < CASE t.queue_type
+                   WHEN 'CAJA' THEN CAST(:cajaLimit AS TIMESTAMP)
+                   WHEN 'PERSONAL_BANKER' THEN CAST(:personalLimit AS TIMESTAMP)
+                   WHEN 'EMPRESAS' THEN CAST(:empresasLimit AS TIMESTAMP)
+                   WHEN 'GERENCIA' THEN CAST(:gerenciaLimit AS TIMESTAMP)
+               END) AS "critical"
+        FROM ticket t
+        WHERE t.status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+        GROUP BY t.queue_type
+        """, nativeQuery = true)
+    List<QueueAggregate> aggregateByQueue(
+        @Param("cajaLimit") LocalDateTime cajaLimit,
+        @Param("personalLimit") LocalDateTime personalLimit,
+        @Param("empresasLimit") LocalDateTime empresasLimit,
+        @Param("gerenciaLimit") LocalDateTime gerenciaLimit
     );
 
+    @Query(value = """
+        SELECT t.queue_type AS "queueType", t.status AS "status", COUNT(*) AS "total"
+        FROM ticket t
+        WHERE t.status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+        GROUP BY t.queue_type, t.status
+        """, nativeQuery = true)
+    List<StatusCount> countActiveByQueueAndStatus();
+
     // Tickets críticos por tiempo límite
     @Query("""
         SELECT t FROM Ticket t 
@@ -74,49 +89,12 @@ public interface QueueStatsRepository extends JpaRepository<Ticket, Long> {
         @Param("gerenciaLimit") LocalDateTime gerenciaLimit
     );
 
-    // Métodos de conveniencia que usan la fecha actual
-    default long countTodayByQueueAndStatus(QueueType queueType, TicketStatus status, LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(23, 59, 59);
-        return countByQueueTypeAndStatusAndCreatedAtBetween(queueType, status, startOfDay, endOfDay);
-    }
-
-    default Double getAverageServiceTimeToday(QueueType queueType, LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(23, 59, 59);
-        return getAverageServiceTimeBetween(queueType, startOfDay, endOfDay);
-    }
-
-    default Double getAverageWaitTimeToday(QueueType queueType, LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(23, 59, 59);
-        
-        List<Ticket> tickets = findAssignedTicketsBetween(queueType, startOfDay, endOfDay);
-        if (tickets.isEmpty()) {
-            return null;
-        }
-        
-        double totalWaitMinutes = tickets.stream()
-            .mapToLong(ticket -> {
-                LocalDateTime created = ticket.getCreatedAt();
-                LocalDateTime assigned = ticket.getAssignedAt();
-                return java.time.Duration.between(created, assigned).toMinutes();
-            })
-            .average()
-            .orElse(0.0);
-            
-        return totalWaitMinutes;
-    }
-
-    default long countTodayByQueueAndStatus(QueueType queueType, TicketStatus status) {
-        return countTodayByQueueAndStatus(queueType, status, LocalDate.now());
-    }
-
-    default Double getAverageServiceTimeToday(QueueType queueType) {
-        return getAverageServiceTimeToday(queueType, LocalDate.now());
-    }
-
-    default Double getAverageWaitTimeToday(QueueType queueType) {
-        return getAverageWaitTimeToday(queueType, LocalDate.now());
+    default List<QueueAggregate> aggregateByQueue(LocalDateTime now) {
+        return aggregateByQueue(
+            now.minusMinutes(QueueType.CAJA.getMaxWaitTimeMinutes()),
+            now.minusMinutes(QueueType.PERSONAL_BANKER.getMaxWaitTimeMinutes()),
+            now.minusMinutes(QueueType.EMPRESAS.getMaxWaitTimeMinutes()),
+            now.minusMinutes(QueueType.GERENCIA.getMaxWaitTimeMinutes())
+        );
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.QueueWatermark;
+import com.example.ticketero.model.enums.QueueType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface QueueWatermarkRepository extends JpaRepository<QueueWatermark, QueueType> {
+
+    // Número de llegada nuevo y marca de la cola en un solo viaje
+    @Query(value = """
+        SELECT nextval(CAST(:sequence AS regclass)) AS "queueSeq", served_seq AS "servedSeq"
+        FROM queue_watermark
+        WHERE queue_type = :queueType
+        """, nativeQuery = true)
+    IssuedSeq issue(@Param("sequence") String sequence, @Param("queueType") String queueType);
+
+    // Solo avanza: dos ciclos de asignación concurrentes no retroceden la marca
+    @Modifying
+    @Query(value = """
+        UPDATE queue_watermark
+        SET served_seq = GREATEST(served_seq, :servedSeq), updated_at = CURRENT_TIMESTAMP
+        WHERE queue_type = :queueType
+        """, nativeQuery = true)
+    int advance(@Param("queueType") String queueType, @Param("servedSeq") long servedSeq);
+
+    interface IssuedSeq {
+        long getQueueSeq();
+
+        long getServedSeq();
+    }
+}
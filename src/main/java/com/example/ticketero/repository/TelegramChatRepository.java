@@ -0,0 +1,14 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.TelegramChat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TelegramChatRepository extends JpaRepository<TelegramChat, String> {
+
+    List<TelegramChat> findByTelefonoIn(Collection<String> telefonos);
+}
@@ -3,11 +3,15 @@ package com.example.ticketero.repository;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -19,19 +23,63 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     // Query derivadas básicas
     Optional<Ticket> findByCodigoReferencia(UUID codigoReferencia);
     
-    Optional<Ticket> findByNumero(String numero);
-    
-    List<Ticket> findByNationalIdAndStatusIn(String nationalId, List<TicketStatus> statuses);
+    // El número se reinicia cada día y por sucursal: solo identifica al ticket junto con ambos.
+    // El rango de created_at deja la consulta en la partición del día (índice único branch_office, numero)
+    @Query("""
+        SELECT t FROM Ticket t 
+        WHERE t.branchOffice = :branchOffice 
+        AND t.numero = :numero 
+        AND t.createdAt >= :from 
+        AND t.createdAt < :to
+        """)
+    Optional<Ticket> findByBranchOfficeAndNumeroCreatedBetween(
+        @Param("branchOffice") String branchOffice,
+        @Param("numero") String numero,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    default Optional<Ticket> findByNumero(String branchOffice, String numero, LocalDate day) {
+        return findByBranchOfficeAndNumeroCreatedBetween(
+            branchOffice, numero, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
     
     List<Ticket> findByQueueTypeAndStatus(QueueType queueType, TicketStatus status);
     
     List<Ticket> findByStatusOrderByCreatedAtAsc(TicketStatus status);
-    
-    boolean existsByNationalIdAndStatusIn(String nationalId, List<TicketStatus> statuses);
-    
-    long countByQueueTypeAndStatus(QueueType queueType, TicketStatus status);
 
-    // Queries JPQL para lógica compleja
+    // Queries JPQL para lógica compleja.
+    // Las consultas sobre tickets activos llevan los estados como literales: así el planner puede
+    // usar los índices parciales de V6 también con planes genéricos (sin conocer los parámetros).
+    @Query("""
+        SELECT t FROM Ticket t 
+        WHERE t.nationalId = :nationalId 
+        AND t.status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+        """)
+    List<Ticket> findActiveByNationalId(@Param("nationalId") String nationalId);
+
+    @Query("""
+        SELECT COUNT(t) > 0 FROM Ticket t 
+        WHERE t.nationalId = :nationalId 
+        AND t.status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+        """)
+    boolean existsActiveByNationalId(@Param("nationalId") String nationalId);
+
+    @Query("""
+        SELECT COUNT(t) FROM Ticket t 
+        WHERE t.queueType = :queueType 
+        AND t.status = 'EN_ESPERA'
+        """)
+    long countWaitingByQueue(@Param("queueType") QueueType queueType);
+
+    // Todos los tickets en espera (EN_ESPERA y PROXIMO), para reconstruir LiveQueueIndex
+    @Query("""
+        SELECT t FROM Ticket t 
+        WHERE t.status IN ('EN_ESPERA', 'PROXIMO') 
+        ORDER BY t.createdAt ASC, t.id ASC
+        """)
+    List<Ticket> findAllWaiting();
+
     @Query("""
         SELECT t FROM Ticket t 
         WHERE t.queueType = :queueType 
@@ -40,10 +88,30 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
         """)
     List<Ticket> findWaitingTicketsByQueue(@Param("queueType") QueueType queueType);
 
+    // Primeros tickets de la cola (EN_ESPERA y PROXIMO) para el ciclo de asignación
+    @Query("""
+        SELECT t FROM Ticket t 
+        WHERE t.queueType = :queueType 
+        AND t.status IN ('EN_ESPERA', 'PROXIMO') 
+        ORDER BY t.createdAt ASC, t.id ASC
+        """)
+    List<Ticket> findQueueHead(@Param("queueType") QueueType queueType, Pageable pageable);
+
+    // Igual que findQueueHead pero con las filas bloqueadas: quien escribe fuera del ciclo de asignación
+    // no puede pisar un ticket que el ciclo asignó mientras tanto
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT t FROM Ticket t 
+        WHERE t.queueType = :queueType 
+        AND t.status IN ('EN_ESPERA', 'PROXIMO') 
+        ORDER BY t.createdAt ASC, t.id ASC
+        """)
+    List<Ticket> lockQueueHead(@Param("queueType") QueueType queueType, Pageable pageable);
+
     @Query("""
         SELECT COUNT(t) FROM Ticket t 
         WHERE t.queueType = :queueType 
-        AND t.status = 'EN_ESPERA' 
+        AND t.status IN ('EN_ESPERA', 'PROXIMO') 
         AND t.createdAt < :createdAt
         """)
     long countTicketsAheadInQueue(
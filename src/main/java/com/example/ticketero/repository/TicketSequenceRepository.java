@@ -0,0 +1,33 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.TicketSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+@Repository
+public interface TicketSequenceRepository extends JpaRepository<TicketSequence, TicketSequence.Key> {
+
+    // Reserva atómica de un bloque de números: crea el contador del día si no existe.
+    // Corre en su propia transacción para no retener el lock de la fila mientras se crea el ticket.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = """
+        INSERT INTO ticket_sequence (branch_office, queue_type, business_date, last_value, updated_at)
+        VALUES (:branchOffice, :queueType, :businessDate, :blockSize, CURRENT_TIMESTAMP)
+        ON CONFLICT (branch_office, queue_type, business_date)
+        DO UPDATE SET last_value = ticket_sequence.last_value + EXCLUDED.last_value,
+                      updated_at = CURRENT_TIMESTAMP
+        RETURNING last_value
+        """, nativeQuery = true)
+    long allocateBlock(
+        @Param("branchOffice") String branchOffice,
+        @Param("queueType") String queueType,
+        @Param("businessDate") LocalDate businessDate,
+        @Param("blockSize") int blockSize
+    );
+}
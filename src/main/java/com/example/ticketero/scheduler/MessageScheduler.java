@@ -1,6 +1,7 @@
 package com.example.ticketero.scheduler;
 
-import com.example.ticketero.service.MessageService;
+import com.example.ticketero.config.SchedulingConfig;
+import com.example.ticketero.service.MessageDispatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -11,21 +12,21 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class MessageScheduler {
 
-    private final MessageService messageService;
+    private final MessageDispatcher messageDispatcher;
 
-    @Scheduled(fixedDelay = 5000) // Cada 5 segundos
+    @Scheduled(fixedDelay = 5000, scheduler = SchedulingConfig.MESSAGING) // Cada 5 segundos
     public void processPendingMessages() {
         try {
-            messageService.processPendingMessages();
+            messageDispatcher.dispatchPending();
         } catch (Exception e) {
             log.error("Error processing pending messages", e);
         }
     }
 
-    @Scheduled(fixedDelay = 30000) // Cada 30 segundos
+    @Scheduled(fixedDelay = 30000, scheduler = SchedulingConfig.MESSAGING) // Cada 30 segundos
     public void processRetryMessages() {
         try {
-            messageService.processRetryMessages();
+            messageDispatcher.dispatchRetries();
         } catch (Exception e) {
             log.error("Error processing retry messages", e);
         }
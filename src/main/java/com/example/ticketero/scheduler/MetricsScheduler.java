@@ -1,26 +1,40 @@
 package com.example.ticketero.scheduler;
 
+import com.example.ticketero.config.SchedulingConfig;
+import com.example.ticketero.model.entity.QueueDailyStats;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.model.enums.QueueType;
-import com.example.ticketero.model.enums.TicketStatus;
-import com.example.ticketero.repository.AdvisorRepository;
-import com.example.ticketero.repository.QueueStatsRepository;
+import com.example.ticketero.repository.QueueDailyStatsRepository;
+import com.example.ticketero.service.QueueStateCounters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Logs periódicos de métricas. El estado en vivo sale de QueueStateCounters, que este scheduler
+ * reconcilia contra la BD; solo el detalle de cada 15 minutos lee queue_daily_stats.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class MetricsScheduler {
 
-    private final QueueStatsRepository queueStatsRepository;
-    private final AdvisorRepository advisorRepository;
+    private final QueueStateCounters queueStateCounters;
+    private final QueueDailyStatsRepository queueDailyStatsRepository;
 
-    @Scheduled(fixedDelay = 60000) // Cada minuto
+    @Scheduled(fixedDelay = 60000, scheduler = SchedulingConfig.METRICS) // Cada minuto
     public void logSystemMetrics() {
         try {
+            if (!queueStateCounters.isReady()) {
+                log.warn("Queue state counters not loaded yet, skipping system metrics");
+                return;
+            }
             logQueueMetrics();
             logAdvisorMetrics();
         } catch (Exception e) {
@@ -28,21 +42,39 @@ public class MetricsScheduler {
         }
     }
 
-    @Scheduled(cron = "0 */15 * * * ?") // Cada 15 minutos
+    @Scheduled(fixedDelayString = "${ticketero.counters.reconcile-interval-ms:300000}",
+        scheduler = SchedulingConfig.METRICS)
+    public void reconcileCounters() {
+        try {
+            queueStateCounters.reconcile();
+        } catch (Exception e) {
+            log.error("Error reconciling queue state counters", e);
+        }
+    }
+
+    @Scheduled(cron = "0 */15 * * * ?", scheduler = SchedulingConfig.METRICS) // Cada 15 minutos
     public void logDetailedMetrics() {
         try {
+            LocalDate today = LocalDate.now();
+            Map<QueueType, QueueDailyStats> statsByQueue = new EnumMap<>(QueueType.class);
+            queueDailyStatsRepository.findByIdBusinessDate(today)
+                .forEach(stats -> statsByQueue.put(stats.getQueueType(), stats));
+
             for (QueueType queueType : QueueType.values()) {
-                long waiting = queueStatsRepository.countTodayByQueueAndStatus(queueType, TicketStatus.EN_ESPERA);
-                long serving = queueStatsRepository.countTodayByQueueAndStatus(queueType, TicketStatus.ATENDIENDO);
-                long completed = queueStatsRepository.countTodayByQueueAndStatus(queueType, TicketStatus.COMPLETADO);
-                
-                Double avgServiceTime = queueStatsRepository.getAverageServiceTimeToday(queueType);
-                Double avgWaitTime = queueStatsRepository.getAverageWaitTimeToday(queueType);
-                
-                log.info("QUEUE_METRICS [{}] - Waiting: {}, Serving: {}, Completed: {}, AvgService: {}min, AvgWait: {}min",
-                    queueType, waiting, serving, completed, 
+                QueueDailyStats stats = statsByQueue.getOrDefault(queueType, QueueDailyStats.empty(today, queueType));
+
+                Double avgServiceTime = stats.getAverageServiceMinutes();
+                Double avgWaitTime = stats.getAverageWaitMinutes();
+
+                log.info("QUEUE_METRICS [{}] - Waiting: {}, Serving: {}, Completed: {}, AvgService: {}min, AvgWait: {}min, MaxWait: {}min, WaitHistogram: {}",
+                    queueType,
+                    queueStateCounters.waitingCount(queueType),
+                    queueStateCounters.servingCount(queueType),
+                    stats.getCompletedCount(),
                     avgServiceTime != null ? avgServiceTime.intValue() : "N/A",
-                    avgWaitTime != null ? avgWaitTime.intValue() : "N/A");
+                    avgWaitTime != null ? avgWaitTime.intValue() : "N/A",
+                    stats.getWaitSecondsMax() / 60,
+                    Arrays.toString(stats.getWaitHistogram()));
             }
         } catch (Exception e) {
             log.error("Error logging detailed metrics", e);
@@ -52,23 +84,19 @@ public class MetricsScheduler {
     private void logQueueMetrics() {
         long totalWaiting = 0;
         long totalServing = 0;
-        
+
         for (QueueType queueType : QueueType.values()) {
-            long waiting = queueStatsRepository.countTodayByQueueAndStatus(queueType, TicketStatus.EN_ESPERA);
-            long serving = queueStatsRepository.countTodayByQueueAndStatus(queueType, TicketStatus.ATENDIENDO);
-            
-            totalWaiting += waiting;
-            totalServing += serving;
+            totalWaiting += queueStateCounters.waitingCount(queueType);
+            totalServing += queueStateCounters.servingCount(queueType);
         }
-        
+
         log.info("SYSTEM_METRICS - Total waiting: {}, Total serving: {}", totalWaiting, totalServing);
     }
 
     private void logAdvisorMetrics() {
-        long available = advisorRepository.countByStatus(AdvisorStatus.AVAILABLE);
-        long busy = advisorRepository.countByStatus(AdvisorStatus.BUSY);
-        long offline = advisorRepository.countByStatus(AdvisorStatus.OFFLINE);
-        
-        log.info("ADVISOR_METRICS - Available: {}, Busy: {}, Offline: {}", available, busy, offline);
+        log.info("ADVISOR_METRICS - Available: {}, Busy: {}, Offline: {}",
+            queueStateCounters.advisorCount(AdvisorStatus.AVAILABLE),
+            queueStateCounters.advisorCount(AdvisorStatus.BUSY),
+            queueStateCounters.advisorCount(AdvisorStatus.OFFLINE));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.example.ticketero.scheduler;
+
+import com.example.ticketero.config.OutboxProperties;
+import com.example.ticketero.config.SchedulingConfig;
+import com.example.ticketero.service.OutboxRelay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxScheduler {
+
+    private final OutboxRelay outboxRelay;
+    private final OutboxProperties outboxProperties;
+
+    @Scheduled(fixedDelayString = "${ticketero.outbox.poll-interval-ms:500}",
+        scheduler = SchedulingConfig.MESSAGING)
+    public void relayOutbox() {
+        if (!outboxProperties.relayEnabled()) {
+            return;
+        }
+        try {
+            outboxRelay.relay();
+        } catch (Exception e) {
+            log.error("Error relaying outbox events", e);
+        }
+    }
+}
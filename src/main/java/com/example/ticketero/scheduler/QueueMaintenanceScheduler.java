@@ -1,18 +1,27 @@
 package com.example.ticketero.scheduler;
 
+import com.example.ticketero.config.OutboxProperties;
+import com.example.ticketero.config.PartitioningProperties;
+import com.example.ticketero.config.SchedulingConfig;
+import com.example.ticketero.event.TicketStatusChangedEvent;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
 import com.example.ticketero.repository.TicketRepository;
-import com.example.ticketero.service.AuditService;
-import com.example.ticketero.service.MessageService;
+import com.example.ticketero.service.ColdArchiver;
+import com.example.ticketero.service.OutboxService;
+import com.example.ticketero.service.PartitionMaintenance;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -20,27 +29,43 @@ import java.util.List;
 @Slf4j
 public class QueueMaintenanceScheduler {
 
+    // RN-012: tickets de la cola que reciben pre-aviso de turno
+    private static final int PROXIMO_WINDOW = 3;
+
     private final TicketRepository ticketRepository;
-    private final MessageService messageService;
-    private final AuditService auditService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PartitionMaintenance partitionMaintenance;
+    private final ColdArchiver coldArchiver;
+    private final PartitioningProperties partitioningProperties;
+    private final OutboxProperties outboxProperties;
 
-    @Scheduled(fixedDelay = 10000) // Cada 10 segundos
+    /**
+     * Red de seguridad de RN-012: las posiciones se derivan (QueuePositions) y no se reescriben;
+     * aquí solo se pasa a PROXIMO a quien llegó a los primeros lugares sin pasar por un ciclo de
+     * asignación. Escribe únicamente los tickets que cambian de estado.
+     */
+    @Scheduled(fixedDelay = 10000, scheduler = SchedulingConfig.MAINTENANCE) // Cada 10 segundos
     @Transactional
-    public void updateQueuePositions() {
+    public void promoteQueueHeads() {
         try {
             for (QueueType queueType : QueueType.values()) {
-                updatePositionsForQueue(queueType);
+                promoteQueueHead(queueType);
             }
         } catch (Exception e) {
-            log.error("Error updating queue positions", e);
+            log.error("Error promoting queue heads", e);
         }
     }
 
-    @Scheduled(cron = "0 0 0 * * ?") // Diariamente a medianoche
-    @Transactional
+    // Sin @Transactional: el mantenimiento de particiones desacopla fuera de transacción
+    @Scheduled(cron = "0 0 0 * * ?", scheduler = SchedulingConfig.MAINTENANCE) // Diariamente a medianoche
     public void dailyCleanup() {
         try {
-            cleanupOldTickets();
+            if (partitioningProperties.enabled()) {
+                partitionMaintenance.maintain(LocalDate.now());
+                coldArchiver.archiveDetachedPartitions();
+            }
+            outboxService.purgeConsumed(LocalDateTime.now().minusDays(outboxProperties.retentionDays()));
             resetDailyCounters();
             log.info("Daily cleanup completed");
         } catch (Exception e) {
@@ -48,7 +73,7 @@ public class QueueMaintenanceScheduler {
         }
     }
 
-    @Scheduled(fixedDelay = 60000) // Cada minuto
+    @Scheduled(fixedDelay = 60000, scheduler = SchedulingConfig.MAINTENANCE) // Cada minuto
     @Transactional
     public void checkCriticalTickets() {
         try {
@@ -74,51 +99,29 @@ public class QueueMaintenanceScheduler {
         }
     }
 
-    private void updatePositionsForQueue(QueueType queueType) {
-        List<Ticket> waitingTickets = ticketRepository.findWaitingTicketsByQueue(queueType);
-        
-        for (int i = 0; i < waitingTickets.size(); i++) {
-            Ticket ticket = waitingTickets.get(i);
-            Integer newPosition = i + 1;
-            Integer currentPosition = ticket.getPositionInQueue();
-            boolean positionChanged = currentPosition == null || !newPosition.equals(currentPosition);
-            
-            ticket.setPositionInQueue(newPosition);
-            ticket.setEstimatedWaitMinutes(newPosition * queueType.getAverageTimeMinutes());
-            
-            // RN-012: Cambiar a PROXIMO si posición <= 3
-            if (newPosition <= 3 && ticket.getStatus() == TicketStatus.EN_ESPERA) {
-                ticket.setStatus(TicketStatus.PROXIMO);
-                messageService.scheduleProximoTurnoMessage(ticket);
-                log.info("Ticket {} moved to PROXIMO status (position {})", 
-                    ticket.getNumero(), newPosition);
-            }
-            
-            if (positionChanged) {
-                log.debug("Updated position for ticket {}: {} -> {}", 
-                    ticket.getNumero(), 
-                    String.valueOf(currentPosition), 
-                    String.valueOf(newPosition));
+    private void promoteQueueHead(QueueType queueType) {
+        // Con bloqueo: una lectura sin él podría devolver a EN_ESPERA/PROXIMO un ticket recién asignado
+        List<Ticket> head = ticketRepository.lockQueueHead(queueType, PageRequest.of(0, PROXIMO_WINDOW));
+        List<Ticket> promoted = new ArrayList<>();
+
+        for (int i = 0; i < head.size(); i++) {
+            Ticket ticket = head.get(i);
+            if (ticket.getStatus() != TicketStatus.EN_ESPERA) {
+                continue;
             }
+            int position = i + 1;
+            ticket.setStatus(TicketStatus.PROXIMO);
+            // Solo para el evento: las columnas de posición no se actualizan
+            ticket.setPositionInQueue(position);
+            ticket.setEstimatedWaitMinutes(position * queueType.getAverageTimeMinutes());
+            promoted.add(ticket);
+            eventPublisher.publishEvent(TicketStatusChangedEvent.of(ticket, TicketStatus.EN_ESPERA));
+            log.info("Ticket {} moved to PROXIMO status (position {})", ticket.getNumero(), position);
         }
-        
-        if (!waitingTickets.isEmpty()) {
-            ticketRepository.saveAll(waitingTickets);
-        }
-    }
-
-    private void cleanupOldTickets() {
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(7);
-        List<Ticket> oldTickets = ticketRepository.findAll()
-            .stream()
-            .filter(t -> t.getCreatedAt().isBefore(cutoff))
-            .filter(t -> !t.getStatus().isActive())
-            .toList();
 
-        if (!oldTickets.isEmpty()) {
-            log.info("Cleaning up {} old tickets", oldTickets.size());
-            // En producción: archivar en lugar de eliminar
-            // ticketRepository.deleteAll(oldTickets);
+        if (!promoted.isEmpty()) {
+            ticketRepository.saveAll(promoted);
+            outboxService.ticketsPromoted(promoted);
         }
     }
 
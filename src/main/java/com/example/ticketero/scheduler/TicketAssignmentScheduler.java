@@ -1,24 +1,30 @@
 package com.example.ticketero.scheduler;
 
-import com.example.ticketero.service.AssignmentService;
+import com.example.ticketero.config.SchedulingConfig;
+import com.example.ticketero.service.AssignmentDispatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Barrido de respaldo: las asignaciones se disparan por eventos en AssignmentDispatcher,
+ * este ciclo sólo cubre señales perdidas (p. ej. tickets que superan su tiempo máximo).
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class TicketAssignmentScheduler {
 
-    private final AssignmentService assignmentService;
+    private final AssignmentDispatcher assignmentDispatcher;
 
-    @Scheduled(fixedDelay = 3000) // Cada 3 segundos
+    @Scheduled(fixedDelayString = "${ticketero.assignment.sweep-interval-ms:30000}",
+        scheduler = SchedulingConfig.ASSIGNMENT)
     public void processTicketAssignments() {
         try {
-            assignmentService.processTicketAssignments();
+            assignmentDispatcher.requestCycle();
         } catch (Exception e) {
             log.error("Error processing ticket assignments", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.enums.QueueType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Asesores disponibles indexados por cola. Mantiene un min-heap por QueueType ordenado por
+ * RN-004 (menor carga, luego el que lleva más tiempo sin asignación), por lo que elegir y retirar
+ * al mejor asesor de una cola cuesta O(log n) en vez de recorrer toda la dotación.
+ * <p>
+ * Un asesor aparece en el heap de cada cola que atiende; al retirarlo por una cola sus entradas
+ * en las demás quedan obsoletas y se descartan al llegar a la cima (borrado perezoso).
+ * <p>
+ * AssignmentPlanner lo arma en cada ciclo con los asesores AVAILABLE recién leídos y lo descarta al
+ * terminar, así que no sigue cambios de estado entre ciclos. No es thread-safe.
+ */
+public final class AdvisorPool {
+
+    private static final Comparator<Entry> LEAST_WORKLOAD = Comparator
+        .comparingInt(Entry::workloadMinutes)
+        .thenComparing(Entry::lastAssignedAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<QueueType, PriorityQueue<Entry>> heaps = new EnumMap<>(QueueType.class);
+    // Asesores aún no tomados; las entradas de los demás están obsoletas
+    private final Set<Advisor> available = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private AdvisorPool() {
+    }
+
+    public static AdvisorPool of(Collection<Advisor> advisors) {
+        AdvisorPool pool = new AdvisorPool();
+        advisors.forEach(pool::add);
+        return pool;
+    }
+
+    private void add(Advisor advisor) {
+        Set<QueueType> skills = skillsOf(advisor);
+        if (skills.isEmpty()) {
+            return;
+        }
+        available.add(advisor);
+        Entry entry = new Entry(advisor, advisor.getWorkloadMinutes(), advisor.getLastAssignedAt());
+        for (QueueType queueType : skills) {
+            heaps.computeIfAbsent(queueType, q -> new PriorityQueue<>(LEAST_WORKLOAD)).add(entry);
+        }
+    }
+
+    /**
+     * Retira y retorna el mejor asesor para la cola, o vacío si ninguno la atiende.
+     */
+    public Optional<Advisor> take(QueueType queueType) {
+        Entry best = peekValid(queueType);
+        if (best == null) {
+            return Optional.empty();
+        }
+        heaps.get(queueType).poll();
+        available.remove(best.advisor());
+        return Optional.of(best.advisor());
+    }
+
+    public boolean isEmpty() {
+        return available.isEmpty();
+    }
+
+    private Entry peekValid(QueueType queueType) {
+        PriorityQueue<Entry> heap = heaps.get(queueType);
+        if (heap == null) {
+            return null;
+        }
+        while (!heap.isEmpty()) {
+            Entry top = heap.peek();
+            if (available.contains(top.advisor())) {
+                return top;
+            }
+            heap.poll();
+        }
+        return null;
+    }
+
+    private static Set<QueueType> skillsOf(Advisor advisor) {
+        if (advisor.getQueueTypes() == null || advisor.getQueueTypes().isEmpty()) {
+            return EnumSet.noneOf(QueueType.class);
+        }
+        return EnumSet.copyOf(advisor.getQueueTypes());
+    }
+
+    private record Entry(Advisor advisor, int workloadMinutes, LocalDateTime lastAssignedAt) {}
+}
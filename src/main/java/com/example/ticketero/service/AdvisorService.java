@@ -1,5 +1,6 @@
 package com.example.ticketero.service;
 
+import com.example.ticketero.event.AdvisorStatusChangedEvent;
 import com.example.ticketero.model.dto.request.AdvisorStatusRequest;
 import com.example.ticketero.model.dto.response.AdvisorResponse;
 import com.example.ticketero.model.dto.response.AdvisorStatsResponse;
@@ -9,6 +10,7 @@ import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.repository.AdvisorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,7 @@ public class AdvisorService {
 
     private final AdvisorRepository advisorRepository;
     private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<AdvisorResponse> getAllAdvisors() {
         return advisorRepository.findAll()
@@ -54,6 +57,7 @@ public class AdvisorService {
         }
 
         Advisor saved = advisorRepository.save(advisor);
+        eventPublisher.publishEvent(AdvisorStatusChangedEvent.of(saved, previousStatus));
         
         // Auditoría
         auditService.logAdvisorStatusChanged(saved, previousStatus, request.reason());
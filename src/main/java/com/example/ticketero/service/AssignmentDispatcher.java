@@ -0,0 +1,77 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dispara el ciclo de asignación apenas se confirma un ticket nuevo o un asesor queda disponible.
+ * Todos los ciclos corren en un único hilo (single writer), por lo que nunca hay dos ciclos
+ * compitiendo por los mismos asesores. Las señales que llegan mientras un ciclo está pendiente
+ * se agrupan en ese mismo ciclo.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AssignmentDispatcher {
+
+    private final AssignmentService assignmentService;
+    private final TicketeroMetrics ticketeroMetrics;
+
+    private final AtomicBoolean cyclePending = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("assignment-dispatcher").daemon().factory());
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        if (event.previousStatus() == null) {
+            requestCycle();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        if (event.newStatus() == AdvisorStatus.AVAILABLE) {
+            requestCycle();
+        }
+    }
+
+    public void requestCycle() {
+        if (!cyclePending.compareAndSet(false, true)) {
+            return; // Ya hay un ciclo en cola que verá este cambio
+        }
+        try {
+            worker.execute(this::runCycle);
+        } catch (RejectedExecutionException e) {
+            cyclePending.set(false);
+            log.debug("Assignment dispatcher is shut down, cycle request ignored");
+        }
+    }
+
+    private void runCycle() {
+        // Liberar el flag antes de leer la BD: un cambio confirmado durante el ciclo agenda otro
+        cyclePending.set(false);
+        long start = System.nanoTime();
+        try {
+            int assigned = assignmentService.processTicketAssignments();
+            ticketeroMetrics.assignmentCycle(assigned, System.nanoTime() - start);
+        } catch (Exception e) {
+            log.error("Error processing ticket assignments", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Calcula en memoria el emparejamiento completo de un ciclo de asignación, sin acceder a la BD.
+ * Recibe los asesores disponibles y las cabezas de cada cola (orden FIFO) y aplica, en orden:
+ * RN-016 (tickets críticos primero), RN-002 (prioridad de cola) y RN-004 (menor carga, vía AdvisorPool).
+ */
+@Component
+public class AssignmentPlanner {
+
+    static final Comparator<QueueType> BY_PRIORITY =
+        Comparator.comparingInt(QueueType::getPriority).reversed();
+
+    public record Assignment(Ticket ticket, Advisor advisor, boolean critical) {}
+
+    public List<Assignment> plan(List<Advisor> availableAdvisors,
+                                 Map<QueueType, List<Ticket>> queueHeads,
+                                 LocalDateTime now) {
+        AdvisorPool pool = AdvisorPool.of(availableAdvisors.stream()
+            .filter(advisor -> advisor.getStatus() == AdvisorStatus.AVAILABLE)
+            .toList());
+
+        Map<QueueType, Deque<Ticket>> pending = new EnumMap<>(QueueType.class);
+        queueHeads.forEach((queueType, head) -> pending.put(queueType, new ArrayDeque<>(head)));
+
+        List<Assignment> assignments = new ArrayList<>();
+
+        // 1. RN-016: los críticos son siempre un prefijo de su cola, por lo que están en la cabeza
+        List<Ticket> critical = pending.values().stream()
+            .flatMap(Deque::stream)
+            .filter(ticket -> isCritical(ticket, now))
+            .sorted(Comparator.comparing(Ticket::getQueueType, BY_PRIORITY)
+                .thenComparing(Ticket::getCreatedAt))
+            .toList();
+
+        for (Ticket ticket : critical) {
+            Optional<Advisor> advisor = pool.take(ticket.getQueueType());
+            if (advisor.isPresent()) {
+                pending.get(ticket.getQueueType()).remove(ticket);
+                assignments.add(new Assignment(ticket, advisor.get(), true));
+            }
+        }
+
+        // 2. RN-002: resto de cada cola en orden de prioridad
+        List<QueueType> queuesByPriority = pending.keySet().stream().sorted(BY_PRIORITY).toList();
+        for (QueueType queueType : queuesByPriority) {
+            Deque<Ticket> queue = pending.get(queueType);
+            while (!queue.isEmpty() && !pool.isEmpty()) {
+                Optional<Advisor> advisor = pool.take(queueType);
+                if (advisor.isEmpty()) {
+                    break; // Ningún asesor libre atiende esta cola
+                }
+                assignments.add(new Assignment(queue.poll(), advisor.get(), false));
+            }
+        }
+
+        return assignments;
+    }
+
+    private static boolean isCritical(Ticket ticket, LocalDateTime now) {
+        return ticket.getCreatedAt()
+            .isBefore(now.minusMinutes(ticket.getQueueType().getMaxWaitTimeMinutes()));
+    }
+}
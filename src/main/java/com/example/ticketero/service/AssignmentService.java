@@ -1,24 +1,35 @@
 package com.example.ticketero.service;
 
+import com.example.ticketero.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.exception.TicketNotFoundException;
+import com.example.ticketero.exception.TicketNotServingException;
 import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
 import com.example.ticketero.repository.AdvisorRepository;
-import com.example.ticketero.repository.QueueStatsRepository;
 import com.example.ticketero.repository.TicketRepository;
+import com.example.ticketero.service.AssignmentPlanner.Assignment;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -26,139 +37,156 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public class AssignmentService {
 
+    // RN-012: tickets de la cola que reciben pre-aviso de turno
+    private static final int PROXIMO_WINDOW = 3;
+
     private final TicketRepository ticketRepository;
     private final AdvisorRepository advisorRepository;
-    private final QueueStatsRepository queueStatsRepository;
-    private final MessageService messageService;
-    private final AuditService auditService;
-
-    @Scheduled(fixedDelay = 3000) // Cada 3 segundos
+    private final AssignmentPlanner assignmentPlanner;
+    private final OutboxService outboxService;
+    private final QueuePositions queuePositions;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Ciclo de asignación con una cantidad fija de consultas: asesores disponibles, cabeza de cada
+     * cola y luego una escritura por lote de tickets, asesores y eventos del outbox. Las posiciones
+     * de los que siguen esperando no se escriben: se derivan de la marca de atendidos de la cola.
+     *
+     * @return tickets asignados en el ciclo
+     */
     @Transactional
-    public void processTicketAssignments() {
+    public int processTicketAssignments() {
         List<Advisor> availableAdvisors = advisorRepository.findByStatus(AdvisorStatus.AVAILABLE);
         
         if (availableAdvisors.isEmpty()) {
-            return;
+            return 0;
         }
 
-        // 1. Procesar tickets críticos primero (RN-016)
-        processCriticalTickets(availableAdvisors);
-        
-        // 2. Procesar tickets normales por prioridad de cola (RN-002)
-        processNormalTickets(availableAdvisors);
-    }
+        // Cada asesor toma a lo más un ticket por ciclo: basta con la cabeza de cada cola
+        Map<QueueType, List<Ticket>> queueHeads = loadQueueHeads(
+            servedQueues(availableAdvisors), availableAdvisors.size() + PROXIMO_WINDOW);
 
-    private void processCriticalTickets(List<Advisor> availableAdvisors) {
-        LocalDateTime now = LocalDateTime.now();
-        
-        // Calcular límites de tiempo por cola
-        LocalDateTime cajaLimit = now.minusMinutes(QueueType.CAJA.getMaxWaitTimeMinutes());
-        LocalDateTime personalLimit = now.minusMinutes(QueueType.PERSONAL_BANKER.getMaxWaitTimeMinutes());
-        LocalDateTime empresasLimit = now.minusMinutes(QueueType.EMPRESAS.getMaxWaitTimeMinutes());
-        LocalDateTime gerenciaLimit = now.minusMinutes(QueueType.GERENCIA.getMaxWaitTimeMinutes());
-        
-        List<Ticket> criticalTickets = queueStatsRepository.findCriticalTicketsByTimeLimit(
-            cajaLimit, personalLimit, empresasLimit, gerenciaLimit
-        );
-
-        for (Ticket ticket : criticalTickets) {
-            Optional<Advisor> advisor = findBestAdvisorForTicket(ticket, availableAdvisors);
-            if (advisor.isPresent()) {
-                assignTicketToAdvisor(ticket, advisor.get());
-                auditService.logTicketAssigned(ticket, advisor.get());
-                log.warn("CRITICAL ticket {} assigned to {} (waited {} minutes)", 
-                    ticket.getNumero(), advisor.get().getName(),
-                    java.time.Duration.between(ticket.getCreatedAt(), now).toMinutes());
-            }
+        List<Assignment> plan = assignmentPlanner.plan(availableAdvisors, queueHeads, LocalDateTime.now());
+        if (!plan.isEmpty()) {
+            applyPlan(plan, queueHeads);
         }
+        return plan.size();
     }
 
-    private void processNormalTickets(List<Advisor> availableAdvisors) {
-        // RN-002: Procesar por prioridad de cola (GERENCIA > EMPRESAS > PERSONAL_BANKER > CAJA)
-        QueueType[] queuesByPriority = {
-            QueueType.GERENCIA, 
-            QueueType.EMPRESAS, 
-            QueueType.PERSONAL_BANKER, 
-            QueueType.CAJA
-        };
-
-        for (QueueType queueType : queuesByPriority) {
-            List<Ticket> waitingTickets = ticketRepository.findWaitingTicketsByQueue(queueType);
-            
-            for (Ticket ticket : waitingTickets) {
-                List<Advisor> currentlyAvailable = advisorRepository.findByStatus(AdvisorStatus.AVAILABLE);
-                if (currentlyAvailable.isEmpty()) {
-                    return; // No hay más asesores disponibles
-                }
-                
-                Optional<Advisor> advisor = findBestAdvisorForTicket(ticket, currentlyAvailable);
-                if (advisor.isPresent()) {
-                    assignTicketToAdvisor(ticket, advisor.get());
-                    auditService.logTicketAssigned(ticket, advisor.get());
-                    log.info("Ticket {} assigned to {} (queue: {})", 
-                        ticket.getNumero(), advisor.get().getName(), queueType);
-                }
+    @Transactional
+    public void assignTicketToAdvisor(Ticket ticket, Advisor advisor) {
+        Map<QueueType, List<Ticket>> queueHeads = loadQueueHeads(
+            EnumSet.of(ticket.getQueueType()), PROXIMO_WINDOW + 1);
+        applyPlan(List.of(new Assignment(ticket, advisor, false)), queueHeads);
+    }
+
+    private Set<QueueType> servedQueues(List<Advisor> advisors) {
+        Set<QueueType> queueTypes = EnumSet.noneOf(QueueType.class);
+        for (Advisor advisor : advisors) {
+            if (advisor.getQueueTypes() != null) {
+                queueTypes.addAll(advisor.getQueueTypes());
             }
         }
+        return queueTypes;
     }
 
-    private Optional<Advisor> findBestAdvisorForTicket(Ticket ticket, List<Advisor> availableAdvisors) {
-        // Filtrar asesores que pueden atender este tipo de cola
-        List<Advisor> eligibleAdvisors = availableAdvisors.stream()
-            .filter(advisor -> advisor.getQueueTypes() != null && advisor.getQueueTypes().contains(ticket.getQueueType()))
-            .filter(advisor -> advisor.getStatus() == AdvisorStatus.AVAILABLE)
-            .toList();
-
-        if (eligibleAdvisors.isEmpty()) {
-            return Optional.empty();
+    private Map<QueueType, List<Ticket>> loadQueueHeads(Set<QueueType> queueTypes, int size) {
+        Pageable head = PageRequest.of(0, size);
+        Map<QueueType, List<Ticket>> queueHeads = new EnumMap<>(QueueType.class);
+        for (QueueType queueType : queueTypes) {
+            queueHeads.put(queueType, ticketRepository.findQueueHead(queueType, head));
         }
-
-        // RN-004: Seleccionar asesor con menor carga de trabajo
-        return eligibleAdvisors.stream()
-            .min(Comparator
-                .comparingInt(Advisor::getWorkloadMinutes)
-                .thenComparing(advisor -> advisor.getLastAssignedAt(), 
-                    Comparator.nullsFirst(Comparator.naturalOrder()))
-            );
+        return queueHeads;
     }
 
-    @Transactional
-    public void assignTicketToAdvisor(Ticket ticket, Advisor advisor) {
-        // Actualizar ticket
-        ticket.setStatus(TicketStatus.ATENDIENDO);
-        ticket.setAssignedAdvisor(advisor);
-        ticket.setAssignedModuleNumber(advisor.getModuleNumber());
-        ticket.setAssignedAt(LocalDateTime.now());
-        ticket.setPositionInQueue(0);
-        ticket.setEstimatedWaitMinutes(0);
-
-        // Actualizar asesor
-        advisor.setStatus(AdvisorStatus.BUSY);
-        advisor.setAssignedTicketsCount(advisor.getAssignedTicketsCount() + 1);
-        advisor.setWorkloadMinutes(advisor.getWorkloadMinutes() + ticket.getQueueType().getAverageTimeMinutes());
-        advisor.setLastAssignedAt(LocalDateTime.now());
-
-        // Guardar cambios
-        ticketRepository.save(ticket);
-        advisorRepository.save(advisor);
-
-        // Programar mensaje "es tu turno"
-        messageService.scheduleEsTuTurnoMessage(ticket);
-
-        // Actualizar posiciones de tickets restantes en la cola
-        updateQueuePositions(ticket.getQueueType());
+    private void applyPlan(List<Assignment> plan, Map<QueueType, List<Ticket>> queueHeads) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Ticket> changedTickets = new ArrayList<>();
+        List<Advisor> changedAdvisors = new ArrayList<>();
+        Set<Ticket> assigned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Assignment assignment : plan) {
+            Ticket ticket = assignment.ticket();
+            Advisor advisor = assignment.advisor();
+
+            // Actualizar ticket
+            TicketStatus previousStatus = ticket.getStatus();
+            ticket.setStatus(TicketStatus.ATENDIENDO);
+            ticket.setAssignedAdvisor(advisor);
+            ticket.setAssignedModuleNumber(advisor.getModuleNumber());
+            ticket.setAssignedAt(now);
+
+            // Actualizar asesor
+            advisor.setStatus(AdvisorStatus.BUSY);
+            advisor.setAssignedTicketsCount(advisor.getAssignedTicketsCount() + 1);
+            advisor.setWorkloadMinutes(advisor.getWorkloadMinutes() + ticket.getQueueType().getAverageTimeMinutes());
+            advisor.setLastAssignedAt(now);
+
+            changedTickets.add(ticket);
+            changedAdvisors.add(advisor);
+            assigned.add(ticket);
+            eventPublisher.publishEvent(TicketStatusChangedEvent.of(ticket, previousStatus));
+            eventPublisher.publishEvent(AdvisorStatusChangedEvent.of(advisor, AdvisorStatus.AVAILABLE));
+
+            if (assignment.critical()) {
+                log.warn("CRITICAL ticket {} assigned to {} (waited {} minutes)",
+                    ticket.getNumero(), advisor.getName(),
+                    java.time.Duration.between(ticket.getCreatedAt(), now).toMinutes());
+            } else {
+                log.info("Assignment completed: {} → {} (module {})",
+                    ticket.getNumero(), advisor.getName(), advisor.getModuleNumber());
+            }
+        }
 
-        log.info("Assignment completed: {} → {} (module {})", 
-            ticket.getNumero(), advisor.getName(), advisor.getModuleNumber());
+        // RN-012: pre-aviso a los que quedan entre los primeros de la cabeza de cada cola
+        List<Ticket> promoted = new ArrayList<>();
+        queueHeads.forEach((queueType, head) -> {
+            int position = 0;
+            for (Ticket ticket : head) {
+                if (assigned.contains(ticket)) {
+                    continue;
+                }
+                if (++position > PROXIMO_WINDOW) {
+                    break;
+                }
+                if (ticket.getStatus() == TicketStatus.EN_ESPERA) {
+                    ticket.setStatus(TicketStatus.PROXIMO);
+                    // Solo para el evento: las columnas de posición no se actualizan
+                    ticket.setPositionInQueue(position);
+                    ticket.setEstimatedWaitMinutes(position * queueType.getAverageTimeMinutes());
+                    promoted.add(ticket);
+                    changedTickets.add(ticket);
+                    eventPublisher.publishEvent(TicketStatusChangedEvent.of(ticket, TicketStatus.EN_ESPERA));
+                }
+            }
+        });
+
+        // Escritura por lote
+        ticketRepository.saveAll(changedTickets);
+        advisorRepository.saveAll(changedAdvisors);
+        queuePositions.markServed(assigned);
+        // Mensajes, auditoría y estadísticas: los derivan los consumidores del outbox
+        outboxService.ticketsAssigned(plan);
+        outboxService.ticketsPromoted(promoted);
     }
 
     @Transactional
     public void completeTicket(Long ticketId) {
         Ticket ticket = ticketRepository.findById(ticketId)
             .orElseThrow(() -> new IllegalArgumentException("Ticket not found: " + ticketId));
+        complete(ticket);
+    }
+
+    @Transactional
+    public void completeTicket(UUID codigoReferencia) {
+        Ticket ticket = ticketRepository.findByCodigoReferencia(codigoReferencia)
+            .orElseThrow(() -> new TicketNotFoundException(codigoReferencia));
+        complete(ticket);
+    }
 
+    private void complete(Ticket ticket) {
         if (ticket.getStatus() != TicketStatus.ATENDIENDO) {
-            throw new IllegalStateException("Ticket is not being served: " + ticket.getNumero());
+            throw new TicketNotServingException(ticket.getNumero());
         }
 
         Advisor advisor = ticket.getAssignedAdvisor();
@@ -187,32 +215,14 @@ public class AssignmentService {
         // Guardar cambios
         ticketRepository.save(ticket);
         advisorRepository.save(advisor);
+        outboxService.ticketCompleted(ticket);
+        eventPublisher.publishEvent(TicketStatusChangedEvent.of(ticket, TicketStatus.ATENDIENDO));
+        eventPublisher.publishEvent(AdvisorStatusChangedEvent.of(advisor, AdvisorStatus.BUSY));
 
         log.info("Ticket {} completed by {} in {} minutes", 
             ticket.getNumero(), advisor.getName(), ticket.getActualServiceTimeMinutes());
     }
 
-    private void updateQueuePositions(QueueType queueType) {
-        List<Ticket> waitingTickets = ticketRepository.findWaitingTicketsByQueue(queueType);
-        
-        for (int i = 0; i < waitingTickets.size(); i++) {
-            Ticket ticket = waitingTickets.get(i);
-            int newPosition = i + 1;
-            
-            // Actualizar posición y tiempo estimado
-            ticket.setPositionInQueue(newPosition);
-            ticket.setEstimatedWaitMinutes(newPosition * queueType.getAverageTimeMinutes());
-            
-            // RN-012: Enviar mensaje de pre-aviso si posición <= 3
-            if (newPosition <= 3 && ticket.getStatus() == TicketStatus.EN_ESPERA) {
-                ticket.setStatus(TicketStatus.PROXIMO);
-                messageService.scheduleProximoTurnoMessage(ticket);
-            }
-        }
-        
-        ticketRepository.saveAll(waitingTickets);
-    }
-
     private void updateAdvisorAverageServiceTime(Advisor advisor, Integer actualServiceTime) {
         if (actualServiceTime == null) return;
         
@@ -0,0 +1,105 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.AuditLog;
+import com.example.ticketero.model.entity.OutboxEvent;
+import com.example.ticketero.model.enums.OutboxEventType;
+import com.example.ticketero.model.enums.QueueType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Proyecta los eventos de tickets del outbox a audit_log. El timestamp de la auditoría es el del
+ * cambio (el evento), no el del momento en que se proyecta.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditProjector implements OutboxConsumer {
+
+    private final AuditWriter auditWriter;
+
+    @Override
+    public String name() {
+        return "audit";
+    }
+
+    @Override
+    public Set<OutboxEventType> eventTypes() {
+        return EnumSet.of(OutboxEventType.TICKET_CREADO, OutboxEventType.TICKET_ASIGNADO);
+    }
+
+    @Override
+    public void consume(List<OutboxEvent> events) {
+        List<AuditLog> auditLogs = events.stream()
+            .map(event -> event.getEventType() == OutboxEventType.TICKET_CREADO
+                ? ticketCreated(event)
+                : ticketAssigned(event))
+            .toList();
+
+        auditWriter.writeInTransaction(auditLogs);
+        log.debug("Audit projected: {} ticket events", auditLogs.size());
+    }
+
+    private AuditLog ticketCreated(OutboxEvent event) {
+        return AuditLog.builder()
+            .timestamp(event.getCreatedAt())
+            .eventType("TICKET_CREADO")
+            .actor("cliente:" + event.text("nationalId"))
+            .entityType("TICKET")
+            .entityId(event.text("numero"))
+            .previousState(null)
+            .newState(Map.of(
+                "status", event.text("status"),
+                "queueType", event.text("queueType"),
+                "positionInQueue", event.number("positionInQueue")
+            ))
+            .additionalData(Map.of(
+                "branchOffice", event.text("branchOffice"),
+                "estimatedWaitMinutes", event.number("estimatedWaitMinutes")
+            ))
+            .build();
+    }
+
+    private AuditLog ticketAssigned(OutboxEvent event) {
+        return AuditLog.builder()
+            .timestamp(event.timestamp("assignedAt"))
+            .eventType("TICKET_ASIGNADO")
+            .actor("sistema:auto-assignment")
+            .entityType("TICKET")
+            .entityId(event.text("numero"))
+            .previousState(previousAssignmentState())
+            .newState(Map.of(
+                "status", "ATENDIENDO",
+                "assignedAdvisor", event.text("advisorName"),
+                "moduleNumber", event.number("moduleNumber")
+            ))
+            .additionalData(assignmentData(event))
+            .build();
+    }
+
+    // La sucursal permite separar tickets con el mismo número; los eventos encolados antes de
+    // incluirla en el payload no la traen
+    private Map<String, Object> assignmentData(OutboxEvent event) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("advisorId", event.number("advisorId"));
+        data.put("assignmentReason", Boolean.parseBoolean(event.text("critical")) ? "CRITICAL" : "AUTOMATIC");
+        data.put("queuePriority", QueueType.valueOf(event.text("queueType")).getPriority());
+        data.put("branchOffice", event.text("branchOffice"));
+        return data;
+    }
+
+    // Map.of no admite valores null y el ticket aún no tenía asesor
+    private Map<String, Object> previousAssignmentState() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("status", "EN_ESPERA");
+        state.put("assignedAdvisor", null);
+        return state;
+    }
+}
@@ -3,7 +3,6 @@ package com.example.ticketero.service;
 import com.example.ticketero.model.dto.response.AuditEventResponse;
 import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.entity.AuditLog;
-import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.repository.AuditLogRepository;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -22,58 +22,8 @@ import java.util.Map;
 public class AuditService {
 
     private final AuditLogRepository auditLogRepository;
-
-    @Transactional
-    public void logTicketCreated(Ticket ticket, String nationalId) {
-        AuditLog auditLog = AuditLog.builder()
-            .timestamp(LocalDateTime.now())
-            .eventType("TICKET_CREADO")
-            .actor("cliente:" + nationalId)
-            .entityType("TICKET")
-            .entityId(ticket.getNumero())
-            .previousState(null)
-            .newState(Map.of(
-                "status", ticket.getStatus().name(),
-                "queueType", ticket.getQueueType().name(),
-                "positionInQueue", ticket.getPositionInQueue()
-            ))
-            .additionalData(Map.of(
-                "branchOffice", ticket.getBranchOffice(),
-                "estimatedWaitMinutes", ticket.getEstimatedWaitMinutes()
-            ))
-            .build();
-
-        auditLogRepository.save(auditLog);
-        log.debug("Audit logged: TICKET_CREADO for {}", ticket.getNumero());
-    }
-
-    @Transactional
-    public void logTicketAssigned(Ticket ticket, Advisor advisor) {
-        AuditLog auditLog = AuditLog.builder()
-            .timestamp(LocalDateTime.now())
-            .eventType("TICKET_ASIGNADO")
-            .actor("sistema:auto-assignment")
-            .entityType("TICKET")
-            .entityId(ticket.getNumero())
-            .previousState(Map.of(
-                "status", "EN_ESPERA",
-                "assignedAdvisor", (Object) null
-            ))
-            .newState(Map.of(
-                "status", "ATENDIENDO",
-                "assignedAdvisor", advisor.getName(),
-                "moduleNumber", advisor.getModuleNumber()
-            ))
-            .additionalData(Map.of(
-                "advisorId", advisor.getId(),
-                "assignmentReason", "AUTOMATIC",
-                "queuePriority", ticket.getQueueType().getPriority()
-            ))
-            .build();
-
-        auditLogRepository.save(auditLog);
-        log.debug("Audit logged: TICKET_ASIGNADO {} to {}", ticket.getNumero(), advisor.getName());
-    }
+    private final AuditWriter auditWriter;
+    private final ColdArchiver coldArchiver;
 
     @Transactional
     public void logAdvisorStatusChanged(Advisor advisor, AdvisorStatus previousStatus, String reason) {
@@ -97,16 +47,27 @@ public class AuditService {
             ))
             .build();
 
-        auditLogRepository.save(auditLog);
+        auditWriter.write(auditLog);
         log.debug("Audit logged: ASESOR_STATUS_CHANGED for {}", advisor.getName());
     }
 
-    public AuditEventResponse getAuditTrail(String entityType, String entityId) {
+    /**
+     * Trail de auditoría de una entidad. El número de ticket se reinicia cada día y por sucursal:
+     * {@code day} y {@code branchOffice} (opcionales) acotan el trail a un solo ticket. El archivo
+     * frío se consulta solo con {@code day}, y entonces se lee únicamente el segmento de ese día.
+     */
+    public AuditEventResponse getAuditTrail(String entityType, String entityId, LocalDate day, String branchOffice) {
         List<AuditLog> events = auditLogRepository.findAuditTrailForEntity(entityType, entityId);
         
         List<AuditEventResponse.AuditEvent> auditEvents = events.stream()
+            .filter(auditLog -> day == null || auditLog.getTimestamp().toLocalDate().equals(day))
+            .filter(auditLog -> branchOffice == null || branchOffice.equals(branchOf(auditLog)))
             .map(this::toAuditEvent)
             .toList();
+        if (auditEvents.isEmpty() && day != null) {
+            // Sin eventos en las particiones vivas: buscar en el segmento archivado de ese día
+            auditEvents = coldArchiver.findAuditTrail(entityType, entityId, day, branchOffice);
+        }
 
         return new AuditEventResponse(
             entityType,
@@ -116,6 +77,10 @@ public class AuditService {
         );
     }
 
+    private static Object branchOf(AuditLog auditLog) {
+        return auditLog.getAdditionalData() != null ? auditLog.getAdditionalData().get("branchOffice") : null;
+    }
+
     private AuditEventResponse.AuditEvent toAuditEvent(AuditLog auditLog) {
         return new AuditEventResponse.AuditEvent(
             auditLog.getId(),
@@ -127,4 +92,4 @@ public class AuditService {
             auditLog.getAdditionalData()
         );
     }
-}
\ No newline at end of file
+}
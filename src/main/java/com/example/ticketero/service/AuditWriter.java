@@ -0,0 +1,294 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.AuditProperties;
+import com.example.ticketero.model.entity.AuditLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura de auditoría fuera del camino crítico.
+ * <p>
+ * La auditoría de tickets la proyecta AuditProjector desde el outbox con {@link #writeInTransaction};
+ * lo que se registra directamente (cambios de estado de asesores, desde AuditService) pasa por
+ * {@link #writeAll}. Ahí, los eventos de {@code ticketero.audit.sync-event-types} (o todos, con
+ * {@code async: false}) se guardan en la transacción que los genera. El resto entra, al confirmarse
+ * esa transacción, a un buffer acotado que un hilo escritor vacía con INSERT multi-fila de hasta
+ * {@code ticketero.audit.batch-size} eventos. Con el buffer lleno los eventos pasan a una cola de
+ * excedente que el escritor vacía primero: el llamador no escribe, porque tras el commit su conexión
+ * sigue tomada pero ya no hay transacción que confirme lo que escriba. Un lote que falla se
+ * reintenta; la auditoría no se descarta.
+ * <p>
+ * Métricas: {@code ticketero.audit.buffer.size}, {@code ticketero.audit.overflow.size},
+ * {@code ticketero.audit.events} (por modo sync/async/overflow/outbox), {@code ticketero.audit.write.errors}
+ * y {@code ticketero.audit.batch.write}.
+ */
+@Component
+@Slf4j
+public class AuditWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO audit_log (timestamp, event_type, actor, entity_type, "
+        + "entity_id, previous_state, new_state, additional_data, ip_address, user_agent) VALUES ";
+    private static final String ROW_VALUES =
+        "(?, ?, ?, ?, ?, CAST(? AS JSON), CAST(? AS JSON), CAST(? AS JSON), ?, ?)";
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditProperties properties;
+    private final int batchSize;
+
+    private final BlockingQueue<AuditLog> buffer;
+    // Sin tope: solo crece mientras el escritor no da abasto, y se vacía antes que el buffer
+    private final Queue<AuditLog> overflow = new ConcurrentLinkedQueue<>();
+    private final Thread writer = Thread.ofPlatform().name("audit-writer").daemon().unstarted(this::drainLoop);
+    // Lote que el escritor tenía en mano al detenerse; lo escribe shutdown()
+    private volatile List<AuditLog> unwritten = List.of();
+
+    private final Counter syncEvents;
+    private final Counter asyncEvents;
+    private final Counter overflowEvents;
+    private final Counter projectedEvents;
+    private final Counter writeErrors;
+    private final Timer batchWrite;
+
+    public AuditWriter(JdbcTemplate jdbcTemplate,
+                       ObjectMapper objectMapper,
+                       AuditProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.batchSize = Math.max(1, properties.batchSize());
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, properties.bufferSize()));
+
+        meterRegistry.gauge("ticketero.audit.buffer.size", buffer, BlockingQueue::size);
+        meterRegistry.gauge("ticketero.audit.overflow.size", overflow, Queue::size);
+        this.syncEvents = meterRegistry.counter("ticketero.audit.events", "mode", "sync");
+        this.asyncEvents = meterRegistry.counter("ticketero.audit.events", "mode", "async");
+        this.overflowEvents = meterRegistry.counter("ticketero.audit.events", "mode", "overflow");
+        this.projectedEvents = meterRegistry.counter("ticketero.audit.events", "mode", "outbox");
+        this.writeErrors = meterRegistry.counter("ticketero.audit.write.errors");
+        this.batchWrite = meterRegistry.timer("ticketero.audit.batch.write");
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    public void write(AuditLog auditLog) {
+        writeAll(List.of(auditLog));
+    }
+
+    public void writeAll(List<AuditLog> auditLogs) {
+        // La hora del evento es la de ahora, no la de la escritura (que puede ser tras reintentos o en otro día)
+        LocalDateTime now = LocalDateTime.now();
+        List<AuditLog> sync = new ArrayList<>();
+        List<AuditLog> async = new ArrayList<>();
+        for (AuditLog auditLog : auditLogs) {
+            if (auditLog.getTimestamp() == null) {
+                auditLog.setTimestamp(now);
+            }
+            (isSync(auditLog) ? sync : async).add(auditLog);
+        }
+
+        if (!sync.isEmpty()) {
+            insert(sync);
+            syncEvents.increment(sync.size());
+        }
+        if (!async.isEmpty()) {
+            // Solo se audita lo confirmado: un rollback no deja eventos huérfanos en el buffer
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        enqueue(async);
+                    }
+                });
+            } else {
+                enqueue(async);
+            }
+        }
+    }
+
+    /**
+     * Escribe ya, en la transacción en curso y con INSERT multi-fila. Para quien necesita que la
+     * auditoría se confirme junto con su propio trabajo (AuditProjector con su posición en el outbox).
+     */
+    public void writeInTransaction(List<AuditLog> auditLogs) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        insert(auditLogs);
+        projectedEvents.increment(auditLogs.size());
+    }
+
+    /**
+     * Escribe en este hilo todo lo que hay en espera (excedente y buffer). Retorna cuántos eventos
+     * se escribieron.
+     */
+    int flush() {
+        int written = 0;
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (nextBatch(batch) > 0) {
+            written += writeOnShutdown(batch);
+            batch.clear();
+        }
+        return written;
+    }
+
+    private boolean isSync(AuditLog auditLog) {
+        return !properties.async() || properties.syncEventTypes().contains(auditLog.getEventType());
+    }
+
+    private void enqueue(List<AuditLog> auditLogs) {
+        int overflowed = 0;
+        for (AuditLog auditLog : auditLogs) {
+            if (!buffer.offer(auditLog)) {
+                overflow.add(auditLog);
+                overflowed++;
+            }
+        }
+        asyncEvents.increment(auditLogs.size() - overflowed);
+        if (overflowed > 0) {
+            overflowEvents.increment(overflowed);
+            log.warn("Audit buffer full ({} pending), {} events handed to the writer as overflow",
+                buffer.size(), overflowed);
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (nextBatch(batch) == 0) {
+                    AuditLog next = buffer.poll(properties.retryDelay().toMillis(), TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        continue;
+                    }
+                    batch.add(next);
+                    nextBatch(batch);
+                }
+                writeWithRetry(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        unwritten = List.copyOf(batch);
+    }
+
+    // Completa el lote con el excedente primero y luego con el buffer
+    private int nextBatch(List<AuditLog> batch) {
+        AuditLog auditLog;
+        while (batch.size() < batchSize && (auditLog = overflow.poll()) != null) {
+            batch.add(auditLog);
+        }
+        buffer.drainTo(batch, batchSize - batch.size());
+        return batch.size();
+    }
+
+    private void writeWithRetry(List<AuditLog> batch) throws InterruptedException {
+        while (true) {
+            try {
+                insert(batch);
+                return;
+            } catch (RuntimeException e) {
+                // Mientras la BD no responde el buffer se llena y lo nuevo se acumula como excedente
+                writeErrors.increment();
+                log.error("Error writing {} audit events, retrying in {}", batch.size(), properties.retryDelay(), e);
+                TimeUnit.MILLISECONDS.sleep(properties.retryDelay().toMillis());
+            }
+        }
+    }
+
+    /**
+     * Al detenerse no queda un escritor que reintente sin plazo: se intenta unas veces y, si la BD
+     * sigue sin responder, los eventos quedan en el log para recuperarlos.
+     */
+    private int writeOnShutdown(List<AuditLog> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insert(batch);
+                return batch.size();
+            } catch (RuntimeException e) {
+                writeErrors.increment();
+                if (attempt >= SHUTDOWN_ATTEMPTS) {
+                    log.error("Error writing {} audit events on shutdown after {} attempts", batch.size(), attempt, e);
+                    batch.forEach(auditLog -> log.error("Unwritten audit event: {} {} {} at {} new state {}",
+                        auditLog.getEventType(), auditLog.getEntityType(), auditLog.getEntityId(),
+                        auditLog.getTimestamp(), json(auditLog.getNewState())));
+                    return 0;
+                }
+                try {
+                    TimeUnit.MILLISECONDS.sleep(properties.retryDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void insert(List<AuditLog> batch) {
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<AuditLog> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            String sql = INSERT_SQL + String.join(", ", Collections.nCopies(chunk.size(), ROW_VALUES));
+            List<Object> args = new ArrayList<>(chunk.size() * 10);
+            for (AuditLog auditLog : chunk) {
+                args.add(auditLog.getTimestamp());
+                args.add(auditLog.getEventType());
+                args.add(auditLog.getActor());
+                args.add(auditLog.getEntityType());
+                args.add(auditLog.getEntityId());
+                args.add(json(auditLog.getPreviousState()));
+                args.add(json(auditLog.getNewState()));
+                args.add(json(auditLog.getAdditionalData()));
+                args.add(auditLog.getIpAddress());
+                args.add(auditLog.getUserAgent());
+            }
+            batchWrite.record(() -> jdbcTemplate.update(sql, args.toArray()));
+        }
+    }
+
+    private String json(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Audit payload is not serializable", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        int written = (unwritten.isEmpty() ? 0 : writeOnShutdown(unwritten)) + flush();
+        if (written > 0) {
+            log.info("Flushed {} pending audit events on shutdown", written);
+        }
+    }
+}
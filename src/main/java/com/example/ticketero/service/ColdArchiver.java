@@ -0,0 +1,195 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.ArchiveProperties;
+import com.example.ticketero.model.dto.response.AuditEventResponse.AuditEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archivo frío de las particiones que PartitionMaintenance desacopló al schema archive.
+ * <p>
+ * Cada partición se vuelca en trozos paginados por id (keyset) a un segmento NDJSON comprimido por
+ * tabla y día ({@code <directorio>/<tabla>/<día>.ndjson.gz}, una fila por línea con las columnas
+ * de la tabla) y luego se elimina con DROP TABLE. El segmento se escribe a un temporal, se
+ * sincroniza a disco y se renombra al terminar: si el proceso cae a mitad, la partición sigue en
+ * la BD y se reintenta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ColdArchiver {
+
+    static final String SEGMENT_SUFFIX = ".ndjson.gz";
+
+    private static final Pattern ARCHIVED_PARTITION = Pattern.compile("^(.+)_p(\\d{8})$");
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ArchiveProperties archiveProperties;
+
+    public int archiveDetachedPartitions() {
+        List<String> detached = jdbcTemplate.queryForList(
+            "SELECT tablename FROM pg_tables WHERE schemaname = ? ORDER BY tablename",
+            String.class, PartitionMaintenance.ARCHIVE_SCHEMA);
+
+        int archived = 0;
+        for (String partition : detached) {
+            Matcher name = ARCHIVED_PARTITION.matcher(partition);
+            if (!name.matches() || !PartitionMaintenance.PARTITIONED_TABLES.contains(name.group(1))) {
+                continue;
+            }
+            LocalDate day = LocalDate.parse(name.group(2), DateTimeFormatter.BASIC_ISO_DATE);
+            try {
+                long rows = writeSegment(partition, segment(name.group(1), day));
+                jdbcTemplate.execute("DROP TABLE " + PartitionMaintenance.ARCHIVE_SCHEMA + ".\"" + partition + "\"");
+                archived++;
+                log.info("Archived {} rows of {} to cold storage", rows, partition);
+            } catch (RuntimeException | IOException e) {
+                log.error("Error archiving partition {}, it stays in the database", partition, e);
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Eventos archivados de una entidad en un día. Se lee solo el segmento de ese día (nada si no
+     * existe). El número de ticket se repite entre sucursales: con {@code branchOffice} quedan solo
+     * los eventos registrados en esa sucursal.
+     */
+    public List<AuditEvent> findAuditTrail(String entityType, String entityId, LocalDate day, String branchOffice) {
+        Path segment = segment("audit_log", day);
+        if (!Files.exists(segment)) {
+            return List.of();
+        }
+        List<AuditEvent> events = new ArrayList<>();
+        try (BufferedReader reader = reader(segment)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Descarte barato antes de parsear: casi ninguna línea es de esta entidad
+                if (!line.contains(entityId)) {
+                    continue;
+                }
+                JsonNode row = objectMapper.readTree(line);
+                if (entityType.equals(row.path("entity_type").asText())
+                        && entityId.equals(row.path("entity_id").asText())
+                        && (branchOffice == null
+                            || branchOffice.equals(row.path("additional_data").path("branchOffice").asText(null)))) {
+                    events.add(toAuditEvent(row));
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error reading archive segment {}", segment, e);
+        }
+        events.sort(Comparator.comparing(AuditEvent::timestamp).reversed());
+        return events;
+    }
+
+    private long writeSegment(String partition, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        String chunkSql = "SELECT id, CAST(row_to_json(p) AS TEXT) FROM " + PartitionMaintenance.ARCHIVE_SCHEMA
+            + ".\"" + partition + "\" p WHERE id > ? ORDER BY id LIMIT ?";
+
+        long rows = 0;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel));
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8))) {
+                long lastId = 0;
+                List<ArchivedRow> chunk;
+                do {
+                    chunk = jdbcTemplate.query(chunkSql,
+                        (rs, rowNum) -> new ArchivedRow(rs.getLong(1), rs.getString(2)),
+                        lastId, archiveProperties.chunkSize());
+                    for (ArchivedRow row : chunk) {
+                        writer.write(row.json());
+                        writer.write('\n');
+                    }
+                    rows += chunk.size();
+                    if (!chunk.isEmpty()) {
+                        lastId = chunk.get(chunk.size() - 1).id();
+                    }
+                } while (chunk.size() == archiveProperties.chunkSize());
+                // Tras el DROP TABLE el segmento es la única copia: debe estar en disco antes
+                writer.flush();
+                gzip.finish();
+                channel.force(true);
+            }
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(target.getParent());
+        return rows;
+    }
+
+    // El rename también debe llegar a disco. No todos los sistemas permiten abrir un directorio
+    // (Windows): ahí queda solo el fsync del archivo
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Cannot fsync archive directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private Path segment(String table, LocalDate day) {
+        return archiveProperties.directory().resolve(table).resolve(day + SEGMENT_SUFFIX);
+    }
+
+    private static BufferedReader reader(Path segment) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(segment)), StandardCharsets.UTF_8));
+    }
+
+    private AuditEvent toAuditEvent(JsonNode row) {
+        return new AuditEvent(
+            row.path("id").asLong(),
+            LocalDateTime.parse(row.path("timestamp").asText()),
+            row.path("event_type").asText(),
+            row.path("actor").asText(),
+            jsonObject(row.get("previous_state")),
+            jsonObject(row.get("new_state")),
+            jsonObject(row.get("additional_data"))
+        );
+    }
+
+    private Map<String, Object> jsonObject(JsonNode node) {
+        return node == null || node.isNull() ? null : objectMapper.convertValue(node, JSON_OBJECT);
+    }
+
+    record ArchivedRow(long id, String json) {}
+}
@@ -3,12 +3,13 @@ package com.example.ticketero.service;
 import com.example.ticketero.model.dto.response.DashboardResponse;
 import com.example.ticketero.model.dto.response.PerformanceSummaryResponse;
 import com.example.ticketero.model.dto.response.QueueSummaryResponse;
+import com.example.ticketero.model.entity.QueueDailyStats;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.model.enums.QueueType;
-import com.example.ticketero.model.enums.TicketStatus;
 import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.QueueDailyStatsRepository;
 import com.example.ticketero.repository.QueueStatsRepository;
-import com.example.ticketero.repository.TicketRepository;
+import com.example.ticketero.repository.QueueStatsRepository.QueueAggregate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -26,17 +28,28 @@ import java.util.Map;
 @Transactional(readOnly = true)
 public class DashboardService {
 
-    private final TicketRepository ticketRepository;
     private final AdvisorRepository advisorRepository;
     private final QueueStatsRepository queueStatsRepository;
+    private final QueueDailyStatsRepository queueDailyStatsRepository;
     private final QueueService queueService;
+    private final QueueStateCounters queueStateCounters;
 
+    /**
+     * Snapshot del dashboard: el estado en vivo y los asesores salen de QueueStateCounters y solo
+     * las estadísticas del día se consultan. Mientras los contadores no estén listos, son tres
+     * queries fijas (agregado de tickets activos, estadísticas del día y conteo de asesores).
+     */
     public DashboardResponse getDashboard() {
+        LocalDateTime now = LocalDateTime.now();
+        List<QueueAggregate> aggregates = queueStateCounters.aggregateByQueue(now)
+            .orElseGet(() -> queueStatsRepository.aggregateByQueue(now));
+        List<QueueDailyStats> dailyStats = queueDailyStatsRepository.findByIdBusinessDate(now.toLocalDate());
+
         // Calcular summary general
-        DashboardResponse.DashboardSummary summary = calculateSummary();
+        DashboardResponse.DashboardSummary summary = calculateSummary(aggregates, dailyStats);
         
-        // Obtener resumen de colas
-        List<QueueSummaryResponse> queuesSummary = queueService.getAllQueuesSummary();
+        // Resumen de colas desde los mismos datos
+        List<QueueSummaryResponse> queuesSummary = queueService.summarize(aggregates, dailyStats);
         
         // Generar alertas
         List<DashboardResponse.AlertResponse> alerts = generateAlerts(queuesSummary);
@@ -50,14 +63,17 @@ public class DashboardService {
     }
 
     public PerformanceSummaryResponse getPerformanceSummary() {
-        // Calcular métricas de performance
-        long totalCompleted = Arrays.stream(QueueType.values())
-            .mapToLong(qt -> queueStatsRepository.countTodayByQueueAndStatus(qt, TicketStatus.COMPLETADO))
+        // Calcular métricas de performance desde las filas del día (una por cola)
+        Map<QueueType, QueueDailyStats> today = QueueService.byQueueType(
+            queueDailyStatsRepository.findByIdBusinessDate(LocalDate.now()));
+
+        long totalCompleted = today.values().stream()
+            .mapToLong(QueueDailyStats::getCompletedCount)
             .sum();
 
         Double avgServiceTime = Arrays.stream(QueueType.values())
             .mapToDouble(qt -> {
-                Double avg = queueStatsRepository.getAverageServiceTimeToday(qt);
+                Double avg = today.containsKey(qt) ? today.get(qt).getAverageServiceMinutes() : null;
                 return avg != null ? avg : qt.getAverageTimeMinutes();
             })
             .average()
@@ -65,7 +81,7 @@ public class DashboardService {
 
         Double avgWaitTime = Arrays.stream(QueueType.values())
             .mapToDouble(qt -> {
-                Double avg = queueStatsRepository.getAverageWaitTimeToday(qt);
+                Double avg = today.containsKey(qt) ? today.get(qt).getAverageWaitMinutes() : null;
                 return avg != null ? avg : 0.0;
             })
             .average()
@@ -102,48 +118,47 @@ public class DashboardService {
         );
     }
 
-    private DashboardResponse.DashboardSummary calculateSummary() {
-        long totalToday = Arrays.stream(QueueType.values())
-            .mapToLong(qt -> queueStatsRepository.countTodayByQueueAndStatus(qt, TicketStatus.COMPLETADO))
-            .sum();
-
-        long waiting = ticketRepository.countByQueueTypeAndStatus(QueueType.CAJA, TicketStatus.EN_ESPERA) +
-                       ticketRepository.countByQueueTypeAndStatus(QueueType.PERSONAL_BANKER, TicketStatus.EN_ESPERA) +
-                       ticketRepository.countByQueueTypeAndStatus(QueueType.EMPRESAS, TicketStatus.EN_ESPERA) +
-                       ticketRepository.countByQueueTypeAndStatus(QueueType.GERENCIA, TicketStatus.EN_ESPERA);
-        
-        long serving = ticketRepository.countByQueueTypeAndStatus(QueueType.CAJA, TicketStatus.ATENDIENDO) +
-                      ticketRepository.countByQueueTypeAndStatus(QueueType.PERSONAL_BANKER, TicketStatus.ATENDIENDO) +
-                      ticketRepository.countByQueueTypeAndStatus(QueueType.EMPRESAS, TicketStatus.ATENDIENDO) +
-                      ticketRepository.countByQueueTypeAndStatus(QueueType.GERENCIA, TicketStatus.ATENDIENDO);
-        long completed = totalToday;
-
-        // Contar tickets críticos
-        LocalDateTime now = LocalDateTime.now();
-        List<com.example.ticketero.model.entity.Ticket> criticalTickets = Arrays.stream(QueueType.values())
-            .flatMap(qt -> {
-                LocalDateTime timeLimit = now.minusMinutes(qt.getMaxWaitTimeMinutes());
-                return ticketRepository.findCriticalTickets(timeLimit).stream();
-            })
-            .toList();
-
-        long activeAdvisors = advisorRepository.countByStatus(AdvisorStatus.AVAILABLE) + 
-                            advisorRepository.countByStatus(AdvisorStatus.BUSY);
+    private DashboardResponse.DashboardSummary calculateSummary(List<QueueAggregate> aggregates,
+                                                                List<QueueDailyStats> dailyStats) {
+        long waiting = 0;
+        long serving = 0;
+        long critical = 0;
+        for (QueueAggregate aggregate : aggregates) {
+            waiting += aggregate.getWaiting();
+            serving += aggregate.getServing();
+            critical += aggregate.getCritical();
+        }
+
+        long completed = 0;
+        long assignedToday = 0;
+        long totalWaitSeconds = 0;
+        for (QueueDailyStats stats : dailyStats) {
+            completed += stats.getCompletedCount();
+            assignedToday += stats.getAssignedCount();
+            totalWaitSeconds += stats.getWaitSecondsSum();
+        }
+        // Promedio ponderado por la cantidad de tickets asignados hoy en cada cola
+        int averageWaitTime = assignedToday > 0 ? (int) (totalWaitSeconds / 60.0 / assignedToday) : 0;
+
+        long activeAdvisors = queueStateCounters.isReady()
+            ? queueStateCounters.advisorCount(AdvisorStatus.AVAILABLE) + queueStateCounters.advisorCount(AdvisorStatus.BUSY)
+            : advisorRepository.countByStatusIn(List.of(AdvisorStatus.AVAILABLE, AdvisorStatus.BUSY));
 
         return new DashboardResponse.DashboardSummary(
-            (int) totalToday,
+            (int) completed,
             (int) waiting,
             (int) serving,
             (int) completed,
-            criticalTickets.size(),
+            (int) critical,
             (int) activeAdvisors,
-            22, // Average wait time placeholder
+            averageWaitTime,
             "OPERATIONAL"
         );
     }
 
     private List<DashboardResponse.AlertResponse> generateAlerts(List<QueueSummaryResponse> queues) {
-        List<DashboardResponse.AlertResponse> alerts = queues.stream()
+        List<DashboardResponse.AlertResponse> alerts = new ArrayList<>();
+        queues.stream()
             .filter(q -> q.criticalTickets() > 0)
             .map(q -> new DashboardResponse.AlertResponse(
                 "TICKETS_CRITICOS",
@@ -153,7 +168,7 @@ public class DashboardService {
                 "Asignar asesores adicionales a cola " + q.queueType().getDisplayName(),
                 LocalDateTime.now()
             ))
-            .toList();
+            .forEach(alerts::add);
 
         // Agregar alerta de cola sobrecargada
         queues.stream()
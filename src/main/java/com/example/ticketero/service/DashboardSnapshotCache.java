@@ -0,0 +1,106 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.DashboardProperties;
+import com.example.ticketero.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.event.QueueStatsUpdatedEvent;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.dto.response.DashboardResponse;
+import com.example.ticketero.model.dto.response.PerformanceSummaryResponse;
+import com.example.ticketero.model.dto.response.QueueSummaryResponse;
+import com.example.ticketero.service.SnapshotCache.Snapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Snapshots del panel de supervisión (dashboard, resumen de performance y colas) compartidos
+ * por todos los pollers. Cualquier cambio confirmado de ticket, de asesor o de las estadísticas
+ * diarias de una cola los invalida; sin cambios, se recalculan a lo más una vez por
+ * {@code ticketero.dashboard.max-staleness}.
+ */
+@Component
+public class DashboardSnapshotCache {
+
+    private final ObjectMapper objectMapper;
+    private final SnapshotCache<DashboardResponse> dashboard;
+    private final SnapshotCache<PerformanceSummaryResponse> performanceSummary;
+    private final SnapshotCache<List<QueueSummaryResponse>> queues;
+    private final List<Runnable> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    public DashboardSnapshotCache(DashboardService dashboardService,
+                                  QueueService queueService,
+                                  DashboardProperties properties,
+                                  ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.dashboard = new SnapshotCache<>(
+            dashboardService::getDashboard, this::dashboardContent, properties.maxStaleness());
+        this.performanceSummary = new SnapshotCache<>(
+            dashboardService::getPerformanceSummary, this::json, properties.maxStaleness());
+        this.queues = new SnapshotCache<>(
+            queueService::getAllQueuesSummary, this::json, properties.maxStaleness());
+    }
+
+    public Snapshot<DashboardResponse> dashboard() {
+        return dashboard.get();
+    }
+
+    public Snapshot<PerformanceSummaryResponse> performanceSummary() {
+        return performanceSummary.get();
+    }
+
+    public Snapshot<List<QueueSummaryResponse>> queues() {
+        return queues.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        invalidateAll();
+    }
+
+    // Los completados y promedios llegan a queue_daily_stats después, con el relay del outbox
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueueStatsUpdated(QueueStatsUpdatedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        dashboard.invalidate();
+        performanceSummary.invalidate();
+        queues.invalidate();
+        invalidationListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Registra un aviso que corre después de cada invalidación, cuando el próximo get ya recalcula.
+     */
+    public void onInvalidate(Runnable listener) {
+        invalidationListeners.add(listener);
+    }
+
+    // El ETag del dashboard ignora los timestamps de generación: solo cambia si cambian los datos
+    private String dashboardContent(DashboardResponse response) {
+        List<List<Object>> alerts = response.alerts().stream()
+            .map(alert -> Arrays.<Object>asList(
+                alert.type(), alert.severity(), alert.message(), alert.count(), alert.recommendedAction()))
+            .toList();
+        return json(Arrays.asList(response.summary(), response.queuesSummary(), alerts));
+    }
+
+    private String json(Object content) {
+        try {
+            return objectMapper.writeValueAsString(content);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot compute dashboard ETag", e);
+        }
+    }
+}
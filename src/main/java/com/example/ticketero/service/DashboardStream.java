@@ -0,0 +1,239 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.DashboardProperties;
+import com.example.ticketero.config.StreamProperties;
+import com.example.ticketero.model.dto.response.DashboardDelta;
+import com.example.ticketero.model.dto.response.DashboardResponse;
+import com.example.ticketero.model.dto.response.DashboardResponse.AlertResponse;
+import com.example.ticketero.model.dto.response.QueueSummaryResponse;
+import com.example.ticketero.model.enums.QueueType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stream en vivo del dashboard para las pantallas de supervisión.
+ * <p>
+ * Cada pantalla recibe un snapshot completo al conectarse y luego solo deltas. Las invalidaciones
+ * de DashboardSnapshotCache agendan un envío; los cambios se agrupan en a lo más
+ * {@code ticketero.dashboard.max-updates-per-second} deltas por segundo. El delta se calcula y se
+ * serializa una sola vez para todas las pantallas, y el snapshot sale del mismo cache que usan los
+ * pollers, así que agregar pantallas no agrega consultas.
+ */
+@Component
+@Slf4j
+public class DashboardStream {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String DELTA_EVENT = "delta";
+
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {};
+
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final ObjectMapper objectMapper;
+    private final StreamProperties streamProperties;
+    private final long minIntervalNanos;
+
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pushPending = new AtomicBoolean();
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("dashboard-stream").daemon().factory());
+
+    private volatile long lastPushNanos = System.nanoTime();
+    // Base de los deltas: lo último que recibieron todas las pantallas. Solo lo usa el hilo de envío
+    private DashboardResponse lastSent;
+
+    public DashboardStream(DashboardSnapshotCache dashboardSnapshotCache,
+                           ObjectMapper objectMapper,
+                           DashboardProperties dashboardProperties,
+                           StreamProperties streamProperties) {
+        this.dashboardSnapshotCache = dashboardSnapshotCache;
+        this.objectMapper = objectMapper;
+        this.streamProperties = streamProperties;
+        this.minIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, dashboardProperties.maxUpdatesPerSecond());
+        dashboardSnapshotCache.onInvalidate(this::requestPush);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = newEmitter();
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+        try {
+            // En el hilo de envío: el snapshot inicial es exactamente la base del próximo delta
+            sender.execute(() -> {
+                try {
+                    if (subscribers.isEmpty()) {
+                        lastSent = dashboardSnapshotCache.dashboard().value();
+                    }
+                    if (send(emitter, SNAPSHOT_EVENT, json(lastSent))) {
+                        subscribers.add(emitter);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Error sending dashboard snapshot", e);
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${ticketero.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            sender.execute(() -> subscribers.removeIf(emitter -> !ping(emitter)));
+        } catch (RejectedExecutionException e) {
+            log.debug("Dashboard stream is shut down, heartbeat skipped");
+            return;
+        }
+        // Hay cambios que no vienen de eventos (tickets que pasan a críticos con el tiempo)
+        requestPush();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(streamProperties.timeout().toMillis());
+    }
+
+    private void requestPush() {
+        if (subscribers.isEmpty() || !pushPending.compareAndSet(false, true)) {
+            return; // Sin pantallas, o ya hay un envío agendado que verá este cambio
+        }
+        long wait = Math.max(0, lastPushNanos + minIntervalNanos - System.nanoTime());
+        try {
+            sender.schedule(this::push, wait, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            pushPending.set(false);
+            log.debug("Dashboard stream is shut down, push request ignored");
+        }
+    }
+
+    private void push() {
+        // Liberar el flag antes de leer: un cambio durante el envío agenda el siguiente intervalo
+        pushPending.set(false);
+        lastPushNanos = System.nanoTime();
+        try {
+            DashboardResponse current = dashboardSnapshotCache.dashboard().value();
+            DashboardDelta delta = diff(lastSent, current);
+            if (delta.isEmpty()) {
+                return;
+            }
+            lastSent = current;
+            String payload = json(delta);
+            subscribers.removeIf(emitter -> !send(emitter, DELTA_EVENT, payload));
+        } catch (RuntimeException e) {
+            log.error("Error pushing dashboard delta", e);
+        }
+    }
+
+    DashboardDelta diff(DashboardResponse previous, DashboardResponse current) {
+        Map<String, Object> summary = changedFields(previous.summary(), current.summary());
+
+        Map<QueueType, QueueSummaryResponse> previousQueues = new EnumMap<>(QueueType.class);
+        previous.queuesSummary().forEach(queue -> previousQueues.put(queue.queueType(), queue));
+        Map<QueueType, Map<String, Object>> queues = new EnumMap<>(QueueType.class);
+        for (QueueSummaryResponse queue : current.queuesSummary()) {
+            Map<String, Object> changed = changedFields(previousQueues.get(queue.queueType()), queue);
+            if (!changed.isEmpty()) {
+                queues.put(queue.queueType(), changed);
+            }
+        }
+
+        Map<List<String>, AlertResponse> previousAlerts = alertsByKey(previous.alerts());
+        Map<List<String>, AlertResponse> currentAlerts = alertsByKey(current.alerts());
+        List<AlertResponse> raised = new ArrayList<>();
+        currentAlerts.forEach((key, alert) -> {
+            AlertResponse before = previousAlerts.get(key);
+            if (before == null || !Objects.equals(before.message(), alert.message())
+                    || !Objects.equals(before.count(), alert.count())) {
+                raised.add(alert);
+            }
+        });
+        List<AlertResponse> cleared = previousAlerts.entrySet().stream()
+            .filter(entry -> !currentAlerts.containsKey(entry.getKey()))
+            .map(Map.Entry::getValue)
+            .toList();
+
+        return new DashboardDelta(current.timestamp(), summary, queues, raised, cleared);
+    }
+
+    private Map<String, Object> changedFields(Object previous, Object current) {
+        Map<String, Object> before = previous != null ? objectMapper.convertValue(previous, FIELDS) : Map.of();
+        Map<String, Object> changed = new LinkedHashMap<>();
+        objectMapper.convertValue(current, FIELDS).forEach((field, value) -> {
+            if (!Objects.equals(before.get(field), value)) {
+                changed.put(field, value);
+            }
+        });
+        return changed;
+    }
+
+    private static Map<List<String>, AlertResponse> alertsByKey(List<AlertResponse> alerts) {
+        Map<List<String>, AlertResponse> byKey = new LinkedHashMap<>();
+        alerts.forEach(alert -> byKey.put(List.of(alert.type(), String.valueOf(alert.recommendedAction())), alert));
+        return byKey;
+    }
+
+    private String json(Object content) {
+        try {
+            return objectMapper.writeValueAsString(content);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize dashboard update", e);
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, String name, String payload) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(payload));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Pantalla desconectada o conexión ya cerrada
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static boolean ping(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+}
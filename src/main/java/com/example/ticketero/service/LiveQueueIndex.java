@@ -0,0 +1,175 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Índice en memoria de los tickets en espera (EN_ESPERA y PROXIMO) por cola.
+ * Responde la posición de un ticket en O(log n) sin consultar la base de datos, y lleva además
+ * cuántos esperan en cada cola por sucursal (pantallas de sucursal).
+ * Se reconstruye desde la BD al arrancar y se mantiene con los eventos de cambio de estado
+ * publicados tras el commit de cada transacción.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LiveQueueIndex {
+
+    private final TicketRepository ticketRepository;
+
+    private final Object rebuildLock = new Object();
+    private volatile Map<QueueType, WaitingLine> lines = emptyLines();
+    private volatile Map<String, AtomicIntegerArray> waitingByBranch = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private List<TicketStatusChangedEvent> pendingDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+
+        Map<QueueType, WaitingLine> rebuilt = emptyLines();
+        Map<String, AtomicIntegerArray> rebuiltByBranch = new ConcurrentHashMap<>();
+        try {
+            List<Ticket> waiting = ticketRepository.findAllWaiting();
+            for (Ticket ticket : waiting) {
+                if (rebuilt.get(ticket.getQueueType()).add(ticket.getId(), ticket.getCreatedAt())) {
+                    count(rebuiltByBranch, ticket.getBranchOffice(), ticket.getQueueType(), 1);
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (rebuildLock) {
+                pendingDuringRebuild = null;
+            }
+            log.error("Error rebuilding live queue index, positions will be read from the database", e);
+            return;
+        }
+
+        synchronized (rebuildLock) {
+            // Eventos confirmados mientras se leía la BD: aplicarlos sobre la foto nueva
+            pendingDuringRebuild.forEach(event -> apply(rebuilt, rebuiltByBranch, event));
+            pendingDuringRebuild = null;
+            lines = rebuilt;
+            waitingByBranch = rebuiltByBranch;
+            ready = true;
+        }
+        log.info("Live queue index rebuilt: {}", sizes());
+    }
+
+    // Primero que los demás listeners, que leen posiciones desde este índice
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        Map<QueueType, WaitingLine> current;
+        Map<String, AtomicIntegerArray> currentByBranch;
+        synchronized (rebuildLock) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+            current = lines;
+            currentByBranch = waitingByBranch;
+        }
+        apply(current, currentByBranch, event);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Posición 1-based del ticket en su cola, vacía si el ticket no está esperando.
+     */
+    public OptionalInt positionOf(QueueType queueType, Long ticketId, LocalDateTime createdAt) {
+        int rank = lines.get(queueType).rankOf(ticketId, createdAt);
+        return rank < 0 ? OptionalInt.empty() : OptionalInt.of(rank + 1);
+    }
+
+    public int waitingCount(QueueType queueType) {
+        return lines.get(queueType).size();
+    }
+
+    /**
+     * Tickets de la cola que esperan desde antes de {@code limit}.
+     */
+    public int waitingSince(QueueType queueType, LocalDateTime limit) {
+        return lines.get(queueType).countCreatedBefore(limit);
+    }
+
+    /**
+     * Ids de los primeros tickets de la cola, en orden de atención.
+     */
+    public List<Long> head(QueueType queueType, int limit) {
+        return lines.get(queueType).head(limit);
+    }
+
+    public Map<QueueType, Integer> sizes() {
+        Map<QueueType, Integer> sizes = new EnumMap<>(QueueType.class);
+        lines.forEach((queueType, line) -> sizes.put(queueType, line.size()));
+        return sizes;
+    }
+
+    /**
+     * Tickets en espera de una sucursal por cola.
+     */
+    public Map<QueueType, Integer> sizes(String branchOffice) {
+        AtomicIntegerArray counts = waitingByBranch.get(branchOffice);
+        Map<QueueType, Integer> sizes = new EnumMap<>(QueueType.class);
+        for (QueueType queueType : QueueType.values()) {
+            sizes.put(queueType, counts != null ? counts.get(queueType.ordinal()) : 0);
+        }
+        return sizes;
+    }
+
+    private static void apply(Map<QueueType, WaitingLine> target, Map<String, AtomicIntegerArray> byBranch,
+                              TicketStatusChangedEvent event) {
+        if (event.ticketId() == null || event.queueType() == null || event.createdAt() == null) {
+            return;
+        }
+        WaitingLine line = target.get(event.queueType());
+        // El conteo de la sucursal cambia solo si cambió la fila: PROXIMO sigue esperando
+        if (event.newStatus().isWaiting()) {
+            if (line.add(event.ticketId(), event.createdAt())) {
+                count(byBranch, event.branchOffice(), event.queueType(), 1);
+            }
+        } else if (line.remove(event.ticketId(), event.createdAt())) {
+            count(byBranch, event.branchOffice(), event.queueType(), -1);
+        }
+    }
+
+    private static void count(Map<String, AtomicIntegerArray> byBranch, String branchOffice,
+                              QueueType queueType, int delta) {
+        if (branchOffice == null) {
+            return;
+        }
+        byBranch.computeIfAbsent(branchOffice, branch -> new AtomicIntegerArray(QueueType.values().length))
+            .addAndGet(queueType.ordinal(), delta);
+    }
+
+    private static Map<QueueType, WaitingLine> emptyLines() {
+        Map<QueueType, WaitingLine> map = new EnumMap<>(QueueType.class);
+        for (QueueType queueType : QueueType.values()) {
+            map.put(queueType, new WaitingLine());
+        }
+        return map;
+    }
+}
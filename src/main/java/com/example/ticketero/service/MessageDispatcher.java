@@ -0,0 +1,136 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.MessagingProperties;
+import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.model.enums.EstadoEnvio;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Despacha el outbox de mensajes Telegram por lotes.
+ * <p>
+ * Cada lote se reclama con {@code FOR UPDATE SKIP LOCKED} y queda reservado (lease) en una
+ * transacción corta; los envíos son asíncronos, con un semáforo que acota cuántos hay en vuelo,
+ * y ninguno mantiene una transacción abierta; al final el resultado del lote se guarda en una
+ * sola transacción.
+ * Si el nodo cae a mitad de un lote, los mensajes vuelven a estar disponibles al vencer el lease.
+ */
+@Component
+@Slf4j
+public class MessageDispatcher {
+
+    private final MessageService messageService;
+    private final MessagingProperties properties;
+
+    private final Semaphore sendPermits;
+    // Próximo instante en que cada destinatario puede recibir otro mensaje
+    private final Map<String, LocalDateTime> nextSlotByRecipient = new ConcurrentHashMap<>();
+
+    public MessageDispatcher(MessageService messageService, MessagingProperties properties) {
+        this.messageService = messageService;
+        this.properties = properties;
+        this.sendPermits = new Semaphore(Math.max(1, properties.maxConcurrentSends()));
+    }
+
+    public int dispatchPending() {
+        return dispatch(EstadoEnvio.PENDIENTE);
+    }
+
+    public int dispatchRetries() {
+        return dispatch(EstadoEnvio.FALLIDO);
+    }
+
+    private int dispatch(EstadoEnvio estado) {
+        int batchSize = Math.max(1, properties.batchSize());
+        int sent = 0;
+        int deferred = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Mensaje> batch = messageService.claimBatch(
+                estado, now, batchSize, now.plus(properties.lease()));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            int sentInBatch = sendAll(batch, now);
+            messageService.completeBatch(batch);
+            sent += sentInBatch;
+            deferred += batch.size() - sentInBatch;
+
+            if (batch.size() < batchSize) {
+                break; // No quedan más vencidos
+            }
+        }
+        if (sent + deferred > 0) {
+            log.info("Dispatched {} {} messages ({} deferred by recipient rate limit)", sent, estado, deferred);
+        }
+        return sent;
+    }
+
+    /**
+     * Envía el lote en paralelo y espera a que termine. Retorna cuántos mensajes se enviaron
+     * (los postergados por el límite por destinatario solo cambian su fecha programada).
+     */
+    private int sendAll(List<Mensaje> batch, LocalDateTime now) {
+        nextSlotByRecipient.values()
+            .removeIf(slot -> !slot.plus(properties.perRecipientInterval()).isAfter(now));
+
+        List<CompletableFuture<Mensaje>> inFlight = new ArrayList<>(batch.size());
+        for (Mensaje mensaje : batch) {
+            LocalDateTime slot = reserveSlot(recipientOf(mensaje), now);
+            if (slot.isAfter(now)) {
+                // El destinatario ya recibió un mensaje hace poco: se posterga sin gastar intento
+                mensaje.setFechaProgramada(slot);
+                continue;
+            }
+            try {
+                sendPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break; // Lo no enviado se libera al vencer el lease
+            }
+            try {
+                inFlight.add(messageService.sendMessage(mensaje)
+                    .whenComplete((sent, error) -> sendPermits.release()));
+            } catch (RuntimeException e) {
+                sendPermits.release();
+                log.error("Unexpected error sending message {}", mensaje.getId(), e);
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            log.error("Unexpected error sending message", e.getCause());
+        }
+        return inFlight.size();
+    }
+
+    /**
+     * Reserva el siguiente turno de envío para el destinatario y lo retorna.
+     * Un turno igual a {@code now} significa que puede enviarse de inmediato.
+     */
+    LocalDateTime reserveSlot(String recipient, LocalDateTime now) {
+        return nextSlotByRecipient.compute(recipient, (key, previous) -> {
+            if (previous == null) {
+                return now;
+            }
+            LocalDateTime next = previous.plus(properties.perRecipientInterval());
+            return next.isAfter(now) ? next : now;
+        });
+    }
+
+    private static String recipientOf(Mensaje mensaje) {
+        return Objects.toString(mensaje.getTicket().getTelefono(), "");
+    }
+}
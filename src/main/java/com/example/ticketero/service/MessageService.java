@@ -1,19 +1,28 @@
 package com.example.ticketero.service;
 
 import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.model.entity.TelegramChat;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.EstadoEnvio;
 import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.notification.NotificationGateway;
 import com.example.ticketero.repository.MensajeRepository;
+import com.example.ticketero.repository.TelegramChatRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,8 +30,13 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class MessageService {
 
+    static final int MAX_INTENTOS = 4;
+
     private final MensajeRepository mensajeRepository;
+    private final TelegramChatRepository telegramChatRepository;
     private final AuditService auditService;
+    private final NotificationGateway notificationGateway;
+    private final TicketeroMetrics ticketeroMetrics;
 
     @Transactional
     public void scheduleTicketCreatedMessage(Ticket ticket) {
@@ -31,15 +45,7 @@ public class MessageService {
             return;
         }
 
-        Mensaje mensaje = Mensaje.builder()
-            .ticket(ticket)
-            .plantilla(MessageTemplate.TOTEM_TICKET_CREADO)
-            .estadoEnvio(EstadoEnvio.PENDIENTE)
-            .fechaProgramada(LocalDateTime.now())
-            .intentos(0)
-            .build();
-
-        mensajeRepository.save(mensaje);
+        mensajeRepository.save(newMessage(ticket, MessageTemplate.TOTEM_TICKET_CREADO));
         log.info("Scheduled TICKET_CREADO message for ticket {}", ticket.getNumero());
     }
 
@@ -49,15 +55,7 @@ public class MessageService {
             return;
         }
 
-        Mensaje mensaje = Mensaje.builder()
-            .ticket(ticket)
-            .plantilla(MessageTemplate.TOTEM_PROXIMO_TURNO)
-            .estadoEnvio(EstadoEnvio.PENDIENTE)
-            .fechaProgramada(LocalDateTime.now())
-            .intentos(0)
-            .build();
-
-        mensajeRepository.save(mensaje);
+        mensajeRepository.save(newMessage(ticket, MessageTemplate.TOTEM_PROXIMO_TURNO));
         log.info("Scheduled PROXIMO_TURNO message for ticket {}", ticket.getNumero());
     }
 
@@ -67,76 +65,144 @@ public class MessageService {
             return;
         }
 
-        Mensaje mensaje = Mensaje.builder()
-            .ticket(ticket)
-            .plantilla(MessageTemplate.TOTEM_ES_TU_TURNO)
-            .estadoEnvio(EstadoEnvio.PENDIENTE)
-            .fechaProgramada(LocalDateTime.now())
-            .intentos(0)
-            .build();
-
-        mensajeRepository.save(mensaje);
+        mensajeRepository.save(newMessage(ticket, MessageTemplate.TOTEM_ES_TU_TURNO));
         log.info("Scheduled ES_TU_TURNO message for ticket {}", ticket.getNumero());
     }
 
-    @Scheduled(fixedDelay = 5000) // Cada 5 segundos
+    /**
+     * Variante por lote para el ciclo de asignación: un solo saveAll para todos los tickets.
+     */
     @Transactional
-    public void processPendingMessages() {
-        List<Mensaje> pendingMessages = mensajeRepository.findPendingMessages(LocalDateTime.now());
-        
-        for (Mensaje mensaje : pendingMessages) {
-            sendMessage(mensaje);
+    public void scheduleMessages(List<Ticket> tickets, MessageTemplate plantilla) {
+        List<Mensaje> mensajes = tickets.stream()
+            .filter(ticket -> ticket.getTelefono() != null)
+            .map(ticket -> newMessage(ticket, plantilla))
+            .toList();
+
+        if (mensajes.isEmpty()) {
+            return;
         }
+        mensajeRepository.saveAll(mensajes);
+        log.info("Scheduled {} {} messages", mensajes.size(), plantilla);
     }
 
-    @Scheduled(fixedDelay = 30000) // Cada 30 segundos
+    /**
+     * Reclama un lote de mensajes vencidos y los reserva (lease) hasta {@code leaseUntil}, con el
+     * chat de Telegram de cada cliente resuelto en una consulta para todo el lote.
+     * La transacción solo dura lo que toma marcar el lote: el envío ocurre fuera de ella.
+     */
     @Transactional
-    public void processRetryMessages() {
-        List<Mensaje> retryMessages = mensajeRepository.findRetryableMessages(LocalDateTime.now());
-        
-        for (Mensaje mensaje : retryMessages) {
-            sendMessage(mensaje);
+    public List<Mensaje> claimBatch(EstadoEnvio estado, LocalDateTime now, int limit, LocalDateTime leaseUntil) {
+        List<Long> ids = mensajeRepository.lockDueMessageIds(estado.name(), MAX_INTENTOS, now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
         }
+        mensajeRepository.leaseUntil(ids, leaseUntil);
+        List<Mensaje> mensajes = mensajeRepository.findWithTicketByIdIn(ids);
+        resolveChats(mensajes);
+        return mensajes;
     }
 
-    @Async
+    private void resolveChats(List<Mensaje> mensajes) {
+        Set<String> telefonos = mensajes.stream()
+            .map(mensaje -> mensaje.getTicket().getTelefono())
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (telefonos.isEmpty()) {
+            return;
+        }
+        Map<String, String> chatIds = telegramChatRepository.findByTelefonoIn(telefonos).stream()
+            .collect(Collectors.toMap(TelegramChat::getTelefono, TelegramChat::getChatId));
+        for (Mensaje mensaje : mensajes) {
+            mensaje.setChatId(chatIds.get(mensaje.getTicket().getTelefono()));
+        }
+    }
+
+    /**
+     * Persiste en una sola transacción el resultado de un lote ya enviado.
+     */
     @Transactional
-    public void sendMessage(Mensaje mensaje) {
+    public void completeBatch(List<Mensaje> enviados) {
+        Map<Long, Mensaje> resultados = enviados.stream()
+            .collect(Collectors.toMap(Mensaje::getId, Function.identity()));
+
+        for (Mensaje mensaje : mensajeRepository.findAllById(resultados.keySet())) {
+            Mensaje resultado = resultados.get(mensaje.getId());
+            mensaje.setEstadoEnvio(resultado.getEstadoEnvio());
+            mensaje.setIntentos(resultado.getIntentos());
+            mensaje.setFechaProgramada(resultado.getFechaProgramada());
+            mensaje.setFechaEnvio(resultado.getFechaEnvio());
+            mensaje.setTelegramMessageId(resultado.getTelegramMessageId());
+        }
+    }
+
+    /**
+     * Envía un mensaje por el NotificationGateway y, al completarse, deja el resultado en la
+     * entidad (ENVIADO, reintento o FALLIDO). No bloquea, no abre transacción ni guarda:
+     * el dispatcher persiste el lote completo con completeBatch.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Mensaje> sendMessage(Mensaje mensaje) {
+        mensaje.setIntentos(mensaje.getIntentos() + 1);
+        long start = System.nanoTime();
+
+        CompletableFuture<String> envio;
         try {
-            mensaje.setIntentos(mensaje.getIntentos() + 1);
-            
-            // Simular envío a Telegram API
             String messageText = buildMessageText(mensaje);
-            String telegramMessageId = sendToTelegramAPI(mensaje.getTicket().getTelefono(), messageText);
-            
-            // Éxito
-            mensaje.setEstadoEnvio(EstadoEnvio.ENVIADO);
-            mensaje.setFechaEnvio(LocalDateTime.now());
-            mensaje.setTelegramMessageId(telegramMessageId);
-            
-            log.info("Message sent successfully: {} for ticket {}", 
-                mensaje.getPlantilla(), mensaje.getTicket().getNumero());
-                
+            // Sin chat vinculado el envío falla y se reintenta: el cliente puede vincularlo mientras espera
+            envio = notificationGateway.send(mensaje.getChatId(), messageText);
         } catch (Exception e) {
-            log.error("Failed to send message for ticket {}: {}", 
-                mensaje.getTicket().getNumero(), e.getMessage());
-            
-            if (mensaje.getIntentos() >= 4) {
-                mensaje.setEstadoEnvio(EstadoEnvio.FALLIDO);
-                log.error("Message failed permanently after 4 attempts: {}", mensaje.getId());
+            envio = CompletableFuture.failedFuture(e);
+        }
+
+        return envio.handle((telegramMessageId, error) -> {
+            if (error == null) {
+                markSent(mensaje, telegramMessageId);
             } else {
-                // Programar reintento con backoff exponencial
-                int delayMinutes = calculateBackoffDelay(mensaje.getIntentos());
-                mensaje.setFechaProgramada(LocalDateTime.now().plusMinutes(delayMinutes));
-                log.info("Scheduled retry #{} in {} minutes for message {}", 
-                    mensaje.getIntentos() + 1, delayMinutes, mensaje.getId());
+                markFailed(mensaje, error instanceof CompletionException ? error.getCause() : error);
             }
+            ticketeroMetrics.messageAttempt(mensaje.getPlantilla(), error == null, mensaje.getIntentos(),
+                error == null || mensaje.getIntentos() >= MAX_INTENTOS, System.nanoTime() - start);
+            return mensaje;
+        });
+    }
+
+    private void markSent(Mensaje mensaje, String telegramMessageId) {
+        mensaje.setEstadoEnvio(EstadoEnvio.ENVIADO);
+        mensaje.setFechaEnvio(LocalDateTime.now());
+        mensaje.setTelegramMessageId(telegramMessageId);
+
+        log.info("Message sent successfully: {} for ticket {}",
+            mensaje.getPlantilla(), mensaje.getTicket().getNumero());
+    }
+
+    private void markFailed(Mensaje mensaje, Throwable error) {
+        log.error("Failed to send message for ticket {}: {}",
+            mensaje.getTicket().getNumero(), error.getMessage());
+
+        if (mensaje.getIntentos() >= MAX_INTENTOS) {
+            mensaje.setEstadoEnvio(EstadoEnvio.FALLIDO);
+            log.error("Message failed permanently after {} attempts: {}", MAX_INTENTOS, mensaje.getId());
+        } else {
+            // Programar reintento con backoff exponencial
+            int delayMinutes = calculateBackoffDelay(mensaje.getIntentos());
+            mensaje.setFechaProgramada(LocalDateTime.now().plusMinutes(delayMinutes));
+            log.info("Scheduled retry #{} in {} minutes for message {}",
+                mensaje.getIntentos() + 1, delayMinutes, mensaje.getId());
         }
-        
-        mensajeRepository.save(mensaje);
     }
 
-    private String buildMessageText(Mensaje mensaje) {
+    private Mensaje newMessage(Ticket ticket, MessageTemplate plantilla) {
+        return Mensaje.builder()
+            .ticket(ticket)
+            .plantilla(plantilla)
+            .estadoEnvio(EstadoEnvio.PENDIENTE)
+            .fechaProgramada(LocalDateTime.now())
+            .intentos(0)
+            .build();
+    }
+
+    static String buildMessageText(Mensaje mensaje) {
         Ticket ticket = mensaje.getTicket();
         
         return switch (mensaje.getPlantilla()) {
@@ -165,13 +231,6 @@ public class MessageService {
         };
     }
 
-    private String sendToTelegramAPI(String phoneNumber, String messageText) {
-        // Simulación de envío a Telegram API
-        // En producción: HTTP call a https://api.telegram.org/bot{token}/sendMessage
-        log.debug("Sending to {}: {}", phoneNumber, messageText);
-        return "msg_" + System.currentTimeMillis();
-    }
-
     private int calculateBackoffDelay(int attemptNumber) {
         // RN-008: Backoff exponencial (30s, 60s, 120s)
         return switch (attemptNumber) {
@@ -0,0 +1,22 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.OutboxEvent;
+import com.example.ticketero.model.enums.OutboxEventType;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consumidor del outbox. OutboxService le entrega los eventos en orden y en lotes, dentro de la
+ * misma transacción que avanza su posición: lo que escriba queda aplicado exactamente una vez.
+ */
+public interface OutboxConsumer {
+
+    /** Nombre estable: es la clave de su posición en outbox_offset. */
+    String name();
+
+    Set<OutboxEventType> eventTypes();
+
+    /** Recibe solo eventos de {@link #eventTypes()}, nunca una lista vacía. */
+    void consume(List<OutboxEvent> events);
+}
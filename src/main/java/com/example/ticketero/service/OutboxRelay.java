@@ -0,0 +1,47 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.OutboxProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Entrega el outbox a cada consumidor hasta ponerlo al día. Un error en un consumidor deja su
+ * posición donde estaba (el lote se reintenta en la próxima pasada) y no frena a los demás.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxService outboxService;
+    private final List<OutboxConsumer> consumers;
+    private final OutboxProperties outboxProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (outboxProperties.relayEnabled()) {
+            outboxService.registerConsumers(consumers.stream().map(OutboxConsumer::name).toList());
+        }
+    }
+
+    public int relay() {
+        int total = 0;
+        for (OutboxConsumer consumer : consumers) {
+            try {
+                int read;
+                do {
+                    read = outboxService.consumeBatch(consumer);
+                    total += read;
+                } while (read >= outboxProperties.batchSize());
+            } catch (RuntimeException e) {
+                log.error("Error relaying outbox events to {}", consumer.name(), e);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.OutboxProperties;
+import com.example.ticketero.model.entity.OutboxEvent;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.OutboxEventType;
+import com.example.ticketero.repository.OutboxEventRepository;
+import com.example.ticketero.service.AssignmentPlanner.Assignment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outbox transaccional de los cambios de estado de tickets.
+ * <p>
+ * El camino de la petición solo inserta el evento, en la misma transacción que cambia el ticket.
+ * La auditoría, los mensajes y las estadísticas los derivan los {@link OutboxConsumer} leyendo la
+ * tabla por lotes en orden (txid, id); cada consumidor avanza su posición en outbox_offset en la
+ * misma transacción en que aplica el lote, así que una caída no pierde ni duplica trabajo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class OutboxService {
+
+    static final String TICKET_AGGREGATE = "TICKET";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxProperties outboxProperties;
+
+    @Transactional
+    public void ticketCreated(Ticket ticket, String nationalId) {
+        Map<String, Object> payload = ticketPayload(ticket);
+        payload.put("nationalId", nationalId);
+        payload.put("status", ticket.getStatus().name());
+        payload.put("positionInQueue", ticket.getPositionInQueue());
+        payload.put("estimatedWaitMinutes", ticket.getEstimatedWaitMinutes());
+        outboxEventRepository.save(event(OutboxEventType.TICKET_CREADO, ticket, payload));
+    }
+
+    @Transactional
+    public void ticketsAssigned(List<Assignment> assignments) {
+        List<OutboxEvent> events = assignments.stream()
+            .map(assignment -> {
+                Ticket ticket = assignment.ticket();
+                Map<String, Object> payload = ticketPayload(ticket);
+                payload.put("assignedAt", ticket.getAssignedAt().toString());
+                payload.put("advisorId", assignment.advisor().getId());
+                payload.put("advisorName", assignment.advisor().getName());
+                payload.put("moduleNumber", assignment.advisor().getModuleNumber());
+                payload.put("critical", assignment.critical());
+                return event(OutboxEventType.TICKET_ASIGNADO, ticket, payload);
+            })
+            .toList();
+        outboxEventRepository.saveAll(events);
+    }
+
+    @Transactional
+    public void ticketsPromoted(List<Ticket> tickets) {
+        List<OutboxEvent> events = tickets.stream()
+            .map(ticket -> {
+                Map<String, Object> payload = ticketPayload(ticket);
+                payload.put("positionInQueue", ticket.getPositionInQueue());
+                return event(OutboxEventType.TICKET_PROXIMO, ticket, payload);
+            })
+            .toList();
+        outboxEventRepository.saveAll(events);
+    }
+
+    @Transactional
+    public void ticketCompleted(Ticket ticket) {
+        Map<String, Object> payload = ticketPayload(ticket);
+        if (ticket.getAssignedAt() != null) {
+            payload.put("assignedAt", ticket.getAssignedAt().toString());
+        }
+        payload.put("completedAt", ticket.getCompletedAt().toString());
+        outboxEventRepository.save(event(OutboxEventType.TICKET_COMPLETADO, ticket, payload));
+    }
+
+    /**
+     * Procesa el siguiente lote para el consumidor. Retorna cuántos eventos leyó del outbox (0 si
+     * no hay nuevos o si otro nodo está procesando este consumidor).
+     */
+    @Transactional
+    public int consumeBatch(OutboxConsumer consumer) {
+        List<Position> locked = jdbcTemplate.query(
+            "SELECT last_txid, last_id FROM outbox_offset WHERE consumer = ? FOR UPDATE SKIP LOCKED",
+            (rs, rowNum) -> new Position(rs.getLong(1), rs.getLong(2)), consumer.name());
+        if (locked.isEmpty()) {
+            return 0;
+        }
+
+        Position position = locked.get(0);
+        List<OutboxEvent> batch = outboxEventRepository.findAfter(
+            position.txid(), position.id(), Math.max(1, outboxProperties.batchSize()));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> relevant = batch.stream()
+            .filter(event -> consumer.eventTypes().contains(event.getEventType()))
+            .toList();
+        if (!relevant.isEmpty()) {
+            consumer.consume(relevant);
+        }
+
+        OutboxEvent last = batch.get(batch.size() - 1);
+        jdbcTemplate.update(
+            "UPDATE outbox_offset SET last_txid = ?, last_id = ?, updated_at = CURRENT_TIMESTAMP WHERE consumer = ?",
+            last.getTxid(), last.getId(), consumer.name());
+        log.debug("Outbox consumer {} processed {} events up to {}", consumer.name(), relevant.size(), last.getId());
+        return batch.size();
+    }
+
+    /**
+     * Crea la posición de los consumidores nuevos: parten desde el comienzo de lo retenido.
+     */
+    @Transactional
+    public void registerConsumers(Collection<String> names) {
+        for (String name : names) {
+            jdbcTemplate.update("INSERT INTO outbox_offset (consumer) VALUES (?) ON CONFLICT (consumer) DO NOTHING", name);
+        }
+    }
+
+    @Transactional
+    public int purgeConsumed(LocalDateTime cutoff) {
+        int deleted = outboxEventRepository.deleteConsumedBefore(cutoff);
+        log.info("Purged {} consumed outbox events older than {}", deleted, cutoff);
+        return deleted;
+    }
+
+    private static Map<String, Object> ticketPayload(Ticket ticket) {
+        // Mapa mutable: cada evento agrega sus campos
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("ticketId", ticket.getId());
+        payload.put("numero", ticket.getNumero());
+        payload.put("queueType", ticket.getQueueType().name());
+        payload.put("branchOffice", ticket.getBranchOffice());
+        payload.put("createdAt", ticket.getCreatedAt().toString());
+        return payload;
+    }
+
+    private static OutboxEvent event(OutboxEventType type, Ticket ticket, Map<String, Object> payload) {
+        return OutboxEvent.builder()
+            .eventType(type)
+            .aggregateType(TICKET_AGGREGATE)
+            .aggregateId(ticket.getId().toString())
+            .payload(payload)
+            .build();
+    }
+
+    record Position(long txid, long id) {}
+}
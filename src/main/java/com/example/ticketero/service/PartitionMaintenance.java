@@ -0,0 +1,105 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.PartitioningProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Mantiene las particiones diarias de ticket, mensaje y audit_log (V7).
+ * <p>
+ * Crea por adelantado las particiones de los próximos días y desacopla las que salen de la
+ * retención, moviéndolas al schema archive. Ambas operaciones son de catálogo: no recorren ni
+ * borran filas, así que su costo no depende del tamaño del historial.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenance {
+
+    static final List<String> PARTITIONED_TABLES = List.of("ticket", "mensaje", "audit_log");
+    static final String ARCHIVE_SCHEMA = "archive";
+
+    private static final String PARTITIONS_SQL = """
+        SELECT child.relname,
+               CAST(substring(pg_get_expr(child.relpartbound, child.oid) FROM 'TO \\(''([^'']+)''\\)') AS TIMESTAMP)
+        FROM pg_inherits i
+        JOIN pg_class child ON child.oid = i.inhrelid
+        WHERE i.inhparent = CAST(? AS regclass)
+        ORDER BY 2
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitioningProperties partitioningProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (partitioningProperties.enabled()) {
+            maintain(LocalDate.now());
+        }
+    }
+
+    /**
+     * Sin transacción: DETACH PARTITION CONCURRENTLY no puede correr dentro de un bloque
+     * transaccional, y cada partición se procesa por separado para que un error no frene al resto.
+     */
+    public void maintain(LocalDate today) {
+        int created = createUpcomingPartitions(today);
+        int archived = archiveExpiredPartitions(today);
+        log.info("Partition maintenance done: {} partitions created, {} archived", created, archived);
+    }
+
+    int createUpcomingPartitions(LocalDate today) {
+        int created = 0;
+        for (String table : PARTITIONED_TABLES) {
+            for (int offset = 0; offset <= partitioningProperties.precreateDays(); offset++) {
+                LocalDate day = today.plusDays(offset);
+                try {
+                    if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                            "SELECT create_daily_partition(?, ?)", Boolean.class, table, day))) {
+                        created++;
+                        log.debug("Created partition of {} for {}", table, day);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Error creating partition of {} for {}", table, day, e);
+                }
+            }
+        }
+        return created;
+    }
+
+    int archiveExpiredPartitions(LocalDate today) {
+        LocalDateTime cutoff = today.minusDays(partitioningProperties.retentionDays()).atStartOfDay();
+        int archived = 0;
+        for (String table : PARTITIONED_TABLES) {
+            for (Partition partition : partitions(table)) {
+                if (partition.upperBound() == null || partition.upperBound().isAfter(cutoff)) {
+                    continue;
+                }
+                try {
+                    jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION \"" + partition.name() + "\" CONCURRENTLY");
+                    jdbcTemplate.execute("ALTER TABLE \"" + partition.name() + "\" SET SCHEMA " + ARCHIVE_SCHEMA);
+                    archived++;
+                    log.info("Archived partition {} (rows before {})", partition.name(), partition.upperBound());
+                } catch (RuntimeException e) {
+                    log.error("Error archiving partition {}", partition.name(), e);
+                }
+            }
+        }
+        return archived;
+    }
+
+    private List<Partition> partitions(String table) {
+        return jdbcTemplate.query(PARTITIONS_SQL,
+            (rs, rowNum) -> new Partition(rs.getString(1), rs.getObject(2, LocalDateTime.class)), table);
+    }
+
+    record Partition(String name, LocalDateTime upperBound) {}
+}
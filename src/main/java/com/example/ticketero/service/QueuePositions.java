@@ -0,0 +1,84 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.QueueWatermark;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.QueueWatermarkRepository;
+import com.example.ticketero.repository.QueueWatermarkRepository.IssuedSeq;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Posiciones derivadas: queue_seq del ticket menos la marca de atendidos de su cola.
+ * <p>
+ * Crear un ticket toma un número de la secuencia de su cola y una asignación solo avanza la marca,
+ * así que nada reescribe la posición de los tickets que siguen esperando. Como la atención es por
+ * orden de llegada dentro de cada cola, la diferencia es la posición salvo por huecos de tickets que
+ * no llegaron a confirmarse (se cuentan de más hasta que la cola los sobrepasa).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class QueuePositions {
+
+    private final QueueWatermarkRepository queueWatermarkRepository;
+
+    /**
+     * Número de llegada para un ticket nuevo de la cola y la posición que le corresponde.
+     */
+    @Transactional
+    public Issued issue(QueueType queueType) {
+        IssuedSeq issued = queueWatermarkRepository.issue(sequenceName(queueType), queueType.name());
+        return new Issued(issued.getQueueSeq(), position(issued.getQueueSeq(), issued.getServedSeq()));
+    }
+
+    /**
+     * Posición 1-based de un ticket en espera, vacía si el ticket no tiene número de llegada.
+     */
+    public OptionalInt positionOf(Ticket ticket) {
+        if (ticket.getQueueSeq() == null) {
+            return OptionalInt.empty();
+        }
+        long servedSeq = queueWatermarkRepository.findById(ticket.getQueueType())
+            .map(QueueWatermark::getServedSeq)
+            .orElse(0L);
+        return OptionalInt.of(position(ticket.getQueueSeq(), servedSeq));
+    }
+
+    /**
+     * Avanza la marca de cada cola hasta el mayor número de llegada entre los tickets atendidos.
+     */
+    @Transactional
+    public void markServed(Collection<Ticket> tickets) {
+        Map<QueueType, Long> servedUpTo = new EnumMap<>(QueueType.class);
+        for (Ticket ticket : tickets) {
+            if (ticket.getQueueSeq() != null) {
+                servedUpTo.merge(ticket.getQueueType(), ticket.getQueueSeq(), Math::max);
+            }
+        }
+        servedUpTo.forEach((queueType, servedSeq) -> {
+            queueWatermarkRepository.advance(queueType.name(), servedSeq);
+            log.debug("Queue {} served up to {}", queueType, servedSeq);
+        });
+    }
+
+    // Un ticket atendido fuera de orden deja la marca delante de los que esperan desde antes
+    static int position(long queueSeq, long servedSeq) {
+        return (int) Math.max(1, queueSeq - servedSeq);
+    }
+
+    static String sequenceName(QueueType queueType) {
+        return "queue_seq_" + queueType.name().toLowerCase(Locale.ROOT);
+    }
+
+    public record Issued(long queueSeq, int position) {}
+}
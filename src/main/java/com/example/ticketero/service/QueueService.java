@@ -2,18 +2,19 @@ package com.example.ticketero.service;
 
 import com.example.ticketero.model.dto.response.QueueStatsResponse;
 import com.example.ticketero.model.dto.response.QueueSummaryResponse;
+import com.example.ticketero.model.entity.QueueDailyStats;
 import com.example.ticketero.model.enums.QueueType;
-import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.QueueDailyStatsRepository;
 import com.example.ticketero.repository.QueueStatsRepository;
-import com.example.ticketero.repository.TicketRepository;
+import com.example.ticketero.repository.QueueStatsRepository.QueueAggregate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,29 +24,59 @@ import java.util.Map;
 @Transactional(readOnly = true)
 public class QueueService {
 
-    private final TicketRepository ticketRepository;
     private final QueueStatsRepository queueStatsRepository;
+    private final QueueDailyStatsRepository queueDailyStatsRepository;
+    private final QueueStateCounters queueStateCounters;
 
     public List<QueueSummaryResponse> getAllQueuesSummary() {
+        LocalDateTime now = LocalDateTime.now();
+        return summarize(
+            liveAggregates(now),
+            queueDailyStatsRepository.findByIdBusinessDate(now.toLocalDate()));
+    }
+
+    public QueueSummaryResponse getQueueSummary(QueueType queueType) {
+        return getAllQueuesSummary().stream()
+            .filter(summary -> summary.queueType() == queueType)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    /**
+     * Arma el resumen de las cuatro colas a partir del estado en vivo (agregado por cola) y de
+     * las estadísticas del día. Las colas que no aparecen en alguno de los dos quedan en cero.
+     */
+    public List<QueueSummaryResponse> summarize(List<QueueAggregate> aggregates, List<QueueDailyStats> dailyStats) {
+        Map<QueueType, QueueAggregate> byQueue = new EnumMap<>(QueueType.class);
+        aggregates.forEach(aggregate -> byQueue.put(QueueType.valueOf(aggregate.getQueueType()), aggregate));
+        Map<QueueType, QueueDailyStats> statsByQueue = byQueueType(dailyStats);
+
         return Arrays.stream(QueueType.values())
-            .map(this::getQueueSummary)
+            .map(queueType -> toSummary(queueType, byQueue.get(queueType), statsByQueue.get(queueType)))
             .toList();
     }
 
-    public QueueSummaryResponse getQueueSummary(QueueType queueType) {
-        long waiting = ticketRepository.countByQueueTypeAndStatus(queueType, TicketStatus.EN_ESPERA);
-        long serving = ticketRepository.countByQueueTypeAndStatus(queueType, TicketStatus.ATENDIENDO);
-        long completedToday = queueStatsRepository.countTodayByQueueAndStatus(queueType, TicketStatus.COMPLETADO);
-        
-        Double avgWaitTime = queueStatsRepository.getAverageWaitTimeToday(queueType);
+    /**
+     * Estado en vivo de las colas desde los contadores en memoria; hasta que estén listos, desde la BD.
+     */
+    public List<QueueAggregate> liveAggregates(LocalDateTime now) {
+        return queueStateCounters.aggregateByQueue(now)
+            .orElseGet(() -> queueStatsRepository.aggregateByQueue(now));
+    }
+
+    static Map<QueueType, QueueDailyStats> byQueueType(List<QueueDailyStats> dailyStats) {
+        Map<QueueType, QueueDailyStats> byQueue = new EnumMap<>(QueueType.class);
+        dailyStats.forEach(stats -> byQueue.put(stats.getQueueType(), stats));
+        return byQueue;
+    }
+
+    private QueueSummaryResponse toSummary(QueueType queueType, QueueAggregate aggregate, QueueDailyStats stats) {
+        long waiting = aggregate != null ? aggregate.getWaiting() : 0;
+        long serving = aggregate != null ? aggregate.getServing() : 0;
+        long criticalCount = aggregate != null ? aggregate.getCritical() : 0;
+        long completedToday = stats != null ? stats.getCompletedCount() : 0;
+        Double avgWaitTime = stats != null ? stats.getAverageWaitMinutes() : null;
         int avgWaitTimeToday = avgWaitTime != null ? avgWaitTime.intValue() : 0;
-        
-        // Detectar tickets críticos
-        LocalDateTime timeLimit = LocalDateTime.now().minusMinutes(queueType.getMaxWaitTimeMinutes());
-        List<com.example.ticketero.model.entity.Ticket> criticalTickets = ticketRepository.findCriticalTickets(timeLimit);
-        long criticalCount = criticalTickets.stream()
-            .filter(t -> t.getQueueType() == queueType)
-            .count();
 
         String status = determineQueueStatus(waiting, criticalCount);
 
@@ -65,20 +96,27 @@ public class QueueService {
         );
     }
 
+    /**
+     * Estadísticas de una cola: el estado en vivo sale del agregado por cola y los acumulados
+     * del día de su fila en queue_daily_stats.
+     */
     public QueueStatsResponse getQueueStats(QueueType queueType) {
-        long completed = queueStatsRepository.countTodayByQueueAndStatus(queueType, TicketStatus.COMPLETADO);
-        long waiting = ticketRepository.countByQueueTypeAndStatus(queueType, TicketStatus.EN_ESPERA);
-        long serving = ticketRepository.countByQueueTypeAndStatus(queueType, TicketStatus.ATENDIENDO);
-        
-        Double avgServiceTime = queueStatsRepository.getAverageServiceTimeToday(queueType);
-        Double avgWaitTime = queueStatsRepository.getAverageWaitTimeToday(queueType);
-        
-        // Detectar tickets críticos
-        LocalDateTime timeLimit = LocalDateTime.now().minusMinutes(queueType.getMaxWaitTimeMinutes());
-        List<com.example.ticketero.model.entity.Ticket> criticalTickets = ticketRepository.findCriticalTickets(timeLimit);
-        long criticalCount = criticalTickets.stream()
-            .filter(t -> t.getQueueType() == queueType)
-            .count();
+        LocalDateTime now = LocalDateTime.now();
+        QueueAggregate aggregate = liveAggregates(now).stream()
+            .filter(row -> queueType.name().equals(row.getQueueType()))
+            .findFirst()
+            .orElse(null);
+        QueueDailyStats stats = queueDailyStatsRepository
+            .findById(new QueueDailyStats.Key(now.toLocalDate(), queueType))
+            .orElseGet(() -> QueueDailyStats.empty(now.toLocalDate(), queueType));
+
+        long completed = stats.getCompletedCount();
+        long waiting = aggregate != null ? aggregate.getWaiting() : 0;
+        long serving = aggregate != null ? aggregate.getServing() : 0;
+        long criticalCount = aggregate != null ? aggregate.getCritical() : 0;
+
+        Double avgServiceTime = stats.getAverageServiceMinutes();
+        Double avgWaitTime = stats.getAverageWaitMinutes();
 
         // Calcular eficiencia
         double efficiency = calculateEfficiency(avgServiceTime, queueType.getAverageTimeMinutes());
@@ -90,7 +128,7 @@ public class QueueService {
 
         return new QueueStatsResponse(
             queueType,
-            LocalDate.now(),
+            now.toLocalDate(),
             (int) completed,
             (int) waiting,
             (int) serving,
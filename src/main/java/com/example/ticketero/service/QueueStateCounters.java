@@ -0,0 +1,247 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.QueueStatsRepository;
+import com.example.ticketero.repository.QueueStatsRepository.QueueAggregate;
+import com.example.ticketero.repository.QueueStatsRepository.StatusCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conteos en memoria de tickets activos por (cola, estado) y de asesores por estado, en total y
+ * por cola que atienden.
+ * <p>
+ * Se mantienen con los eventos de cambio de estado publicados tras el commit y se reconcilian
+ * contra la BD al arrancar y periódicamente (MetricsScheduler). Los estados terminales no se
+ * cuentan: sus acumulados del día viven en queue_daily_stats.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueueStateCounters {
+
+    private static final QueueType[] QUEUE_TYPES = QueueType.values();
+    private static final TicketStatus[] TICKET_STATUSES = TicketStatus.values();
+    private static final AdvisorStatus[] ADVISOR_STATUSES = AdvisorStatus.values();
+
+    private final QueueStatsRepository queueStatsRepository;
+    private final AdvisorRepository advisorRepository;
+    private final LiveQueueIndex liveQueueIndex;
+
+    // Tickets por (cola, estado), asesores por (cola, estado) y asesores por estado, en un solo arreglo
+    private final LongAdder[] cells = newCells(
+        QUEUE_TYPES.length * TICKET_STATUSES.length + (QUEUE_TYPES.length + 1) * ADVISOR_STATUSES.length);
+    private final long[] previousDiff = new long[cells.length];
+
+    private volatile boolean ready;
+    private volatile LocalDateTime reconciledAt;
+    private volatile long lastDrift;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Error loading queue state counters, summaries will be read from the database", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        if (event.queueType() == null) {
+            return;
+        }
+        if (event.previousStatus() != null && event.previousStatus().isActive()) {
+            cells[ticketCell(event.queueType(), event.previousStatus())].decrement();
+        }
+        if (event.newStatus() != null && event.newStatus().isActive()) {
+            cells[ticketCell(event.queueType(), event.newStatus())].increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        if (event.previousStatus() != null) {
+            add(event.previousStatus(), event.queueTypes(), -1);
+        }
+        if (event.newStatus() != null) {
+            add(event.newStatus(), event.queueTypes(), 1);
+        }
+    }
+
+    /**
+     * Compara los conteos con la BD (dos consultas agrupadas) y corrige las diferencias. Un evento
+     * confirmado mientras corren las consultas deja una diferencia pasajera, así que después de la
+     * carga inicial solo se corrige la parte de cada diferencia que se repite en dos
+     * reconciliaciones seguidas.
+     *
+     * @return unidades corregidas, sumadas en valor absoluto
+     */
+    public synchronized long reconcile() {
+        long[] target = new long[cells.length];
+        for (StatusCount count : queueStatsRepository.countActiveByQueueAndStatus()) {
+            target[ticketCell(QueueType.valueOf(count.getQueueType()), TicketStatus.valueOf(count.getStatus()))] =
+                count.getTotal();
+        }
+        for (Advisor advisor : advisorRepository.findAll()) {
+            target[advisorCell(advisor.getStatus())]++;
+            if (advisor.getQueueTypes() != null) {
+                advisor.getQueueTypes().stream().distinct()
+                    .forEach(queueType -> target[queueAdvisorCell(queueType, advisor.getStatus())]++);
+            }
+        }
+
+        long drift = 0;
+        for (int i = 0; i < cells.length; i++) {
+            long diff = target[i] - cells[i].sum();
+            long correction = ready ? persistent(previousDiff[i], diff) : diff;
+            // add en vez de reset para no perder los incrementos concurrentes
+            cells[i].add(correction);
+            previousDiff[i] = diff - correction;
+            drift += Math.abs(correction);
+        }
+
+        if (ready && drift > 0) {
+            log.warn("Queue state counters drifted from the database by {}, corrected", drift);
+        }
+        lastDrift = drift;
+        reconciledAt = LocalDateTime.now();
+        ready = true;
+        return drift;
+    }
+
+    /**
+     * true desde la primera reconciliación; antes los conteos no reflejan la BD.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public LocalDateTime reconciledAt() {
+        return reconciledAt;
+    }
+
+    public long lastDrift() {
+        return lastDrift;
+    }
+
+    public long ticketCount(QueueType queueType, TicketStatus status) {
+        return cells[ticketCell(queueType, status)].sum();
+    }
+
+    /**
+     * Tickets en EN_ESPERA o PROXIMO.
+     */
+    public long waitingCount(QueueType queueType) {
+        return ticketCount(queueType, TicketStatus.EN_ESPERA) + ticketCount(queueType, TicketStatus.PROXIMO);
+    }
+
+    public long servingCount(QueueType queueType) {
+        return ticketCount(queueType, TicketStatus.ATENDIENDO);
+    }
+
+    public long advisorCount(AdvisorStatus status) {
+        return cells[advisorCell(status)].sum();
+    }
+
+    /**
+     * Asesores en el estado que atienden la cola; uno con varias colas cuenta en cada una.
+     */
+    public long advisorCount(QueueType queueType, AdvisorStatus status) {
+        return cells[queueAdvisorCell(queueType, status)].sum();
+    }
+
+    /**
+     * Mismo agregado que QueueStatsRepository#aggregateByQueue sin consultar la BD, vacío mientras
+     * los conteos o el índice de colas no estén listos. Los críticos salen de LiveQueueIndex.
+     */
+    public Optional<List<QueueAggregate>> aggregateByQueue(LocalDateTime now) {
+        if (!ready || !liveQueueIndex.isReady()) {
+            return Optional.empty();
+        }
+        return Optional.of(Arrays.stream(QUEUE_TYPES)
+            .<QueueAggregate>map(queueType -> new LiveAggregate(
+                queueType.name(),
+                waitingCount(queueType),
+                servingCount(queueType),
+                liveQueueIndex.waitingSince(queueType, now.minusMinutes(queueType.getMaxWaitTimeMinutes()))))
+            .toList());
+    }
+
+    private void add(AdvisorStatus status, Collection<QueueType> queueTypes, int delta) {
+        cells[advisorCell(status)].add(delta);
+        if (queueTypes != null) {
+            queueTypes.stream().distinct()
+                .forEach(queueType -> cells[queueAdvisorCell(queueType, status)].add(delta));
+        }
+    }
+
+    private static int ticketCell(QueueType queueType, TicketStatus status) {
+        return queueType.ordinal() * TICKET_STATUSES.length + status.ordinal();
+    }
+
+    private static int queueAdvisorCell(QueueType queueType, AdvisorStatus status) {
+        return QUEUE_TYPES.length * TICKET_STATUSES.length + queueType.ordinal() * ADVISOR_STATUSES.length
+            + status.ordinal();
+    }
+
+    private static int advisorCell(AdvisorStatus status) {
+        return QUEUE_TYPES.length * TICKET_STATUSES.length + QUEUE_TYPES.length * ADVISOR_STATUSES.length
+            + status.ordinal();
+    }
+
+    // Parte de la diferencia presente en ambas lecturas, con el mismo signo
+    private static long persistent(long previous, long current) {
+        if (Long.signum(previous) != Long.signum(current)) {
+            return 0;
+        }
+        return current > 0 ? Math.min(previous, current) : Math.max(previous, current);
+    }
+
+    private static LongAdder[] newCells(int size) {
+        LongAdder[] cells = new LongAdder[size];
+        Arrays.setAll(cells, i -> new LongAdder());
+        return cells;
+    }
+
+    private record LiveAggregate(String queueType, long waiting, long serving, long critical)
+        implements QueueAggregate {
+
+        @Override
+        public String getQueueType() {
+            return queueType;
+        }
+
+        @Override
+        public long getWaiting() {
+            return waiting;
+        }
+
+        @Override
+        public long getServing() {
+            return serving;
+        }
+
+        @Override
+        public long getCritical() {
+            return critical;
+        }
+    }
+}
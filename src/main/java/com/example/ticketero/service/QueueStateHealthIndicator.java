@@ -0,0 +1,47 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Componente queueState de /actuator/health: tickets en espera y en atención por cola y asesores
+ * por estado, leídos de QueueStateCounters. UNKNOWN hasta la primera reconciliación.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueueStateHealthIndicator implements HealthIndicator {
+
+    private final QueueStateCounters queueStateCounters;
+
+    @Override
+    public Health health() {
+        if (!queueStateCounters.isReady()) {
+            return Health.unknown().withDetail("reason", "Queue state counters not loaded yet").build();
+        }
+
+        Map<String, Object> queues = new LinkedHashMap<>();
+        for (QueueType queueType : QueueType.values()) {
+            queues.put(queueType.name(), Map.of(
+                "waiting", queueStateCounters.waitingCount(queueType),
+                "serving", queueStateCounters.servingCount(queueType)));
+        }
+        Map<String, Object> advisors = new LinkedHashMap<>();
+        for (AdvisorStatus status : AdvisorStatus.values()) {
+            advisors.put(status.name(), queueStateCounters.advisorCount(status));
+        }
+
+        return Health.up()
+            .withDetail("queues", queues)
+            .withDetail("advisors", advisors)
+            .withDetail("reconciledAt", queueStateCounters.reconciledAt())
+            .withDetail("lastDrift", queueStateCounters.lastDrift())
+            .build();
+    }
+}
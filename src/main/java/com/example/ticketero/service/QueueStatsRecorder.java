@@ -0,0 +1,109 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.event.QueueStatsUpdatedEvent;
+import com.example.ticketero.model.entity.QueueDailyStats;
+import com.example.ticketero.model.entity.OutboxEvent;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.OutboxEventType;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.QueueDailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mantiene queue_daily_stats a partir de los eventos de asignación y término del outbox, en la misma
+ * transacción que avanza su posición: las estadísticas quedan consistentes con los eventos sin
+ * recalcularlas desde la tabla ticket.
+ * Los tickets de un lote se acumulan en memoria y se escribe un upsert por día y cola.
+ * Cada lote que escribe publica {@link QueueStatsUpdatedEvent}.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueueStatsRecorder implements OutboxConsumer {
+
+    private final QueueDailyStatsRepository queueDailyStatsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String name() {
+        return "stats";
+    }
+
+    @Override
+    public Set<OutboxEventType> eventTypes() {
+        return EnumSet.of(OutboxEventType.TICKET_ASIGNADO, OutboxEventType.TICKET_COMPLETADO);
+    }
+
+    @Override
+    public void consume(List<OutboxEvent> events) {
+        List<Ticket> assigned = new ArrayList<>();
+        List<Ticket> completed = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            // Solo los campos que usan las estadísticas, tal como estaban al ocurrir el evento
+            Ticket ticket = Ticket.builder()
+                .queueType(QueueType.valueOf(event.text("queueType")))
+                .createdAt(event.timestamp("createdAt"))
+                .assignedAt(event.timestamp("assignedAt"))
+                .completedAt(event.timestamp("completedAt"))
+                .build();
+            (event.getEventType() == OutboxEventType.TICKET_ASIGNADO ? assigned : completed).add(ticket);
+        }
+        Set<QueueType> updated = EnumSet.noneOf(QueueType.class);
+        updated.addAll(recordAssignments(assigned));
+        updated.addAll(recordCompletions(completed));
+        if (!updated.isEmpty()) {
+            // El dashboard lee estas estadísticas: sus snapshots se invalidan al confirmarse el lote,
+            // no solo con el cambio de ticket, que se confirma antes
+            eventPublisher.publishEvent(new QueueStatsUpdatedEvent(Set.copyOf(updated)));
+        }
+    }
+
+    // Sin @Transactional propio: corren dentro de consume, en la transacción del lote del outbox
+    Set<QueueType> recordAssignments(Collection<Ticket> tickets) {
+        Map<QueueDailyStats.Key, QueueDailyStats> deltas = new HashMap<>();
+        for (Ticket ticket : tickets) {
+            if (ticket.getAssignedAt() == null || ticket.getCreatedAt() == null) {
+                continue;
+            }
+            QueueDailyStats.Key key = new QueueDailyStats.Key(ticket.getAssignedAt().toLocalDate(), ticket.getQueueType());
+            deltas.computeIfAbsent(key, k -> QueueDailyStats.builder().id(k).build())
+                .addWait(Duration.between(ticket.getCreatedAt(), ticket.getAssignedAt()).toSeconds());
+        }
+        return write(deltas.values());
+    }
+
+    Set<QueueType> recordCompletions(Collection<Ticket> tickets) {
+        Map<QueueDailyStats.Key, QueueDailyStats> deltas = new HashMap<>();
+        for (Ticket ticket : tickets) {
+            if (ticket.getCompletedAt() == null || ticket.getAssignedAt() == null) {
+                continue;
+            }
+            QueueDailyStats.Key key = new QueueDailyStats.Key(ticket.getCompletedAt().toLocalDate(), ticket.getQueueType());
+            deltas.computeIfAbsent(key, k -> QueueDailyStats.builder().id(k).build())
+                .addService(Duration.between(ticket.getAssignedAt(), ticket.getCompletedAt()).toSeconds());
+        }
+        return write(deltas.values());
+    }
+
+    private Set<QueueType> write(Collection<QueueDailyStats> deltas) {
+        // Orden fijo de filas para que dos transacciones concurrentes no se bloqueen mutuamente
+        List<QueueDailyStats> ordered = new ArrayList<>(deltas);
+        ordered.sort(Comparator.comparing((QueueDailyStats stats) -> stats.getId().getBusinessDate())
+            .thenComparing(QueueDailyStats::getQueueType));
+        ordered.forEach(queueDailyStatsRepository::accumulate);
+        Set<QueueType> queueTypes = EnumSet.noneOf(QueueType.class);
+        ordered.forEach(stats -> queueTypes.add(stats.getQueueType()));
+        return queueTypes;
+    }
+}
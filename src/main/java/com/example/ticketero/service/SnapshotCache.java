@@ -0,0 +1,127 @@
+package com.example.ticketero.service;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Snapshot cacheado de una consulta costosa, con un ETag calculado una sola vez por cómputo.
+ * <p>
+ * Un snapshot se sirve mientras no supere {@code maxStaleness} y no haya sido invalidado.
+ * El recálculo es single-flight: si varios pollers lo piden a la vez, uno calcula y el resto
+ * espera ese mismo resultado. Si el contenido recalculado es igual al anterior (según
+ * {@code etagSource}) se conserva el snapshot previo, por lo que el ETag no cambia.
+ */
+public final class SnapshotCache<T> {
+
+    public record Snapshot<T>(T value, String etag) {}
+
+    private record Entry<T>(Snapshot<T> snapshot, Instant computedAt, long generation) {}
+
+    private final Supplier<T> loader;
+    private final Function<T, String> etagSource;
+    private final Duration maxStaleness;
+    private final Clock clock;
+
+    private final Object lock = new Object();
+    private volatile Entry<T> current;
+    private volatile long generation;
+    private CompletableFuture<Snapshot<T>> inFlight;
+
+    public SnapshotCache(Supplier<T> loader, Function<T, String> etagSource, Duration maxStaleness) {
+        this(loader, etagSource, maxStaleness, Clock.systemUTC());
+    }
+
+    SnapshotCache(Supplier<T> loader, Function<T, String> etagSource, Duration maxStaleness, Clock clock) {
+        this.loader = loader;
+        this.etagSource = etagSource;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+    }
+
+    public Snapshot<T> get() {
+        Entry<T> entry = current;
+        if (isFresh(entry)) {
+            return entry.snapshot();
+        }
+
+        CompletableFuture<Snapshot<T>> flight;
+        boolean leader = false;
+        synchronized (lock) {
+            entry = current;
+            if (isFresh(entry)) {
+                return entry.snapshot();
+            }
+            if (inFlight == null) {
+                inFlight = new CompletableFuture<>();
+                leader = true;
+            }
+            flight = inFlight;
+        }
+
+        if (leader) {
+            recompute(flight);
+        }
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Marca el snapshot como obsoleto: la próxima lectura lo recalcula.
+     */
+    public void invalidate() {
+        synchronized (lock) {
+            generation++;
+        }
+    }
+
+    private void recompute(CompletableFuture<Snapshot<T>> flight) {
+        long startGeneration;
+        synchronized (lock) {
+            startGeneration = generation;
+        }
+        try {
+            T value = loader.get();
+            String etag = etagOf(value);
+            Entry<T> previous = current;
+            Snapshot<T> snapshot = previous != null && previous.snapshot().etag().equals(etag)
+                ? previous.snapshot()
+                : new Snapshot<>(value, etag);
+            synchronized (lock) {
+                // Una invalidación durante el cálculo deja el resultado ya obsoleto
+                current = new Entry<>(snapshot, clock.instant(), startGeneration);
+                inFlight = null;
+            }
+            flight.complete(snapshot);
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                inFlight = null;
+            }
+            flight.completeExceptionally(e);
+        }
+    }
+
+    private boolean isFresh(Entry<T> entry) {
+        return entry != null
+            && entry.generation() == generation
+            && entry.computedAt().plus(maxStaleness).isAfter(clock.instant());
+    }
+
+    private String etagOf(T value) {
+        byte[] content = etagSource.apply(value).getBytes(StandardCharsets.UTF_8);
+        return "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.TelegramChat;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.repository.TelegramChatRepository;
+import com.example.ticketero.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Vincula el chat de Telegram de un cliente con su teléfono. El ticket impreso lleva el enlace
+ * {@code https://t.me/<bot>?start=<codigoReferencia>}: al abrirlo, Telegram envía al webhook
+ * {@code /start <codigoReferencia>} desde el chat del cliente.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TelegramChatService {
+
+    private static final String START_COMMAND = "/start ";
+
+    private final TelegramChatRepository telegramChatRepository;
+    private final TicketRepository ticketRepository;
+
+    /**
+     * @return true si el texto era un /start de un ticket con teléfono y el chat quedó vinculado
+     */
+    @Transactional
+    public boolean linkFromStart(String chatId, String text) {
+        if (chatId == null || text == null || !text.startsWith(START_COMMAND)) {
+            return false;
+        }
+        Optional<String> telefono = parseReference(text.substring(START_COMMAND.length()).trim())
+            .flatMap(ticketRepository::findByCodigoReferencia)
+            .map(Ticket::getTelefono);
+        if (telefono.isEmpty()) {
+            log.debug("Telegram /start without a known ticket reference from chat {}", chatId);
+            return false;
+        }
+
+        TelegramChat chat = telegramChatRepository.findById(telefono.get())
+            .orElseGet(() -> TelegramChat.builder().telefono(telefono.get()).build());
+        chat.setChatId(chatId);
+        telegramChatRepository.save(chat);
+        log.info("Telegram chat {} linked to its customer", chatId);
+        return true;
+    }
+
+    private static Optional<UUID> parseReference(String payload) {
+        try {
+            return Optional.of(UUID.fromString(payload));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.OutboxEvent;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.OutboxEventType;
+import com.example.ticketero.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Programa los mensajes Telegram de los eventos de tickets del outbox: confirmación al crear,
+ * pre-aviso al pasar a PROXIMO y aviso de turno al asignar. Los tickets del lote se cargan en una
+ * sola consulta y los mensajes se guardan con un saveAll por plantilla.
+ */
+@Component
+@RequiredArgsConstructor
+public class TicketNotifier implements OutboxConsumer {
+
+    private static final Map<OutboxEventType, MessageTemplate> TEMPLATES = new EnumMap<>(Map.of(
+        OutboxEventType.TICKET_CREADO, MessageTemplate.TOTEM_TICKET_CREADO,
+        OutboxEventType.TICKET_PROXIMO, MessageTemplate.TOTEM_PROXIMO_TURNO,
+        OutboxEventType.TICKET_ASIGNADO, MessageTemplate.TOTEM_ES_TU_TURNO
+    ));
+
+    private final TicketRepository ticketRepository;
+    private final MessageService messageService;
+
+    @Override
+    public String name() {
+        return "notifications";
+    }
+
+    @Override
+    public Set<OutboxEventType> eventTypes() {
+        return EnumSet.copyOf(TEMPLATES.keySet());
+    }
+
+    @Override
+    public void consume(List<OutboxEvent> events) {
+        Set<Long> ticketIds = events.stream()
+            .map(event -> event.number("ticketId"))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Ticket> tickets = ticketRepository.findAllById(ticketIds).stream()
+            .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+
+        Map<MessageTemplate, List<Ticket>> byTemplate = new EnumMap<>(MessageTemplate.class);
+        for (OutboxEvent event : events) {
+            byTemplate.computeIfAbsent(TEMPLATES.get(event.getEventType()), template -> new ArrayList<>())
+                .add(tickets.get(event.number("ticketId")));
+        }
+        // Un ticket que ya no está en las tablas vivas (archivado) no recibe mensajes
+        byTemplate.forEach((template, recipients) ->
+            messageService.scheduleMessages(recipients.stream().filter(Objects::nonNull).toList(), template));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.NumberingProperties;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.TicketSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Emite los números visibles de ticket (C01, P15...) por sucursal, cola y día.
+ * Los números se reservan en bloques en la tabla ticket_sequence y se entregan desde memoria,
+ * por lo que la mayoría de las emisiones no tocan la base de datos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketNumberAllocator {
+
+    private final TicketSequenceRepository ticketSequenceRepository;
+    private final NumberingProperties numberingProperties;
+
+    private final Map<SequenceKey, Block> blocks = new ConcurrentHashMap<>();
+
+    public String nextNumber(String branchOffice, QueueType queueType) {
+        long value = nextValue(branchOffice, queueType, LocalDate.now());
+        return queueType.getPrefix() + String.format("%02d", value);
+    }
+
+    long nextValue(String branchOffice, QueueType queueType, LocalDate businessDate) {
+        SequenceKey key = new SequenceKey(branchOffice, queueType, businessDate);
+        Block block = blocks.get(key);
+        if (block == null) {
+            // Cambio de día: descartar los bloques de días anteriores
+            blocks.keySet().removeIf(k -> k.businessDate().isBefore(businessDate));
+            block = blocks.computeIfAbsent(key, k -> new Block());
+        }
+
+        block.lock.lock();
+        try {
+            if (block.next > block.limit) {
+                int blockSize = Math.max(1, numberingProperties.blockSize());
+                long last = ticketSequenceRepository.allocateBlock(
+                    branchOffice, queueType.name(), businessDate, blockSize);
+                block.next = last - blockSize + 1;
+                block.limit = last;
+                log.debug("Reserved ticket numbers {}-{} for {} {} {}",
+                    block.next, block.limit, branchOffice, queueType, businessDate);
+            }
+            return block.next++;
+        } finally {
+            block.lock.unlock();
+        }
+    }
+
+    private record SequenceKey(String branchOffice, QueueType queueType, LocalDate businessDate) {}
+
+    // ReentrantLock y no synchronized: en JDK 21 un hilo virtual que espera la BD dentro de un
+    // monitor deja fijo su hilo portador
+    private static final class Block {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next = 1;
+        private long limit = 0;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ticketero.service;
 
+import com.example.ticketero.event.TicketStatusChangedEvent;
 import com.example.ticketero.exception.ActiveTicketExistsException;
 import com.example.ticketero.exception.TicketNotFoundException;
 import com.example.ticketero.model.dto.request.TicketRequest;
@@ -7,17 +8,21 @@ import com.example.ticketero.model.dto.response.TicketPositionResponse;
 import com.example.ticketero.model.dto.response.TicketResponse;
 import com.example.ticketero.model.dto.response.TicketByRutResponse;
 import com.example.ticketero.model.entity.Ticket;
-import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
 import com.example.ticketero.repository.TicketRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.UUID;
 
 @Service
@@ -28,20 +33,42 @@ public class TicketService {
 
     private final TicketRepository ticketRepository;
     private final QueueService queueService;
-    private final AuditService auditService;
-    private final MessageService messageService;
-
-    @Transactional
+    private final OutboxService outboxService;
+    private final TicketNumberAllocator ticketNumberAllocator;
+    private final QueuePositions queuePositions;
+    private final LiveQueueIndex liveQueueIndex;
+    private final WaitTimeEstimator waitTimeEstimator;
+    private final TicketeroMetrics ticketeroMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Crea el ticket. El número se toma antes de abrir la transacción: cuando hay que reservar un
+     * bloque nuevo, la reserva (en su propia transacción) no pide una segunda conexión mientras el
+     * request retiene la suya.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TicketResponse create(TicketRequest request) {
+        long start = System.nanoTime();
+
         // RN-001: Validar ticket activo existente
         validateNoActiveTicket(request.nationalId());
 
         // Generar número de ticket
-        String numero = generateTicketNumber(request.queueType());
-        
-        // Calcular posición en cola
-        int position = calculatePosition(request.queueType());
-        int estimatedWait = position * request.queueType().getAverageTimeMinutes();
+        String numero = ticketNumberAllocator.nextNumber(request.branchOffice(), request.queueType());
+
+        Ticket saved = transactionTemplate.execute(status -> save(request, numero));
+
+        log.info("Ticket created: {} for customer: {}", saved.getNumero(), request.nationalId());
+        ticketeroMetrics.ticketCreated(saved.getQueueType(), saved.getBranchOffice(), System.nanoTime() - start);
+        return toResponse(saved);
+    }
+
+    private Ticket save(TicketRequest request, String numero) {
+        // Número de llegada en la cola: de él se deriva la posición de aquí en adelante
+        QueuePositions.Issued issued = queuePositions.issue(request.queueType());
+        int position = issued.position();
+        int estimatedWait = waitTimeEstimator.estimatedWaitMinutes(request.queueType(), position);
 
         Ticket ticket = Ticket.builder()
             .codigoReferencia(UUID.randomUUID())
@@ -51,45 +78,60 @@ public class TicketService {
             .branchOffice(request.branchOffice())
             .queueType(request.queueType())
             .status(TicketStatus.EN_ESPERA)
+            .queueSeq(issued.queueSeq())
             .positionInQueue(position)
             .estimatedWaitMinutes(estimatedWait)
             .build();
 
         Ticket saved = ticketRepository.save(ticket);
-        
-        // Auditoría
-        auditService.logTicketCreated(saved, request.nationalId());
-        
-        // Programar mensaje de confirmación
-        messageService.scheduleTicketCreatedMessage(saved);
-        
-        log.info("Ticket created: {} for customer: {}", saved.getNumero(), request.nationalId());
-        return toResponse(saved);
+        eventPublisher.publishEvent(TicketStatusChangedEvent.of(saved, null));
+
+        // Auditoría y mensaje de confirmación: los derivan los consumidores del outbox
+        outboxService.ticketCreated(saved, request.nationalId());
+        return saved;
     }
 
     public Optional<TicketResponse> findByCodigoReferencia(UUID codigoReferencia) {
         return ticketRepository.findByCodigoReferencia(codigoReferencia)
-            .map(this::toResponse);
+            .map(ticket -> {
+                updatePosition(ticket);
+                return toResponse(ticket);
+            });
     }
 
-    public TicketPositionResponse getPosition(String numero) {
-        Ticket ticket = ticketRepository.findByNumero(numero)
+    public TicketPositionResponse getPosition(String branchOffice, String numero) {
+        return trackPosition(branchOffice, numero).position();
+    }
+
+    /**
+     * Posición actual del ticket de hoy con ese número en la sucursal, junto con la clave del ticket
+     * en LiveQueueIndex, para seguirla sin volver a la BD.
+     */
+    public TrackedPosition trackPosition(String branchOffice, String numero) {
+        Ticket ticket = ticketRepository.findByNumero(branchOffice, numero, LocalDate.now())
             .orElseThrow(() -> new TicketNotFoundException(numero));
-        
+        return track(ticket);
+    }
+
+    /**
+     * Igual que {@link #trackPosition(String, String)} para un ticket ya resuelto: un stream abierto
+     * sigue a su ticket aunque cambie el día.
+     */
+    public TrackedPosition trackPosition(Long ticketId) {
+        Ticket ticket = ticketRepository.findById(ticketId)
+            .orElseThrow(() -> new TicketNotFoundException(ticketId));
+        return track(ticket);
+    }
+
+    private TrackedPosition track(Ticket ticket) {
         // Recalcular posición en tiempo real
         updatePosition(ticket);
         
-        return toPositionResponse(ticket);
+        return new TrackedPosition(ticket.getId(), ticket.getCreatedAt(), toPositionResponse(ticket));
     }
 
     public TicketByRutResponse findByRut(String nationalId) {
-        List<TicketStatus> activeStatuses = List.of(
-            TicketStatus.EN_ESPERA, 
-            TicketStatus.PROXIMO, 
-            TicketStatus.ATENDIENDO
-        );
-        
-        List<Ticket> activeTickets = ticketRepository.findByNationalIdAndStatusIn(nationalId, activeStatuses);
+        List<Ticket> activeTickets = ticketRepository.findActiveByNationalId(nationalId);
         
         if (activeTickets.isEmpty()) {
             return new TicketByRutResponse(
@@ -112,45 +154,40 @@ public class TicketService {
     }
 
     private void validateNoActiveTicket(String nationalId) {
-        List<TicketStatus> activeStatuses = List.of(
-            TicketStatus.EN_ESPERA, 
-            TicketStatus.PROXIMO, 
-            TicketStatus.ATENDIENDO
-        );
-        
-        if (ticketRepository.existsByNationalIdAndStatusIn(nationalId, activeStatuses)) {
-            List<Ticket> activeTickets = ticketRepository.findByNationalIdAndStatusIn(nationalId, activeStatuses);
+        if (ticketRepository.existsActiveByNationalId(nationalId)) {
+            List<Ticket> activeTickets = ticketRepository.findActiveByNationalId(nationalId);
             String activeTicketNumber = activeTickets.get(0).getNumero();
             throw new ActiveTicketExistsException(nationalId, activeTicketNumber);
         }
     }
 
-    private String generateTicketNumber(QueueType queueType) {
-        // Contar TODOS los tickets de hoy para esta cola (no solo EN_ESPERA)
-        LocalDateTime startOfDay = LocalDateTime.now().toLocalDate().atStartOfDay();
-        long count = ticketRepository.findAll()
-            .stream()
-            .filter(t -> t.getQueueType() == queueType)
-            .filter(t -> t.getCreatedAt().isAfter(startOfDay))
-            .count() + 1;
-        return queueType.getPrefix() + String.format("%02d", count);
-    }
-
-    private int calculatePosition(QueueType queueType) {
-        return (int) ticketRepository.countByQueueTypeAndStatus(queueType, TicketStatus.EN_ESPERA) + 1;
-    }
-
     private void updatePosition(Ticket ticket) {
         if (ticket.getStatus() == TicketStatus.EN_ESPERA) {
-            long ahead = ticketRepository.countTicketsAheadInQueue(ticket.getQueueType(), ticket.getCreatedAt());
-            ticket.setPositionInQueue((int) ahead + 1);
-            ticket.setEstimatedWaitMinutes(ticket.getPositionInQueue() * ticket.getQueueType().getAverageTimeMinutes());
+            ticket.setPositionInQueue(currentPosition(ticket));
+            ticket.setEstimatedWaitMinutes(
+                waitTimeEstimator.estimatedWaitMinutes(ticket.getQueueType(), ticket.getPositionInQueue()));
         } else {
             ticket.setPositionInQueue(0);
             ticket.setEstimatedWaitMinutes(0);
         }
     }
 
+    private int currentPosition(Ticket ticket) {
+        if (liveQueueIndex.isReady()) {
+            OptionalInt position = liveQueueIndex.positionOf(ticket.getQueueType(), ticket.getId(), ticket.getCreatedAt());
+            if (position.isPresent()) {
+                return position.getAsInt();
+            }
+        }
+        // Índice aún no construido o evento pendiente de commit: derivarla del número de llegada
+        OptionalInt derived = queuePositions.positionOf(ticket);
+        if (derived.isPresent()) {
+            return derived.getAsInt();
+        }
+        long ahead = ticketRepository.countTicketsAheadInQueue(ticket.getQueueType(), ticket.getCreatedAt());
+        return (int) ahead + 1;
+    }
+
     private TicketResponse toResponse(Ticket ticket) {
         return new TicketResponse(
             ticket.getCodigoReferencia(),
@@ -171,24 +208,14 @@ public class TicketService {
     }
 
     private TicketPositionResponse toPositionResponse(Ticket ticket) {
-        String message = switch (ticket.getStatus()) {
-            case EN_ESPERA -> "Tu ticket está en espera. Posición: " + ticket.getPositionInQueue();
-            case PROXIMO -> "¡Pronto será tu turno! Por favor acércate a la sucursal.";
-            case ATENDIENDO -> "Dirígete al módulo " + ticket.getAssignedModuleNumber() + " - Asesor: " + ticket.getAssignedAdvisor().getName();
-            case COMPLETADO -> "Tu atención ha sido completada. Gracias por tu visita.";
-            default -> "Estado: " + ticket.getStatus().getDescription();
-        };
-
-        return new TicketPositionResponse(
+        return TicketPositionResponse.of(
             ticket.getNumero(),
             ticket.getStatus(),
             ticket.getPositionInQueue(),
             ticket.getEstimatedWaitMinutes(),
             ticket.getQueueType(),
             ticket.getAssignedAdvisor() != null ? ticket.getAssignedAdvisor().getName() : null,
-            ticket.getAssignedModuleNumber(),
-            message,
-            LocalDateTime.now()
+            ticket.getAssignedModuleNumber()
         );
     }
 
@@ -203,4 +230,6 @@ public class TicketService {
             LocalDateTime.now()
         );
     }
+
+    public record TrackedPosition(Long ticketId, LocalDateTime createdAt, TicketPositionResponse position) {}
 }
\ No newline at end of file
@@ -0,0 +1,371 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.StreamProperties;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.dto.response.BranchDisplayEvent;
+import com.example.ticketero.model.dto.response.TicketPositionResponse;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.service.TicketService.TrackedPosition;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Difunde por Server-Sent Events los cambios de posición y estado de los tickets, y las llamadas
+ * a módulo para las pantallas de cada sucursal.
+ * <p>
+ * Cada cliente conectado es una suscripción en memoria. Los eventos de cambio de estado ya
+ * confirmados solo marcan qué colas cambiaron; un único hilo recalcula las posiciones desde
+ * LiveQueueIndex y envía a cada cliente solo si lo que ve cambió. Los cambios que llegan mientras
+ * hay un envío pendiente se agrupan en ese mismo envío, y ningún envío corre en el hilo que hizo commit.
+ */
+@Component
+@Slf4j
+public class TicketUpdateStream {
+
+    static final String POSITION_EVENT = "position";
+    static final String DISPLAY_EVENT = "display";
+
+    private final TicketService ticketService;
+    private final LiveQueueIndex liveQueueIndex;
+    private final WaitTimeEstimator waitTimeEstimator;
+    private final StreamProperties properties;
+
+    private final Map<QueueType, Set<TicketSubscription>> ticketSubscriptions = new EnumMap<>(QueueType.class);
+    private final Set<DisplaySubscription> displaySubscriptions = ConcurrentHashMap.newKeySet();
+
+    // Trabajo acumulado para el próximo envío
+    private final Set<QueueType> dirtyQueues = ConcurrentHashMap.newKeySet();
+    private final Map<Long, TicketStatusChangedEvent> ownChanges = new ConcurrentHashMap<>();
+    private final Queue<TicketSubscription> newSubscriptions = new ConcurrentLinkedQueue<>();
+    private final Queue<TicketStatusChangedEvent> pendingCalls = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("sse-sender").daemon().factory());
+
+    public TicketUpdateStream(TicketService ticketService,
+                              LiveQueueIndex liveQueueIndex,
+                              WaitTimeEstimator waitTimeEstimator,
+                              StreamProperties properties) {
+        this.ticketService = ticketService;
+        this.liveQueueIndex = liveQueueIndex;
+        this.waitTimeEstimator = waitTimeEstimator;
+        this.properties = properties;
+        for (QueueType queueType : QueueType.values()) {
+            ticketSubscriptions.put(queueType, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Abre el stream de un ticket. El primer evento es la posición actual; lanza
+     * TicketNotFoundException antes de abrir la conexión si el ticket no existe.
+     */
+    public SseEmitter subscribe(String branchOffice, String numero) {
+        TrackedPosition tracked = ticketService.trackPosition(branchOffice, numero);
+        TicketPositionResponse position = tracked.position();
+        SseEmitter emitter = newEmitter();
+
+        if (!position.status().isActive()) {
+            send(emitter, POSITION_EVENT, position);
+            emitter.complete();
+            return emitter;
+        }
+
+        TicketSubscription subscription = new TicketSubscription(
+            numero, tracked.ticketId(), tracked.createdAt(), position.queueType(), emitter, position);
+        Set<TicketSubscription> subscriptions = ticketSubscriptions.get(position.queueType());
+        Runnable remove = () -> subscriptions.remove(subscription);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        send(emitter, POSITION_EVENT, position);
+        subscriptions.add(subscription);
+        // Un cambio confirmado entre la lectura y el registro no llegaría: revisar una vez más
+        newSubscriptions.add(subscription);
+        requestFlush();
+        return emitter;
+    }
+
+    /**
+     * Abre el stream de la pantalla de una sucursal: llamadas a módulo y largo de cada cola.
+     */
+    public SseEmitter subscribeDisplay(String branchOffice) {
+        SseEmitter emitter = newEmitter();
+        Map<QueueType, Integer> waiting = liveQueueIndex.sizes(branchOffice);
+        DisplaySubscription subscription = new DisplaySubscription(branchOffice, emitter, waiting);
+        Runnable remove = () -> displaySubscriptions.remove(subscription);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        send(emitter, DISPLAY_EVENT, new BranchDisplayEvent(branchOffice, null, waiting, LocalDateTime.now()));
+        displaySubscriptions.add(subscription);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        if (event.ticketId() == null || event.queueType() == null) {
+            return;
+        }
+        boolean watchedQueue = !ticketSubscriptions.get(event.queueType()).isEmpty();
+        boolean displays = !displaySubscriptions.isEmpty();
+        if (!watchedQueue && !displays) {
+            return;
+        }
+        if (watchedQueue) {
+            ownChanges.put(event.ticketId(), event);
+            dirtyQueues.add(event.queueType());
+        }
+        if (displays && event.newStatus() == TicketStatus.ATENDIENDO) {
+            pendingCalls.add(event);
+        }
+        requestFlush();
+    }
+
+    @Scheduled(fixedDelayString = "${ticketero.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (subscriberCount() == 0) {
+            return;
+        }
+        try {
+            sender.execute(() -> {
+                ticketSubscriptions.values().forEach(subscriptions ->
+                    subscriptions.removeIf(subscription -> !ping(subscription.emitter)));
+                displaySubscriptions.removeIf(subscription -> !ping(subscription.emitter));
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("SSE sender is shut down, heartbeat skipped");
+        }
+    }
+
+    public int subscriberCount() {
+        int count = displaySubscriptions.size();
+        for (Set<TicketSubscription> subscriptions : ticketSubscriptions.values()) {
+            count += subscriptions.size();
+        }
+        return count;
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(properties.timeout().toMillis());
+    }
+
+    private void requestFlush() {
+        if (!flushPending.compareAndSet(false, true)) {
+            return; // Ya hay un envío en cola que verá este cambio
+        }
+        try {
+            sender.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            flushPending.set(false);
+            log.debug("SSE sender is shut down, flush request ignored");
+        }
+    }
+
+    private void flush() {
+        // Liberar el flag antes de leer: un cambio que llega durante el envío agenda otro
+        flushPending.set(false);
+        try {
+            Map<Long, TicketStatusChangedEvent> changes = new HashMap<>();
+            for (Long ticketId : ownChanges.keySet()) {
+                TicketStatusChangedEvent change = ownChanges.remove(ticketId);
+                if (change != null) {
+                    changes.put(ticketId, change);
+                }
+            }
+
+            for (QueueType queueType : QueueType.values()) {
+                if (dirtyQueues.remove(queueType)) {
+                    ticketSubscriptions.get(queueType).removeIf(subscription ->
+                        !refresh(subscription, changes.get(subscription.ticketId)));
+                }
+            }
+
+            TicketSubscription added;
+            while ((added = newSubscriptions.poll()) != null) {
+                if (!refresh(added, null)) {
+                    ticketSubscriptions.get(added.queueType).remove(added);
+                }
+            }
+
+            List<TicketStatusChangedEvent> calls = new ArrayList<>();
+            TicketStatusChangedEvent call;
+            while ((call = pendingCalls.poll()) != null) {
+                calls.add(call);
+            }
+            if (!displaySubscriptions.isEmpty()) {
+                refreshDisplays(calls);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error pushing ticket updates", e);
+        }
+    }
+
+    /**
+     * Envía la posición nueva si cambió lo que ve el cliente. Retorna false si la suscripción terminó.
+     */
+    private boolean refresh(TicketSubscription subscription, TicketStatusChangedEvent change) {
+        TicketPositionResponse last = subscription.last;
+        TicketPositionResponse next;
+        if (change != null) {
+            int position = positionFor(subscription, change.newStatus());
+            next = TicketPositionResponse.of(subscription.numero, change.newStatus(), position,
+                waitTimeEstimator.estimatedWaitMinutes(subscription.queueType, position), subscription.queueType,
+                change.assignedAdvisor(), change.assignedModuleNumber());
+        } else if (last.status() == TicketStatus.EN_ESPERA && liveQueueIndex.isReady()) {
+            OptionalInt position = liveQueueIndex.positionOf(
+                subscription.queueType, subscription.ticketId, subscription.createdAt);
+            next = position.isPresent()
+                ? TicketPositionResponse.of(subscription.numero, TicketStatus.EN_ESPERA, position.getAsInt(),
+                    waitTimeEstimator.estimatedWaitMinutes(subscription.queueType, position.getAsInt()),
+                    subscription.queueType, null, null)
+                : reload(subscription); // Dejó la fila sin que viéramos su evento
+        } else {
+            return true;
+        }
+
+        if (!next.sameContentAs(last)) {
+            if (!send(subscription.emitter, POSITION_EVENT, next)) {
+                return false;
+            }
+            subscription.last = next;
+        }
+        if (!next.status().isActive()) {
+            subscription.emitter.complete();
+            return false;
+        }
+        return true;
+    }
+
+    private int positionFor(TicketSubscription subscription, TicketStatus status) {
+        if (status != TicketStatus.EN_ESPERA) {
+            return 0;
+        }
+        OptionalInt position = liveQueueIndex.isReady()
+            ? liveQueueIndex.positionOf(subscription.queueType, subscription.ticketId, subscription.createdAt)
+            : OptionalInt.empty();
+        return position.orElse(subscription.last.positionInQueue());
+    }
+
+    private TicketPositionResponse reload(TicketSubscription subscription) {
+        try {
+            return ticketService.trackPosition(subscription.ticketId).position();
+        } catch (RuntimeException e) {
+            log.debug("Cannot reload position of ticket {}: {}", subscription.numero, e.getMessage());
+            return subscription.last;
+        }
+    }
+
+    private void refreshDisplays(List<TicketStatusChangedEvent> calls) {
+        // Varias pantallas de una sucursal comparten el conteo
+        Map<String, Map<QueueType, Integer>> waitingByBranch = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        displaySubscriptions.removeIf(display -> {
+            Map<QueueType, Integer> waiting = waitingByBranch.computeIfAbsent(display.branchOffice, liveQueueIndex::sizes);
+            boolean sent = false;
+            for (TicketStatusChangedEvent call : calls) {
+                if (display.branchOffice.equals(call.branchOffice())) {
+                    BranchDisplayEvent.TicketCall ticketCall = new BranchDisplayEvent.TicketCall(
+                        call.numero(), call.queueType(), call.assignedAdvisor(), call.assignedModuleNumber());
+                    if (!send(display.emitter, DISPLAY_EVENT,
+                            new BranchDisplayEvent(display.branchOffice, ticketCall, waiting, now))) {
+                        return true;
+                    }
+                    sent = true;
+                }
+            }
+            if (!sent && !waiting.equals(display.lastWaiting)) {
+                if (!send(display.emitter, DISPLAY_EVENT,
+                        new BranchDisplayEvent(display.branchOffice, null, waiting, now))) {
+                    return true;
+                }
+            }
+            display.lastWaiting = waiting;
+            return false;
+        });
+    }
+
+    private static boolean send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado o conexión ya cerrada
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static boolean ping(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        ticketSubscriptions.values().forEach(subscriptions ->
+            subscriptions.forEach(subscription -> subscription.emitter.complete()));
+        displaySubscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    private static final class TicketSubscription {
+        private final String numero;
+        private final Long ticketId;
+        private final LocalDateTime createdAt;
+        private final QueueType queueType;
+        private final SseEmitter emitter;
+        // Último estado enviado; solo lo escribe el hilo de envío
+        private volatile TicketPositionResponse last;
+
+        private TicketSubscription(String numero, Long ticketId, LocalDateTime createdAt,
+                                   QueueType queueType, SseEmitter emitter, TicketPositionResponse last) {
+            this.numero = numero;
+            this.ticketId = ticketId;
+            this.createdAt = createdAt;
+            this.queueType = queueType;
+            this.emitter = emitter;
+            this.last = last;
+        }
+    }
+
+    private static final class DisplaySubscription {
+        private final String branchOffice;
+        private final SseEmitter emitter;
+        private volatile Map<QueueType, Integer> lastWaiting;
+
+        private DisplaySubscription(String branchOffice, SseEmitter emitter, Map<QueueType, Integer> lastWaiting) {
+            this.branchOffice = branchOffice;
+            this.emitter = emitter;
+            this.lastWaiting = lastWaiting;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.MetricsProperties;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de negocio en Micrometer, expuestas en /actuator/prometheus.
+ * <p>
+ * Los tiempos (creación de tickets, ciclos de asignación, espera hasta la asignación, envío de
+ * mensajes) los registran los propios flujos o se derivan de los eventos de cambio de estado. Los
+ * gauges leen QueueStateCounters, así que un scrape no consulta la base de datos.
+ * <p>
+ * La etiqueta branch solo toma las sucursales de {@code ticketero.metrics.branches}: branchOffice
+ * llega como texto libre en POST /api/tickets y cada valor distinto sería otra serie con histograma.
+ */
+@Component
+public class TicketeroMetrics {
+
+    private static final Duration MAX_EXPECTED_WAIT = Duration.ofHours(3);
+    static final String OTHER_BRANCH = "other";
+
+    private final MeterRegistry registry;
+    private final Set<String> branches;
+
+    public TicketeroMetrics(MeterRegistry registry, QueueStateCounters queueStateCounters,
+                            MetricsProperties properties) {
+        this.registry = registry;
+        this.branches = Set.copyOf(properties.branches());
+
+        for (QueueType queueType : QueueType.values()) {
+            Gauge.builder("ticketero.queue.depth", queueStateCounters, counters -> counters.waitingCount(queueType))
+                .description("Tickets waiting (EN_ESPERA and PROXIMO) in the queue")
+                .tag("queue", queueType.name())
+                .register(registry);
+            for (TicketStatus status : TicketStatus.values()) {
+                if (status.isActive()) {
+                    Gauge.builder("ticketero.queue.tickets", queueStateCounters,
+                            counters -> counters.ticketCount(queueType, status))
+                        .description("Active tickets in the queue, by status")
+                        .tags("queue", queueType.name(), "status", status.name())
+                        .register(registry);
+                }
+            }
+            for (AdvisorStatus status : AdvisorStatus.values()) {
+                Gauge.builder("ticketero.queue.advisors", queueStateCounters,
+                        counters -> counters.advisorCount(queueType, status))
+                    .description("Advisors serving the queue, by status")
+                    .tags("queue", queueType.name(), "status", status.name())
+                    .register(registry);
+            }
+        }
+        for (AdvisorStatus status : AdvisorStatus.values()) {
+            Gauge.builder("ticketero.advisors", queueStateCounters, counters -> counters.advisorCount(status))
+                .description("Advisors by status")
+                .tag("status", status.name())
+                .register(registry);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        if (event.queueType() == null || event.assignedAt() == null) {
+            return;
+        }
+        if (event.newStatus() == TicketStatus.ATENDIENDO && event.createdAt() != null) {
+            Timer.builder("ticketero.ticket.wait")
+                .description("Time from ticket creation to assignment")
+                .tags("queue", event.queueType().name(), "branch", branch(event.branchOffice()))
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_WAIT)
+                .register(registry)
+                .record(positive(Duration.between(event.createdAt(), event.assignedAt())));
+        } else if (event.newStatus() == TicketStatus.COMPLETADO && event.occurredAt() != null) {
+            Timer.builder("ticketero.ticket.service")
+                .description("Time from assignment to completion")
+                .tags("queue", event.queueType().name(), "branch", branch(event.branchOffice()))
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_WAIT)
+                .register(registry)
+                .record(positive(Duration.between(event.assignedAt(), event.occurredAt())));
+        }
+    }
+
+    /**
+     * Duración de la creación de un ticket (validación, numeración y escritura).
+     */
+    public void ticketCreated(QueueType queueType, String branchOffice, long nanos) {
+        Timer.builder("ticketero.ticket.creation")
+            .description("Ticket creation time")
+            .tags("queue", queueType.name(), "branch", branch(branchOffice))
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Duración de un ciclo de asignación y cuántos tickets asignó.
+     */
+    public void assignmentCycle(int assigned, long nanos) {
+        Timer.builder("ticketero.assignment.cycle")
+            .description("Assignment cycle time, including the commit")
+            .tag("outcome", assigned > 0 ? "assigned" : "idle")
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("ticketero.assignment.cycle.tickets")
+            .description("Tickets assigned per cycle")
+            .register(registry)
+            .record(assigned);
+    }
+
+    /**
+     * Resultado de un intento de envío. En el último intento (enviado o agotados los reintentos)
+     * registra además cuántos intentos necesitó el mensaje.
+     */
+    public void messageAttempt(MessageTemplate template, boolean sent, int attempt, boolean last, long nanos) {
+        String outcome = sent ? "sent" : "failed";
+        Timer.builder("ticketero.message.send")
+            .description("Notification send time per attempt")
+            .tags("template", template.name(), "outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        if (attempt > 1) {
+            Counter.builder("ticketero.message.retries")
+                .description("Send attempts after the first one")
+                .tag("template", template.name())
+                .register(registry)
+                .increment();
+        }
+        if (last) {
+            DistributionSummary.builder("ticketero.message.attempts")
+                .description("Send attempts per message until sent or given up")
+                .tags("template", template.name(), "outcome", outcome)
+                .register(registry)
+                .record(attempt);
+        }
+    }
+
+    private String branch(String branchOffice) {
+        return branchOffice != null && branches.contains(branchOffice) ? branchOffice : OTHER_BRANCH;
+    }
+
+    private static Duration positive(Duration duration) {
+        return duration.isNegative() ? Duration.ZERO : duration;
+    }
+}
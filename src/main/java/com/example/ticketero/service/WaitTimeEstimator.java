@@ -0,0 +1,260 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.EstimationProperties;
+import com.example.ticketero.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.entity.QueueDailyStats;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.QueueDailyStatsRepository;
+import com.example.ticketero.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Espera estimada por ticket a partir de la dotación real de cada cola, calculada en memoria.
+ * <p>
+ * Lleva un promedio móvil exponencial (EWMA) del tiempo real de atención por cola y, por asesor,
+ * un factor de velocidad (su tiempo real sobre el promedio de la cola), ambos alimentados por las
+ * atenciones que terminan. Con cada cambio de asesor o ticket recalcula el pronóstico de cada cola:
+ * cuántos tickets por minuto despachan los asesores AVAILABLE y BUSY que la atienden, y cuándo se
+ * libera el primero. La espera de la posición p es primerLibre + (p - 1) / ritmo, en O(1).
+ * <p>
+ * Sin pronóstico para la cola (estado aún sin construir, nadie la atiende o estimación deshabilitada) se
+ * usa la estimación fija: posición × promedio de QueueType.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WaitTimeEstimator {
+
+    // Acota muestras y factores anómalos (atenciones cerradas al instante o olvidadas abiertas)
+    private static final double MIN_SERVICE_MINUTES = 0.5;
+    private static final double MIN_SPEED_FACTOR = 0.25;
+    private static final double MAX_SPEED_FACTOR = 4.0;
+
+    private final AdvisorRepository advisorRepository;
+    private final TicketRepository ticketRepository;
+    private final QueueDailyStatsRepository queueDailyStatsRepository;
+    private final EstimationProperties properties;
+
+    // Estado mutable, solo bajo el monitor de esta instancia
+    private final Map<Long, AdvisorState> advisors = new HashMap<>();
+    private final Map<QueueType, Double> serviceMinutes = defaultServiceMinutes();
+
+    // Lo que leen las consultas: se reemplaza completo en cada cambio
+    private volatile Map<QueueType, Forecast> forecasts = Map.of();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        try {
+            advisors.clear();
+            for (Advisor advisor : advisorRepository.findAll()) {
+                AdvisorState state = advisorState(advisor.getId());
+                state.update(advisor.getStatus(), advisor.getQueueTypes());
+                state.speedFactor = initialSpeedFactor(advisor);
+            }
+            for (Ticket ticket : ticketRepository.findByStatusOrderByCreatedAtAsc(TicketStatus.ATENDIENDO)) {
+                if (ticket.getAssignedAdvisor() != null) {
+                    advisorState(ticket.getAssignedAdvisor().getId())
+                        .startServing(ticket.getQueueType(), ticket.getAssignedAt());
+                }
+            }
+            serviceMinutes.putAll(defaultServiceMinutes());
+            for (QueueDailyStats stats : queueDailyStatsRepository.findByIdBusinessDate(LocalDate.now())) {
+                Double average = stats.getAverageServiceMinutes();
+                if (average != null && average > 0) {
+                    serviceMinutes.put(stats.getQueueType(), Math.max(MIN_SERVICE_MINUTES, average));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error rebuilding wait time estimator, waits will use the fixed queue averages", e);
+            return;
+        }
+        recompute();
+        ready = true;
+        log.info("Wait time estimator rebuilt: {} advisors, service minutes {}", advisors.size(), serviceMinutes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        if (event.advisorId() == null) {
+            return;
+        }
+        advisorState(event.advisorId()).update(event.newStatus(), event.queueTypes());
+        recompute();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        if (event.assignedAdvisorId() == null || event.queueType() == null) {
+            return;
+        }
+        AdvisorState advisor = advisorState(event.assignedAdvisorId());
+        if (event.newStatus() == TicketStatus.ATENDIENDO) {
+            advisor.startServing(event.queueType(),
+                event.assignedAt() != null ? event.assignedAt() : event.occurredAt());
+        } else if (event.previousStatus() == TicketStatus.ATENDIENDO) {
+            if (event.newStatus() == TicketStatus.COMPLETADO && event.assignedAt() != null) {
+                recordService(advisor, event.queueType(),
+                    Duration.between(event.assignedAt(), event.occurredAt()).toSeconds() / 60.0);
+            }
+            advisor.stopServing();
+        } else {
+            return;
+        }
+        recompute();
+    }
+
+    /**
+     * Minutos estimados hasta que se atienda el ticket en la posición indicada (1-based).
+     */
+    public int estimatedWaitMinutes(QueueType queueType, int position) {
+        return estimatedWaitMinutes(queueType, position, LocalDateTime.now());
+    }
+
+    int estimatedWaitMinutes(QueueType queueType, int position, LocalDateTime now) {
+        if (position <= 0) {
+            return 0;
+        }
+        Forecast forecast = properties.enabled() && ready ? forecasts.get(queueType) : null;
+        if (forecast == null) {
+            return position * queueType.getAverageTimeMinutes();
+        }
+        return (int) Math.ceil(forecast.minutesUntilFirstFree(now) + (position - 1) / forecast.ticketsPerMinute());
+    }
+
+    private void recordService(AdvisorState advisor, QueueType queueType, double minutes) {
+        double alpha = properties.smoothing();
+        double sample = Math.max(MIN_SERVICE_MINUTES, minutes);
+        double queueAverage = serviceMinutes.get(queueType);
+        double factor = alpha * (sample / queueAverage) + (1 - alpha) * advisor.speedFactor;
+        advisor.speedFactor = Math.min(MAX_SPEED_FACTOR, Math.max(MIN_SPEED_FACTOR, factor));
+        serviceMinutes.put(queueType, alpha * sample + (1 - alpha) * queueAverage);
+    }
+
+    private void recompute() {
+        Map<QueueType, Forecast> next = new EnumMap<>(QueueType.class);
+        for (QueueType queueType : QueueType.values()) {
+            double ticketsPerMinute = 0;
+            boolean idle = false;
+            LocalDateTime firstFreeAt = null;
+            for (AdvisorState advisor : advisors.values()) {
+                if (advisor.status == AdvisorStatus.OFFLINE || !advisor.queueTypes.contains(queueType)) {
+                    continue;
+                }
+                // Un asesor de varias colas reparte su ritmo entre ellas
+                ticketsPerMinute += 1.0 / (advisor.minutesFor(queueType) * advisor.queueTypes.size());
+                if (advisor.status == AdvisorStatus.AVAILABLE) {
+                    idle = true;
+                } else if (advisor.servingSince != null) {
+                    LocalDateTime freeAt = advisor.servingSince.plusSeconds(
+                        Math.round(advisor.minutesFor(advisor.servingQueue) * 60));
+                    if (firstFreeAt == null || freeAt.isBefore(firstFreeAt)) {
+                        firstFreeAt = freeAt;
+                    }
+                }
+            }
+            if (ticketsPerMinute > 0) {
+                next.put(queueType, new Forecast(ticketsPerMinute, idle, firstFreeAt));
+            }
+        }
+        forecasts = next;
+    }
+
+    private AdvisorState advisorState(Long advisorId) {
+        return advisors.computeIfAbsent(advisorId, id -> new AdvisorState());
+    }
+
+    // Su promedio histórico (de todas sus colas) relativo al promedio fijo de las colas que atiende
+    private static double initialSpeedFactor(Advisor advisor) {
+        if (advisor.getAverageServiceTimeMinutes() == null || advisor.getAverageServiceTimeMinutes().signum() <= 0
+                || advisor.getQueueTypes() == null || advisor.getQueueTypes().isEmpty()) {
+            return 1.0;
+        }
+        double reference = advisor.getQueueTypes().stream()
+            .mapToInt(QueueType::getAverageTimeMinutes)
+            .average()
+            .orElse(1.0);
+        double factor = advisor.getAverageServiceTimeMinutes().doubleValue() / reference;
+        return Math.min(MAX_SPEED_FACTOR, Math.max(MIN_SPEED_FACTOR, factor));
+    }
+
+    private static Map<QueueType, Double> defaultServiceMinutes() {
+        Map<QueueType, Double> map = new EnumMap<>(QueueType.class);
+        for (QueueType queueType : QueueType.values()) {
+            map.put(queueType, (double) queueType.getAverageTimeMinutes());
+        }
+        return map;
+    }
+
+    /**
+     * Pronóstico de una cola. firstFreeAt es null si hay un asesor libre o si no se sabe desde
+     * cuándo atienden los ocupados.
+     */
+    private record Forecast(double ticketsPerMinute, boolean idle, LocalDateTime firstFreeAt) {
+
+        double minutesUntilFirstFree(LocalDateTime now) {
+            if (idle) {
+                return 0;
+            }
+            if (firstFreeAt == null) {
+                return 1 / ticketsPerMinute;
+            }
+            return Math.max(0, Duration.between(now, firstFreeAt).toSeconds() / 60.0);
+        }
+    }
+
+    private final class AdvisorState {
+        private AdvisorStatus status = AdvisorStatus.OFFLINE;
+        private Set<QueueType> queueTypes = EnumSet.noneOf(QueueType.class);
+        private double speedFactor = 1.0;
+        private QueueType servingQueue;
+        private LocalDateTime servingSince;
+
+        void update(AdvisorStatus newStatus, Collection<QueueType> skills) {
+            status = newStatus;
+            if (skills != null && !skills.isEmpty()) {
+                queueTypes = EnumSet.copyOf(skills);
+            }
+            if (newStatus != AdvisorStatus.BUSY) {
+                stopServing();
+            }
+        }
+
+        void startServing(QueueType queueType, LocalDateTime since) {
+            status = AdvisorStatus.BUSY;
+            queueTypes.add(queueType);
+            servingQueue = queueType;
+            servingSince = since;
+        }
+
+        void stopServing() {
+            servingQueue = null;
+            servingSince = null;
+        }
+
+        double minutesFor(QueueType queueType) {
+            return speedFactor * serviceMinutes.get(queueType);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.ticketero.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fila de espera ordenada por orden de llegada (createdAt, id) con consulta de posición en O(log n).
+ * Implementada como un treap aumentado con el tamaño de cada subárbol.
+ */
+final class WaitingLine {
+
+    private Node root;
+
+    synchronized boolean add(long ticketId, LocalDateTime createdAt) {
+        if (find(ticketId, createdAt) != null) {
+            return false;
+        }
+        root = insert(root, new Node(ticketId, createdAt, ThreadLocalRandom.current().nextInt()));
+        return true;
+    }
+
+    synchronized boolean remove(long ticketId, LocalDateTime createdAt) {
+        if (find(ticketId, createdAt) == null) {
+            return false;
+        }
+        root = delete(root, ticketId, createdAt);
+        return true;
+    }
+
+    /**
+     * Cantidad de tickets delante del indicado, o -1 si no está en la fila.
+     */
+    synchronized int rankOf(long ticketId, LocalDateTime createdAt) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(ticketId, createdAt, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * Cantidad de tickets creados antes de {@code limit}: los que llevan más que el tiempo máximo de espera.
+     */
+    synchronized int countCreatedBefore(LocalDateTime limit) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.createdAt.isBefore(limit)) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Los primeros {@code limit} tickets de la fila, en orden de atención.
+     */
+    synchronized List<Long> head(int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, size(root)));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while ((node != null || !stack.isEmpty()) && ids.size() < limit) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            ids.add(node.ticketId);
+            node = node.right;
+        }
+        return ids;
+    }
+
+    private Node find(long ticketId, LocalDateTime createdAt) {
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(ticketId, createdAt, node);
+            if (cmp == 0) {
+                return node;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private static Node insert(Node node, Node created) {
+        if (node == null) {
+            return created;
+        }
+        if (compare(created.ticketId, created.createdAt, node) < 0) {
+            node.left = insert(node.left, created);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, created);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        return update(node);
+    }
+
+    private static Node delete(Node node, long ticketId, LocalDateTime createdAt) {
+        int cmp = compare(ticketId, createdAt, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, ticketId, createdAt);
+        } else {
+            node.right = delete(node.right, ticketId, createdAt);
+        }
+        return update(node);
+    }
+
+    // Une dos subárboles donde todas las claves de left son menores que las de right
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = update(node);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = update(node);
+        return pivot;
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int compare(long ticketId, LocalDateTime createdAt, Node node) {
+        int cmp = createdAt.compareTo(node.createdAt);
+        return cmp != 0 ? cmp : Long.compare(ticketId, node.ticketId);
+    }
+
+    private static final class Node {
+        private final long ticketId;
+        private final LocalDateTime createdAt;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(long ticketId, LocalDateTime createdAt, int priority) {
+            this.ticketId = ticketId;
+            this.createdAt = createdAt;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+-- V10__derive_queue_positions.sql
+-- Posición derivada en vez de almacenada: cada ticket recibe al crearse un número de llegada
+-- correlativo en su cola (queue_seq) y cada cola guarda hasta qué número ya atendió
+-- (queue_watermark.served_seq). La posición es queue_seq - served_seq: una lectura por clave, y
+-- una asignación ya no reescribe la posición de los tickets que siguen esperando.
+
+ALTER TABLE ticket ADD COLUMN queue_seq BIGINT;
+
+-- Un número de llegada por cola. nextval no toma locks: un ticket que no llega a confirmarse deja un
+-- hueco que se corrige solo cuando la cola lo sobrepasa
+CREATE SEQUENCE queue_seq_caja;
+CREATE SEQUENCE queue_seq_personal_banker;
+CREATE SEQUENCE queue_seq_empresas;
+CREATE SEQUENCE queue_seq_gerencia;
+
+CREATE TABLE queue_watermark (
+    queue_type VARCHAR(20) PRIMARY KEY CHECK (queue_type IN ('CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA')),
+    served_seq BIGINT NOT NULL DEFAULT 0 CHECK (served_seq >= 0),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO queue_watermark (queue_type)
+VALUES ('CAJA'), ('PERSONAL_BANKER'), ('EMPRESAS'), ('GERENCIA');
+
+-- Los tickets que ya esperan reciben su número en orden de atención, desde 1
+UPDATE ticket t
+SET queue_seq = w.seq
+FROM (
+    SELECT id, created_at, ROW_NUMBER() OVER (PARTITION BY queue_type ORDER BY created_at, id) AS seq
+    FROM ticket
+    WHERE status IN ('EN_ESPERA', 'PROXIMO')
+) w
+WHERE t.id = w.id AND t.created_at = w.created_at;
+
+SELECT setval('queue_seq_caja', COALESCE(MAX(queue_seq), 1), MAX(queue_seq) IS NOT NULL)
+FROM ticket WHERE queue_type = 'CAJA';
+SELECT setval('queue_seq_personal_banker', COALESCE(MAX(queue_seq), 1), MAX(queue_seq) IS NOT NULL)
+FROM ticket WHERE queue_type = 'PERSONAL_BANKER';
+SELECT setval('queue_seq_empresas', COALESCE(MAX(queue_seq), 1), MAX(queue_seq) IS NOT NULL)
+FROM ticket WHERE queue_type = 'EMPRESAS';
+SELECT setval('queue_seq_gerencia', COALESCE(MAX(queue_seq), 1), MAX(queue_seq) IS NOT NULL)
+FROM ticket WHERE queue_type = 'GERENCIA';
+
+-- Comentarios para documentación
+COMMENT ON COLUMN ticket.queue_seq IS 'Número de llegada correlativo en la cola (queue_seq_<cola>); la posición es queue_seq - queue_watermark.served_seq';
+COMMENT ON COLUMN ticket.position_in_queue IS 'Posición al momento de crearse el ticket; la actual se deriva de queue_seq';
+COMMENT ON COLUMN ticket.estimated_wait_minutes IS 'Espera estimada al momento de crearse el ticket';
+COMMENT ON TABLE queue_watermark IS 'Mayor queue_seq atendido por cola (avanza con cada asignación)';
@@ -0,0 +1,13 @@
+-- V11__create_telegram_chat_table.sql
+-- Chat de Telegram de cada cliente. La Bot API solo entrega a un chat_id, que Telegram informa
+-- cuando el cliente abre el bot con el enlace de su ticket (/start <codigo_referencia>); el
+-- teléfono del ticket no sirve como destinatario.
+
+CREATE TABLE telegram_chat (
+    telefono VARCHAR(20) PRIMARY KEY,
+    chat_id VARCHAR(50) NOT NULL,
+    linked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE telegram_chat IS 'Chat de Telegram vinculado a cada teléfono de cliente';
+COMMENT ON COLUMN telegram_chat.chat_id IS 'chat.id del update /start recibido por el webhook';
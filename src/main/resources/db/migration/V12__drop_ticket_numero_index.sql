@@ -0,0 +1,5 @@
+-- V12__drop_ticket_numero_index.sql
+-- El número se busca siempre con sucursal y día: lo resuelve el índice único por partición
+-- (branch_office, numero), así que el índice global por número ya no se usa
+
+DROP INDEX IF EXISTS idx_ticket_numero;
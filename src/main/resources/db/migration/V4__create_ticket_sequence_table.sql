@@ -0,0 +1,21 @@
+-- V4__create_ticket_sequence_table.sql
+-- Contadores de numeración de tickets por sucursal, cola y día
+
+CREATE TABLE ticket_sequence (
+    branch_office VARCHAR(100) NOT NULL,
+    queue_type VARCHAR(20) NOT NULL CHECK (queue_type IN ('CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA')),
+    business_date DATE NOT NULL,
+    last_value BIGINT NOT NULL DEFAULT 0 CHECK (last_value >= 0),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (branch_office, queue_type, business_date)
+);
+
+-- El número visible se reinicia cada día y por sucursal: deja de ser único global
+ALTER TABLE ticket DROP CONSTRAINT ticket_numero_key;
+CREATE UNIQUE INDEX uk_ticket_branch_numero_day ON ticket(branch_office, numero, (CAST(created_at AS DATE)));
+CREATE INDEX idx_ticket_numero ON ticket(numero, created_at DESC);
+
+-- Comentarios para documentación
+COMMENT ON TABLE ticket_sequence IS 'Contadores de numeración de tickets (reservados en bloques por la aplicación)';
+COMMENT ON COLUMN ticket_sequence.business_date IS 'Día hábil al que pertenece el contador (se reinicia a medianoche)';
+COMMENT ON COLUMN ticket_sequence.last_value IS 'Último número reservado para la sucursal, cola y día';
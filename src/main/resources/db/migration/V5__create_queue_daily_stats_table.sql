@@ -0,0 +1,65 @@
+-- V5__create_queue_daily_stats_table.sql
+-- Estadísticas diarias por cola, mantenidas incrementalmente al asignar y completar tickets
+
+CREATE TABLE queue_daily_stats (
+    business_date DATE NOT NULL,
+    queue_type VARCHAR(20) NOT NULL CHECK (queue_type IN ('CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA')),
+    assigned_count BIGINT NOT NULL DEFAULT 0,
+    completed_count BIGINT NOT NULL DEFAULT 0,
+    wait_seconds_sum BIGINT NOT NULL DEFAULT 0,
+    wait_seconds_max BIGINT NOT NULL DEFAULT 0,
+    service_seconds_sum BIGINT NOT NULL DEFAULT 0,
+    service_seconds_max BIGINT NOT NULL DEFAULT 0,
+    wait_lt_5m BIGINT NOT NULL DEFAULT 0,
+    wait_lt_10m BIGINT NOT NULL DEFAULT 0,
+    wait_lt_15m BIGINT NOT NULL DEFAULT 0,
+    wait_lt_30m BIGINT NOT NULL DEFAULT 0,
+    wait_lt_60m BIGINT NOT NULL DEFAULT 0,
+    wait_ge_60m BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (business_date, queue_type)
+);
+
+-- Carga inicial desde los tickets existentes: espera por día de asignación, atención por día de término
+INSERT INTO queue_daily_stats (
+    business_date, queue_type, assigned_count, completed_count,
+    wait_seconds_sum, wait_seconds_max, service_seconds_sum, service_seconds_max,
+    wait_lt_5m, wait_lt_10m, wait_lt_15m, wait_lt_30m, wait_lt_60m, wait_ge_60m
+)
+SELECT business_date,
+       queue_type,
+       COUNT(wait_seconds),
+       COUNT(service_seconds),
+       COALESCE(SUM(wait_seconds), 0),
+       COALESCE(MAX(wait_seconds), 0),
+       COALESCE(SUM(service_seconds), 0),
+       COALESCE(MAX(service_seconds), 0),
+       COUNT(*) FILTER (WHERE wait_seconds < 300),
+       COUNT(*) FILTER (WHERE wait_seconds >= 300 AND wait_seconds < 600),
+       COUNT(*) FILTER (WHERE wait_seconds >= 600 AND wait_seconds < 900),
+       COUNT(*) FILTER (WHERE wait_seconds >= 900 AND wait_seconds < 1800),
+       COUNT(*) FILTER (WHERE wait_seconds >= 1800 AND wait_seconds < 3600),
+       COUNT(*) FILTER (WHERE wait_seconds >= 3600)
+FROM (
+    SELECT CAST(assigned_at AS DATE) AS business_date, queue_type,
+           GREATEST(CAST(EXTRACT(EPOCH FROM (assigned_at - created_at)) AS BIGINT), 0) AS wait_seconds,
+           CAST(NULL AS BIGINT) AS service_seconds
+    FROM ticket
+    WHERE assigned_at IS NOT NULL
+    UNION ALL
+    SELECT CAST(completed_at AS DATE), queue_type,
+           NULL,
+           GREATEST(CAST(EXTRACT(EPOCH FROM (completed_at - assigned_at)) AS BIGINT), 0)
+    FROM ticket
+    WHERE status = 'COMPLETADO' AND completed_at IS NOT NULL AND assigned_at IS NOT NULL
+) events
+GROUP BY business_date, queue_type;
+
+-- Comentarios para documentación
+COMMENT ON TABLE queue_daily_stats IS 'Estadísticas diarias por cola (una fila por día y cola, actualizada con upsert)';
+COMMENT ON COLUMN queue_daily_stats.assigned_count IS 'Tickets asignados en el día (base del promedio de espera)';
+COMMENT ON COLUMN queue_daily_stats.completed_count IS 'Tickets completados en el día (base del promedio de atención)';
+COMMENT ON COLUMN queue_daily_stats.wait_seconds_sum IS 'Suma de esperas (assignedAt - createdAt) en segundos';
+COMMENT ON COLUMN queue_daily_stats.service_seconds_sum IS 'Suma de atenciones (completedAt - assignedAt) en segundos';
+COMMENT ON COLUMN queue_daily_stats.wait_lt_5m IS 'Histograma de espera: tickets asignados con menos de 5 minutos de espera';
+COMMENT ON COLUMN queue_daily_stats.wait_ge_60m IS 'Histograma de espera: tickets asignados con 60 minutos o más de espera';
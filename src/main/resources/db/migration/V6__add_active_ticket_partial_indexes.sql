@@ -0,0 +1,21 @@
+-- V6__add_active_ticket_partial_indexes.sql
+-- Índices parciales sobre los tickets activos.
+-- Los tickets activos son una fracción mínima de la tabla: estos índices quedan chicos aunque el
+-- historial crezca, y solo se escriben mientras el ticket está activo.
+
+-- Cola de espera, posición, críticos y agregado por cola: (queue_type, created_at, id) en orden de
+-- atención; status incluido para resolver los filtros por estado sin ir a la tabla
+CREATE INDEX idx_ticket_active_queue ON ticket(queue_type, created_at, id) INCLUDE (status)
+    WHERE status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO');
+
+-- Validación de un ticket activo por cliente (RN-001) y consulta por RUT
+CREATE INDEX idx_ticket_active_national_id ON ticket(national_id)
+    WHERE status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO');
+
+-- Reemplazados por los parciales o sin consultas que los usen. status y position_in_queue cambian
+-- en cada transición y recálculo de posición, y cada cambio reescribía estos índices
+DROP INDEX IF EXISTS idx_ticket_status;
+DROP INDEX IF EXISTS idx_ticket_queue_status;
+DROP INDEX IF EXISTS idx_ticket_queue_type;
+DROP INDEX IF EXISTS idx_ticket_position;
+DROP INDEX IF EXISTS idx_ticket_national_id;
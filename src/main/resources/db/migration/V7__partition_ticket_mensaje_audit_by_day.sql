@@ -0,0 +1,189 @@
+-- V7__partition_ticket_mensaje_audit_by_day.sql
+-- Particionamiento diario de ticket, mensaje y audit_log.
+-- Las particiones de los próximos días se crean por adelantado y las que salen de la retención se
+-- desacoplan al schema archive (PartitionMaintenance): archivar un día es una operación de catálogo,
+-- sin DELETE ni recorrer la tabla.
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+-- Crea la partición de un día (<tabla>_pYYYYMMDD) si no existe. Retorna true si la creó.
+CREATE FUNCTION create_daily_partition(parent TEXT, day DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    partition TEXT := parent || '_p' || to_char(day, 'YYYYMMDD');
+BEGIN
+    IF to_regclass(partition) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   partition, parent, day::timestamp, (day + 1)::timestamp);
+    IF parent = 'ticket' THEN
+        -- Cada partición es un día: el número visible es único por sucursal dentro de la partición
+        EXECUTE format('CREATE UNIQUE INDEX %I ON %I (branch_office, numero)', partition || '_branch_numero', partition);
+    END IF;
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- La clave primaria de una tabla particionada debe incluir la clave de partición, y no se puede
+-- referenciar ticket(id) desde otra tabla: mensaje pierde la FK y se archiva junto con su ticket
+ALTER TABLE mensaje DROP CONSTRAINT mensaje_ticket_id_fkey;
+
+ALTER TABLE ticket RENAME TO ticket_unpartitioned;
+ALTER TABLE mensaje RENAME TO mensaje_unpartitioned;
+ALTER TABLE audit_log RENAME TO audit_log_unpartitioned;
+
+ALTER INDEX ticket_pkey RENAME TO ticket_unpartitioned_pkey;
+ALTER INDEX idx_ticket_created_at RENAME TO idx_ticket_unpartitioned_created_at;
+ALTER INDEX idx_ticket_assigned_advisor RENAME TO idx_ticket_unpartitioned_assigned_advisor;
+ALTER INDEX idx_ticket_numero RENAME TO idx_ticket_unpartitioned_numero;
+ALTER INDEX idx_ticket_active_queue RENAME TO idx_ticket_unpartitioned_active_queue;
+ALTER INDEX idx_ticket_active_national_id RENAME TO idx_ticket_unpartitioned_active_national_id;
+ALTER INDEX mensaje_pkey RENAME TO mensaje_unpartitioned_pkey;
+ALTER INDEX idx_mensaje_ticket_id RENAME TO idx_mensaje_unpartitioned_ticket_id;
+ALTER INDEX idx_mensaje_estado RENAME TO idx_mensaje_unpartitioned_estado;
+ALTER INDEX idx_mensaje_fecha_programada RENAME TO idx_mensaje_unpartitioned_fecha_programada;
+ALTER INDEX idx_mensaje_plantilla RENAME TO idx_mensaje_unpartitioned_plantilla;
+ALTER INDEX idx_mensaje_intentos RENAME TO idx_mensaje_unpartitioned_intentos;
+ALTER INDEX audit_log_pkey RENAME TO audit_log_unpartitioned_pkey;
+ALTER INDEX idx_audit_timestamp RENAME TO idx_audit_unpartitioned_timestamp;
+ALTER INDEX idx_audit_entity RENAME TO idx_audit_unpartitioned_entity;
+ALTER INDEX idx_audit_event_type RENAME TO idx_audit_unpartitioned_event_type;
+ALTER INDEX idx_audit_actor RENAME TO idx_audit_unpartitioned_actor;
+
+-- Tabla de tickets
+CREATE TABLE ticket (
+    id BIGINT NOT NULL DEFAULT nextval('ticket_id_seq'),
+    codigo_referencia UUID NOT NULL,
+    numero VARCHAR(10) NOT NULL,
+    national_id VARCHAR(20) NOT NULL,
+    telefono VARCHAR(20),
+    branch_office VARCHAR(100) NOT NULL,
+    queue_type VARCHAR(20) NOT NULL CHECK (queue_type IN ('CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA')),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO', 'COMPLETADO', 'CANCELADO', 'NO_ATENDIDO')),
+    position_in_queue INTEGER NOT NULL,
+    estimated_wait_minutes INTEGER NOT NULL,
+    assigned_advisor_id BIGINT REFERENCES advisor(id),
+    assigned_module_number INTEGER CHECK (assigned_module_number BETWEEN 1 AND 5),
+    assigned_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    actual_service_time_minutes INTEGER,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Tabla de mensajes Telegram
+CREATE TABLE mensaje (
+    id BIGINT NOT NULL DEFAULT nextval('mensaje_id_seq'),
+    ticket_id BIGINT NOT NULL,
+    plantilla VARCHAR(50) NOT NULL CHECK (plantilla IN ('TOTEM_TICKET_CREADO', 'TOTEM_PROXIMO_TURNO', 'TOTEM_ES_TU_TURNO')),
+    estado_envio VARCHAR(20) NOT NULL CHECK (estado_envio IN ('PENDIENTE', 'ENVIADO', 'FALLIDO')),
+    fecha_programada TIMESTAMP NOT NULL,
+    fecha_envio TIMESTAMP,
+    telegram_message_id VARCHAR(50),
+    intentos INTEGER NOT NULL DEFAULT 0 CHECK (intentos >= 0),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Tabla de auditoría
+CREATE TABLE audit_log (
+    id BIGINT NOT NULL DEFAULT nextval('audit_log_id_seq'),
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    event_type VARCHAR(50) NOT NULL,
+    actor VARCHAR(100) NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id VARCHAR(50) NOT NULL,
+    previous_state JSON,
+    new_state JSON,
+    additional_data JSON,
+    ip_address VARCHAR(45),
+    user_agent TEXT,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Las secuencias pasan a las tablas nuevas para que no se borren con las antiguas
+ALTER SEQUENCE ticket_id_seq OWNED BY ticket.id;
+ALTER SEQUENCE mensaje_id_seq OWNED BY mensaje.id;
+ALTER SEQUENCE audit_log_id_seq OWNED BY audit_log.id;
+
+-- Índices para performance - Ticket (se propagan a cada partición)
+CREATE INDEX idx_ticket_codigo_referencia ON ticket(codigo_referencia);
+CREATE INDEX idx_ticket_created_at ON ticket(created_at DESC);
+CREATE INDEX idx_ticket_assigned_advisor ON ticket(assigned_advisor_id);
+CREATE INDEX idx_ticket_numero ON ticket(numero, created_at DESC);
+CREATE INDEX idx_ticket_active_queue ON ticket(queue_type, created_at, id) INCLUDE (status)
+    WHERE status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO');
+CREATE INDEX idx_ticket_active_national_id ON ticket(national_id)
+    WHERE status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO');
+
+-- Índices para performance - Mensaje
+CREATE INDEX idx_mensaje_ticket_id ON mensaje(ticket_id);
+CREATE INDEX idx_mensaje_estado ON mensaje(estado_envio);
+CREATE INDEX idx_mensaje_fecha_programada ON mensaje(fecha_programada);
+CREATE INDEX idx_mensaje_plantilla ON mensaje(plantilla);
+CREATE INDEX idx_mensaje_intentos ON mensaje(intentos);
+
+-- Índices para performance - Audit Log
+CREATE INDEX idx_audit_timestamp ON audit_log(timestamp DESC);
+CREATE INDEX idx_audit_entity ON audit_log(entity_type, entity_id);
+CREATE INDEX idx_audit_event_type ON audit_log(event_type);
+CREATE INDEX idx_audit_actor ON audit_log(actor);
+
+-- Particiones para los días con datos y para la próxima semana
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    FOR day IN
+        SELECT CAST(created_at AS DATE) FROM ticket_unpartitioned
+        UNION SELECT CAST(created_at AS DATE) FROM mensaje_unpartitioned
+        UNION SELECT CAST(timestamp AS DATE) FROM audit_log_unpartitioned
+        UNION SELECT CAST(generate_series(CURRENT_DATE, CURRENT_DATE + 7, INTERVAL '1 day') AS DATE)
+    LOOP
+        PERFORM create_daily_partition('ticket', day);
+        PERFORM create_daily_partition('mensaje', day);
+        PERFORM create_daily_partition('audit_log', day);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO ticket SELECT * FROM ticket_unpartitioned;
+INSERT INTO mensaje SELECT * FROM mensaje_unpartitioned;
+INSERT INTO audit_log SELECT * FROM audit_log_unpartitioned;
+
+DROP TABLE mensaje_unpartitioned;
+DROP TABLE ticket_unpartitioned;
+DROP TABLE audit_log_unpartitioned;
+
+-- Comentarios para documentación
+COMMENT ON TABLE ticket IS 'Tickets de atención en sucursales (particionada por día de created_at)';
+COMMENT ON COLUMN ticket.codigo_referencia IS 'UUID único para referencias externas';
+COMMENT ON COLUMN ticket.numero IS 'Número visible del ticket (C01, P15, etc.), único por sucursal y día';
+COMMENT ON COLUMN ticket.national_id IS 'RUT/ID nacional del cliente';
+COMMENT ON COLUMN ticket.telefono IS 'Número de teléfono para notificaciones Telegram';
+COMMENT ON COLUMN ticket.queue_type IS 'Tipo de cola: CAJA, PERSONAL_BANKER, EMPRESAS, GERENCIA';
+COMMENT ON COLUMN ticket.status IS 'Estado actual del ticket';
+COMMENT ON COLUMN ticket.position_in_queue IS 'Posición actual en cola (calculada en tiempo real)';
+COMMENT ON COLUMN ticket.estimated_wait_minutes IS 'Tiempo estimado de espera en minutos';
+COMMENT ON COLUMN ticket.assigned_at IS 'Timestamp cuando pasó a ATENDIENDO';
+COMMENT ON COLUMN ticket.completed_at IS 'Timestamp cuando pasó a COMPLETADO';
+COMMENT ON COLUMN ticket.actual_service_time_minutes IS 'Tiempo real de atención (completedAt - assignedAt)';
+
+COMMENT ON TABLE mensaje IS 'Mensajes de Telegram enviados a clientes (particionada por día de created_at)';
+COMMENT ON COLUMN mensaje.ticket_id IS 'Referencia al ticket asociado (sin FK: ticket está particionada)';
+COMMENT ON COLUMN mensaje.plantilla IS 'Plantilla del mensaje: TOTEM_TICKET_CREADO, TOTEM_PROXIMO_TURNO, TOTEM_ES_TU_TURNO';
+COMMENT ON COLUMN mensaje.estado_envio IS 'Estado del envío: PENDIENTE, ENVIADO, FALLIDO';
+COMMENT ON COLUMN mensaje.fecha_programada IS 'Cuándo debe enviarse el mensaje';
+COMMENT ON COLUMN mensaje.fecha_envio IS 'Cuándo se envió realmente (null si no enviado)';
+COMMENT ON COLUMN mensaje.telegram_message_id IS 'ID del mensaje retornado por Telegram API';
+COMMENT ON COLUMN mensaje.intentos IS 'Número de intentos de envío (máximo 4)';
+
+COMMENT ON TABLE audit_log IS 'Registro de auditoría de eventos del sistema (particionada por día de timestamp)';
+COMMENT ON COLUMN audit_log.event_type IS 'Tipo de evento: TICKET_CREADO, TICKET_ASIGNADO, etc.';
+COMMENT ON COLUMN audit_log.actor IS 'Quién ejecutó la acción: cliente, asesor, supervisor, sistema';
+COMMENT ON COLUMN audit_log.entity_type IS 'Tipo de entidad afectada: TICKET, ADVISOR, QUEUE';
+COMMENT ON COLUMN audit_log.entity_id IS 'Identificador de la entidad afectada';
+COMMENT ON COLUMN audit_log.previous_state IS 'Estado anterior de la entidad (JSON)';
+COMMENT ON COLUMN audit_log.new_state IS 'Estado nuevo de la entidad (JSON)';
+COMMENT ON COLUMN audit_log.additional_data IS 'Información adicional del contexto (JSON)';
@@ -0,0 +1,31 @@
+-- V8__create_outbox_tables.sql
+-- Outbox transaccional: cada cambio de estado de un ticket escribe un evento en la misma transacción,
+-- y la auditoría, los mensajes y las estadísticas se derivan después leyendo la tabla en orden.
+
+CREATE TABLE outbox_event (
+    id BIGSERIAL PRIMARY KEY,
+    -- Transacción que escribió el evento: los consumidores leen en orden (txid, id) y solo hasta la
+    -- transacción abierta más antigua, así un evento que confirma tarde nunca queda atrás del cursor
+    txid BIGINT NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_type VARCHAR(20) NOT NULL,
+    aggregate_id VARCHAR(50) NOT NULL,
+    payload JSON NOT NULL
+);
+
+CREATE INDEX idx_outbox_event_position ON outbox_event(txid, id);
+
+-- Posición de cada consumidor en el outbox
+CREATE TABLE outbox_offset (
+    consumer VARCHAR(50) PRIMARY KEY,
+    last_txid BIGINT NOT NULL DEFAULT 0,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Comentarios para documentación
+COMMENT ON TABLE outbox_event IS 'Eventos de cambio de estado, solo inserción; se eliminan cuando todos los consumidores los procesaron y vence la retención';
+COMMENT ON COLUMN outbox_event.txid IS 'pg_current_xact_id() de la transacción que escribió el evento';
+COMMENT ON COLUMN outbox_event.payload IS 'Estado del agregado al momento del evento (lo que necesitan los consumidores)';
+COMMENT ON TABLE outbox_offset IS 'Último evento (txid, id) procesado por cada consumidor; volver a (0, 0) reprocesa lo retenido';
@@ -0,0 +1,14 @@
+-- V9__pooled_id_sequences.sql
+-- Identificadores por secuencia con asignación en bloques (pooled-lo, allocationSize = 50).
+-- Con IDENTITY Hibernate debe ejecutar cada INSERT al momento para conocer el id, lo que impide
+-- agruparlos en lotes JDBC. Con bloques de 50 obtiene los ids de memoria y un nextval cada 50 filas.
+--
+-- El INCREMENT BY debe coincidir con allocationSize de las entidades (Hibernate valida la diferencia
+-- al arrancar). Los DEFAULT nextval(...) se mantienen para los INSERT por SQL (AuditWriter, relleno
+-- de datos): cada uno consume un bloque completo, sin chocar con los que reparte Hibernate.
+
+ALTER SEQUENCE advisor_id_seq INCREMENT BY 50;
+ALTER SEQUENCE ticket_id_seq INCREMENT BY 50;
+ALTER SEQUENCE mensaje_id_seq INCREMENT BY 50;
+ALTER SEQUENCE audit_log_id_seq INCREMENT BY 50;
+ALTER SEQUENCE outbox_event_id_seq INCREMENT BY 50;
@@ -0,0 +1,94 @@
+package com.example.ticketero.config;
+
+import com.example.ticketero.config.ConnectionBudgetConfig.RequestPermitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ConnectionBudgetConfig Tests")
+class ConnectionBudgetConfigTest {
+
+    // 1 + 3 + 2 + 1 hilos de scheduler
+    private static final ExecutionProperties PROPERTIES = new ExecutionProperties(1, 3, 2, 1, 2, Duration.ZERO);
+
+    @Nested
+    @DisplayName("Reparto del Pool")
+    class RepartoDelPool {
+
+        @Test
+        @DisplayName("debe dejar para requests lo que no usan los hilos de fondo")
+        void requestConnections_debeDescontarHilosDeFondo() {
+            // When
+            int requests = ConnectionBudgetConfig.requestConnections(20, PROPERTIES);
+
+            // Then
+            assertThat(requests).isEqualTo(20 - 7 - ConnectionBudgetConfig.DEDICATED_WORKERS);
+        }
+
+        @Test
+        @DisplayName("pool que no alcanza el mínimo para requests → no debe arrancar")
+        void requestConnections_poolInsuficiente_debeFallar() {
+            // When & Then
+            assertThatThrownBy(() -> ConnectionBudgetConfig.requestConnections(10, PROPERTIES))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("maximum-pool-size");
+        }
+    }
+
+    @Nested
+    @DisplayName("Permisos por Request")
+    class PermisosPorRequest {
+
+        private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        private final RequestPermitFilter filter = new RequestPermitFilter(
+            1, Duration.ZERO, new ObjectMapper().findAndRegisterModules(), registry);
+
+        @Test
+        @DisplayName("debe dejar pasar el request y devolver el permiso al terminar")
+        void filter_conPermiso_debeDevolverloAlTerminar() throws Exception {
+            // Given
+            AtomicInteger calls = new AtomicInteger();
+
+            // When
+            filter.doFilter(request(), new MockHttpServletResponse(), (req, res) -> calls.incrementAndGet());
+            filter.doFilter(request(), new MockHttpServletResponse(), (req, res) -> calls.incrementAndGet());
+
+            // Then
+            assertThat(calls).hasValue(2);
+            assertThat(registry.get("ticketero.http.request.permits.available").gauge().value()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("sin permisos libres → debe responder 503 sin llegar al controlador")
+        void filter_sinPermisos_debeResponder503() throws Exception {
+            // Given
+            MockHttpServletResponse rejected = new MockHttpServletResponse();
+            AtomicInteger calls = new AtomicInteger();
+
+            // When: el segundo request llega mientras el primero tiene el único permiso
+            filter.doFilter(request(), new MockHttpServletResponse(), (req, res) ->
+                filter.doFilter(request(), rejected, (innerReq, innerRes) -> calls.incrementAndGet()));
+
+            // Then
+            assertThat(calls).hasValue(0);
+            assertThat(rejected.getStatus()).isEqualTo(503);
+            assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+            assertThat(rejected.getContentAsString()).contains("\"status\":503");
+            assertThat(registry.get("ticketero.http.requests.rejected").counter().count()).isEqualTo(1.0);
+        }
+
+        private MockHttpServletRequest request() {
+            return new MockHttpServletRequest("GET", "/api/tickets/abc/position");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.ticketero.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("HibernateMetricsConfig Tests")
+class HibernateMetricsConfigTest {
+
+    @Test
+    @DisplayName("debe publicar las sentencias preparadas y cerradas por Hibernate")
+    void statementMetrics_debePublicarContadores() {
+        // Given
+        Statistics statistics = mock(Statistics.class);
+        when(statistics.getPrepareStatementCount()).thenReturn(42L);
+        when(statistics.getCloseStatementCount()).thenReturn(40L);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // When
+        HibernateMetricsConfig.statementMetrics(statistics).bindTo(registry);
+
+        // Then
+        assertThat(registry.get("hibernate.statements").tag("status", "prepared").functionCounter().count())
+            .isEqualTo(42.0);
+        assertThat(registry.get("hibernate.statements").tag("status", "closed").functionCounter().count())
+            .isEqualTo(40.0);
+    }
+}
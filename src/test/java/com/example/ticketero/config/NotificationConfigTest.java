@@ -0,0 +1,57 @@
+package com.example.ticketero.config;
+
+import com.example.ticketero.notification.StubNotificationGateway;
+import com.example.ticketero.notification.TelegramNotificationGateway;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("NotificationConfig - Unit Tests")
+class NotificationConfigTest {
+
+    private final NotificationConfig config = new NotificationConfig();
+
+    @Nested
+    @DisplayName("Gateway de notificaciones")
+    class Gateway {
+
+        @Test
+        @DisplayName("con token → debe usar Telegram")
+        void conToken_debeUsarTelegram() {
+            assertThat(config.notificationGateway(properties("123:abc", false), new ObjectMapper(), new MockEnvironment()))
+                .isInstanceOf(TelegramNotificationGateway.class);
+        }
+
+        @Test
+        @DisplayName("sin token ni stub fuera de dev/test → no debe arrancar")
+        void sinToken_debeFallar() {
+            assertThatThrownBy(() -> config.notificationGateway(properties(null, false), new ObjectMapper(),
+                    new MockEnvironment()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("telegram.stub");
+        }
+
+        @Test
+        @DisplayName("sin token con telegram.stub o perfil dev → debe usar el stub")
+        void sinToken_stubPedido_debeUsarStub() {
+            MockEnvironment dev = new MockEnvironment();
+            dev.setActiveProfiles("dev");
+
+            assertThat(config.notificationGateway(properties(null, true), new ObjectMapper(), new MockEnvironment()))
+                .isInstanceOf(StubNotificationGateway.class);
+            assertThat(config.notificationGateway(properties("", false), new ObjectMapper(), dev))
+                .isInstanceOf(StubNotificationGateway.class);
+        }
+    }
+
+    private static TelegramProperties properties(String botToken, boolean stub) {
+        return new TelegramProperties(botToken, "https://api.telegram.org/bot", null,
+            Duration.ofSeconds(5), Duration.ofSeconds(10), 3, stub, null);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ticketero.config;
+
+import com.example.ticketero.config.RequestStatementMetricsConfig.StatementCounter;
+import com.example.ticketero.config.RequestStatementMetricsConfig.StatementsPerRequestFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RequestStatementMetricsConfig Tests")
+class RequestStatementMetricsConfigTest {
+
+    private final StatementCounter statementCounter = new StatementCounter();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StatementsPerRequestFilter filter = new StatementsPerRequestFilter(statementCounter, registry);
+
+    @Test
+    @DisplayName("debe registrar las sentencias del request con el patrón de la ruta")
+    void filter_debeRegistrarSentenciasPorRuta() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tickets/abc/position");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            statementCounter.inspect("select 1");
+            statementCounter.inspect("select 2");
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tickets/{codigoReferencia}/position");
+        });
+
+        // Then
+        var summary = registry.get("ticketero.http.db.statements")
+            .tags("method", "GET", "uri", "/api/tickets/{codigoReferencia}/position").summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("fuera de un request → debe dejar pasar el SQL sin contarlo")
+    void inspect_fueraDeRequest_noDebeContar() {
+        // When
+        String sql = statementCounter.inspect("select 1");
+
+        // Then
+        assertThat(sql).isEqualTo("select 1");
+        statementCounter.begin();
+        assertThat(statementCounter.end()).isZero();
+    }
+}
@@ -1,26 +1,42 @@
 package com.example.ticketero.config;
 
+import com.example.ticketero.scheduler.MessageScheduler;
+import com.example.ticketero.scheduler.MetricsScheduler;
+import com.example.ticketero.scheduler.OutboxScheduler;
+import com.example.ticketero.scheduler.QueueMaintenanceScheduler;
+import com.example.ticketero.scheduler.TicketAssignmentScheduler;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.test.context.TestPropertySource;
 
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 @TestPropertySource(properties = {
     "spring.task.scheduling.pool.size=2",
-    "spring.task.execution.pool.core-size=2"
+    "spring.task.execution.pool.core-size=2",
+    "telegram.stub=true"
 })
 @DisplayName("SchedulingConfig Tests")
 class SchedulingConfigTest {
 
+    @Autowired
+    private ApplicationContext context;
+
     @Nested
     @DisplayName("Configuración de Anotaciones")
     class ConfiguracionAnotaciones {
@@ -69,4 +85,50 @@ class SchedulingConfigTest {
                 });
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Schedulers por Subsistema")
+    class SchedulersPorSubsistema {
+
+        @Test
+        @DisplayName("Debe crear un scheduler por subsistema con sus hilos y nombres")
+        void debeCrearSchedulerPorSubsistema() {
+            assertThat(context.getBean(SchedulingConfig.ASSIGNMENT, ThreadPoolTaskScheduler.class).getPoolSize())
+                .isEqualTo(1);
+            assertThat(context.getBean(SchedulingConfig.MESSAGING, ThreadPoolTaskScheduler.class).getPoolSize())
+                .isEqualTo(3);
+            assertThat(context.getBean(SchedulingConfig.MAINTENANCE, ThreadPoolTaskScheduler.class).getPoolSize())
+                .isEqualTo(2);
+            assertThat(context.getBean(SchedulingConfig.METRICS, ThreadPoolTaskScheduler.class).getThreadNamePrefix())
+                .isEqualTo("metrics-");
+        }
+
+        @Test
+        @DisplayName("El scheduler por defecto debe seguir spring.task.scheduling")
+        void schedulerPorDefecto_debeUsarPropiedadesDeSpring() {
+            assertThat(context.getBean("taskScheduler", ThreadPoolTaskScheduler.class).getPoolSize())
+                .isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Cada tarea programada de fondo debe indicar un scheduler existente")
+        void tareasProgramadas_debenUsarSchedulerDeSubsistema() {
+            List<Method> methods = List.of(TicketAssignmentScheduler.class, MessageScheduler.class, OutboxScheduler.class,
+                    QueueMaintenanceScheduler.class, MetricsScheduler.class).stream()
+                .flatMap(clazz -> Arrays.stream(clazz.getDeclaredMethods()))
+                .filter(method -> method.isAnnotationPresent(Scheduled.class))
+                .toList();
+
+            assertThat(methods).hasSize(10);
+            assertThat(methods).allSatisfy(method -> assertThat(context.getBean(
+                method.getAnnotation(Scheduled.class).scheduler(), ThreadPoolTaskScheduler.class)).isNotNull());
+        }
+
+        @Test
+        @DisplayName("Debe exponer un ejecutor para @Async")
+        void debeExponerEjecutorAsync() {
+            assertThat(context.containsBean("taskExecutor")).isTrue();
+            assertThat(context.containsBean("applicationTaskExecutor")).isTrue();
+        }
+    }
+}
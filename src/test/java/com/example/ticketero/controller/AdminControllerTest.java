@@ -1,34 +1,52 @@
 package com.example.ticketero.controller;
 
+import com.example.ticketero.config.DashboardProperties;
+import com.example.ticketero.exception.TicketNotServingException;
 import com.example.ticketero.model.dto.request.AdvisorStatusRequest;
 import com.example.ticketero.model.dto.response.*;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.service.AdvisorService;
+import com.example.ticketero.service.AssignmentService;
 import com.example.ticketero.service.AuditService;
 import com.example.ticketero.service.DashboardService;
+import com.example.ticketero.service.DashboardSnapshotCache;
+import com.example.ticketero.service.DashboardStream;
 import com.example.ticketero.service.QueueService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AdminController.class)
+@Import(DashboardSnapshotCache.class)
+@EnableConfigurationProperties(DashboardProperties.class)
 @DisplayName("AdminController - Integration Tests")
 class AdminControllerTest {
 
@@ -50,6 +68,20 @@ class AdminControllerTest {
     @MockBean
     private AuditService auditService;
 
+    @MockBean
+    private DashboardStream dashboardStream;
+
+    @MockBean
+    private AssignmentService assignmentService;
+
+    @Autowired
+    private DashboardSnapshotCache dashboardSnapshotCache;
+
+    @BeforeEach
+    void setUp() {
+        dashboardSnapshotCache.invalidateAll();
+    }
+
     @Nested
     @DisplayName("GET /api/admin/dashboard")
     class GetDashboard {
@@ -75,6 +107,69 @@ class AdminControllerTest {
                 .andExpect(jsonPath("$.summary.totalTicketsToday").value(50))
                 .andExpect(jsonPath("$.timestamp").exists());
         }
+
+        @Test
+        @DisplayName("debe incluir ETag y responder 304 si el cliente ya tiene el snapshot")
+        void getDashboard_conIfNoneMatch_debeResponder304() throws Exception {
+            // Given
+            when(dashboardService.getDashboard()).thenReturn(dashboard(50));
+            String etag = mockMvc.perform(get("/api/admin/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            // When & Then
+            mockMvc.perform(get("/api/admin/dashboard").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+            verify(dashboardService, times(1)).getDashboard();
+        }
+
+        @Test
+        @DisplayName("tras un cambio de estado con datos distintos → debe retornar 200 con ETag nuevo")
+        void getDashboard_trasInvalidacion_debeRetornarNuevoEtag() throws Exception {
+            // Given
+            when(dashboardService.getDashboard()).thenReturn(dashboard(50), dashboard(51));
+            String etag = mockMvc.perform(get("/api/admin/dashboard"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            // When
+            dashboardSnapshotCache.invalidateAll();
+
+            // Then
+            mockMvc.perform(get("/api/admin/dashboard").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.summary.totalTicketsToday").value(51))
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+        }
+
+        private DashboardResponse dashboard(int totalTicketsToday) {
+            return new DashboardResponse(
+                LocalDateTime.now(),
+                new DashboardResponse.DashboardSummary(
+                    totalTicketsToday, 8, 3, 45, 2, 5, 12, "NORMAL"
+                ),
+                List.of(),
+                List.of()
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/admin/dashboard/events")
+    class StreamDashboard {
+
+        @Test
+        @DisplayName("debe abrir un stream SSE")
+        void streamDashboard_debeAbrirStream() throws Exception {
+            // Given
+            when(dashboardStream.subscribe()).thenReturn(new SseEmitter());
+
+            // When & Then
+            mockMvc.perform(get("/api/admin/dashboard/events")
+                    .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        }
     }
 
     @Nested
@@ -360,6 +455,52 @@ class AdminControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/admin/tickets/{codigoReferencia}/complete")
+    class CompleteTicket {
+
+        @Test
+        @DisplayName("con ticket en atención → debe retornar 204")
+        void completeTicket_enAtencion_debeRetornar204() throws Exception {
+            // Given
+            UUID codigoReferencia = UUID.randomUUID();
+
+            // When & Then
+            mockMvc.perform(post("/api/admin/tickets/{codigoReferencia}/complete", codigoReferencia))
+                .andExpect(status().isNoContent());
+
+            verify(assignmentService).completeTicket(codigoReferencia);
+        }
+
+        @Test
+        @DisplayName("con ticket que no está en atención → debe retornar 409")
+        void completeTicket_noEnAtencion_debeRetornar409() throws Exception {
+            // Given
+            UUID codigoReferencia = UUID.randomUUID();
+            doThrow(new TicketNotServingException("C01"))
+                .when(assignmentService).completeTicket(codigoReferencia);
+
+            // When & Then
+            mockMvc.perform(post("/api/admin/tickets/{codigoReferencia}/complete", codigoReferencia))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+        }
+
+        @Test
+        @DisplayName("con error interno de estado → debe retornar 500 sin el mensaje interno")
+        void completeTicket_errorDeEstado_debeRetornar500() throws Exception {
+            // Given
+            UUID codigoReferencia = UUID.randomUUID();
+            doThrow(new IllegalStateException("Audit payload is not serializable"))
+                .when(assignmentService).completeTicket(codigoReferencia);
+
+            // When & Then
+            mockMvc.perform(post("/api/admin/tickets/{codigoReferencia}/complete", codigoReferencia))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Internal server error"));
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/admin/audit/ticket/{ticketId}")
     class GetTicketAudit {
@@ -385,16 +526,27 @@ class AdminControllerTest {
                 1
             );
 
-            when(auditService.getAuditTrail("TICKET", "C01")).thenReturn(response);
+            when(auditService.getAuditTrail("TICKET", "C01", LocalDate.of(2024, 1, 15), "Sucursal Centro"))
+                .thenReturn(response);
 
             // When & Then
-            mockMvc.perform(get("/api/admin/audit/ticket/{ticketId}", "C01"))
+            mockMvc.perform(get("/api/admin/audit/ticket/{ticketId}", "C01")
+                    .param("day", "2024-01-15")
+                    .param("branchOffice", "Sucursal Centro"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.entityType").value("TICKET"))
                 .andExpect(jsonPath("$.entityId").value("C01"))
                 .andExpect(jsonPath("$.events").isArray())
                 .andExpect(jsonPath("$.events[0].eventType").value("TICKET_CREATED"));
         }
+
+        @Test
+        @DisplayName("con día inválido → debe retornar 400")
+        void getTicketAudit_conDiaInvalido_debeRetornar400() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/admin/audit/ticket/{ticketId}", "C01").param("day", "15-01-2024"))
+                .andExpect(status().isBadRequest());
+        }
     }
 
     @Nested
@@ -422,7 +574,7 @@ class AdminControllerTest {
                 1
             );
 
-            when(auditService.getAuditTrail("ADVISOR", "1")).thenReturn(response);
+            when(auditService.getAuditTrail("ADVISOR", "1", null, null)).thenReturn(response);
 
             // When & Then
             mockMvc.perform(get("/api/admin/audit/advisor/{advisorId}", "1"))
@@ -0,0 +1,80 @@
+package com.example.ticketero.controller;
+
+import com.example.ticketero.config.TelegramProperties;
+import com.example.ticketero.service.TelegramChatService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TelegramWebhookController.class)
+@EnableConfigurationProperties(TelegramProperties.class)
+@TestPropertySource(properties = "telegram.webhook-secret=s3cret")
+@DisplayName("TelegramWebhookController - Integration Tests")
+class TelegramWebhookControllerTest {
+
+    private static final String START_UPDATE = """
+        {"update_id": 1, "message": {"chat": {"id": 987654321}, "text": "/start 550e8400-e29b-41d4-a716-446655440000"}}
+        """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TelegramChatService telegramChatService;
+
+    @Nested
+    @DisplayName("POST /api/telegram/webhook")
+    class Webhook {
+
+        @Test
+        @DisplayName("/start con el secret correcto → debe vincular el chat")
+        void onUpdate_start_debeVincularChat() throws Exception {
+            // When & Then
+            mockMvc.perform(post("/api/telegram/webhook")
+                    .header(TelegramWebhookController.SECRET_HEADER, "s3cret")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(START_UPDATE))
+                .andExpect(status().isOk());
+
+            verify(telegramChatService).linkFromStart("987654321", "/start 550e8400-e29b-41d4-a716-446655440000");
+        }
+
+        @Test
+        @DisplayName("secret incorrecto → debe responder 403 sin vincular")
+        void onUpdate_secretIncorrecto_debeRechazar() throws Exception {
+            // When & Then
+            mockMvc.perform(post("/api/telegram/webhook")
+                    .header(TelegramWebhookController.SECRET_HEADER, "otro")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(START_UPDATE))
+                .andExpect(status().isForbidden());
+
+            verifyNoInteractions(telegramChatService);
+        }
+
+        @Test
+        @DisplayName("update sin mensaje de texto → debe aceptarse e ignorarse")
+        void onUpdate_sinTexto_debeIgnorarse() throws Exception {
+            // When & Then
+            mockMvc.perform(post("/api/telegram/webhook")
+                    .header(TelegramWebhookController.SECRET_HEADER, "s3cret")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"update_id\": 2, \"edited_message\": {}}"))
+                .andExpect(status().isOk());
+
+            verify(telegramChatService, never()).linkFromStart(any(), any());
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.example.ticketero.model.dto.response.TicketResponse;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
 import com.example.ticketero.service.TicketService;
+import com.example.ticketero.service.TicketUpdateStream;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,6 +19,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -25,6 +27,7 @@ import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -42,6 +45,9 @@ class TicketControllerTest {
     @MockBean
     private TicketService ticketService;
 
+    @MockBean
+    private TicketUpdateStream ticketUpdateStream;
+
     @Nested
     @DisplayName("POST /api/tickets")
     class CreateTicket {
@@ -198,10 +204,10 @@ class TicketControllerTest {
                 LocalDateTime.now()
             );
 
-            when(ticketService.getPosition(numero)).thenReturn(response);
+            when(ticketService.getPosition("Sucursal Centro", numero)).thenReturn(response);
 
             // When & Then
-            mockMvc.perform(get("/api/tickets/{numero}/position", numero))
+            mockMvc.perform(get("/api/tickets/{numero}/position", numero).param("branchOffice", "Sucursal Centro"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.numero").value(numero))
                 .andExpect(jsonPath("$.status").value("EN_ESPERA"))
@@ -215,13 +221,63 @@ class TicketControllerTest {
         void getPosition_conNumeroInexistente_debeRetornar404() throws Exception {
             // Given
             String numero = "C99";
-            when(ticketService.getPosition(numero))
+            when(ticketService.getPosition("Sucursal Centro", numero))
                 .thenThrow(new TicketNotFoundException(numero));
 
             // When & Then
-            mockMvc.perform(get("/api/tickets/{numero}/position", numero))
+            mockMvc.perform(get("/api/tickets/{numero}/position", numero).param("branchOffice", "Sucursal Centro"))
                 .andExpect(status().isNotFound());
         }
+
+        @Test
+        @DisplayName("sin sucursal → debe retornar 400")
+        void getPosition_sinSucursal_debeRetornar400() throws Exception {
+            // When & Then
+            mockMvc.perform(get("/api/tickets/{numero}/position", "C01"))
+                .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(ticketService);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/tickets/{numero}/events")
+    class StreamTicketPosition {
+
+        @Test
+        @DisplayName("con número existente → debe abrir un stream SSE")
+        void streamPosition_conNumeroExistente_debeAbrirStream() throws Exception {
+            // Given
+            when(ticketUpdateStream.subscribe("Sucursal Centro", "C01")).thenReturn(new SseEmitter());
+
+            // When & Then
+            mockMvc.perform(get("/api/tickets/{numero}/events", "C01").param("branchOffice", "Sucursal Centro")
+                    .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        }
+
+        @Test
+        @DisplayName("con número inexistente → debe retornar 404")
+        void streamPosition_conNumeroInexistente_debeRetornar404() throws Exception {
+            // Given
+            when(ticketUpdateStream.subscribe("Sucursal Centro", "X99")).thenThrow(new TicketNotFoundException("X99"));
+
+            // When & Then
+            mockMvc.perform(get("/api/tickets/{numero}/events", "X99").param("branchOffice", "Sucursal Centro"))
+                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("pantalla de sucursal → debe abrir un stream SSE")
+        void streamBranchDisplay_debeAbrirStream() throws Exception {
+            // Given
+            when(ticketUpdateStream.subscribeDisplay("Sucursal Centro")).thenReturn(new SseEmitter());
+
+            // When & Then
+            mockMvc.perform(get("/api/tickets/branches/{branchOffice}/events", "Sucursal Centro")
+                    .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        }
     }
 
     @Nested
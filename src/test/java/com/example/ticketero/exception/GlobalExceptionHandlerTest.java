@@ -102,6 +102,27 @@ class GlobalExceptionHandlerTest {
         }
     }
 
+    @Nested
+    @DisplayName("handleTicketNotServing()")
+    class HandleTicketNotServing {
+
+        @Test
+        @DisplayName("debe manejar TicketNotServingException correctamente")
+        void handleTicketNotServing_debeRetornar409() {
+            // Given
+            TicketNotServingException exception = new TicketNotServingException("C01");
+
+            // When
+            ResponseEntity<ErrorResponse> response = exceptionHandler.handleTicketNotServing(exception);
+
+            // Then
+            assertThat(response.getStatusCode().value()).isEqualTo(409);
+            assertThat(response.getBody()).isNotNull();
+            assertThat(response.getBody().message()).contains("C01");
+            assertThat(response.getBody().status()).isEqualTo(409);
+        }
+    }
+
     @Nested
     @DisplayName("handleBadRequest()")
     class HandleBadRequest {
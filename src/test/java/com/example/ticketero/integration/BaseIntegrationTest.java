@@ -1,5 +1,6 @@
 package com.example.ticketero.integration;
 
+import com.example.ticketero.service.OutboxRelay;
 import io.restassured.RestAssured;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.junit.jupiter.api.BeforeAll;
@@ -37,6 +38,9 @@ public abstract class BaseIntegrationTest {
     @Autowired
     protected JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    protected OutboxRelay outboxRelay;
+
     // ============================================================
     // TESTCONTAINERS
     // ============================================================
@@ -58,6 +62,11 @@ public abstract class BaseIntegrationTest {
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
 
+        // Schema real (particiones, outbox con posiciones por transacción): Flyway en vez de ddl-auto
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("ticketero.outbox.relay-enabled", () -> "true");
+
         // RabbitMQ
         registry.add("spring.rabbitmq.host", rabbitmq::getHost);
         registry.add("spring.rabbitmq.port", rabbitmq::getAmqpPort);
@@ -81,6 +90,7 @@ public abstract class BaseIntegrationTest {
         RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
         
         // Limpiar en orden correcto (FK constraints)
+        jdbcTemplate.execute("DELETE FROM outbox_event");
         jdbcTemplate.execute("DELETE FROM audit_log");
         jdbcTemplate.execute("DELETE FROM mensaje");
         jdbcTemplate.execute("DELETE FROM ticket");
@@ -0,0 +1,189 @@
+package com.example.ticketero.integration;
+
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.QueueStatsRepository;
+import com.example.ticketero.repository.TicketRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regresión de planes de las consultas calientes sobre ticket.
+ * <p>
+ * Con el esquema real (Flyway) y un historial de un millón de tickets terminados, ninguna consulta
+ * del camino caliente puede recorrer completa una partición con datos. Se revisa el plan genérico,
+ * que es el que usa PostgreSQL para sentencias preparadas reutilizadas por el pool.
+ */
+@DisplayName("Planes de las consultas calientes")
+@TestPropertySource(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.ticketero.integration.HotQueryPlanIT$SqlCapture"
+})
+class HotQueryPlanIT extends BaseIntegrationTest {
+
+    private static final int HISTORICAL_TICKETS = 1_000_000;
+    private static final int ACTIVE_TICKETS = 200;
+    private static final int HISTORY_DAYS = 24;
+    // Recorrer una partición vacía o casi vacía (días futuros, bordes) es más barato que un índice
+    private static final double MAX_SEQ_SCANNED_ROWS = 1_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private QueueStatsRepository queueStatsRepository;
+
+    @TestFactory
+    Stream<DynamicTest> consultasCalientes_noDebenRecorrerTicketCompleta() {
+        loadTickets();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, Runnable> hotQueries = new LinkedHashMap<>();
+        hotQueries.put("findWaitingTicketsByQueue", () -> ticketRepository.findWaitingTicketsByQueue(QueueType.CAJA));
+        hotQueries.put("findQueueHead", () -> ticketRepository.findQueueHead(QueueType.CAJA, PageRequest.of(0, 10)));
+        hotQueries.put("countTicketsAheadInQueue", () -> ticketRepository.countTicketsAheadInQueue(QueueType.CAJA, now));
+        hotQueries.put("findCriticalTickets", () -> ticketRepository.findCriticalTickets(now.minusMinutes(30)));
+        hotQueries.put("findActiveByNationalId", () -> ticketRepository.findActiveByNationalId("90000001"));
+        hotQueries.put("existsActiveByNationalId", () -> ticketRepository.existsActiveByNationalId("90000001"));
+        hotQueries.put("countWaitingByQueue", () -> ticketRepository.countWaitingByQueue(QueueType.CAJA));
+        hotQueries.put("findAllWaiting", ticketRepository::findAllWaiting);
+        hotQueries.put("aggregateByQueue", () -> queueStatsRepository.aggregateByQueue(now));
+        hotQueries.put("findCriticalTicketsByTimeLimit", () -> queueStatsRepository.findCriticalTicketsByTimeLimit(
+            now.minusMinutes(15), now.minusMinutes(30), now.minusMinutes(45), now.minusMinutes(60)));
+
+        return hotQueries.entrySet().stream().map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+            SqlCapture.STATEMENTS.clear();
+            query.getValue().run();
+            assertThat(SqlCapture.STATEMENTS).isNotEmpty();
+
+            for (String sql : SqlCapture.STATEMENTS) {
+                JsonNode plan = genericPlan(sql);
+                assertThat(largeSeqScansOnTicket(plan))
+                    .as("Plan de %s:%n%s%n%s", query.getKey(), sql, plan.toPrettyString())
+                    .isEmpty();
+            }
+        }));
+    }
+
+    private void loadTickets() {
+        jdbcTemplate.queryForList(
+            "SELECT create_daily_partition('ticket', CAST(d AS DATE)) "
+                + "FROM generate_series(CURRENT_DATE - ?, CURRENT_DATE, INTERVAL '1 day') d", HISTORY_DAYS);
+        jdbcTemplate.update("""
+            INSERT INTO ticket (codigo_referencia, numero, national_id, branch_office, queue_type, status,
+                                position_in_queue, estimated_wait_minutes, created_at, updated_at)
+            SELECT gen_random_uuid(), 'H' || g, lpad((g % 500000)::text, 8, '0'), 'Sucursal Centro',
+                   (ARRAY['CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA'])[1 + g % 4],
+                   CASE WHEN g % 10 = 0 THEN 'CANCELADO' ELSE 'COMPLETADO' END,
+                   0, 0, now() - g * INTERVAL '2 seconds', now()
+            FROM generate_series(1, ?) g
+            """, HISTORICAL_TICKETS);
+        jdbcTemplate.update("""
+            INSERT INTO ticket (codigo_referencia, numero, national_id, branch_office, queue_type, status,
+                                position_in_queue, estimated_wait_minutes, created_at, updated_at)
+            SELECT gen_random_uuid(), 'A' || g, (90000000 + g)::text, 'Sucursal Centro',
+                   (ARRAY['CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA'])[1 + g % 4],
+                   (ARRAY['EN_ESPERA', 'EN_ESPERA', 'PROXIMO', 'ATENDIENDO'])[1 + g % 4],
+                   g, 0, now() - g * INTERVAL '10 seconds', now()
+            FROM generate_series(1, ?) g
+            """, ACTIVE_TICKETS);
+        jdbcTemplate.execute("ANALYZE ticket");
+    }
+
+    /**
+     * EXPLAIN (GENERIC_PLAN) acepta parámetros $n sin valores, pero solo por protocolo simple:
+     * por eso va por una conexión propia y no por el pool.
+     */
+    private JsonNode genericPlan(String sql) throws SQLException, IOException {
+        String url = postgres.getJdbcUrl() + (postgres.getJdbcUrl().contains("?") ? "&" : "?")
+            + "preferQueryMode=simple";
+        try (Connection connection = DriverManager.getConnection(url, postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                 "EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberParameters(sql))) {
+            result.next();
+            return objectMapper.readTree(result.getString(1));
+        }
+    }
+
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private List<JsonNode> largeSeqScansOnTicket(JsonNode plan) {
+        return seqScansOnTicket(plan).stream()
+            .filter(scan -> jdbcTemplate.queryForObject(
+                "SELECT reltuples FROM pg_class WHERE relname = ?", Double.class,
+                scan.path("Relation Name").asText()) > MAX_SEQ_SCANNED_ROWS)
+            .toList();
+    }
+
+    private static List<JsonNode> seqScansOnTicket(JsonNode node) {
+        List<JsonNode> found = new ArrayList<>();
+        if (node.isArray()) {
+            node.forEach(child -> found.addAll(seqScansOnTicket(child)));
+        } else if (node.isObject()) {
+            String relation = node.path("Relation Name").asText();
+            if ("Seq Scan".equals(node.path("Node Type").asText())
+                    && (relation.equals("ticket") || relation.startsWith("ticket_p"))) {
+                found.add(node);
+            }
+            if (node.has("Plan")) {
+                found.addAll(seqScansOnTicket(node.get("Plan")));
+            }
+            found.addAll(seqScansOnTicket(node.path("Plans")));
+        }
+        return found;
+    }
+
+    /**
+     * Registra el SQL que genera Hibernate para poder explicarlo tal cual.
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.toLowerCase().contains("ticket")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
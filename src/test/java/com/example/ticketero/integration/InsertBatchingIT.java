@@ -0,0 +1,173 @@
+package com.example.ticketero.integration;
+
+import com.example.ticketero.model.entity.AuditLog;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.AuditLogRepository;
+import com.example.ticketero.repository.TicketRepository;
+import com.example.ticketero.service.MessageService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de las escrituras masivas con y sin lotes JDBC.
+ * <p>
+ * Cada ráfaga corre dos veces sobre datos equivalentes: con lotes deshabilitados en la sesión
+ * (tamaño 1, lo que pasaba con ids IDENTITY) y con la configuración de la aplicación. Se cuentan
+ * los viajes a la BD (sentencias más lotes ejecutados, incluidos los nextval) y el tiempo.
+ */
+@Slf4j
+@DisplayName("Lotes JDBC en escrituras masivas")
+@TestPropertySource(properties =
+    "spring.jpa.properties.hibernate.session.events.auto="
+        + "com.example.ticketero.integration.InsertBatchingIT$RoundTripCounter")
+class InsertBatchingIT extends BaseIntegrationTest {
+
+    private static final int BURST = 500;
+    // Con lotes de 50 y bloques de ids de 50: 500 filas caben en ~20 viajes, sin lotes son 500+
+    private static final int MIN_REDUCTION = 10;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private MessageService messageService;
+
+    @TestFactory
+    Stream<DynamicTest> rafagasDeEscritura_debenAgruparseEnLotes() {
+        Map<String, Supplier<Runnable>> bursts = new LinkedHashMap<>();
+        bursts.put("ticket saveAll", () -> {
+            List<Ticket> tickets = newTickets();
+            return () -> ticketRepository.saveAll(tickets);
+        });
+        bursts.put("ticket status saveAll", () -> {
+            transactionTemplate.executeWithoutResult(status -> ticketRepository.saveAll(newTickets()));
+            return () -> {
+                List<Ticket> waiting = ticketRepository.findWaitingTicketsByQueue(QueueType.CAJA);
+                waiting.forEach(ticket -> ticket.setStatus(TicketStatus.PROXIMO));
+                ticketRepository.saveAll(waiting);
+            };
+        });
+        bursts.put("scheduleMessages", () -> {
+            List<Ticket> tickets = transactionTemplate.execute(status -> ticketRepository.saveAll(newTickets()));
+            return () -> messageService.scheduleMessages(tickets, MessageTemplate.TOTEM_PROXIMO_TURNO);
+        });
+        bursts.put("audit saveAll", () -> {
+            List<AuditLog> auditLogs = newAuditLogs();
+            return () -> auditLogRepository.saveAll(auditLogs);
+        });
+
+        return bursts.entrySet().stream().map(burst -> DynamicTest.dynamicTest(burst.getKey(), () -> {
+            Measurement unbatched = measure(1, burst.getValue());
+            Measurement batched = measure(null, burst.getValue());
+
+            log.info("{}: {} round trips in {} ms without batching, {} round trips in {} ms batched",
+                burst.getKey(), unbatched.roundTrips(), unbatched.elapsed().toMillis(),
+                batched.roundTrips(), batched.elapsed().toMillis());
+            assertThat(batched.roundTrips())
+                .as("%s: viajes con lotes vs sin lotes (%d)", burst.getKey(), unbatched.roundTrips())
+                .isLessThanOrEqualTo(unbatched.roundTrips() / MIN_REDUCTION);
+        }));
+    }
+
+    /**
+     * Prepara los datos y corre la ráfaga en una transacción con el tamaño de lote indicado
+     * (null: el configurado).
+     */
+    private Measurement measure(Integer batchSize, Supplier<Runnable> prepare) {
+        jdbcTemplate.execute("DELETE FROM mensaje");
+        jdbcTemplate.execute("DELETE FROM ticket");
+        Runnable burst = prepare.get();
+        return transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            RoundTripCounter.COUNT.set(0);
+            long start = System.nanoTime();
+            burst.run();
+            entityManager.flush();
+            return new Measurement(RoundTripCounter.COUNT.get(), Duration.ofNanos(System.nanoTime() - start));
+        });
+    }
+
+    private static List<Ticket> newTickets() {
+        LocalDateTime now = LocalDateTime.now();
+        return IntStream.range(0, BURST)
+            .mapToObj(i -> Ticket.builder()
+                .codigoReferencia(UUID.randomUUID())
+                .numero("B" + i)
+                .nationalId(String.valueOf(80_000_000 + i))
+                .telefono("+56912345678")
+                .branchOffice("Sucursal Centro")
+                .queueType(QueueType.CAJA)
+                .status(TicketStatus.EN_ESPERA)
+                .positionInQueue(BURST - i)
+                .estimatedWaitMinutes(0)
+                .createdAt(now.minusSeconds(BURST - i))
+                .build())
+            .toList();
+    }
+
+    private static List<AuditLog> newAuditLogs() {
+        return IntStream.range(0, BURST)
+            .mapToObj(i -> AuditLog.builder()
+                .timestamp(LocalDateTime.now())
+                .eventType("ASESOR_STATUS_CHANGED")
+                .actor("sistema:benchmark")
+                .entityType("ADVISOR")
+                .entityId(String.valueOf(i))
+                .newState(Map.of("status", "BUSY"))
+                .build())
+            .toList();
+    }
+
+    private record Measurement(int roundTrips, Duration elapsed) {}
+
+    /**
+     * Cuenta las sentencias y los lotes que Hibernate ejecuta contra la BD.
+     */
+    public static class RoundTripCounter implements SessionEventListener {
+
+        static final AtomicInteger COUNT = new AtomicInteger();
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            COUNT.incrementAndGet();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            COUNT.incrementAndGet();
+        }
+    }
+}
@@ -41,7 +41,8 @@ class TicketCreationIT extends BaseIntegrationTest {
             // Then - Verificar BD
             assertThat(countTicketsInStatus("EN_ESPERA")).isGreaterThanOrEqualTo(1);
 
-            // Verificar Mensaje creado
+            // Verificar Mensaje creado (lo programa el consumidor del outbox)
+            outboxRelay.relay();
             int mensajeCount = countMessages("PENDIENTE");
             assertThat(mensajeCount).isGreaterThanOrEqualTo(1);
         }
@@ -125,6 +126,7 @@ class TicketCreationIT extends BaseIntegrationTest {
             }
 
             // Verificar 4 mensajes creados
+            outboxRelay.relay();
             assertThat(countMessages("PENDIENTE")).isGreaterThanOrEqualTo(4);
         }
     }
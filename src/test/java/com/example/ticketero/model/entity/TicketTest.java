@@ -84,6 +84,19 @@ class TicketTest {
             assertThat(ticket.getStatus()).isEqualTo(TicketStatus.EN_ESPERA);
         }
 
+        @Test
+        @DisplayName("Debe guardar createdAt con la precisión de la BD (microsegundos)")
+        void debeTruncarCreatedAtAMicrosegundos() {
+            // Given
+            Ticket ticket = new Ticket();
+
+            // When
+            ticket.onCreate();
+
+            // Then
+            assertThat(ticket.getCreatedAt().getNano() % 1_000).isZero();
+        }
+
         @Test
         @DisplayName("No debe sobrescribir codigoReferencia existente en onCreate")
         void noDebesobrescribirCodigoReferenciaExistenteEnOnCreate() {
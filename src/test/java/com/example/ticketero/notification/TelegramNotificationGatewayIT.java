@@ -0,0 +1,205 @@
+package com.example.ticketero.notification;
+
+import com.example.ticketero.config.TelegramProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Feature: Cliente Telegram (Bot API)")
+class TelegramNotificationGatewayIT {
+
+    private static final String TOKEN = "test-token";
+
+    private WireMockServer wireMockServer;
+    private TelegramNotificationGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(options().dynamicPort());
+        wireMockServer.start();
+        gateway = gateway(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Nested
+    @DisplayName("Envío")
+    class Envio {
+
+        @Test
+        @DisplayName("respuesta ok → debe retornar el message_id de Telegram")
+        void send_ok_debeRetornarMessageId() {
+            // Given
+            wireMockServer.stubFor(post(urlPathEqualTo("/bot" + TOKEN + "/sendMessage"))
+                .willReturn(okJson("{\"ok\":true,\"result\":{\"message_id\":12345}}")));
+
+            // When
+            String messageId = gateway.send("987654321", "<b>Ticket Creado</b>").join();
+
+            // Then
+            assertThat(messageId).isEqualTo("12345");
+            wireMockServer.verify(postRequestedFor(urlPathEqualTo("/bot" + TOKEN + "/sendMessage"))
+                .withHeader("Content-Type", equalTo("application/json"))
+                .withRequestBody(matchingJsonPath("$.chat_id", equalTo("987654321")))
+                .withRequestBody(matchingJsonPath("$.parse_mode", equalTo("HTML")))
+                .withRequestBody(matchingJsonPath("$.text", containing("Ticket Creado"))));
+        }
+
+        @Test
+        @DisplayName("chat-id configurado → debe enviar todo a ese chat")
+        void send_conChatIdFijo_debeUsarlo() {
+            // Given
+            gateway = gateway("123456789");
+            wireMockServer.stubFor(post(anyUrl())
+                .willReturn(okJson("{\"ok\":true,\"result\":{\"message_id\":1}}")));
+
+            // When
+            gateway.send("987654321", "Hola").join();
+
+            // Then
+            wireMockServer.verify(postRequestedFor(anyUrl())
+                .withRequestBody(matchingJsonPath("$.chat_id", equalTo("123456789"))));
+        }
+
+        @Test
+        @DisplayName("muchos envíos simultáneos → deben completarse todos")
+        void send_concurrente_debeCompletarTodos() {
+            // Given
+            wireMockServer.stubFor(post(anyUrl())
+                .willReturn(okJson("{\"ok\":true,\"result\":{\"message_id\":7}}")
+                    .withFixedDelay(50)));
+
+            // When
+            List<CompletableFuture<String>> envios = IntStream.range(0, 200)
+                .mapToObj(i -> gateway.send(String.valueOf(100_000 + i), "Turno " + i))
+                .toList();
+            CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new)).join();
+
+            // Then
+            assertThat(envios).allSatisfy(envio -> assertThat(envio.join()).isEqualTo("7"));
+            wireMockServer.verify(200, postRequestedFor(anyUrl()));
+        }
+    }
+
+    @Nested
+    @DisplayName("Errores")
+    class Errores {
+
+        @Test
+        @DisplayName("429 con retry_after → debe esperar y reintentar")
+        void send_429_debeReintentarTrasRetryAfter() {
+            // Given
+            wireMockServer.stubFor(post(anyUrl()).inScenario("rate-limit")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse()
+                    .withStatus(429)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"ok\":false,\"error_code\":429,\"description\":\"Too Many Requests: retry after 1\","
+                        + "\"parameters\":{\"retry_after\":1}}"))
+                .willSetStateTo("recovered"));
+            wireMockServer.stubFor(post(anyUrl()).inScenario("rate-limit")
+                .whenScenarioStateIs("recovered")
+                .willReturn(okJson("{\"ok\":true,\"result\":{\"message_id\":99}}")));
+
+            // When
+            long start = System.nanoTime();
+            String messageId = gateway.send("987654321", "Hola").join();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            // Then
+            assertThat(messageId).isEqualTo("99");
+            assertThat(elapsed).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+            wireMockServer.verify(2, postRequestedFor(anyUrl()));
+        }
+
+        @Test
+        @DisplayName("429 persistente → debe fallar al agotar los reintentos")
+        void send_429Persistente_debeFallar() {
+            // Given
+            gateway = new TelegramNotificationGateway(properties(null, 1), new ObjectMapper());
+            wireMockServer.stubFor(post(anyUrl())
+                .willReturn(aResponse()
+                    .withStatus(429)
+                    .withHeader("Retry-After", "1")
+                    .withBody("{\"ok\":false,\"error_code\":429}")));
+
+            // When / Then
+            assertThatThrownBy(() -> gateway.send("987654321", "Hola").join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(NotificationException.class);
+            wireMockServer.verify(2, postRequestedFor(anyUrl()));
+        }
+
+        @Test
+        @DisplayName("cliente sin chat vinculado → debe fallar sin llamar a Telegram")
+        void send_sinChat_debeFallarSinLlamar() {
+            // When / Then
+            assertThatThrownBy(() -> gateway.send(null, "Hola").join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(NotificationException.class);
+            wireMockServer.verify(0, postRequestedFor(anyUrl()));
+        }
+
+        @Test
+        @DisplayName("Telegram caído (500) → debe fallar con NotificationException")
+        void send_500_debeFallar() {
+            // Given
+            wireMockServer.stubFor(post(anyUrl())
+                .willReturn(aResponse()
+                    .withStatus(500)
+                    .withBody("{\"ok\":false,\"error_code\":500,\"description\":\"Internal Server Error\"}")));
+
+            // When / Then
+            assertThatThrownBy(() -> gateway.send("987654321", "Hola").join())
+                .hasCauseInstanceOf(NotificationException.class)
+                .hasMessageContaining("500");
+        }
+
+        @Test
+        @DisplayName("respuesta lenta → debe fallar por timeout")
+        void send_lento_debeFallarPorTimeout() {
+            // Given
+            wireMockServer.stubFor(post(anyUrl())
+                .willReturn(okJson("{\"ok\":true,\"result\":{\"message_id\":1}}")
+                    .withFixedDelay(3000)));
+
+            // When / Then
+            assertThatThrownBy(() -> gateway.send("987654321", "Hola").join())
+                .isInstanceOf(CompletionException.class);
+        }
+    }
+
+    private TelegramNotificationGateway gateway(String chatId) {
+        return new TelegramNotificationGateway(properties(chatId, 3), new ObjectMapper());
+    }
+
+    private TelegramProperties properties(String chatId, int maxRateLimitRetries) {
+        return new TelegramProperties(
+            TOKEN,
+            wireMockServer.baseUrl() + "/bot",
+            chatId,
+            Duration.ofSeconds(2),
+            Duration.ofSeconds(1),
+            maxRateLimitRetries,
+            false,
+            null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.ticketero.repository;
+
+import com.example.ticketero.model.entity.QueueDailyStats;
+import com.example.ticketero.model.enums.QueueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("QueueDailyStatsRepository Tests")
+class QueueDailyStatsRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 15);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private QueueDailyStatsRepository queueDailyStatsRepository;
+
+    @Nested
+    @DisplayName("Lectura del día")
+    class LecturaDelDia {
+
+        @Test
+        @DisplayName("Debe retornar solo las filas del día pedido")
+        void debeRetornarFilasDelDia() {
+            // Given
+            entityManager.persistAndFlush(stats(TODAY, QueueType.CAJA, 3, 8, 19));
+            entityManager.persistAndFlush(stats(TODAY, QueueType.GERENCIA, 40));
+            entityManager.persistAndFlush(stats(TODAY.minusDays(1), QueueType.CAJA, 10));
+
+            // When
+            List<QueueDailyStats> found = queueDailyStatsRepository.findByIdBusinessDate(TODAY);
+
+            // Then
+            assertThat(found).extracting(QueueDailyStats::getQueueType)
+                .containsExactlyInAnyOrder(QueueType.CAJA, QueueType.GERENCIA);
+        }
+
+        @Test
+        @DisplayName("Debe calcular promedios e histograma desde los contadores")
+        void debeCalcularPromediosDesdeContadores() {
+            // Given
+            entityManager.persistAndFlush(stats(TODAY, QueueType.CAJA, 3, 8, 19));
+            entityManager.clear();
+
+            // When
+            QueueDailyStats found = queueDailyStatsRepository
+                .findById(new QueueDailyStats.Key(TODAY, QueueType.CAJA))
+                .orElseThrow();
+
+            // Then
+            assertThat(found.getAssignedCount()).isEqualTo(3);
+            assertThat(found.getAverageWaitMinutes()).isEqualTo(10.0);
+            assertThat(found.getWaitSecondsMax()).isEqualTo(19 * 60);
+            assertThat(found.getWaitHistogram()).containsExactly(1, 1, 0, 1, 0, 0);
+            assertThat(found.getAverageServiceMinutes()).isNull();
+        }
+    }
+
+    private QueueDailyStats stats(LocalDate date, QueueType queueType, int... waitMinutes) {
+        QueueDailyStats stats = QueueDailyStats.empty(date, queueType);
+        for (int wait : waitMinutes) {
+            stats.addWait(wait * 60L);
+        }
+        return stats;
+    }
+}
@@ -27,94 +27,6 @@ class QueueStatsRepositoryTest {
     @Autowired
     private QueueStatsRepository queueStatsRepository;
 
-    @Nested
-    @DisplayName("Estadísticas Diarias")
-    class EstadisticasDiarias {
-
-        @Test
-        @DisplayName("Debe contar tickets de hoy por cola y estado")
-        void debeContarTicketsDeHoyPorColaYEstado() {
-            // Given
-            LocalDateTime today = LocalDateTime.of(2024, 1, 15, 10, 0);
-            LocalDateTime yesterday = today.minusDays(1);
-            
-            Ticket ticketHoy1 = createTicket("C01", QueueType.CAJA, TicketStatus.COMPLETADO, today);
-            Ticket ticketHoy2 = createTicket("C02", QueueType.CAJA, TicketStatus.COMPLETADO, today);
-            Ticket ticketAyer = createTicket("C03", QueueType.CAJA, TicketStatus.COMPLETADO, yesterday);
-            Ticket ticketOtraCola = createTicket("P01", QueueType.PERSONAL_BANKER, TicketStatus.COMPLETADO, today);
-            
-            entityManager.persistAndFlush(ticketHoy1);
-            entityManager.persistAndFlush(ticketHoy2);
-            entityManager.persistAndFlush(ticketAyer);
-            entityManager.persistAndFlush(ticketOtraCola);
-
-            // When
-            long count = queueStatsRepository.countTodayByQueueAndStatus(
-                QueueType.CAJA, TicketStatus.COMPLETADO, today.toLocalDate());
-
-            // Then
-            assertThat(count).isEqualTo(2);
-        }
-
-        @Test
-        @DisplayName("Debe calcular tiempo promedio de servicio de hoy")
-        void debeCalcularTiempoPromedioDeServicioDeHoy() {
-            // Given
-            LocalDateTime today = LocalDateTime.of(2024, 1, 15, 10, 0);
-            
-            Ticket ticket1 = createTicket("C01", QueueType.CAJA, TicketStatus.COMPLETADO, today);
-            ticket1.setActualServiceTimeMinutes(10);
-            ticket1.setCompletedAt(today);
-            
-            Ticket ticket2 = createTicket("C02", QueueType.CAJA, TicketStatus.COMPLETADO, today);
-            ticket2.setActualServiceTimeMinutes(20);
-            ticket2.setCompletedAt(today);
-            
-            Ticket ticket3 = createTicket("C03", QueueType.CAJA, TicketStatus.EN_ESPERA, today);
-            // Sin tiempo de servicio porque no está completado
-            
-            entityManager.persistAndFlush(ticket1);
-            entityManager.persistAndFlush(ticket2);
-            entityManager.persistAndFlush(ticket3);
-
-            // When
-            Double average = queueStatsRepository.getAverageServiceTimeToday(
-                QueueType.CAJA, today.toLocalDate());
-
-            // Then
-            assertThat(average).isNotNull();
-            assertThat(average).isEqualTo(15.0); // (10 + 20) / 2
-        }
-
-        @Test
-        @DisplayName("Debe calcular tiempo promedio de espera de hoy")
-        void debeCalcularTiempoPromedioDeEsperaDeHoy() {
-            // Given
-            LocalDateTime today = LocalDateTime.of(2024, 1, 15, 10, 0);
-            
-            Ticket ticket1 = createTicket("C01", QueueType.CAJA, TicketStatus.ATENDIENDO, today);
-            ticket1.setAssignedAt(today.plusMinutes(5)); // Esperó 5 minutos
-            
-            Ticket ticket2 = createTicket("C02", QueueType.CAJA, TicketStatus.COMPLETADO, today);
-            ticket2.setAssignedAt(today.plusMinutes(10)); // Esperó 10 minutos
-            
-            Ticket ticket3 = createTicket("C03", QueueType.CAJA, TicketStatus.EN_ESPERA, today);
-            // Sin asignación aún
-            
-            entityManager.persistAndFlush(ticket1);
-            entityManager.persistAndFlush(ticket2);
-            entityManager.persistAndFlush(ticket3);
-
-            // When
-            Double average = queueStatsRepository.getAverageWaitTimeToday(
-                QueueType.CAJA, today.toLocalDate());
-
-            // Then
-            assertThat(average).isNotNull();
-            assertThat(average).isEqualTo(7.5); // (5 + 10) / 2
-        }
-    }
-
     @Nested
     @DisplayName("Tickets Críticos")
     class TicketsCriticos {
@@ -217,26 +129,27 @@ class QueueStatsRepositoryTest {
     }
 
     @Nested
-    @DisplayName("Casos Edge")
-    class CasosEdge {
+    @DisplayName("Conteo por Estado")
+    class ConteoPorEstado {
 
         @Test
-        @DisplayName("Debe manejar valores null en estadísticas")
-        void debeManejarValoresNullEnEstadisticas() {
-            // Given - No hay tickets completados hoy
-            LocalDateTime today = LocalDateTime.of(2024, 1, 15, 10, 0);
-            Ticket ticket = createTicket("C01", QueueType.CAJA, TicketStatus.EN_ESPERA, today);
-            entityManager.persistAndFlush(ticket);
+        @DisplayName("Debe contar los tickets activos por cola y estado, sin los terminados")
+        void debeContarTicketsActivosPorColaYEstado() {
+            // Given
+            LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 0);
+            entityManager.persistAndFlush(createTicket("C01", QueueType.CAJA, TicketStatus.EN_ESPERA, now.minusMinutes(10)));
+            entityManager.persistAndFlush(createTicket("C02", QueueType.CAJA, TicketStatus.EN_ESPERA, now.minusMinutes(5)));
+            entityManager.persistAndFlush(createTicket("C03", QueueType.CAJA, TicketStatus.ATENDIENDO, now.minusMinutes(20)));
+            entityManager.persistAndFlush(createTicket("E01", QueueType.EMPRESAS, TicketStatus.PROXIMO, now.minusMinutes(15)));
+            entityManager.persistAndFlush(createTicket("C04", QueueType.CAJA, TicketStatus.COMPLETADO, now.minusMinutes(60)));
 
             // When
-            Double averageService = queueStatsRepository.getAverageServiceTimeToday(
-                QueueType.CAJA, today.toLocalDate());
-            Double averageWait = queueStatsRepository.getAverageWaitTimeToday(
-                QueueType.CAJA, today.toLocalDate());
+            List<QueueStatsRepository.StatusCount> counts = queueStatsRepository.countActiveByQueueAndStatus();
 
             // Then
-            assertThat(averageService).isNull();
-            assertThat(averageWait).isNull();
+            assertThat(counts)
+                .extracting(c -> c.getQueueType() + "/" + c.getStatus() + "=" + c.getTotal())
+                .containsExactlyInAnyOrder("CAJA/EN_ESPERA=2", "CAJA/ATENDIENDO=1", "EMPRESAS/PROXIMO=1");
         }
     }
 
@@ -7,10 +7,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -58,26 +60,45 @@ class TicketRepositoryTest {
             entityManager.persistAndFlush(ticket);
 
             // When
-            Optional<Ticket> found = ticketRepository.findByNumero("C01");
+            Optional<Ticket> found = ticketRepository.findByNumero("Sucursal Centro", "C01", LocalDate.now());
 
             // Then
             assertThat(found).isPresent();
             assertThat(found.get().getNationalId()).isEqualTo("12345678");
         }
 
+        @Test
+        @DisplayName("Número repetido en otra sucursal u otro día → debe resolver solo el de la sucursal y día")
+        void debeAcotarNumeroPorSucursalYDia() {
+            // Given
+            Ticket hoy = createTicket("C01", "12345678", QueueType.CAJA, TicketStatus.EN_ESPERA);
+            Ticket otraSucursal = createTicket("C01", "87654321", QueueType.CAJA, TicketStatus.EN_ESPERA);
+            otraSucursal.setBranchOffice("Sucursal Norte");
+            Ticket ayer = createTicket("C01", "11111111", QueueType.CAJA, TicketStatus.COMPLETADO);
+            ayer.setCreatedAt(LocalDateTime.now().minusDays(1));
+            entityManager.persist(hoy);
+            entityManager.persist(otraSucursal);
+            entityManager.persistAndFlush(ayer);
+
+            // When
+            Optional<Ticket> found = ticketRepository.findByNumero("Sucursal Centro", "C01", LocalDate.now());
+
+            // Then
+            assertThat(found).map(Ticket::getNationalId).contains("12345678");
+            assertThat(ticketRepository.findByNumero("Sucursal Sur", "C01", LocalDate.now())).isEmpty();
+        }
+
         @Test
         @DisplayName("Debe encontrar tickets activos por nationalId")
         void debeEncontrarTicketsActivosPorNationalId() {
             // Given
-            List<TicketStatus> activeStatuses = List.of(TicketStatus.EN_ESPERA, TicketStatus.PROXIMO, TicketStatus.ATENDIENDO);
-            
             Ticket ticket1 = createTicket("C01", "12345678", QueueType.CAJA, TicketStatus.EN_ESPERA);
             Ticket ticket2 = createTicket("C02", "12345678", QueueType.CAJA, TicketStatus.COMPLETADO);
             entityManager.persistAndFlush(ticket1);
             entityManager.persistAndFlush(ticket2);
 
             // When
-            List<Ticket> found = ticketRepository.findByNationalIdAndStatusIn("12345678", activeStatuses);
+            List<Ticket> found = ticketRepository.findActiveByNationalId("12345678");
 
             // Then
             assertThat(found).hasSize(1);
@@ -88,16 +109,16 @@ class TicketRepositoryTest {
         @DisplayName("Debe verificar existencia de tickets activos")
         void debeVerificarExistenciaDeTicketsActivos() {
             // Given
-            List<TicketStatus> activeStatuses = List.of(TicketStatus.EN_ESPERA, TicketStatus.PROXIMO);
-            
             Ticket ticket = createTicket("C01", "12345678", QueueType.CAJA, TicketStatus.EN_ESPERA);
             entityManager.persistAndFlush(ticket);
+            entityManager.persistAndFlush(createTicket("C02", "87654321", QueueType.CAJA, TicketStatus.COMPLETADO));
 
             // When
-            boolean exists = ticketRepository.existsByNationalIdAndStatusIn("12345678", activeStatuses);
+            boolean exists = ticketRepository.existsActiveByNationalId("12345678");
 
             // Then
             assertThat(exists).isTrue();
+            assertThat(ticketRepository.existsActiveByNationalId("87654321")).isFalse();
         }
     }
 
@@ -154,6 +175,32 @@ class TicketRepositoryTest {
             assertThat(count).isEqualTo(2);
         }
 
+        @Test
+        @DisplayName("Debe retornar la cabeza de la cola incluyendo PROXIMO, en orden FIFO")
+        void debeRetornarCabezaDeCola() {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+            Ticket proximo = createTicket("C01", "11111111", QueueType.CAJA, TicketStatus.PROXIMO);
+            proximo.setCreatedAt(now.minusMinutes(10));
+            Ticket enEspera = createTicket("C02", "22222222", QueueType.CAJA, TicketStatus.EN_ESPERA);
+            enEspera.setCreatedAt(now.minusMinutes(5));
+            Ticket ultimo = createTicket("C03", "33333333", QueueType.CAJA, TicketStatus.EN_ESPERA);
+            ultimo.setCreatedAt(now.minusMinutes(1));
+            Ticket atendiendo = createTicket("C04", "44444444", QueueType.CAJA, TicketStatus.ATENDIENDO);
+            atendiendo.setCreatedAt(now.minusMinutes(20));
+
+            entityManager.persistAndFlush(ultimo);
+            entityManager.persistAndFlush(enEspera);
+            entityManager.persistAndFlush(proximo);
+            entityManager.persistAndFlush(atendiendo);
+
+            // When
+            List<Ticket> head = ticketRepository.findQueueHead(QueueType.CAJA, PageRequest.of(0, 2));
+
+            // Then
+            assertThat(head).extracting(Ticket::getNumero).containsExactly("C01", "C02");
+        }
+
         @Test
         @DisplayName("Debe encontrar tickets críticos")
         void debeEncontrarTicketsCriticos() {
@@ -178,6 +225,29 @@ class TicketRepositoryTest {
             assertThat(found).hasSize(1);
             assertThat(found.get(0).getNumero()).isEqualTo("C01");
         }
+
+        @Test
+        @DisplayName("Debe encontrar todos los tickets en espera por orden de llegada")
+        void debeEncontrarTodosLosTicketsEnEspera() {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+            Ticket proximo = createTicket("P01", "11111111", QueueType.PERSONAL_BANKER, TicketStatus.PROXIMO);
+            proximo.setCreatedAt(now.minusMinutes(10));
+            Ticket enEspera = createTicket("C01", "12345678", QueueType.CAJA, TicketStatus.EN_ESPERA);
+            enEspera.setCreatedAt(now.minusMinutes(5));
+            Ticket atendiendo = createTicket("C02", "87654321", QueueType.CAJA, TicketStatus.ATENDIENDO);
+            atendiendo.setCreatedAt(now.minusMinutes(20));
+
+            entityManager.persistAndFlush(proximo);
+            entityManager.persistAndFlush(enEspera);
+            entityManager.persistAndFlush(atendiendo);
+
+            // When
+            List<Ticket> found = ticketRepository.findAllWaiting();
+
+            // Then
+            assertThat(found).extracting(Ticket::getNumero).containsExactly("P01", "C01");
+        }
     }
 
     @Nested
@@ -185,8 +255,8 @@ class TicketRepositoryTest {
     class ConteosYEstadisticas {
 
         @Test
-        @DisplayName("Debe contar tickets por cola y estado")
-        void debeContarTicketsPorColaYEstado() {
+        @DisplayName("Debe contar tickets en espera por cola")
+        void debeContarTicketsEnEsperaPorCola() {
             // Given
             Ticket ticket1 = createTicket("C01", "12345678", QueueType.CAJA, TicketStatus.EN_ESPERA);
             Ticket ticket2 = createTicket("C02", "87654321", QueueType.CAJA, TicketStatus.EN_ESPERA);
@@ -197,7 +267,7 @@ class TicketRepositoryTest {
             entityManager.persistAndFlush(ticket3);
 
             // When
-            long count = ticketRepository.countByQueueTypeAndStatus(QueueType.CAJA, TicketStatus.EN_ESPERA);
+            long count = ticketRepository.countWaitingByQueue(QueueType.CAJA);
 
             // Then
             assertThat(count).isEqualTo(2);
@@ -1,6 +1,6 @@
 package com.example.ticketero.scheduler;
 
-import com.example.ticketero.service.MessageService;
+import com.example.ticketero.service.MessageDispatcher;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -17,7 +17,7 @@ import static org.mockito.Mockito.*;
 class MessageSchedulerTest {
 
     @Mock
-    private MessageService messageService;
+    private MessageDispatcher messageDispatcher;
 
     @InjectMocks
     private MessageScheduler messageScheduler;
@@ -34,7 +34,7 @@ class MessageSchedulerTest {
                 .doesNotThrowAnyException();
 
             // Then
-            verify(messageService).processPendingMessages();
+            verify(messageDispatcher).dispatchPending();
         }
 
         @Test
@@ -42,13 +42,13 @@ class MessageSchedulerTest {
         void processPendingMessages_debeManejarErrores() {
             // Given
             doThrow(new RuntimeException("Service error"))
-                .when(messageService).processPendingMessages();
+                .when(messageDispatcher).dispatchPending();
 
             // When & Then
             assertThatCode(() -> messageScheduler.processPendingMessages())
                 .doesNotThrowAnyException();
 
-            verify(messageService).processPendingMessages();
+            verify(messageDispatcher).dispatchPending();
         }
     }
 
@@ -64,7 +64,7 @@ class MessageSchedulerTest {
                 .doesNotThrowAnyException();
 
             // Then
-            verify(messageService).processRetryMessages();
+            verify(messageDispatcher).dispatchRetries();
         }
 
         @Test
@@ -72,13 +72,13 @@ class MessageSchedulerTest {
         void processRetryMessages_debeManejarErrores() {
             // Given
             doThrow(new RuntimeException("Service error"))
-                .when(messageService).processRetryMessages();
+                .when(messageDispatcher).dispatchRetries();
 
             // When & Then
             assertThatCode(() -> messageScheduler.processRetryMessages())
                 .doesNotThrowAnyException();
 
-            verify(messageService).processRetryMessages();
+            verify(messageDispatcher).dispatchRetries();
         }
     }
 }
\ No newline at end of file
@@ -2,9 +2,8 @@ package com.example.ticketero.scheduler;
 
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.model.enums.QueueType;
-import com.example.ticketero.model.enums.TicketStatus;
-import com.example.ticketero.repository.AdvisorRepository;
-import com.example.ticketero.repository.QueueStatsRepository;
+import com.example.ticketero.repository.QueueDailyStatsRepository;
+import com.example.ticketero.service.QueueStateCounters;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -13,7 +12,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.example.ticketero.testutil.TestDataBuilder.queueDailyStats;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,10 +25,10 @@ import static org.mockito.Mockito.*;
 class MetricsSchedulerTest {
 
     @Mock
-    private QueueStatsRepository queueStatsRepository;
+    private QueueStateCounters queueStateCounters;
 
     @Mock
-    private AdvisorRepository advisorRepository;
+    private QueueDailyStatsRepository queueDailyStatsRepository;
 
     @InjectMocks
     private MetricsScheduler metricsScheduler;
@@ -34,42 +38,73 @@ class MetricsSchedulerTest {
     class MetricasDelSistema {
 
         @Test
-        @DisplayName("Debe registrar métricas del sistema exitosamente")
+        @DisplayName("Debe registrar métricas del sistema desde los contadores, sin consultar la BD")
         void logSystemMetrics_debeEjecutarExitosamente() {
             // Given
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(QueueType.class), eq(TicketStatus.EN_ESPERA)))
-                .thenReturn(5L);
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(QueueType.class), eq(TicketStatus.ATENDIENDO)))
-                .thenReturn(2L);
-            when(advisorRepository.countByStatus(AdvisorStatus.AVAILABLE)).thenReturn(3L);
-            when(advisorRepository.countByStatus(AdvisorStatus.BUSY)).thenReturn(2L);
-            when(advisorRepository.countByStatus(AdvisorStatus.OFFLINE)).thenReturn(1L);
+            when(queueStateCounters.isReady()).thenReturn(true);
+            when(queueStateCounters.waitingCount(QueueType.CAJA)).thenReturn(5L);
+            when(queueStateCounters.servingCount(QueueType.CAJA)).thenReturn(2L);
 
             // When
             assertThatCode(() -> metricsScheduler.logSystemMetrics())
                 .doesNotThrowAnyException();
 
             // Then
-            verify(queueStatsRepository, atLeastOnce())
-                .countTodayByQueueAndStatus(any(QueueType.class), any(TicketStatus.class));
-            verify(advisorRepository).countByStatus(AdvisorStatus.AVAILABLE);
-            verify(advisorRepository).countByStatus(AdvisorStatus.BUSY);
-            verify(advisorRepository).countByStatus(AdvisorStatus.OFFLINE);
+            verify(queueStateCounters).advisorCount(AdvisorStatus.AVAILABLE);
+            verify(queueStateCounters).advisorCount(AdvisorStatus.BUSY);
+            verify(queueStateCounters).advisorCount(AdvisorStatus.OFFLINE);
+            verifyNoInteractions(queueDailyStatsRepository);
+        }
+
+        @Test
+        @DisplayName("Contadores sin cargar → no debe registrar métricas")
+        void logSystemMetrics_contadoresSinCargar_noDebeRegistrar() {
+            // Given
+            when(queueStateCounters.isReady()).thenReturn(false);
+
+            // When
+            metricsScheduler.logSystemMetrics();
+
+            // Then
+            verify(queueStateCounters, never()).waitingCount(any());
+            verify(queueStateCounters, never()).advisorCount(any(AdvisorStatus.class));
         }
 
         @Test
         @DisplayName("Debe manejar errores al registrar métricas del sistema")
         void logSystemMetrics_debeManejarErrores() {
             // Given
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(QueueType.class), any(TicketStatus.class)))
-                .thenThrow(new RuntimeException("DB Error"));
+            when(queueStateCounters.isReady()).thenThrow(new RuntimeException("boom"));
 
             // When & Then
             assertThatCode(() -> metricsScheduler.logSystemMetrics())
                 .doesNotThrowAnyException();
+        }
+    }
+
+    @Nested
+    @DisplayName("Reconciliación")
+    class Reconciliacion {
+
+        @Test
+        @DisplayName("Debe reconciliar los contadores contra la BD")
+        void reconcileCounters_debeReconciliar() {
+            // When
+            metricsScheduler.reconcileCounters();
 
-            verify(queueStatsRepository, atLeastOnce())
-                .countTodayByQueueAndStatus(any(QueueType.class), any(TicketStatus.class));
+            // Then
+            verify(queueStateCounters).reconcile();
+        }
+
+        @Test
+        @DisplayName("Debe manejar errores de la BD al reconciliar")
+        void reconcileCounters_debeManejarErrores() {
+            // Given
+            when(queueStateCounters.reconcile()).thenThrow(new RuntimeException("DB Error"));
+
+            // When & Then
+            assertThatCode(() -> metricsScheduler.reconcileCounters())
+                .doesNotThrowAnyException();
         }
     }
 
@@ -78,72 +113,43 @@ class MetricsSchedulerTest {
     class MetricasDetalladas {
 
         @Test
-        @DisplayName("Debe registrar métricas detalladas exitosamente")
+        @DisplayName("Debe registrar métricas detalladas leyendo solo una fila de estadísticas por cola")
         void logDetailedMetrics_debeEjecutarExitosamente() {
             // Given
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(QueueType.class), eq(TicketStatus.EN_ESPERA)))
-                .thenReturn(3L);
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(QueueType.class), eq(TicketStatus.ATENDIENDO)))
-                .thenReturn(1L);
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(QueueType.class), eq(TicketStatus.COMPLETADO)))
-                .thenReturn(10L);
-            when(queueStatsRepository.getAverageServiceTimeToday(any(QueueType.class)))
-                .thenReturn(15.5);
-            when(queueStatsRepository.getAverageWaitTimeToday(any(QueueType.class)))
-                .thenReturn(8.2);
+            when(queueStateCounters.waitingCount(QueueType.CAJA)).thenReturn(3L);
+            when(queueDailyStatsRepository.findByIdBusinessDate(LocalDate.now())).thenReturn(List.of(
+                queueDailyStats(QueueType.CAJA, 10, 12, 8.2, 15.5)));
 
             // When
             assertThatCode(() -> metricsScheduler.logDetailedMetrics())
                 .doesNotThrowAnyException();
 
             // Then
-            verify(queueStatsRepository, times(QueueType.values().length))
-                .countTodayByQueueAndStatus(any(QueueType.class), eq(TicketStatus.EN_ESPERA));
-            verify(queueStatsRepository, times(QueueType.values().length))
-                .countTodayByQueueAndStatus(any(QueueType.class), eq(TicketStatus.ATENDIENDO));
-            verify(queueStatsRepository, times(QueueType.values().length))
-                .countTodayByQueueAndStatus(any(QueueType.class), eq(TicketStatus.COMPLETADO));
-            verify(queueStatsRepository, times(QueueType.values().length))
-                .getAverageServiceTimeToday(any(QueueType.class));
-            verify(queueStatsRepository, times(QueueType.values().length))
-                .getAverageWaitTimeToday(any(QueueType.class));
+            verify(queueDailyStatsRepository, times(1)).findByIdBusinessDate(any());
+            verifyNoMoreInteractions(queueDailyStatsRepository);
         }
 
         @Test
-        @DisplayName("Debe manejar valores nulos en métricas detalladas")
+        @DisplayName("Debe manejar colas sin estadísticas del día")
         void logDetailedMetrics_debeManejarValoresNulos() {
             // Given
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(QueueType.class), any(TicketStatus.class)))
-                .thenReturn(0L);
-            when(queueStatsRepository.getAverageServiceTimeToday(any(QueueType.class)))
-                .thenReturn(null);
-            when(queueStatsRepository.getAverageWaitTimeToday(any(QueueType.class)))
-                .thenReturn(null);
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of());
 
-            // When
+            // When & Then
             assertThatCode(() -> metricsScheduler.logDetailedMetrics())
                 .doesNotThrowAnyException();
-
-            // Then
-            verify(queueStatsRepository, times(QueueType.values().length))
-                .getAverageServiceTimeToday(any(QueueType.class));
-            verify(queueStatsRepository, times(QueueType.values().length))
-                .getAverageWaitTimeToday(any(QueueType.class));
         }
 
         @Test
         @DisplayName("Debe manejar errores al registrar métricas detalladas")
         void logDetailedMetrics_debeManejarErrores() {
             // Given
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(QueueType.class), any(TicketStatus.class)))
+            when(queueDailyStatsRepository.findByIdBusinessDate(any()))
                 .thenThrow(new RuntimeException("DB Error"));
 
             // When & Then
             assertThatCode(() -> metricsScheduler.logDetailedMetrics())
                 .doesNotThrowAnyException();
-
-            verify(queueStatsRepository, atLeastOnce())
-                .countTodayByQueueAndStatus(any(QueueType.class), any(TicketStatus.class));
         }
     }
-}
\ No newline at end of file
+}
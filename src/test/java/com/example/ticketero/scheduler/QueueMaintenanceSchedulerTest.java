@@ -1,19 +1,26 @@
 package com.example.ticketero.scheduler;
 
+import com.example.ticketero.config.OutboxProperties;
+import com.example.ticketero.config.PartitioningProperties;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
 import com.example.ticketero.repository.TicketRepository;
-import com.example.ticketero.service.AuditService;
-import com.example.ticketero.service.MessageService;
+import com.example.ticketero.service.ColdArchiver;
+import com.example.ticketero.service.OutboxService;
+import com.example.ticketero.service.PartitionMaintenance;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -31,136 +38,84 @@ class QueueMaintenanceSchedulerTest {
     private TicketRepository ticketRepository;
 
     @Mock
-    private MessageService messageService;
+    private OutboxService outboxService;
 
     @Mock
-    private AuditService auditService;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PartitionMaintenance partitionMaintenance;
+
+    @Mock
+    private ColdArchiver coldArchiver;
+
+    @Mock
+    private PartitioningProperties partitioningProperties;
+
+    @Mock
+    private OutboxProperties outboxProperties;
 
     @InjectMocks
     private QueueMaintenanceScheduler queueMaintenanceScheduler;
 
     @Nested
-    @DisplayName("updateQueuePositions()")
-    class ActualizarPosicionesCola {
+    @DisplayName("promoteQueueHeads()")
+    class PromoverCabezaCola {
 
         @Test
-        @DisplayName("debe actualizar posiciones para todas las colas")
-        void updateQueuePositions_debeActualizarTodasLasColas() {
+        @DisplayName("debe leer solo la cabeza de cada cola")
+        void promoteQueueHeads_debeLeerCabezaDeTodasLasColas() {
             // Given
-            List<Ticket> ticketsCaja = List.of(
-                ticketWaiting().queueType(QueueType.CAJA).positionInQueue(1).build(),
-                ticketWaiting().queueType(QueueType.CAJA).positionInQueue(2).build()
-            );
-
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.CAJA))
-                .thenReturn(ticketsCaja);
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.PERSONAL_BANKER))
-                .thenReturn(Collections.emptyList());
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.EMPRESAS))
-                .thenReturn(Collections.emptyList());
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.GERENCIA))
-                .thenReturn(Collections.emptyList());
+            when(ticketRepository.lockQueueHead(any(), any())).thenReturn(Collections.emptyList());
 
             // When
-            queueMaintenanceScheduler.updateQueuePositions();
+            queueMaintenanceScheduler.promoteQueueHeads();
 
             // Then
-            verify(ticketRepository).findWaitingTicketsByQueue(QueueType.CAJA);
-            verify(ticketRepository).findWaitingTicketsByQueue(QueueType.PERSONAL_BANKER);
-            verify(ticketRepository).findWaitingTicketsByQueue(QueueType.EMPRESAS);
-            verify(ticketRepository).findWaitingTicketsByQueue(QueueType.GERENCIA);
-            verify(ticketRepository).saveAll(ticketsCaja);
+            for (QueueType queueType : QueueType.values()) {
+                verify(ticketRepository).lockQueueHead(queueType, PageRequest.of(0, 3));
+            }
+            verify(ticketRepository, never()).findWaitingTicketsByQueue(any());
         }
 
         @Test
-        @DisplayName("debe actualizar posiciones y tiempos estimados correctamente")
-        void updateQueuePositions_debeActualizarPosicionesYTiempos() {
+        @DisplayName("EN_ESPERA entre los 3 primeros → debe pasar a PROXIMO y escribir solo esos tickets")
+        void promoteQueueHeads_debeCambiarAProximoSoloLosQueCambian() {
             // Given
-            Ticket ticket1 = ticketWaiting()
-                .queueType(QueueType.CAJA)
-                .positionInQueue(null) // Sin posición inicial
-                .build();
-            Ticket ticket2 = ticketWaiting()
-                .queueType(QueueType.CAJA)
-                .positionInQueue(5) // Posición incorrecta
-                .build();
-
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.CAJA))
-                .thenReturn(List.of(ticket1, ticket2));
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.PERSONAL_BANKER))
-                .thenReturn(Collections.emptyList());
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.EMPRESAS))
-                .thenReturn(Collections.emptyList());
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.GERENCIA))
-                .thenReturn(Collections.emptyList());
+            Ticket proximo = ticketWaiting().id(1L).status(TicketStatus.PROXIMO).build();
+            Ticket ticket2 = ticketWaiting().id(2L).status(TicketStatus.EN_ESPERA).positionInQueue(7).build();
+            Ticket ticket3 = ticketWaiting().id(3L).status(TicketStatus.EN_ESPERA).positionInQueue(8).build();
+            when(ticketRepository.lockQueueHead(any(), any())).thenReturn(Collections.emptyList());
+            when(ticketRepository.lockQueueHead(eq(QueueType.CAJA), any()))
+                .thenReturn(List.of(proximo, ticket2, ticket3));
 
             // When
-            queueMaintenanceScheduler.updateQueuePositions();
+            queueMaintenanceScheduler.promoteQueueHeads();
 
             // Then
-            assertThat(ticket1.getPositionInQueue()).isEqualTo(1);
-            assertThat(ticket1.getEstimatedWaitMinutes()).isEqualTo(5); // 1 * 5 min (CAJA)
-            
-            assertThat(ticket2.getPositionInQueue()).isEqualTo(2);
-            assertThat(ticket2.getEstimatedWaitMinutes()).isEqualTo(10); // 2 * 5 min (CAJA)
-        }
-
-        @Test
-        @DisplayName("debe cambiar status a PROXIMO si posición ≤ 3")
-        void updateQueuePositions_debeCambiarAProximoSiPosicionMenorIgual3() {
-            // Given
-            Ticket ticket1 = ticketWaiting()
-                .queueType(QueueType.CAJA)
-                .status(TicketStatus.EN_ESPERA)
-                .build();
-            Ticket ticket2 = ticketWaiting()
-                .queueType(QueueType.CAJA)
-                .status(TicketStatus.EN_ESPERA)
-                .build();
-            Ticket ticket3 = ticketWaiting()
-                .queueType(QueueType.CAJA)
-                .status(TicketStatus.EN_ESPERA)
-                .build();
-
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.CAJA))
-                .thenReturn(List.of(ticket1, ticket2, ticket3));
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.PERSONAL_BANKER))
-                .thenReturn(Collections.emptyList());
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.EMPRESAS))
-                .thenReturn(Collections.emptyList());
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.GERENCIA))
-                .thenReturn(Collections.emptyList());
-
-            // When
-            queueMaintenanceScheduler.updateQueuePositions();
-
-            // Then
-            // Posiciones actualizadas: 1, 2, 3
-            assertThat(ticket1.getPositionInQueue()).isEqualTo(1);
-            assertThat(ticket1.getStatus()).isEqualTo(TicketStatus.PROXIMO);
-            
-            assertThat(ticket2.getPositionInQueue()).isEqualTo(2);
             assertThat(ticket2.getStatus()).isEqualTo(TicketStatus.PROXIMO);
-            
-            assertThat(ticket3.getPositionInQueue()).isEqualTo(3);
+            assertThat(ticket2.getPositionInQueue()).isEqualTo(2);
             assertThat(ticket3.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            assertThat(ticket3.getEstimatedWaitMinutes()).isEqualTo(15); // 3 * 5 min (CAJA)
 
-            verify(messageService, times(3)).scheduleProximoTurnoMessage(any());
+            verify(ticketRepository).saveAll(List.of(ticket2, ticket3));
+            verify(outboxService).ticketsPromoted(List.of(ticket2, ticket3));
+            verify(eventPublisher, times(2)).publishEvent(any(Object.class));
         }
 
         @Test
-        @DisplayName("sin tickets en espera → no debe hacer nada")
-        void updateQueuePositions_sinTickets_noDebeHacerNada() {
+        @DisplayName("cabeza ya en PROXIMO → no debe escribir")
+        void promoteQueueHeads_cabezaYaPromovida_noDebeEscribir() {
             // Given
-            when(ticketRepository.findWaitingTicketsByQueue(any()))
-                .thenReturn(Collections.emptyList());
+            when(ticketRepository.lockQueueHead(any(), any()))
+                .thenReturn(List.of(ticketWaiting().status(TicketStatus.PROXIMO).build()));
 
             // When
-            queueMaintenanceScheduler.updateQueuePositions();
+            queueMaintenanceScheduler.promoteQueueHeads();
 
             // Then
             verify(ticketRepository, never()).saveAll(any());
-            verify(messageService, never()).scheduleProximoTurnoMessage(any());
+            verifyNoInteractions(outboxService);
         }
     }
 
@@ -242,30 +197,55 @@ class QueueMaintenanceSchedulerTest {
     class LimpiezaDiaria {
 
         @Test
-        @DisplayName("debe ejecutar limpieza completa")
-        void dailyCleanup_debeEjecutarLimpiezaCompleta() {
+        @DisplayName("debe mantener las particiones y archivar las desacopladas sin recorrer los tickets")
+        void dailyCleanup_debeMantenerParticiones() {
+            // Given
+            when(partitioningProperties.enabled()).thenReturn(true);
+
+            // When
+            queueMaintenanceScheduler.dailyCleanup();
+
+            // Then
+            InOrder inOrder = inOrder(partitionMaintenance, coldArchiver);
+            inOrder.verify(partitionMaintenance).maintain(LocalDate.now());
+            inOrder.verify(coldArchiver).archiveDetachedPartitions();
+            verifyNoInteractions(ticketRepository);
+        }
+
+        @Test
+        @DisplayName("debe purgar los eventos del outbox ya consumidos y fuera de la retención")
+        void dailyCleanup_debePurgarOutbox() {
+            // Given
+            when(outboxProperties.retentionDays()).thenReturn(7);
+
+            // When
+            queueMaintenanceScheduler.dailyCleanup();
+
+            // Then
+            verify(outboxService).purgeConsumed(argThat(cutoff ->
+                cutoff.isBefore(LocalDateTime.now().minusDays(7).plusMinutes(1))
+                    && cutoff.isAfter(LocalDateTime.now().minusDays(7).minusMinutes(1))));
+        }
+
+        @Test
+        @DisplayName("particionamiento deshabilitado → no debe tocar las particiones")
+        void dailyCleanup_deshabilitado_noDebeMantenerParticiones() {
             // Given
-            List<Ticket> oldTickets = List.of(
-                ticketCompleted()
-                    .createdAt(LocalDateTime.now().minusDays(8))
-                    .build()
-            );
-            when(ticketRepository.findAll()).thenReturn(oldTickets);
+            when(partitioningProperties.enabled()).thenReturn(false);
 
             // When
             queueMaintenanceScheduler.dailyCleanup();
 
             // Then
-            verify(ticketRepository).findAll();
-            // En el código actual no se eliminan, solo se loggea
-            // verify(ticketRepository, never()).deleteAll(any());
+            verifyNoInteractions(partitionMaintenance, coldArchiver);
         }
 
         @Test
         @DisplayName("debe manejar errores sin fallar")
         void dailyCleanup_debeManejarerrores() {
             // Given
-            when(ticketRepository.findAll()).thenThrow(new RuntimeException("DB Error"));
+            when(partitioningProperties.enabled()).thenReturn(true);
+            doThrow(new RuntimeException("DB Error")).when(partitionMaintenance).maintain(any());
 
             // When + Then - No debe propagar la excepción
             assertThatCode(() -> queueMaintenanceScheduler.dailyCleanup())
@@ -278,14 +258,14 @@ class QueueMaintenanceSchedulerTest {
     class ManejoErrores {
 
         @Test
-        @DisplayName("updateQueuePositions debe manejar errores sin fallar")
-        void updateQueuePositions_debeManejarerrores() {
+        @DisplayName("promoteQueueHeads debe manejar errores sin fallar")
+        void promoteQueueHeads_debeManejarerrores() {
             // Given
-            when(ticketRepository.findWaitingTicketsByQueue(any()))
+            when(ticketRepository.lockQueueHead(any(), any()))
                 .thenThrow(new RuntimeException("DB Error"));
 
             // When + Then - No debe propagar la excepción
-            assertThatCode(() -> queueMaintenanceScheduler.updateQueuePositions())
+            assertThatCode(() -> queueMaintenanceScheduler.promoteQueueHeads())
                 .doesNotThrowAnyException();
         }
 
@@ -1,6 +1,6 @@
 package com.example.ticketero.scheduler;
 
-import com.example.ticketero.service.AssignmentService;
+import com.example.ticketero.service.AssignmentDispatcher;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -17,7 +17,7 @@ import static org.mockito.Mockito.*;
 class TicketAssignmentSchedulerTest {
 
     @Mock
-    private AssignmentService assignmentService;
+    private AssignmentDispatcher assignmentDispatcher;
 
     @InjectMocks
     private TicketAssignmentScheduler ticketAssignmentScheduler;
@@ -27,28 +27,28 @@ class TicketAssignmentSchedulerTest {
     class ProcesarAsignacionesTickets {
 
         @Test
-        @DisplayName("Debe procesar asignaciones de tickets exitosamente")
+        @DisplayName("Debe solicitar un ciclo de asignación al dispatcher")
         void processTicketAssignments_debeEjecutarExitosamente() {
             // When
             assertThatCode(() -> ticketAssignmentScheduler.processTicketAssignments())
                 .doesNotThrowAnyException();
 
             // Then
-            verify(assignmentService).processTicketAssignments();
+            verify(assignmentDispatcher).requestCycle();
         }
 
         @Test
         @DisplayName("Debe manejar errores al procesar asignaciones de tickets")
         void processTicketAssignments_debeManejarErrores() {
             // Given
-            doThrow(new RuntimeException("Assignment service error"))
-                .when(assignmentService).processTicketAssignments();
+            doThrow(new RuntimeException("Assignment dispatcher error"))
+                .when(assignmentDispatcher).requestCycle();
 
             // When & Then
             assertThatCode(() -> ticketAssignmentScheduler.processTicketAssignments())
                 .doesNotThrowAnyException();
 
-            verify(assignmentService).processTicketAssignments();
+            verify(assignmentDispatcher).requestCycle();
         }
 
         @Test
@@ -58,7 +58,7 @@ class TicketAssignmentSchedulerTest {
             doThrow(new RuntimeException("First error"))
                 .doThrow(new RuntimeException("Second error"))
                 .doNothing()
-                .when(assignmentService).processTicketAssignments();
+                .when(assignmentDispatcher).requestCycle();
 
             // When & Then - Primera ejecución con error
             assertThatCode(() -> ticketAssignmentScheduler.processTicketAssignments())
@@ -72,7 +72,7 @@ class TicketAssignmentSchedulerTest {
             assertThatCode(() -> ticketAssignmentScheduler.processTicketAssignments())
                 .doesNotThrowAnyException();
 
-            verify(assignmentService, times(3)).processTicketAssignments();
+            verify(assignmentDispatcher, times(3)).requestCycle();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.enums.QueueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AdvisorPool - Unit Tests")
+class AdvisorPoolTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 12, 0);
+
+    @Nested
+    @DisplayName("take()")
+    class Tomar {
+
+        @Test
+        @DisplayName("debe retornar el asesor de menor carga habilitado para la cola")
+        void take_debeRetornarMenorCarga() {
+            // Given
+            Advisor cargado = advisor(1L, 30, List.of(QueueType.CAJA));
+            Advisor libre = advisor(2L, 5, List.of(QueueType.CAJA));
+            Advisor otraCola = advisor(3L, 0, List.of(QueueType.GERENCIA));
+            AdvisorPool pool = AdvisorPool.of(List.of(cargado, libre, otraCola));
+
+            // When
+            Optional<Advisor> elegido = pool.take(QueueType.CAJA);
+
+            // Then
+            assertThat(elegido).containsSame(libre);
+            assertThat(pool.take(QueueType.CAJA)).containsSame(cargado);
+            assertThat(pool.take(QueueType.GERENCIA)).containsSame(otraCola);
+        }
+
+        @Test
+        @DisplayName("a igual carga → debe preferir al que lleva más tiempo sin asignación")
+        void take_empate_debePreferirMasAntiguo() {
+            // Given
+            Advisor reciente = advisor(1L, 10, List.of(QueueType.CAJA));
+            reciente.setLastAssignedAt(NOW.minusMinutes(1));
+            Advisor antiguo = advisor(2L, 10, List.of(QueueType.CAJA));
+            antiguo.setLastAssignedAt(NOW.minusMinutes(40));
+            Advisor nuevo = advisor(3L, 10, List.of(QueueType.CAJA));
+            nuevo.setLastAssignedAt(null);
+            AdvisorPool pool = AdvisorPool.of(List.of(reciente, antiguo, nuevo));
+
+            // When / Then
+            assertThat(pool.take(QueueType.CAJA)).containsSame(nuevo);
+            assertThat(pool.take(QueueType.CAJA)).containsSame(antiguo);
+            assertThat(pool.take(QueueType.CAJA)).containsSame(reciente);
+            assertThat(pool.take(QueueType.CAJA)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("asesor con varias colas → al tomarlo por una no debe quedar en las otras")
+        void take_multiCola_debeRetirarDeTodas() {
+            // Given
+            Advisor ana = advisor(1L, 0, List.of(QueueType.CAJA, QueueType.PERSONAL_BANKER));
+            AdvisorPool pool = AdvisorPool.of(List.of(ana));
+
+            // When
+            pool.take(QueueType.PERSONAL_BANKER);
+
+            // Then
+            assertThat(pool.take(QueueType.CAJA)).isEmpty();
+            assertThat(pool.isEmpty()).isTrue();
+        }
+
+        @Test
+        @DisplayName("asesor sin colas configuradas → no debe entrar al pool")
+        void add_sinColas_noDebeEntrar() {
+            // Given
+            Advisor sinColas = advisor(1L, 0, null);
+
+            // When
+            AdvisorPool pool = AdvisorPool.of(List.of(sinColas));
+
+            // Then
+            assertThat(pool.isEmpty()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Consistencia")
+    class Consistencia {
+
+        @Test
+        @DisplayName("debe elegir lo mismo que un recorrido lineal de la dotación")
+        void take_debeCoincidirConBusquedaLineal() {
+            // Given - 200 asesores con colas y cargas aleatorias
+            Random random = new Random(7);
+            List<Advisor> roster = new ArrayList<>();
+            for (long id = 1; id <= 200; id++) {
+                List<QueueType> skills = new ArrayList<>();
+                for (QueueType queueType : QueueType.values()) {
+                    if (random.nextInt(3) == 0) skills.add(queueType);
+                }
+                Advisor advisor = advisor(id, random.nextInt(60), skills);
+                advisor.setLastAssignedAt(NOW.minusMinutes(random.nextInt(120)));
+                roster.add(advisor);
+            }
+            AdvisorPool pool = AdvisorPool.of(roster);
+            List<Advisor> reference = new ArrayList<>(roster.stream().filter(a -> !a.getQueueTypes().isEmpty()).toList());
+            Comparator<Advisor> rn004 = Comparator.comparingInt(Advisor::getWorkloadMinutes)
+                .thenComparing(Advisor::getLastAssignedAt);
+
+            // When / Then
+            for (int i = 0; i < 300; i++) {
+                QueueType queueType = QueueType.values()[random.nextInt(QueueType.values().length)];
+                Optional<Advisor> expected = reference.stream()
+                    .filter(a -> a.getQueueTypes().contains(queueType))
+                    .min(rn004);
+                Optional<Advisor> actual = pool.take(queueType);
+
+                assertThat(actual.map(Advisor::getId)).isEqualTo(expected.map(Advisor::getId));
+                expected.ifPresent(reference::remove);
+            }
+        }
+    }
+
+    private static Advisor advisor(Long id, int workloadMinutes, List<QueueType> queueTypes) {
+        return advisorAvailable()
+            .id(id)
+            .workloadMinutes(workloadMinutes)
+            .queueTypes(queueTypes)
+            .lastAssignedAt(NOW.minusMinutes(10))
+            .build();
+    }
+}
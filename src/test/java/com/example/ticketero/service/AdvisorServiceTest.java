@@ -1,5 +1,6 @@
 package com.example.ticketero.service;
 
+import com.example.ticketero.event.AdvisorStatusChangedEvent;
 import com.example.ticketero.model.dto.request.AdvisorStatusRequest;
 import com.example.ticketero.model.dto.response.AdvisorResponse;
 import com.example.ticketero.model.dto.response.AdvisorStatsResponse;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +35,9 @@ class AdvisorServiceTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AdvisorService advisorService;
 
@@ -151,6 +156,10 @@ class AdvisorServiceTest {
             assertThat(advisor.getWorkloadMinutes()).isEqualTo(0);
             assertThat(advisor.getAssignedTicketsCount()).isEqualTo(0);
             assertThat(advisor.getStatus()).isEqualTo(AdvisorStatus.AVAILABLE);
+            verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof AdvisorStatusChangedEvent changed
+                    && changed.previousStatus() == AdvisorStatus.BUSY
+                    && changed.newStatus() == AdvisorStatus.AVAILABLE));
         }
 
         @Test
@@ -0,0 +1,151 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AssignmentDispatcher - Unit Tests")
+class AssignmentDispatcherTest {
+
+    @Mock
+    private AssignmentService assignmentService;
+
+    @Mock
+    private TicketeroMetrics ticketeroMetrics;
+
+    @InjectMocks
+    private AssignmentDispatcher assignmentDispatcher;
+
+    @AfterEach
+    void tearDown() {
+        assignmentDispatcher.shutdown();
+    }
+
+    @Nested
+    @DisplayName("Señales de asignación")
+    class Senales {
+
+        @Test
+        @DisplayName("ticket creado → debe ejecutar un ciclo de asignación")
+        void onTicketStatusChanged_ticketCreado_debeAsignar() {
+            // When
+            assignmentDispatcher.onTicketStatusChanged(ticketEvent(null, TicketStatus.EN_ESPERA));
+
+            // Then
+            verify(assignmentService, timeout(1000)).processTicketAssignments();
+        }
+
+        @Test
+        @DisplayName("asesor disponible → debe ejecutar un ciclo de asignación")
+        void onAdvisorStatusChanged_disponible_debeAsignar() {
+            // When
+            assignmentDispatcher.onAdvisorStatusChanged(advisorEvent(AdvisorStatus.BUSY, AdvisorStatus.AVAILABLE));
+
+            // Then
+            verify(assignmentService, timeout(1000)).processTicketAssignments();
+        }
+
+        @Test
+        @DisplayName("transiciones que no liberan capacidad → no debe asignar")
+        void eventosIrrelevantes_noDebenAsignar() throws Exception {
+            // When
+            assignmentDispatcher.onTicketStatusChanged(ticketEvent(TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO));
+            assignmentDispatcher.onAdvisorStatusChanged(advisorEvent(AdvisorStatus.AVAILABLE, AdvisorStatus.BUSY));
+
+            // Then
+            Thread.sleep(100);
+            verifyNoInteractions(assignmentService);
+        }
+    }
+
+    @Nested
+    @DisplayName("Single writer")
+    class SingleWriter {
+
+        @Test
+        @DisplayName("señales durante un ciclo → deben agruparse en un solo ciclo extra")
+        void requestCycle_duranteCiclo_debeAgrupar() throws Exception {
+            // Given - el primer ciclo queda bloqueado hasta liberar el latch
+            CountDownLatch enCiclo = new CountDownLatch(1);
+            CountDownLatch liberar = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                enCiclo.countDown();
+                liberar.await(1, TimeUnit.SECONDS);
+                return 0;
+            }).doReturn(0).when(assignmentService).processTicketAssignments();
+
+            // When
+            assignmentDispatcher.requestCycle();
+            assertThat(enCiclo.await(1, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 10; i++) {
+                assignmentDispatcher.requestCycle();
+            }
+            liberar.countDown();
+
+            // Then
+            verify(assignmentService, timeout(1000).times(2)).processTicketAssignments();
+            Thread.sleep(100);
+            verify(assignmentService, times(2)).processTicketAssignments();
+        }
+
+        @Test
+        @DisplayName("error en un ciclo → debe seguir atendiendo señales")
+        void requestCycle_conError_debeContinuar() {
+            // Given
+            doThrow(new RuntimeException("DB down"))
+                .doReturn(0)
+                .when(assignmentService).processTicketAssignments();
+
+            // When
+            assignmentDispatcher.requestCycle();
+            verify(assignmentService, timeout(1000)).processTicketAssignments();
+            assignmentDispatcher.requestCycle();
+
+            // Then
+            verify(assignmentService, timeout(1000).times(2)).processTicketAssignments();
+        }
+
+        @Test
+        @DisplayName("ciclo terminado → debe registrar su duración y los tickets asignados")
+        void requestCycle_debeRegistrarMetricas() {
+            // Given
+            when(assignmentService.processTicketAssignments()).thenReturn(3);
+
+            // When
+            assignmentDispatcher.requestCycle();
+
+            // Then
+            verify(ticketeroMetrics, timeout(1000)).assignmentCycle(eq(3), anyLong());
+        }
+    }
+
+    private static TicketStatusChangedEvent ticketEvent(TicketStatus previous, TicketStatus next) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TicketStatusChangedEvent(1L, "C01", "Sucursal Centro", QueueType.CAJA, previous, next, now, null, null, null, null, now);
+    }
+
+    private static AdvisorStatusChangedEvent advisorEvent(AdvisorStatus previous, AdvisorStatus next) {
+        return new AdvisorStatusChangedEvent(1L, "María López", List.of(QueueType.CAJA), previous, next, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.service.AssignmentPlanner.Assignment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AssignmentPlanner - Unit Tests")
+class AssignmentPlannerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 12, 0);
+
+    private final AssignmentPlanner planner = new AssignmentPlanner();
+
+    @Nested
+    @DisplayName("RN-002: prioridad de cola")
+    class PrioridadDeCola {
+
+        @Test
+        @DisplayName("debe atender GERENCIA antes que CAJA con un asesor compartido")
+        void plan_debeRespetarPrioridad() {
+            // Given
+            Advisor advisor = advisorAvailable().queueTypes(List.of(QueueType.CAJA, QueueType.GERENCIA)).build();
+            Ticket caja = ticket(1L, QueueType.CAJA, 10);
+            Ticket gerencia = ticket(2L, QueueType.GERENCIA, 5);
+
+            // When
+            List<Assignment> plan = planner.plan(List.of(advisor),
+                heads(Map.of(QueueType.CAJA, List.of(caja), QueueType.GERENCIA, List.of(gerencia))), NOW);
+
+            // Then
+            assertThat(plan).extracting(Assignment::ticket).containsExactly(gerencia);
+        }
+
+        @Test
+        @DisplayName("dentro de una cola debe respetar FIFO")
+        void plan_debeRespetarFifo() {
+            // Given
+            Advisor ana = advisorAvailable().id(1L).build();
+            Advisor beto = advisorAvailable().id(2L).build();
+            Ticket primero = ticket(1L, QueueType.CAJA, 20);
+            Ticket segundo = ticket(2L, QueueType.CAJA, 10);
+            Ticket tercero = ticket(3L, QueueType.CAJA, 5);
+
+            // When
+            List<Assignment> plan = planner.plan(List.of(ana, beto),
+                heads(Map.of(QueueType.CAJA, List.of(primero, segundo, tercero))), NOW);
+
+            // Then
+            assertThat(plan).extracting(Assignment::ticket).containsExactly(primero, segundo);
+            assertThat(plan).extracting(Assignment::advisor).containsExactlyInAnyOrder(ana, beto);
+        }
+
+        @Test
+        @DisplayName("cola sin asesor habilitado → no debe bloquear las demás colas")
+        void plan_colaSinAsesor_noDebeBloquear() {
+            // Given
+            Advisor cajero = advisorAvailable().queueTypes(List.of(QueueType.CAJA)).build();
+            Ticket gerencia = ticket(1L, QueueType.GERENCIA, 30);
+            Ticket caja = ticket(2L, QueueType.CAJA, 5);
+
+            // When
+            List<Assignment> plan = planner.plan(List.of(cajero),
+                heads(Map.of(QueueType.GERENCIA, List.of(gerencia), QueueType.CAJA, List.of(caja))), NOW);
+
+            // Then
+            assertThat(plan).containsExactly(new Assignment(caja, cajero, false));
+        }
+    }
+
+    @Nested
+    @DisplayName("RN-004: menor carga")
+    class MenorCarga {
+
+        @Test
+        @DisplayName("debe elegir el asesor con menor carga y, a igual carga, el que lleva más tiempo sin asignación")
+        void plan_debeElegirMenorCarga() {
+            // Given
+            Advisor cargado = advisorAvailable().id(1L).workloadMinutes(20).build();
+            Advisor reciente = advisorAvailable().id(2L).workloadMinutes(5).lastAssignedAt(NOW.minusMinutes(1)).build();
+            Advisor antiguo = advisorAvailable().id(3L).workloadMinutes(5).lastAssignedAt(NOW.minusMinutes(30)).build();
+            Ticket caja = ticket(1L, QueueType.CAJA, 5);
+
+            // When
+            List<Assignment> plan = planner.plan(List.of(cargado, reciente, antiguo),
+                heads(Map.of(QueueType.CAJA, List.of(caja))), NOW);
+
+            // Then
+            assertThat(plan).extracting(Assignment::advisor).containsExactly(antiguo);
+        }
+
+        @Test
+        @DisplayName("no debe considerar asesores que no están AVAILABLE")
+        void plan_debeIgnorarAsesoresOcupados() {
+            // Given
+            Advisor ocupado = advisorAvailable().status(AdvisorStatus.BUSY).build();
+            Ticket caja = ticket(1L, QueueType.CAJA, 5);
+
+            // When
+            List<Assignment> plan = planner.plan(List.of(ocupado), heads(Map.of(QueueType.CAJA, List.of(caja))), NOW);
+
+            // Then
+            assertThat(plan).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("RN-016: tickets críticos")
+    class TicketsCriticos {
+
+        @Test
+        @DisplayName("ticket que superó su tiempo máximo → debe asignarse antes que colas de mayor prioridad")
+        void plan_criticoPrimero() {
+            // Given
+            Advisor advisor = advisorAvailable().queueTypes(List.of(QueueType.CAJA, QueueType.GERENCIA)).build();
+            Ticket cajaCritico = ticket(1L, QueueType.CAJA, QueueType.CAJA.getMaxWaitTimeMinutes() + 1);
+            Ticket gerencia = ticket(2L, QueueType.GERENCIA, 10);
+
+            // When
+            List<Assignment> plan = planner.plan(List.of(advisor),
+                heads(Map.of(QueueType.CAJA, List.of(cajaCritico), QueueType.GERENCIA, List.of(gerencia))), NOW);
+
+            // Then
+            assertThat(plan).containsExactly(new Assignment(cajaCritico, advisor, true));
+        }
+
+        @Test
+        @DisplayName("críticos de varias colas → deben ordenarse por prioridad de cola")
+        void plan_criticosPorPrioridad() {
+            // Given
+            Advisor advisor = advisorAvailable().queueTypes(List.of(QueueType.CAJA, QueueType.EMPRESAS)).build();
+            Ticket cajaCritico = ticket(1L, QueueType.CAJA, 200);
+            Ticket empresasCritico = ticket(2L, QueueType.EMPRESAS, 80);
+
+            // When
+            List<Assignment> plan = planner.plan(List.of(advisor),
+                heads(Map.of(QueueType.CAJA, List.of(cajaCritico), QueueType.EMPRESAS, List.of(empresasCritico))), NOW);
+
+            // Then
+            assertThat(plan).containsExactly(new Assignment(empresasCritico, advisor, true));
+        }
+    }
+
+    private static Ticket ticket(Long id, QueueType queueType, int minutesWaiting) {
+        return ticketWaiting().id(id).queueType(queueType).createdAt(NOW.minusMinutes(minutesWaiting)).build();
+    }
+
+    private static Map<QueueType, List<Ticket>> heads(Map<QueueType, List<Ticket>> heads) {
+        return new EnumMap<>(heads);
+    }
+}
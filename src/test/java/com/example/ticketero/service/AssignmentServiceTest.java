@@ -1,5 +1,8 @@
 package com.example.ticketero.service;
 
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.exception.TicketNotFoundException;
+import com.example.ticketero.exception.TicketNotServingException;
 import com.example.ticketero.model.entity.*;
 import com.example.ticketero.model.enums.*;
 import com.example.ticketero.repository.*;
@@ -7,12 +10,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.LongStream;
 
 import static com.example.ticketero.testutil.TestDataBuilder.*;
 import static org.assertj.core.api.Assertions.*;
@@ -29,14 +38,17 @@ class AssignmentServiceTest {
     @Mock
     private AdvisorRepository advisorRepository;
 
+    @Spy
+    private AssignmentPlanner assignmentPlanner;
+
     @Mock
-    private QueueStatsRepository queueStatsRepository;
+    private OutboxService outboxService;
 
     @Mock
-    private MessageService messageService;
+    private QueuePositions queuePositions;
 
     @Mock
-    private AuditService auditService;
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private AssignmentService assignmentService;
@@ -49,7 +61,7 @@ class AssignmentServiceTest {
         @DisplayName("con ticket y advisor válidos → debe asignar correctamente")
         void asignarTicket_conDatosValidos_debeAsignarCorrectamente() {
             // Given
-            Ticket ticket = ticketWaiting().build();
+            Ticket ticket = ticketWaiting().queueSeq(7L).build();
             Advisor advisor = advisorAvailable().build();
 
             // When
@@ -60,42 +72,60 @@ class AssignmentServiceTest {
             assertThat(ticket.getAssignedAdvisor()).isEqualTo(advisor);
             assertThat(ticket.getAssignedModuleNumber()).isEqualTo(1);
             assertThat(ticket.getAssignedAt()).isNotNull();
-            assertThat(ticket.getPositionInQueue()).isEqualTo(0);
+            verify(queuePositions).markServed(argThat(served -> served.size() == 1 && served.contains(ticket)));
 
             assertThat(advisor.getStatus()).isEqualTo(AdvisorStatus.BUSY);
             assertThat(advisor.getAssignedTicketsCount()).isEqualTo(1);
             assertThat(advisor.getWorkloadMinutes()).isEqualTo(5);
 
-            verify(ticketRepository).save(ticket);
-            verify(advisorRepository).save(advisor);
-            verify(messageService).scheduleEsTuTurnoMessage(ticket);
+            verify(ticketRepository).saveAll(List.of(ticket));
+            verify(advisorRepository).saveAll(List.of(advisor));
+            verify(outboxService).ticketsAssigned(List.of(new AssignmentPlanner.Assignment(ticket, advisor, false)));
         }
 
         @Test
-        @DisplayName("debe actualizar posiciones de cola después de asignación")
-        void asignarTicket_debeActualizarPosicionesCola() {
+        @DisplayName("debe publicar la transición EN_ESPERA → ATENDIENDO")
+        void asignarTicket_debePublicarEvento() {
+            // Given
+            Ticket ticket = ticketWaiting().build();
+            Advisor advisor = advisorAvailable().build();
+
+            // When
+            assignmentService.assignTicketToAdvisor(ticket, advisor);
+
+            // Then
+            verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof TicketStatusChangedEvent changed
+                    && changed.previousStatus() == TicketStatus.EN_ESPERA
+                    && changed.newStatus() == TicketStatus.ATENDIENDO));
+        }
+
+        @Test
+        @DisplayName("no debe reescribir la posición de los que siguen esperando")
+        void asignarTicket_noDebeReescribirPosicionesCola() {
             // Given
             Ticket ticket = ticketWaiting().queueType(QueueType.CAJA).build();
             Advisor advisor = advisorAvailable().build();
             
-            List<Ticket> waitingTickets = List.of(
-                ticketWaiting().id(2L).positionInQueue(2).build(),
-                ticketWaiting().id(3L).positionInQueue(3).build()
-            );
+            Ticket segundo = ticketWaiting().id(2L).status(TicketStatus.PROXIMO).positionInQueue(2).build();
+            Ticket tercero = ticketWaiting().id(3L).status(TicketStatus.PROXIMO).positionInQueue(3).build();
+            Ticket cuarto = ticketWaiting().id(4L).status(TicketStatus.PROXIMO).positionInQueue(4).build();
+            Ticket quinto = ticketWaiting().id(5L).positionInQueue(5).build();
             
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.CAJA))
-                .thenReturn(waitingTickets);
+            when(ticketRepository.findQueueHead(eq(QueueType.CAJA), any(Pageable.class)))
+                .thenReturn(List.of(ticket, segundo, tercero, cuarto, quinto));
 
             // When
             assignmentService.assignTicketToAdvisor(ticket, advisor);
 
-            // Then
-            verify(ticketRepository).findWaitingTicketsByQueue(QueueType.CAJA);
-            verify(ticketRepository).saveAll(waitingTickets);
+            // Then - una sola lectura y solo el ticket asignado se escribe
+            verify(ticketRepository).findQueueHead(eq(QueueType.CAJA), any(Pageable.class));
+            verify(ticketRepository).saveAll(List.of(ticket));
+            verify(ticketRepository, never()).findWaitingTicketsByQueue(any());
+            verify(outboxService).ticketsPromoted(List.of());
             
-            // Verificar que las posiciones se actualizaron
-            assertThat(waitingTickets.get(0).getPositionInQueue()).isEqualTo(1);
-            assertThat(waitingTickets.get(1).getPositionInQueue()).isEqualTo(2);
+            assertThat(segundo.getPositionInQueue()).isEqualTo(2);
+            assertThat(quinto.getStatus()).isEqualTo(TicketStatus.EN_ESPERA);
         }
 
         @Test
@@ -106,7 +136,7 @@ class AssignmentServiceTest {
             Advisor advisor = advisorAvailable().build();
             
             Ticket ticketProximo = ticketWaiting().id(2L).positionInQueue(3).build();
-            when(ticketRepository.findWaitingTicketsByQueue(any()))
+            when(ticketRepository.findQueueHead(any(), any(Pageable.class)))
                 .thenReturn(List.of(ticketProximo));
 
             // When
@@ -114,7 +144,7 @@ class AssignmentServiceTest {
 
             // Then
             assertThat(ticketProximo.getStatus()).isEqualTo(TicketStatus.PROXIMO);
-            verify(messageService).scheduleProximoTurnoMessage(ticketProximo);
+            verify(outboxService).ticketsPromoted(List.of(ticketProximo));
         }
     }
 
@@ -154,10 +184,11 @@ class AssignmentServiceTest {
 
             verify(ticketRepository).save(ticket);
             verify(advisorRepository).save(advisor);
+            verify(outboxService).ticketCompleted(ticket);
         }
 
         @Test
-        @DisplayName("con ticket no en atención → debe lanzar IllegalStateException")
+        @DisplayName("con ticket no en atención → debe lanzar TicketNotServingException")
         void completarTicket_noEnAtencion_debeLanzarExcepcion() {
             // Given
             Ticket ticket = ticketWaiting().build();
@@ -165,8 +196,8 @@ class AssignmentServiceTest {
 
             // When + Then
             assertThatThrownBy(() -> assignmentService.completeTicket(1L))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("not being served");
+                .isInstanceOf(TicketNotServingException.class)
+                .hasMessageContaining("no está en atención");
 
             verify(ticketRepository, never()).save(any());
             verify(advisorRepository, never()).save(any());
@@ -184,6 +215,42 @@ class AssignmentServiceTest {
                 .hasMessageContaining("Ticket not found: 999");
         }
 
+        @Test
+        @DisplayName("por código de referencia → debe completar el ticket")
+        void completarTicket_porCodigoReferencia_debeCompletar() {
+            // Given
+            UUID codigoReferencia = UUID.randomUUID();
+            Advisor advisor = advisorBusy().assignedTicketsCount(1).build();
+            Ticket ticket = ticketInProgress()
+                .codigoReferencia(codigoReferencia)
+                .assignedAdvisor(advisor)
+                .assignedAt(LocalDateTime.now().minusMinutes(5))
+                .build();
+
+            when(ticketRepository.findByCodigoReferencia(codigoReferencia)).thenReturn(Optional.of(ticket));
+
+            // When
+            assignmentService.completeTicket(codigoReferencia);
+
+            // Then
+            assertThat(ticket.getStatus()).isEqualTo(TicketStatus.COMPLETADO);
+            assertThat(advisor.getStatus()).isEqualTo(AdvisorStatus.AVAILABLE);
+            verify(outboxService).ticketCompleted(ticket);
+        }
+
+        @Test
+        @DisplayName("código de referencia inexistente → debe lanzar TicketNotFoundException")
+        void completarTicket_codigoInexistente_debeLanzarExcepcion() {
+            // Given
+            UUID codigoReferencia = UUID.randomUUID();
+            when(ticketRepository.findByCodigoReferencia(codigoReferencia)).thenReturn(Optional.empty());
+
+            // When + Then
+            assertThatThrownBy(() -> assignmentService.completeTicket(codigoReferencia))
+                .isInstanceOf(TicketNotFoundException.class)
+                .hasMessageContaining(codigoReferencia.toString());
+        }
+
         @Test
         @DisplayName("debe calcular tiempo real de atención correctamente")
         void completarTicket_debeCalcularTiempoReal() {
@@ -221,31 +288,39 @@ class AssignmentServiceTest {
             assignmentService.processTicketAssignments();
 
             // Then
-            verify(queueStatsRepository, never()).findCriticalTicketsByTimeLimit(any(), any(), any(), any());
-            verify(ticketRepository, never()).findWaitingTicketsByQueue(any());
+            verify(ticketRepository, never()).findQueueHead(any(), any());
+            verifyNoInteractions(outboxService);
         }
 
         @Test
         @DisplayName("con tickets críticos → debe procesarlos primero")
         void procesarAsignaciones_conTicketsCriticos_debeProcesarPrimero() {
             // Given
-            Advisor advisor = advisorAvailable().build();
+            Advisor advisor = advisorAvailable()
+                .queueTypes(List.of(QueueType.GERENCIA, QueueType.CAJA))
+                .build();
             Ticket criticalTicket = ticketWaiting()
+                .queueType(QueueType.CAJA)
                 .createdAt(LocalDateTime.now().minusMinutes(50))
                 .build();
+            Ticket ticketGerencia = ticketWaiting().id(2L).queueType(QueueType.GERENCIA).build();
 
             when(advisorRepository.findByStatus(AdvisorStatus.AVAILABLE))
                 .thenReturn(List.of(advisor));
-            when(queueStatsRepository.findCriticalTicketsByTimeLimit(any(), any(), any(), any()))
+            when(ticketRepository.findQueueHead(eq(QueueType.CAJA), any(Pageable.class)))
                 .thenReturn(List.of(criticalTicket));
+            when(ticketRepository.findQueueHead(eq(QueueType.GERENCIA), any(Pageable.class)))
+                .thenReturn(List.of(ticketGerencia));
 
             // When
             assignmentService.processTicketAssignments();
 
-            // Then
-            verify(auditService).logTicketAssigned(criticalTicket, advisor);
+            // Then - el crítico de CAJA gana aunque GERENCIA tenga más prioridad
             assertThat(criticalTicket.getStatus()).isEqualTo(TicketStatus.ATENDIENDO);
             assertThat(criticalTicket.getAssignedAdvisor()).isEqualTo(advisor);
+            assertThat(ticketGerencia.getStatus()).isEqualTo(TicketStatus.PROXIMO);
+            verify(outboxService).ticketsAssigned(
+                List.of(new AssignmentPlanner.Assignment(criticalTicket, advisor, true)));
         }
 
         @Test
@@ -257,21 +332,13 @@ class AssignmentServiceTest {
                 .build();
             
             Ticket ticketCaja = ticketWaiting().queueType(QueueType.CAJA).build();
-            Ticket ticketGerencia = ticketWaiting().queueType(QueueType.GERENCIA).build();
+            Ticket ticketGerencia = ticketWaiting().id(2L).queueType(QueueType.GERENCIA).build();
 
             when(advisorRepository.findByStatus(AdvisorStatus.AVAILABLE))
                 .thenReturn(List.of(advisor));
-            when(queueStatsRepository.findCriticalTicketsByTimeLimit(any(), any(), any(), any()))
-                .thenReturn(Collections.emptyList());
-            
-            // Mock todas las colas en orden de prioridad
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.GERENCIA))
+            when(ticketRepository.findQueueHead(eq(QueueType.GERENCIA), any(Pageable.class)))
                 .thenReturn(List.of(ticketGerencia));
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.EMPRESAS))
-                .thenReturn(Collections.emptyList());
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.PERSONAL_BANKER))
-                .thenReturn(Collections.emptyList());
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.CAJA))
+            when(ticketRepository.findQueueHead(eq(QueueType.CAJA), any(Pageable.class)))
                 .thenReturn(List.of(ticketCaja));
 
             // When
@@ -280,7 +347,25 @@ class AssignmentServiceTest {
             // Then
             // GERENCIA debe procesarse antes que CAJA
             assertThat(ticketGerencia.getStatus()).isEqualTo(TicketStatus.ATENDIENDO);
-            assertThat(ticketCaja.getStatus()).isEqualTo(TicketStatus.EN_ESPERA); // No asignado porque advisor ya ocupado
+            assertThat(ticketCaja.getStatus()).isIn(TicketStatus.EN_ESPERA, TicketStatus.PROXIMO); // No asignado porque advisor ya ocupado
+            assertThat(ticketCaja.getAssignedAdvisor()).isNull();
+        }
+
+        @Test
+        @DisplayName("sólo debe leer las colas que atienden los advisors disponibles")
+        void procesarAsignaciones_debeLeerSoloColasAtendidas() {
+            // Given
+            when(advisorRepository.findByStatus(AdvisorStatus.AVAILABLE))
+                .thenReturn(List.of(advisorAvailable().queueTypes(List.of(QueueType.CAJA)).build()));
+            when(ticketRepository.findQueueHead(eq(QueueType.CAJA), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+            // When
+            assignmentService.processTicketAssignments();
+
+            // Then
+            verify(ticketRepository).findQueueHead(eq(QueueType.CAJA), argThat(page -> page.getPageSize() == 4));
+            verify(ticketRepository, times(1)).findQueueHead(any(), any());
         }
     }
 
@@ -308,17 +393,7 @@ class AssignmentServiceTest {
 
             when(advisorRepository.findByStatus(AdvisorStatus.AVAILABLE))
                 .thenReturn(List.of(advisor1, advisor2));
-            when(queueStatsRepository.findCriticalTicketsByTimeLimit(any(), any(), any(), any()))
-                .thenReturn(Collections.emptyList());
-            
-            // Mock todas las colas
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.GERENCIA))
-                .thenReturn(Collections.emptyList());
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.EMPRESAS))
-                .thenReturn(Collections.emptyList());
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.PERSONAL_BANKER))
-                .thenReturn(Collections.emptyList());
-            when(ticketRepository.findWaitingTicketsByQueue(QueueType.CAJA))
+            when(ticketRepository.findQueueHead(eq(QueueType.CAJA), any(Pageable.class)))
                 .thenReturn(List.of(ticket));
 
             // When
@@ -328,4 +403,41 @@ class AssignmentServiceTest {
             assertThat(ticket.getAssignedAdvisor().getId()).isEqualTo(2L);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Costo por ciclo")
+    class CostoPorCiclo {
+
+        @ParameterizedTest(name = "cola de {0} tickets")
+        @ValueSource(ints = {10, 100, 1_000, 10_000})
+        @DisplayName("la cantidad de consultas no debe depender del largo de la cola")
+        void procesarAsignaciones_consultasConstantes(int queueLength) {
+            // Given - 3 asesores, cuatro colas con queueLength tickets cada una
+            List<Advisor> advisors = List.of(
+                advisorAvailable().id(1L).queueTypes(List.of(QueueType.CAJA, QueueType.PERSONAL_BANKER)).build(),
+                advisorAvailable().id(2L).queueTypes(List.of(QueueType.CAJA)).build(),
+                advisorAvailable().id(3L).queueTypes(List.of(QueueType.EMPRESAS, QueueType.GERENCIA)).build()
+            );
+            when(advisorRepository.findByStatus(AdvisorStatus.AVAILABLE)).thenReturn(advisors);
+            when(ticketRepository.findQueueHead(any(), any(Pageable.class))).thenAnswer(invocation -> {
+                QueueType queueType = invocation.getArgument(0);
+                Pageable page = invocation.getArgument(1);
+                LocalDateTime base = LocalDateTime.now().minusMinutes(10);
+                // El repositorio respeta el límite de la página, igual que el LIMIT en la BD
+                return LongStream.range(0, Math.min(queueLength, page.getPageSize()))
+                    .mapToObj(i -> ticketWaiting().id(i).queueType(queueType).createdAt(base.plusSeconds(i)).build())
+                    .toList();
+            });
+
+            // When
+            assignmentService.processTicketAssignments();
+
+            // Then - 1 lectura de asesores + 4 cabezas de cola + escrituras por lote (y 2 al outbox)
+            assertThat(mockingDetails(advisorRepository).getInvocations()).hasSize(2);
+            assertThat(mockingDetails(ticketRepository).getInvocations()).hasSize(5);
+            assertThat(mockingDetails(outboxService).getInvocations()).hasSize(2);
+            assertThat(mockingDetails(queuePositions).getInvocations()).hasSize(1);
+            verify(ticketRepository, times(4)).findQueueHead(any(), argThat(page -> page.getPageSize() == 6));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.AuditLog;
+import com.example.ticketero.model.entity.OutboxEvent;
+import com.example.ticketero.model.enums.OutboxEventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditProjector - Unit Tests")
+class AuditProjectorTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 15, 9, 0);
+    private static final LocalDateTime ASSIGNED = LocalDateTime.of(2024, 1, 15, 9, 12);
+
+    @Mock
+    private AuditWriter auditWriter;
+
+    @InjectMocks
+    private AuditProjector auditProjector;
+
+    @Nested
+    @DisplayName("consume()")
+    class Consumir {
+
+        @Test
+        @DisplayName("ticket creado → debe auditar con el cliente como actor y la hora del evento")
+        void consume_ticketCreado_debeCrearLogAuditoria() {
+            // Given
+            OutboxEvent event = OutboxEvent.builder()
+                .createdAt(CREATED)
+                .eventType(OutboxEventType.TICKET_CREADO)
+                .payload(Map.of(
+                    "numero", "C01",
+                    "queueType", "CAJA",
+                    "nationalId", "12345678",
+                    "status", "EN_ESPERA",
+                    "positionInQueue", 3,
+                    "estimatedWaitMinutes", 15,
+                    "branchOffice", "Sucursal Centro"))
+                .build();
+
+            // When
+            auditProjector.consume(List.of(event));
+
+            // Then
+            AuditLog auditLog = captureSingle();
+            assertThat(auditLog.getTimestamp()).isEqualTo(CREATED);
+            assertThat(auditLog.getEventType()).isEqualTo("TICKET_CREADO");
+            assertThat(auditLog.getActor()).isEqualTo("cliente:12345678");
+            assertThat(auditLog.getEntityId()).isEqualTo("C01");
+            assertThat(auditLog.getPreviousState()).isNull();
+            assertThat(auditLog.getNewState())
+                .containsEntry("status", "EN_ESPERA")
+                .containsEntry("queueType", "CAJA")
+                .containsEntry("positionInQueue", 3L);
+            assertThat(auditLog.getAdditionalData()).containsKeys("branchOffice", "estimatedWaitMinutes");
+        }
+
+        @Test
+        @DisplayName("ticket asignado → debe auditar sin asesor previo y con la hora de asignación")
+        void consume_ticketAsignado_debeCrearLogAuditoria() {
+            // Given
+            OutboxEvent event = OutboxEvent.builder()
+                .createdAt(ASSIGNED.plusSeconds(1))
+                .eventType(OutboxEventType.TICKET_ASIGNADO)
+                .payload(Map.of(
+                    "numero", "C01",
+                    "queueType", "CAJA",
+                    "assignedAt", ASSIGNED.toString(),
+                    "advisorId", 1,
+                    "advisorName", "Ana Silva",
+                    "moduleNumber", 2,
+                    "critical", true,
+                    "branchOffice", "Sucursal Centro"))
+                .build();
+
+            // When
+            auditProjector.consume(List.of(event));
+
+            // Then
+            AuditLog auditLog = captureSingle();
+            assertThat(auditLog.getTimestamp()).isEqualTo(ASSIGNED);
+            assertThat(auditLog.getEventType()).isEqualTo("TICKET_ASIGNADO");
+            assertThat(auditLog.getPreviousState())
+                .containsEntry("status", "EN_ESPERA")
+                .containsEntry("assignedAdvisor", null);
+            assertThat(auditLog.getNewState()).containsEntry("assignedAdvisor", "Ana Silva");
+            assertThat(auditLog.getAdditionalData())
+                .containsEntry("assignmentReason", "CRITICAL")
+                .containsEntry("branchOffice", "Sucursal Centro");
+        }
+    }
+
+    private AuditLog captureSingle() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AuditLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(auditWriter).writeInTransaction(captor.capture());
+        assertThat(captor.getValue()).hasSize(1);
+        return captor.getValue().get(0);
+    }
+}
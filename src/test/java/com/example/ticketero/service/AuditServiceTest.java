@@ -3,9 +3,7 @@ package com.example.ticketero.service;
 import com.example.ticketero.model.dto.response.AuditEventResponse;
 import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.entity.AuditLog;
-import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.AdvisorStatus;
-import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.repository.AuditLogRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,13 +14,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 import static com.example.ticketero.testutil.TestDataBuilder.*;
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,68 +30,14 @@ class AuditServiceTest {
     @Mock
     private AuditLogRepository auditLogRepository;
 
-    @InjectMocks
-    private AuditService auditService;
-
-    @Nested
-    @DisplayName("logTicketCreated()")
-    class LogTicketCreated {
-
-        @Test
-        @DisplayName("debe crear log de auditoría para ticket creado")
-        void logTicketCreated_debeCrearLogAuditoria() {
-            // Given
-            Ticket ticket = ticketWaiting()
-                .numero("C01")
-                .branchOffice("Sucursal Centro")
-                .positionInQueue(3)
-                .estimatedWaitMinutes(15)
-                .build();
-            String nationalId = "12345678";
-
-            // When
-            auditService.logTicketCreated(ticket, nationalId);
-
-            // Then
-            ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-            verify(auditLogRepository).save(captor.capture());
-
-            AuditLog auditLog = captor.getValue();
-            assertThat(auditLog.getEventType()).isEqualTo("TICKET_CREADO");
-            assertThat(auditLog.getActor()).isEqualTo("cliente:12345678");
-            assertThat(auditLog.getEntityType()).isEqualTo("TICKET");
-            assertThat(auditLog.getEntityId()).isEqualTo("C01");
-            assertThat(auditLog.getPreviousState()).isNull();
-            assertThat(auditLog.getNewState()).containsKeys("status", "queueType", "positionInQueue");
-            assertThat(auditLog.getAdditionalData()).containsKeys("branchOffice", "estimatedWaitMinutes");
-        }
-
-        @Test
-        @DisplayName("debe incluir información correcta en newState")
-        void logTicketCreated_debeIncluirInfoCorrecta() {
-            // Given
-            Ticket ticket = ticketWaiting()
-                .numero("P05")
-                .positionInQueue(1)
-                .build();
-
-            // When
-            auditService.logTicketCreated(ticket, "87654321");
-
-            // Then
-            ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-            verify(auditLogRepository).save(captor.capture());
+    @Mock
+    private AuditWriter auditWriter;
 
-            AuditLog auditLog = captor.getValue();
-            Map<String, Object> newState = auditLog.getNewState();
-            assertThat(newState.get("status")).isEqualTo("EN_ESPERA");
-            assertThat(newState.get("queueType")).isEqualTo("CAJA");
-            assertThat(newState.get("positionInQueue")).isEqualTo(1);
-        }
-    }
+    @Mock
+    private ColdArchiver coldArchiver;
 
-    // Nota: El método logTicketAssigned tiene un bug con Map.of() y valores null
-    // Se omite el test hasta que se corrija el service
+    @InjectMocks
+    private AuditService auditService;
 
     @Nested
     @DisplayName("logAdvisorStatusChanged()")
@@ -118,7 +62,7 @@ class AuditServiceTest {
 
             // Then
             ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-            verify(auditLogRepository).save(captor.capture());
+            verify(auditWriter).write(captor.capture());
 
             AuditLog auditLog = captor.getValue();
             assertThat(auditLog.getEventType()).isEqualTo("ASESOR_STATUS_CHANGED");
@@ -142,7 +86,7 @@ class AuditServiceTest {
 
             // Then
             ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-            verify(auditLogRepository).save(captor.capture());
+            verify(auditWriter).write(captor.capture());
 
             AuditLog auditLog = captor.getValue();
             assertThat(auditLog.getAdditionalData()).containsEntry("reason", "Manual change");
@@ -162,7 +106,7 @@ class AuditServiceTest {
 
             // Then
             ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-            verify(auditLogRepository).save(captor.capture());
+            verify(auditWriter).write(captor.capture());
 
             AuditLog auditLog = captor.getValue();
             assertThat(auditLog.getPreviousState()).containsEntry("workloadMinutes", 25);
@@ -210,7 +154,7 @@ class AuditServiceTest {
                 .thenReturn(auditLogs);
 
             // When
-            AuditEventResponse response = auditService.getAuditTrail(entityType, entityId);
+            AuditEventResponse response = auditService.getAuditTrail(entityType, entityId, null, null);
 
             // Then
             assertThat(response.entityType()).isEqualTo("TICKET");
@@ -222,6 +166,7 @@ class AuditServiceTest {
             assertThat(firstEvent.id()).isEqualTo(1L);
             assertThat(firstEvent.eventType()).isEqualTo("TICKET_CREADO");
             assertThat(firstEvent.actor()).isEqualTo("cliente:12345678");
+            verifyNoInteractions(coldArchiver);
         }
 
         @Test
@@ -232,13 +177,51 @@ class AuditServiceTest {
                 .thenReturn(List.of());
 
             // When
-            AuditEventResponse response = auditService.getAuditTrail("ADVISOR", "999");
+            AuditEventResponse response = auditService.getAuditTrail("ADVISOR", "999", null, null);
 
             // Then
             assertThat(response.entityType()).isEqualTo("ADVISOR");
             assertThat(response.entityId()).isEqualTo("999");
             assertThat(response.events()).isEmpty();
             assertThat(response.totalEvents()).isEqualTo(0);
+            verifyNoInteractions(coldArchiver);
+        }
+
+        @Test
+        @DisplayName("entidad ya archivada → debe retornar los eventos del archivo frío de ese día")
+        void getAuditTrail_entidadArchivada_debeLeerArchivo() {
+            // Given
+            LocalDate day = LocalDate.of(2024, 1, 2);
+            AuditEventResponse.AuditEvent archived = new AuditEventResponse.AuditEvent(
+                7L, LocalDateTime.of(2024, 1, 2, 9, 30), "TICKET_CREADO", "cliente:12345678",
+                null, Map.of("status", "EN_ESPERA"), Map.of());
+            when(auditLogRepository.findAuditTrailForEntity("TICKET", "C07")).thenReturn(List.of());
+            when(coldArchiver.findAuditTrail("TICKET", "C07", day, "Centro")).thenReturn(List.of(archived));
+
+            // When
+            AuditEventResponse response = auditService.getAuditTrail("TICKET", "C07", day, "Centro");
+
+            // Then
+            assertThat(response.events()).containsExactly(archived);
+            assertThat(response.totalEvents()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("número repetido en otra sucursal u otro día → debe retornar solo el del día y sucursal")
+        void getAuditTrail_conDiaYSucursal_debeAcotarTicket() {
+            // Given
+            LocalDate day = LocalDate.of(2024, 1, 15);
+            when(auditLogRepository.findAuditTrailForEntity("TICKET", "C01")).thenReturn(List.of(
+                ticketEvent(1L, day.atTime(9, 0), "Centro"),
+                ticketEvent(2L, day.atTime(9, 5), "Norte"),
+                ticketEvent(3L, day.minusDays(1).atTime(9, 0), "Centro")));
+
+            // When
+            AuditEventResponse response = auditService.getAuditTrail("TICKET", "C01", day, "Centro");
+
+            // Then
+            assertThat(response.events()).extracting(AuditEventResponse.AuditEvent::id).containsExactly(1L);
+            verifyNoInteractions(coldArchiver);
         }
 
         @Test
@@ -260,7 +243,7 @@ class AuditServiceTest {
                 .thenReturn(List.of(auditLog));
 
             // When
-            AuditEventResponse response = auditService.getAuditTrail("TEST", "123");
+            AuditEventResponse response = auditService.getAuditTrail("TEST", "123", null, null);
 
             // Then
             AuditEventResponse.AuditEvent event = response.events().get(0);
@@ -273,4 +256,16 @@ class AuditServiceTest {
             assertThat(event.additionalData()).containsEntry("extra", "data");
         }
     }
-}
\ No newline at end of file
+
+    private static AuditLog ticketEvent(Long id, LocalDateTime timestamp, String branchOffice) {
+        return AuditLog.builder()
+            .id(id)
+            .timestamp(timestamp)
+            .eventType("TICKET_CREADO")
+            .actor("cliente:12345678")
+            .entityType("TICKET")
+            .entityId("C01")
+            .additionalData(Map.of("branchOffice", branchOffice))
+            .build();
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.AuditProperties;
+import com.example.ticketero.model.entity.AuditLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditWriter - Unit Tests")
+class AuditWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AuditWriter auditWriter;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (auditWriter != null) {
+            auditWriter.shutdown();
+        }
+    }
+
+    @Nested
+    @DisplayName("write()")
+    class Escribir {
+
+        @Test
+        @DisplayName("evento de cumplimiento → debe guardarse en la transacción del llamador")
+        void write_eventoSincrono_debeGuardarEnRepositorio() {
+            // Given
+            auditWriter = writer(true, 10, 10);
+            AuditLog auditLog = event("ASESOR_STATUS_CHANGED", "1");
+
+            // When
+            auditWriter.write(auditLog);
+
+            // Then
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            verify(jdbcTemplate).update(startsWith("INSERT INTO audit_log"), args.capture());
+            assertThat(args.getValue()).hasSize(10).contains("ASESOR_STATUS_CHANGED");
+            assertThat(auditWriter.flush()).isZero();
+            assertThat(meterRegistry.get("ticketero.audit.events").tag("mode", "sync").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("async deshabilitado → todos los eventos deben guardarse en la transacción")
+        void write_asyncDeshabilitado_debeGuardarTodo() {
+            // Given
+            auditWriter = writer(false, 10, 10);
+            List<AuditLog> auditLogs = List.of(event("TICKET_CREADO", "C01"), event("TICKET_ASIGNADO", "C01"));
+
+            // When
+            auditWriter.writeAll(auditLogs);
+
+            // Then
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            verify(jdbcTemplate).update(anyString(), args.capture());
+            assertThat(args.getValue()).hasSize(20).contains("C01", "TICKET_ASIGNADO");
+            assertThat(auditWriter.flush()).isZero();
+        }
+
+        @Test
+        @DisplayName("evento asíncrono → debe escribirse en un INSERT multi-fila al vaciar el buffer")
+        void write_eventoAsincrono_debeEscribirEnLote() {
+            // Given
+            auditWriter = writer(true, 10, 10);
+            auditWriter.writeAll(List.of(event("TICKET_CREADO", "C01"), event("TICKET_CREADO", "C02")));
+            verifyNoInteractions(jdbcTemplate);
+
+            // When
+            int written = auditWriter.flush();
+
+            // Then
+            assertThat(written).isEqualTo(2);
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            verify(jdbcTemplate).update(sql.capture(), args.capture());
+            assertThat(sql.getValue()).startsWith("INSERT INTO audit_log").containsOnlyOnce("), (");
+            assertThat(args.getValue()).hasSize(20).contains("C01", "C02", "{\"status\":\"EN_ESPERA\"}");
+        }
+
+        @Test
+        @DisplayName("más eventos que el tamaño de lote → debe partirlos en varios INSERT")
+        void write_masQueUnLote_debePartir() {
+            // Given
+            auditWriter = writer(true, 10, 2);
+            auditWriter.writeAll(List.of(
+                event("TICKET_CREADO", "C01"), event("TICKET_CREADO", "C02"), event("TICKET_CREADO", "C03")));
+
+            // When
+            int written = auditWriter.flush();
+
+            // Then
+            assertThat(written).isEqualTo(3);
+            verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("dentro de una transacción → debe encolar solo al confirmarse")
+        void write_enTransaccion_debeEncolarAlConfirmar() {
+            // Given
+            auditWriter = writer(true, 10, 10);
+            TransactionSynchronizationManager.initSynchronization();
+            auditWriter.write(event("TICKET_CREADO", "C01"));
+            assertThat(auditWriter.flush()).isZero();
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Then
+            assertThat(auditWriter.flush()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("buffer lleno → el excedente debe quedar para el escritor, sin escribir en el llamador")
+        void write_bufferLleno_debePasarExcedenteAlEscritor() {
+            // Given
+            auditWriter = writer(true, 1, 10);
+
+            // When
+            auditWriter.writeAll(List.of(event("TICKET_CREADO", "C01"), event("TICKET_CREADO", "C02")));
+
+            // Then
+            verifyNoInteractions(jdbcTemplate);
+            assertThat(meterRegistry.get("ticketero.audit.events").tag("mode", "overflow").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("ticketero.audit.buffer.size").gauge().value()).isEqualTo(1);
+            assertThat(meterRegistry.get("ticketero.audit.overflow.size").gauge().value()).isEqualTo(1);
+
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            assertThat(auditWriter.flush()).isEqualTo(2);
+            verify(jdbcTemplate).update(anyString(), args.capture());
+            assertThat(args.getValue()).hasSize(20).contains("C01", "C02");
+        }
+
+        @Test
+        @DisplayName("evento sin hora → debe llevar la hora en que se registró, no la de la escritura")
+        void write_sinTimestamp_debeSellarAlRegistrar() {
+            // Given
+            auditWriter = writer(true, 10, 10);
+            AuditLog auditLog = event("TICKET_CREADO", "C01");
+            auditLog.setTimestamp(null);
+
+            // When
+            LocalDateTime before = LocalDateTime.now();
+            auditWriter.write(auditLog);
+
+            // Then
+            assertThat(auditLog.getTimestamp()).isNotNull().isAfterOrEqualTo(before);
+        }
+
+        @Test
+        @DisplayName("error de BD al vaciar → debe reintentar el lote en vez de descartarlo")
+        void flush_errorDeBd_debeReintentar() {
+            // Given
+            auditWriter = writer(true, 10, 10);
+            when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(1);
+            auditWriter.write(event("TICKET_CREADO", "C01"));
+
+            // When
+            int written = auditWriter.flush();
+
+            // Then
+            assertThat(written).isEqualTo(1);
+            verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        }
+    }
+
+    @Nested
+    @DisplayName("writeInTransaction()")
+    class EscribirEnTransaccion {
+
+        @Test
+        @DisplayName("eventos del outbox → deben escribirse ya, sin pasar por el buffer")
+        void writeInTransaction_debeEscribirEnElLlamador() {
+            // Given
+            auditWriter = writer(true, 10, 10);
+
+            // When
+            auditWriter.writeInTransaction(List.of(event("TICKET_CREADO", "C01"), event("TICKET_ASIGNADO", "C01")));
+
+            // Then
+            verify(jdbcTemplate).update(startsWith("INSERT INTO audit_log"), any(Object[].class));
+            assertThat(auditWriter.flush()).isZero();
+            assertThat(meterRegistry.get("ticketero.audit.events").tag("mode", "outbox").counter().count()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Hilo escritor")
+    class HiloEscritor {
+
+        @Test
+        @DisplayName("error de BD → debe reintentar el lote hasta escribirlo")
+        void escritor_errorDeBd_debeReintentar() {
+            // Given
+            auditWriter = writer(true, 10, 10);
+            when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(1);
+            auditWriter.start();
+
+            // When
+            auditWriter.write(event("TICKET_CREADO", "C01"));
+
+            // Then
+            verify(jdbcTemplate, timeout(2000).times(2)).update(anyString(), any(Object[].class));
+            assertThat(meterRegistry.get("ticketero.audit.write.errors").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("buffer lleno → el escritor debe vaciar también el excedente")
+        void escritor_bufferLleno_debeEscribirExcedente() {
+            // Given
+            auditWriter = writer(true, 1, 10);
+            auditWriter.writeAll(List.of(
+                event("TICKET_CREADO", "C01"), event("TICKET_CREADO", "C02"), event("TICKET_CREADO", "C03")));
+
+            // When
+            auditWriter.start();
+
+            // Then
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            verify(jdbcTemplate, timeout(2000).atLeastOnce()).update(anyString(), args.capture());
+            assertThat(args.getAllValues().stream().mapToInt(values -> values.length).sum()).isEqualTo(30);
+        }
+    }
+
+    private AuditWriter writer(boolean async, int bufferSize, int batchSize) {
+        AuditProperties properties = new AuditProperties(
+            async, Set.of("ASESOR_STATUS_CHANGED"), bufferSize, batchSize, Duration.ofMillis(10));
+        return new AuditWriter(jdbcTemplate, new ObjectMapper(), properties, meterRegistry);
+    }
+
+    private static AuditLog event(String eventType, String entityId) {
+        return AuditLog.builder()
+            .timestamp(LocalDateTime.of(2024, 1, 15, 9, 0))
+            .eventType(eventType)
+            .actor("cliente:12345678")
+            .entityType("TICKET")
+            .entityId(entityId)
+            .newState(Map.of("status", "EN_ESPERA"))
+            .build();
+    }
+}
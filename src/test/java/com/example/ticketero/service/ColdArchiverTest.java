@@ -0,0 +1,196 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.ArchiveProperties;
+import com.example.ticketero.model.dto.response.AuditEventResponse.AuditEvent;
+import com.example.ticketero.service.ColdArchiver.ArchivedRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ColdArchiver - Unit Tests")
+class ColdArchiverTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    private ColdArchiver coldArchiver;
+
+    @BeforeEach
+    void setUp() {
+        coldArchiver = new ColdArchiver(jdbcTemplate, new ObjectMapper(), new ArchiveProperties(directory, 2));
+    }
+
+    @Nested
+    @DisplayName("archiveDetachedPartitions()")
+    class ArchivarParticiones {
+
+        @Test
+        @DisplayName("debe volcar la partición por trozos a un segmento gzip y eliminarla")
+        @SuppressWarnings("unchecked")
+        void archiveDetachedPartitions_debeVolcarYEliminar() throws IOException {
+            // Given
+            givenDetached("ticket_p20240115");
+            when(jdbcTemplate.query(contains("archive.\"ticket_p20240115\""), any(RowMapper.class), anyLong(), eq(2)))
+                .thenAnswer(invocation -> switch (((Long) invocation.getArgument(2)).intValue()) {
+                    case 0 -> rows(1L, 2L);
+                    case 2 -> rows(3L);
+                    default -> List.of();
+                });
+
+            // When
+            int archived = coldArchiver.archiveDetachedPartitions();
+
+            // Then
+            assertThat(archived).isEqualTo(1);
+            assertThat(readSegment(directory.resolve("ticket/2024-01-15.ndjson.gz")))
+                .containsExactly("{\"id\":1}", "{\"id\":2}", "{\"id\":3}");
+            verify(jdbcTemplate).execute("DROP TABLE archive.\"ticket_p20240115\"");
+        }
+
+        @Test
+        @DisplayName("error al leer la partición → no debe eliminarla ni dejar segmento")
+        @SuppressWarnings("unchecked")
+        void archiveDetachedPartitions_errorAlLeer_noDebeEliminar() {
+            // Given
+            givenDetached("mensaje_p20240115");
+            when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyLong(), anyInt()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+            // When
+            int archived = coldArchiver.archiveDetachedPartitions();
+
+            // Then
+            assertThat(archived).isZero();
+            assertThat(directory.resolve("mensaje")).isEmptyDirectory();
+            verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+        }
+
+        @Test
+        @DisplayName("tablas ajenas al particionamiento en el schema archive → no debe tocarlas")
+        void archiveDetachedPartitions_tablaAjena_debeIgnorar() {
+            // Given
+            givenDetached("reporte_manual");
+
+            // When
+            int archived = coldArchiver.archiveDetachedPartitions();
+
+            // Then
+            assertThat(archived).isZero();
+            verify(jdbcTemplate, never()).execute(anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("findAuditTrail()")
+    class BuscarEnArchivo {
+
+        @Test
+        @DisplayName("debe leer solo el segmento del día pedido")
+        void findAuditTrail_debeLeerSoloElDia() throws IOException {
+            // Given
+            writeSegment("audit_log/2024-01-14.ndjson.gz",
+                auditRow(1, "2024-01-14T10:00:00", "TICKET_CREADO", "C01", "Centro"));
+            writeSegment("audit_log/2024-01-15.ndjson.gz",
+                auditRow(7, "2024-01-15T09:00:00", "TICKET_CREADO", "C01", "Centro"),
+                auditRow(8, "2024-01-15T09:01:00", "TICKET_CREADO", "C02", "Centro"),
+                auditRow(9, "2024-01-15T09:05:00", "TICKET_ASIGNADO", "C01", "Centro"));
+
+            // When
+            List<AuditEvent> events = coldArchiver.findAuditTrail("TICKET", "C01", LocalDate.of(2024, 1, 15), null);
+
+            // Then
+            assertThat(events).extracting(AuditEvent::id).containsExactly(9L, 7L);
+            AuditEvent created = events.get(1);
+            assertThat(created.timestamp()).isEqualTo(LocalDateTime.of(2024, 1, 15, 9, 0));
+            assertThat(created.actor()).isEqualTo("cliente:12345678");
+            assertThat(created.previousState()).isNull();
+            assertThat(created.newState()).containsEntry("status", "EN_ESPERA");
+        }
+
+        @Test
+        @DisplayName("con sucursal → no debe mezclar el mismo número de otra sucursal")
+        void findAuditTrail_conSucursal_debeFiltrar() throws IOException {
+            // Given
+            writeSegment("audit_log/2024-01-15.ndjson.gz",
+                auditRow(7, "2024-01-15T09:00:00", "TICKET_CREADO", "C01", "Centro"),
+                auditRow(8, "2024-01-15T09:02:00", "TICKET_CREADO", "C01", "Norte"));
+
+            // When
+            List<AuditEvent> events = coldArchiver.findAuditTrail("TICKET", "C01", LocalDate.of(2024, 1, 15), "Norte");
+
+            // Then
+            assertThat(events).extracting(AuditEvent::id).containsExactly(8L);
+        }
+
+        @Test
+        @DisplayName("sin segmento del día → debe retornar lista vacía")
+        void findAuditTrail_sinSegmento_debeRetornarVacia() throws IOException {
+            // Given
+            writeSegment("audit_log/2024-01-14.ndjson.gz",
+                auditRow(1, "2024-01-14T10:00:00", "TICKET_CREADO", "C01", "Centro"));
+
+            // When + Then
+            assertThat(coldArchiver.findAuditTrail("TICKET", "C01", LocalDate.of(2024, 1, 15), null)).isEmpty();
+        }
+    }
+
+    private void givenDetached(String... partitions) {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("archive"))).thenReturn(List.of(partitions));
+    }
+
+    private static List<ArchivedRow> rows(Long... ids) {
+        return Stream.of(ids).map(id -> new ArchivedRow(id, "{\"id\":" + id + "}")).toList();
+    }
+
+    private static String auditRow(long id, String timestamp, String eventType, String entityId,
+                                   String branchOffice) {
+        return """
+            {"id":%d,"timestamp":"%s","event_type":"%s","actor":"cliente:12345678","entity_type":"TICKET",\
+            "entity_id":"%s","previous_state":null,"new_state":{"status":"EN_ESPERA"},\
+            "additional_data":{"branchOffice":"%s"}}\
+            """.formatted(id, timestamp, eventType, entityId, branchOffice);
+    }
+
+    private void writeSegment(String name, String... lines) throws IOException {
+        Path segment = directory.resolve(name);
+        Files.createDirectories(segment.getParent());
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(segment))) {
+            out.write((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static List<String> readSegment(Path segment) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(Files.newInputStream(segment))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
@@ -3,13 +3,13 @@ package com.example.ticketero.service;
 import com.example.ticketero.model.dto.response.DashboardResponse;
 import com.example.ticketero.model.dto.response.PerformanceSummaryResponse;
 import com.example.ticketero.model.dto.response.QueueSummaryResponse;
-import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.entity.QueueDailyStats;
 import com.example.ticketero.model.enums.AdvisorStatus;
 import com.example.ticketero.model.enums.QueueType;
-import com.example.ticketero.model.enums.TicketStatus;
 import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.QueueDailyStatsRepository;
 import com.example.ticketero.repository.QueueStatsRepository;
-import com.example.ticketero.repository.TicketRepository;
+import com.example.ticketero.repository.QueueStatsRepository.QueueAggregate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -20,8 +20,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
+import static com.example.ticketero.testutil.TestDataBuilder.queueAggregate;
+import static com.example.ticketero.testutil.TestDataBuilder.queueDailyStats;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -31,18 +35,21 @@ import static org.mockito.Mockito.*;
 @DisplayName("DashboardService - Unit Tests")
 class DashboardServiceTest {
 
-    @Mock
-    private TicketRepository ticketRepository;
-
     @Mock
     private AdvisorRepository advisorRepository;
 
     @Mock
     private QueueStatsRepository queueStatsRepository;
 
+    @Mock
+    private QueueDailyStatsRepository queueDailyStatsRepository;
+
     @Mock
     private QueueService queueService;
 
+    @Mock
+    private QueueStateCounters queueStateCounters;
+
     @InjectMocks
     private DashboardService dashboardService;
 
@@ -54,8 +61,6 @@ class DashboardServiceTest {
         @DisplayName("debe retornar dashboard completo con summary, colas y alertas")
         void getDashboard_debeRetornarDashboardCompleto() {
             // Given
-            setupMocksForDashboard();
-
             List<QueueSummaryResponse> queuesSummary = List.of(
                 new QueueSummaryResponse(
                     QueueType.CAJA, "Caja", 5, 1, "C", 45,
@@ -66,8 +71,7 @@ class DashboardServiceTest {
                     3, 1, 25, 20, 0, "NORMAL"
                 )
             );
-
-            when(queueService.getAllQueuesSummary()).thenReturn(queuesSummary);
+            setupMocksForDashboard(queuesSummary);
 
             // When
             DashboardResponse response = dashboardService.getDashboard();
@@ -92,16 +96,12 @@ class DashboardServiceTest {
         @DisplayName("debe generar alertas para tickets críticos")
         void getDashboard_debeGenerarAlertasTicketsCriticos() {
             // Given
-            setupMocksForDashboard();
-
-            List<QueueSummaryResponse> queuesSummary = List.of(
+            setupMocksForDashboard(List.of(
                 new QueueSummaryResponse(
                     QueueType.CAJA, "Caja", 5, 1, "C", 45,
                     5, 1, 30, 12, 3, "CRITICAL" // 3 tickets críticos
                 )
-            );
-
-            when(queueService.getAllQueuesSummary()).thenReturn(queuesSummary);
+            ));
 
             // When
             DashboardResponse response = dashboardService.getDashboard();
@@ -120,41 +120,32 @@ class DashboardServiceTest {
         @DisplayName("debe generar alertas para colas sobrecargadas")
         void getDashboard_debeGenerarAlertasColasSobrecargadas() {
             // Given
-            setupMocksForDashboard();
-
-            // Usar colas sin HIGH_LOAD para evitar el bug del service
-            List<QueueSummaryResponse> queuesSummary = List.of(
+            setupMocksForDashboard(List.of(
                 new QueueSummaryResponse(
-                    QueueType.EMPRESAS, "Empresas", 20, 3, "E", 75,
-                    5, 2, 40, 25, 0, "NORMAL" // Sin problemas
+                    QueueType.CAJA, "Caja", 5, 1, "C", 45,
+                    12, 2, 40, 25, 1, "HIGH_LOAD"
                 )
-            );
-
-            when(queueService.getAllQueuesSummary()).thenReturn(queuesSummary);
+            ));
 
             // When
             DashboardResponse response = dashboardService.getDashboard();
 
             // Then
-            assertThat(response).isNotNull();
-            assertThat(response.queuesSummary()).hasSize(1);
-            assertThat(response.alerts()).isEmpty(); // Sin alertas
+            assertThat(response.alerts()).extracting(DashboardResponse.AlertResponse::type)
+                .containsExactly("TICKETS_CRITICOS", "COLA_SOBRECARGADA");
+            assertThat(response.alerts().get(1).count()).isEqualTo(12);
         }
 
         @Test
         @DisplayName("sin alertas → debe retornar lista vacía")
         void getDashboard_sinAlertas_debeRetornarListaVacia() {
             // Given
-            setupMocksForDashboard();
-
-            List<QueueSummaryResponse> queuesSummary = List.of(
+            setupMocksForDashboard(List.of(
                 new QueueSummaryResponse(
                     QueueType.CAJA, "Caja", 5, 1, "C", 45,
                     3, 1, 20, 10, 0, "NORMAL" // Sin problemas
                 )
-            );
-
-            when(queueService.getAllQueuesSummary()).thenReturn(queuesSummary);
+            ));
 
             // When
             DashboardResponse response = dashboardService.getDashboard();
@@ -163,17 +154,56 @@ class DashboardServiceTest {
             assertThat(response.alerts()).isEmpty();
         }
 
-        private void setupMocksForDashboard() {
-            // Mock para summary
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(QueueType.class), eq(TicketStatus.COMPLETADO)))
-                .thenReturn(50L);
-            when(ticketRepository.countByQueueTypeAndStatus(any(QueueType.class), eq(TicketStatus.EN_ESPERA)))
-                .thenReturn(11L);
-            when(ticketRepository.countByQueueTypeAndStatus(any(QueueType.class), eq(TicketStatus.ATENDIENDO)))
-                .thenReturn(3L);
-            when(advisorRepository.countByStatus(AdvisorStatus.AVAILABLE)).thenReturn(5L);
-            when(advisorRepository.countByStatus(AdvisorStatus.BUSY)).thenReturn(3L);
-            when(ticketRepository.findCriticalTickets(any(LocalDateTime.class))).thenReturn(List.of());
+        @Test
+        @DisplayName("debe resolverse con una query de tickets, una de estadísticas y una de asesores")
+        void getDashboard_debeUsarRoundTripsConstantes() {
+            // Given
+            setupMocksForDashboard(List.of());
+
+            // When
+            dashboardService.getDashboard();
+
+            // Then
+            verify(queueStatsRepository, times(1)).aggregateByQueue(any(LocalDateTime.class));
+            verify(queueDailyStatsRepository, times(1)).findByIdBusinessDate(LocalDate.now());
+            verify(advisorRepository, times(1)).countByStatusIn(any());
+            verifyNoMoreInteractions(queueStatsRepository, queueDailyStatsRepository, advisorRepository);
+            verify(queueService, never()).getAllQueuesSummary();
+        }
+
+        @Test
+        @DisplayName("contadores en memoria listos → solo debe consultar las estadísticas del día")
+        void getDashboard_contadoresListos_debeLeerEstadoDeMemoria() {
+            // Given
+            List<QueueAggregate> aggregates = List.of(queueAggregate(QueueType.CAJA, 6, 2, 1));
+            when(queueStateCounters.aggregateByQueue(any(LocalDateTime.class))).thenReturn(Optional.of(aggregates));
+            when(queueStateCounters.isReady()).thenReturn(true);
+            when(queueStateCounters.advisorCount(AdvisorStatus.AVAILABLE)).thenReturn(3L);
+            when(queueStateCounters.advisorCount(AdvisorStatus.BUSY)).thenReturn(2L);
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of());
+            when(queueService.summarize(aggregates, List.of())).thenReturn(List.of());
+
+            // When
+            DashboardResponse response = dashboardService.getDashboard();
+
+            // Then
+            assertThat(response.summary().ticketsWaiting()).isEqualTo(6);
+            assertThat(response.summary().activeAdvisors()).isEqualTo(5);
+            verifyNoInteractions(queueStatsRepository, advisorRepository);
+        }
+
+        private void setupMocksForDashboard(List<QueueSummaryResponse> queuesSummary) {
+            List<QueueAggregate> aggregates = Arrays.stream(QueueType.values())
+                .map(qt -> queueAggregate(qt, 11, 3, 0))
+                .toList();
+            List<QueueDailyStats> dailyStats = Arrays.stream(QueueType.values())
+                .map(qt -> queueDailyStats(qt, 50, 53, 10.0, 5.0))
+                .toList();
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(aggregates);
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(dailyStats);
+            when(queueService.summarize(aggregates, dailyStats)).thenReturn(queuesSummary);
+            when(advisorRepository.countByStatusIn(List.of(AdvisorStatus.AVAILABLE, AdvisorStatus.BUSY)))
+                .thenReturn(8L);
         }
     }
 
@@ -185,24 +215,12 @@ class DashboardServiceTest {
         @DisplayName("debe calcular métricas de performance correctamente")
         void getPerformanceSummary_debeCalcularMetricas() {
             // Given
-            when(queueStatsRepository.countTodayByQueueAndStatus(QueueType.CAJA, TicketStatus.COMPLETADO))
-                .thenReturn(30L);
-            when(queueStatsRepository.countTodayByQueueAndStatus(QueueType.PERSONAL_BANKER, TicketStatus.COMPLETADO))
-                .thenReturn(20L);
-            when(queueStatsRepository.countTodayByQueueAndStatus(QueueType.EMPRESAS, TicketStatus.COMPLETADO))
-                .thenReturn(15L);
-            when(queueStatsRepository.countTodayByQueueAndStatus(QueueType.GERENCIA, TicketStatus.COMPLETADO))
-                .thenReturn(10L);
-
-            when(queueStatsRepository.getAverageServiceTimeToday(QueueType.CAJA)).thenReturn(4.5);
-            when(queueStatsRepository.getAverageServiceTimeToday(QueueType.PERSONAL_BANKER)).thenReturn(12.0);
-            when(queueStatsRepository.getAverageServiceTimeToday(QueueType.EMPRESAS)).thenReturn(18.0);
-            when(queueStatsRepository.getAverageServiceTimeToday(QueueType.GERENCIA)).thenReturn(25.0);
-
-            when(queueStatsRepository.getAverageWaitTimeToday(QueueType.CAJA)).thenReturn(8.0);
-            when(queueStatsRepository.getAverageWaitTimeToday(QueueType.PERSONAL_BANKER)).thenReturn(15.0);
-            when(queueStatsRepository.getAverageWaitTimeToday(QueueType.EMPRESAS)).thenReturn(22.0);
-            when(queueStatsRepository.getAverageWaitTimeToday(QueueType.GERENCIA)).thenReturn(30.0);
+            when(queueDailyStatsRepository.findByIdBusinessDate(LocalDate.now())).thenReturn(List.of(
+                queueDailyStats(QueueType.CAJA, 30, 32, 8.0, 4.5),
+                queueDailyStats(QueueType.PERSONAL_BANKER, 20, 21, 15.0, 12.0),
+                queueDailyStats(QueueType.EMPRESAS, 15, 16, 22.0, 18.0),
+                queueDailyStats(QueueType.GERENCIA, 10, 10, 30.0, 25.0)
+            ));
 
             // When
             PerformanceSummaryResponse response = dashboardService.getPerformanceSummary();
@@ -220,15 +238,15 @@ class DashboardServiceTest {
             assertThat(performance.customerSatisfaction()).isEqualTo(4.2);
             assertThat(performance.peakHours()).isEqualTo("10:00-11:00");
             assertThat(performance.serviceTimeAccuracy()).isEqualTo(93.3);
+            verify(queueDailyStatsRepository, times(1)).findByIdBusinessDate(any());
+            verifyNoInteractions(queueStatsRepository);
         }
 
         @Test
         @DisplayName("con datos nulos → debe usar valores por defecto")
         void getPerformanceSummary_conDatosNulos_debeUsarDefaults() {
-            // Given - Todos los mocks retornan null o 0
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(), any())).thenReturn(0L);
-            when(queueStatsRepository.getAverageServiceTimeToday(any())).thenReturn(null);
-            when(queueStatsRepository.getAverageWaitTimeToday(any())).thenReturn(null);
+            // Given - Aún no hay estadísticas del día
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of());
 
             // When
             PerformanceSummaryResponse response = dashboardService.getPerformanceSummary();
@@ -266,9 +284,9 @@ class DashboardServiceTest {
         }
 
         private void setupBasicMocks() {
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(), any())).thenReturn(10L);
-            when(queueStatsRepository.getAverageServiceTimeToday(any())).thenReturn(10.0);
-            when(queueStatsRepository.getAverageWaitTimeToday(any())).thenReturn(5.0);
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(Arrays.stream(QueueType.values())
+                .map(qt -> queueDailyStats(qt, 10, 10, 5.0, 10.0))
+                .toList());
         }
     }
 
@@ -277,54 +295,64 @@ class DashboardServiceTest {
     class CalculateSummary {
 
         @Test
-        @DisplayName("debe calcular correctamente tickets críticos")
+        @DisplayName("debe sumar los tickets críticos de cada cola")
         void calculateSummary_debeCalcularTicketsCriticos() {
             // Given
-            setupMocksForDashboard();
-            
-            // Mock tickets críticos
-            List<Ticket> criticalTickets = List.of(
-                com.example.ticketero.testutil.TestDataBuilder.ticketWaiting().build(),
-                com.example.ticketero.testutil.TestDataBuilder.ticketWaiting().build()
+            List<QueueAggregate> aggregates = List.of(
+                queueAggregate(QueueType.CAJA, 10, 2, 2),
+                queueAggregate(QueueType.GERENCIA, 3, 1, 1)
             );
-            when(ticketRepository.findCriticalTickets(any(LocalDateTime.class)))
-                .thenReturn(criticalTickets);
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(aggregates);
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of());
+            when(queueService.summarize(aggregates, List.of())).thenReturn(List.of());
+
+            // When
+            DashboardResponse response = dashboardService.getDashboard();
+
+            // Then
+            assertThat(response.summary().criticalTickets()).isEqualTo(3); // 2 CAJA + 1 GERENCIA
+        }
 
-            List<QueueSummaryResponse> queuesSummary = List.of();
-            when(queueService.getAllQueuesSummary()).thenReturn(queuesSummary);
+        @Test
+        @DisplayName("debe ponderar el tiempo de espera por tickets asignados")
+        void calculateSummary_debePonderarTiempoEspera() {
+            // Given - 30 asignados a 10 min y 10 asignados a 30 min → 15 min
+            List<QueueAggregate> aggregates = List.of(
+                queueAggregate(QueueType.GERENCIA, 2, 0, 0)
+            );
+            List<QueueDailyStats> dailyStats = List.of(
+                queueDailyStats(QueueType.CAJA, 30, 30, 10.0, 5.0),
+                queueDailyStats(QueueType.EMPRESAS, 10, 10, 30.0, 20.0)
+            );
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(aggregates);
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(dailyStats);
+            when(queueService.summarize(aggregates, dailyStats)).thenReturn(List.of());
 
             // When
             DashboardResponse response = dashboardService.getDashboard();
 
             // Then
-            assertThat(response.summary().criticalTickets()).isEqualTo(8); // 2 tickets * 4 queues
+            assertThat(response.summary().averageWaitTime()).isEqualTo(15);
+            assertThat(response.summary().totalTicketsToday()).isEqualTo(40);
+            assertThat(response.summary().ticketsWaiting()).isEqualTo(2);
         }
 
         @Test
         @DisplayName("debe calcular correctamente advisors activos")
         void calculateSummary_debeCalcularAdvisorsActivos() {
             // Given
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(), any())).thenReturn(10L);
-            when(ticketRepository.countByQueueTypeAndStatus(any(), any())).thenReturn(5L);
-            when(advisorRepository.countByStatus(AdvisorStatus.AVAILABLE)).thenReturn(3L);
-            when(advisorRepository.countByStatus(AdvisorStatus.BUSY)).thenReturn(2L);
-            when(ticketRepository.findCriticalTickets(any())).thenReturn(List.of());
-            when(queueService.getAllQueuesSummary()).thenReturn(List.of());
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(List.of());
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of());
+            when(queueService.summarize(List.of(), List.of())).thenReturn(List.of());
+            when(advisorRepository.countByStatusIn(List.of(AdvisorStatus.AVAILABLE, AdvisorStatus.BUSY)))
+                .thenReturn(5L);
 
             // When
             DashboardResponse response = dashboardService.getDashboard();
 
             // Then
-            assertThat(response.summary().activeAdvisors()).isEqualTo(5); // 3 + 2
-        }
-
-        private void setupMocksForDashboard() {
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(), any())).thenReturn(50L);
-            when(ticketRepository.countByQueueTypeAndStatus(any(), eq(TicketStatus.EN_ESPERA))).thenReturn(11L);
-            when(ticketRepository.countByQueueTypeAndStatus(any(), eq(TicketStatus.ATENDIENDO))).thenReturn(3L);
-            when(advisorRepository.countByStatus(AdvisorStatus.AVAILABLE)).thenReturn(5L);
-            when(advisorRepository.countByStatus(AdvisorStatus.BUSY)).thenReturn(3L);
-            when(ticketRepository.findCriticalTickets(any())).thenReturn(List.of());
+            assertThat(response.summary().activeAdvisors()).isEqualTo(5); // AVAILABLE + BUSY
+            assertThat(response.summary().averageWaitTime()).isZero();
         }
     }
-}
\ No newline at end of file
+}
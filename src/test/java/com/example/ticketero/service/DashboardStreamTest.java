@@ -0,0 +1,222 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.DashboardProperties;
+import com.example.ticketero.config.StreamProperties;
+import com.example.ticketero.model.dto.response.DashboardDelta;
+import com.example.ticketero.model.dto.response.DashboardResponse;
+import com.example.ticketero.model.dto.response.DashboardResponse.AlertResponse;
+import com.example.ticketero.model.dto.response.QueueSummaryResponse;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.service.SnapshotCache.Snapshot;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardStream - Unit Tests")
+class DashboardStreamTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Mock
+    private DashboardSnapshotCache dashboardSnapshotCache;
+
+    private final AtomicReference<DashboardResponse> current = new AtomicReference<>();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private Runnable invalidate;
+    private DashboardStream stream;
+
+    @BeforeEach
+    void setUp() {
+        current.set(dashboard(10, 3, List.of()));
+        lenient().when(dashboardSnapshotCache.dashboard())
+            .thenAnswer(invocation -> new Snapshot<>(current.get(), "\"etag\""));
+
+        stream = new DashboardStream(dashboardSnapshotCache, objectMapper,
+            new DashboardProperties(Duration.ofSeconds(1), 5), new StreamProperties(Duration.ofMinutes(30))) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ArgumentCaptor<Runnable> listener = ArgumentCaptor.forClass(Runnable.class);
+        verify(dashboardSnapshotCache).onInvalidate(listener.capture());
+        invalidate = listener.getValue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Nested
+    @DisplayName("Envíos a las pantallas")
+    class Envios {
+
+        @Test
+        @DisplayName("al suscribirse → debe enviar el snapshot completo")
+        void subscribe_debeEnviarSnapshot() throws Exception {
+            // When
+            stream.subscribe();
+
+            // Then
+            RecordingEmitter emitter = emitters.get(0);
+            await().until(() -> emitter.events.size() == 1);
+            assertThat(emitter.names).containsExactly(DashboardStream.SNAPSHOT_EVENT);
+            JsonNode snapshot = objectMapper.readTree(emitter.events.get(0));
+            assertThat(snapshot.at("/summary/ticketsWaiting").asInt()).isEqualTo(10);
+            assertThat(snapshot.at("/queuesSummary/0/queueType").asText()).isEqualTo("CAJA");
+        }
+
+        @Test
+        @DisplayName("cambios seguidos → deben agruparse en un solo delta con lo último")
+        void invalidaciones_debenAgruparseEnUnDelta() throws Exception {
+            // Given
+            stream.subscribe();
+            RecordingEmitter emitter = emitters.get(0);
+            await().until(() -> stream.subscriberCount() == 1);
+
+            // When
+            for (int waiting = 11; waiting <= 15; waiting++) {
+                current.set(dashboard(waiting, 3, List.of()));
+                invalidate.run();
+            }
+
+            // Then
+            await().until(() -> emitter.events.size() == 2);
+            await().during(Duration.ofMillis(300)).until(() -> emitter.events.size() == 2);
+            assertThat(emitter.names.get(1)).isEqualTo(DashboardStream.DELTA_EVENT);
+            JsonNode delta = objectMapper.readTree(emitter.events.get(1));
+            assertThat(delta.at("/summary/ticketsWaiting").asInt()).isEqualTo(15);
+            assertThat(delta.at("/queues/CAJA/ticketsWaiting").asInt()).isEqualTo(15);
+            assertThat(delta.has("alertsRaised")).isFalse();
+        }
+
+        @Test
+        @DisplayName("invalidación sin cambios → no debe enviar delta")
+        void invalidacion_sinCambios_noDebeEnviar() {
+            // Given
+            stream.subscribe();
+            RecordingEmitter emitter = emitters.get(0);
+            await().until(() -> stream.subscriberCount() == 1);
+
+            // When
+            current.set(dashboard(10, 3, List.of()));
+            invalidate.run();
+
+            // Then
+            await().during(Duration.ofMillis(400)).until(() -> emitter.events.size() == 1);
+        }
+    }
+
+    @Nested
+    @DisplayName("diff()")
+    class Diff {
+
+        @Test
+        @DisplayName("debe incluir solo los contadores que cambiaron")
+        void diff_debeIncluirSoloCambios() {
+            // When
+            DashboardDelta delta = stream.diff(dashboard(10, 3, List.of()), dashboard(10, 2, List.of()));
+
+            // Then
+            assertThat(delta.summary()).containsOnlyKeys("ticketsBeingServed").containsEntry("ticketsBeingServed", 2);
+            assertThat(delta.queues()).containsOnlyKeys(QueueType.CAJA);
+            assertThat(delta.queues().get(QueueType.CAJA)).containsOnlyKeys("ticketsBeingServed");
+            assertThat(delta.isEmpty()).isFalse();
+        }
+
+        @Test
+        @DisplayName("debe informar alertas levantadas, actualizadas y resueltas")
+        void diff_debeInformarAlertas() {
+            // Given
+            AlertResponse criticos = alert("TICKETS_CRITICOS", "Asignar asesores adicionales a cola Caja", 2);
+            AlertResponse criticosMas = alert("TICKETS_CRITICOS", "Asignar asesores adicionales a cola Caja", 4);
+            AlertResponse sobrecarga = alert("COLA_SOBRECARGADA", "Reasignar asesores a cola Caja", 20);
+            AlertResponse gerencia = alert("TICKETS_CRITICOS", "Asignar asesores adicionales a cola Gerencia", 1);
+
+            // When
+            DashboardDelta delta = stream.diff(
+                dashboard(10, 3, List.of(criticos, sobrecarga)),
+                dashboard(10, 3, List.of(criticosMas, gerencia)));
+
+            // Then
+            assertThat(delta.summary()).isEmpty();
+            assertThat(delta.alertsRaised()).containsExactly(criticosMas, gerencia);
+            assertThat(delta.alertsCleared()).containsExactly(sobrecarga);
+        }
+
+        @Test
+        @DisplayName("solo cambia la hora de generación → delta vacío")
+        void diff_soloTimestamps_debeSerVacio() {
+            // Given
+            AlertResponse alerta = alert("TICKETS_CRITICOS", "Asignar asesores adicionales a cola Caja", 2);
+            DashboardResponse before = dashboard(10, 3, List.of(alerta));
+            AlertResponse mismaAlerta = new AlertResponse(alerta.type(), alerta.severity(), alerta.message(),
+                alerta.count(), alerta.recommendedAction(), alerta.createdAt().plusMinutes(1));
+
+            // When
+            DashboardDelta delta = stream.diff(before, dashboard(10, 3, List.of(mismaAlerta)));
+
+            // Then
+            assertThat(delta.isEmpty()).isTrue();
+        }
+    }
+
+    private static DashboardResponse dashboard(int waiting, int serving, List<AlertResponse> alerts) {
+        QueueSummaryResponse caja = new QueueSummaryResponse(QueueType.CAJA, "Caja", 5, 1, "C", 30,
+            waiting, serving, 40, 6, 0, "NORMAL");
+        return new DashboardResponse(
+            LocalDateTime.now(),
+            new DashboardResponse.DashboardSummary(40, waiting, serving, 20, 0, 4, 6, "NORMAL"),
+            List.of(caja),
+            alerts
+        );
+    }
+
+    private static AlertResponse alert(String type, String action, int count) {
+        return new AlertResponse(type, "HIGH", count + " tickets", count, action,
+            LocalDateTime.of(2024, 1, 15, 10, 0));
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> names = new CopyOnWriteArrayList<>();
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder raw = new StringBuilder();
+            builder.build().forEach(part -> raw.append(part.getData()));
+            String text = raw.toString();
+            if (!text.contains("event:")) {
+                return; // heartbeat
+            }
+            names.add(text.substring(text.indexOf("event:") + 6, text.indexOf('\n', text.indexOf("event:"))));
+            events.add(text.substring(text.indexOf("data:") + 5).trim());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LiveQueueIndex - Unit Tests")
+class LiveQueueIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 15, 9, 0);
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @InjectMocks
+    private LiveQueueIndex liveQueueIndex;
+
+    @Nested
+    @DisplayName("rebuild()")
+    class Reconstruccion {
+
+        @Test
+        @DisplayName("debe cargar los tickets en espera y quedar listo")
+        void rebuild_debeCargarTicketsEnEspera() {
+            // Given
+            when(ticketRepository.findAllWaiting()).thenReturn(List.of(
+                waiting(1L, QueueType.CAJA, BASE),
+                waiting(2L, QueueType.CAJA, BASE.plusMinutes(1)),
+                waiting(3L, QueueType.GERENCIA, BASE)
+            ));
+
+            // When
+            liveQueueIndex.rebuild();
+
+            // Then
+            assertThat(liveQueueIndex.isReady()).isTrue();
+            assertThat(liveQueueIndex.waitingCount(QueueType.CAJA)).isEqualTo(2);
+            assertThat(liveQueueIndex.waitingCount(QueueType.GERENCIA)).isEqualTo(1);
+            assertThat(liveQueueIndex.positionOf(QueueType.CAJA, 2L, BASE.plusMinutes(1))).hasValue(2);
+            assertThat(liveQueueIndex.sizes("Sucursal Centro"))
+                .containsEntry(QueueType.CAJA, 2)
+                .containsEntry(QueueType.GERENCIA, 1);
+        }
+
+        @Test
+        @DisplayName("eventos recibidos durante la carga → deben aplicarse sobre la foto nueva")
+        void rebuild_conEventosConcurrentes_debeAplicarlos() {
+            // Given - un ticket se crea mientras se lee la BD
+            when(ticketRepository.findAllWaiting()).thenAnswer(invocation -> {
+                liveQueueIndex.onTicketStatusChanged(event(9L, BASE.plusMinutes(5), null, TicketStatus.EN_ESPERA));
+                return List.of(waiting(1L, QueueType.CAJA, BASE));
+            });
+
+            // When
+            liveQueueIndex.rebuild();
+
+            // Then
+            assertThat(liveQueueIndex.waitingCount(QueueType.CAJA)).isEqualTo(2);
+            assertThat(liveQueueIndex.positionOf(QueueType.CAJA, 9L, BASE.plusMinutes(5))).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("error de BD → no debe quedar listo")
+        void rebuild_conError_noDebeQuedarListo() {
+            // Given
+            when(ticketRepository.findAllWaiting())
+                .thenThrow(new RuntimeException("DB down"));
+
+            // When
+            liveQueueIndex.rebuild();
+
+            // Then
+            assertThat(liveQueueIndex.isReady()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("onTicketStatusChanged()")
+    class CambiosDeEstado {
+
+        @Test
+        @DisplayName("ticket atendido → debe salir de la fila y adelantar a los demás")
+        void onTicketStatusChanged_atendido_debeSalirDeLaFila() {
+            // Given
+            liveQueueIndex.onTicketStatusChanged(event(1L, BASE, null, TicketStatus.EN_ESPERA));
+            liveQueueIndex.onTicketStatusChanged(event(2L, BASE.plusMinutes(1), null, TicketStatus.EN_ESPERA));
+            liveQueueIndex.onTicketStatusChanged(event(3L, BASE.plusMinutes(2), null, TicketStatus.EN_ESPERA));
+
+            // When
+            liveQueueIndex.onTicketStatusChanged(event(1L, BASE, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO));
+
+            // Then
+            assertThat(liveQueueIndex.positionOf(QueueType.CAJA, 1L, BASE)).isEqualTo(OptionalInt.empty());
+            assertThat(liveQueueIndex.positionOf(QueueType.CAJA, 3L, BASE.plusMinutes(2))).hasValue(2);
+            assertThat(liveQueueIndex.head(QueueType.CAJA, 5)).containsExactly(2L, 3L);
+        }
+
+        @Test
+        @DisplayName("paso a PROXIMO → debe mantener la posición")
+        void onTicketStatusChanged_proximo_debeMantenerPosicion() {
+            // Given
+            liveQueueIndex.onTicketStatusChanged(event(1L, BASE, null, TicketStatus.EN_ESPERA));
+            liveQueueIndex.onTicketStatusChanged(event(2L, BASE.plusMinutes(1), null, TicketStatus.EN_ESPERA));
+
+            // When
+            liveQueueIndex.onTicketStatusChanged(event(2L, BASE.plusMinutes(1), TicketStatus.EN_ESPERA, TicketStatus.PROXIMO));
+
+            // Then
+            assertThat(liveQueueIndex.positionOf(QueueType.CAJA, 2L, BASE.plusMinutes(1))).hasValue(2);
+            assertThat(liveQueueIndex.sizes("Sucursal Centro")).containsEntry(QueueType.CAJA, 2);
+        }
+
+        @Test
+        @DisplayName("conteo por sucursal → debe contar solo los tickets de esa sucursal")
+        void sizes_porSucursal_debeSepararSucursales() {
+            // Given
+            liveQueueIndex.onTicketStatusChanged(event(1L, "Sucursal Centro", BASE, null, TicketStatus.EN_ESPERA));
+            liveQueueIndex.onTicketStatusChanged(event(2L, "Sucursal Centro", BASE.plusMinutes(1), null, TicketStatus.EN_ESPERA));
+            liveQueueIndex.onTicketStatusChanged(event(3L, "Sucursal Norte", BASE.plusMinutes(2), null, TicketStatus.EN_ESPERA));
+
+            // When
+            liveQueueIndex.onTicketStatusChanged(event(1L, "Sucursal Centro", BASE, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO));
+
+            // Then
+            assertThat(liveQueueIndex.sizes("Sucursal Centro")).containsEntry(QueueType.CAJA, 1);
+            assertThat(liveQueueIndex.sizes("Sucursal Norte")).containsEntry(QueueType.CAJA, 1);
+            assertThat(liveQueueIndex.sizes("Sucursal Sur")).containsEntry(QueueType.CAJA, 0);
+            assertThat(liveQueueIndex.sizes()).containsEntry(QueueType.CAJA, 2);
+        }
+    }
+
+    private static Ticket waiting(Long id, QueueType queueType, LocalDateTime createdAt) {
+        return ticketWaiting().id(id).queueType(queueType).createdAt(createdAt).build();
+    }
+
+    private static TicketStatusChangedEvent event(Long id, LocalDateTime createdAt,
+                                                  TicketStatus previous, TicketStatus next) {
+        return event(id, "Sucursal Centro", createdAt, previous, next);
+    }
+
+    private static TicketStatusChangedEvent event(Long id, String branchOffice, LocalDateTime createdAt,
+                                                  TicketStatus previous, TicketStatus next) {
+        return new TicketStatusChangedEvent(id, "C" + id, branchOffice, QueueType.CAJA,
+            previous, next, createdAt, null, null, null, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.MessagingProperties;
+import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.model.enums.EstadoEnvio;
+import com.example.ticketero.model.enums.MessageTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MessageDispatcher - Unit Tests")
+class MessageDispatcherTest {
+
+    @Mock
+    private MessageService messageService;
+
+    private MessageDispatcher messageDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        messageDispatcher = dispatcher(2, 4);
+        lenient().when(messageService.sendMessage(any()))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+    }
+
+    @Nested
+    @DisplayName("dispatchPending()")
+    class DespacharPendientes {
+
+        @Test
+        @DisplayName("lote incompleto → debe enviar, guardar el lote y no volver a reclamar")
+        void dispatchPending_loteIncompleto_debeEnviarYGuardar() {
+            // Given
+            List<Mensaje> lote = List.of(mensaje(1L, "+56911111111"));
+            when(messageService.claimBatch(eq(EstadoEnvio.PENDIENTE), any(), eq(2), any()))
+                .thenReturn(lote);
+
+            // When
+            int despachados = messageDispatcher.dispatchPending();
+
+            // Then
+            assertThat(despachados).isEqualTo(1);
+            verify(messageService).sendMessage(lote.get(0));
+            verify(messageService).completeBatch(lote);
+            verify(messageService, times(1)).claimBatch(any(), any(), anyInt(), any());
+        }
+
+        @Test
+        @DisplayName("lote completo → debe seguir reclamando hasta vaciar la cola")
+        void dispatchPending_loteCompleto_debeSeguirReclamando() {
+            // Given
+            List<Mensaje> primero = List.of(mensaje(1L, "+56911111111"), mensaje(2L, "+56922222222"));
+            when(messageService.claimBatch(eq(EstadoEnvio.PENDIENTE), any(), eq(2), any()))
+                .thenReturn(primero)
+                .thenReturn(Collections.emptyList());
+
+            // When
+            int despachados = messageDispatcher.dispatchPending();
+
+            // Then
+            assertThat(despachados).isEqualTo(2);
+            verify(messageService, times(2)).claimBatch(any(), any(), anyInt(), any());
+            verify(messageService, times(2)).sendMessage(any());
+            verify(messageService).completeBatch(primero);
+        }
+
+        @Test
+        @DisplayName("sin mensajes → no debe enviar ni guardar")
+        void dispatchPending_sinMensajes_noDebeHacerNada() {
+            // Given
+            when(messageService.claimBatch(any(), any(), anyInt(), any())).thenReturn(Collections.emptyList());
+
+            // When
+            int despachados = messageDispatcher.dispatchPending();
+
+            // Then
+            assertThat(despachados).isZero();
+            verify(messageService, never()).sendMessage(any());
+            verify(messageService, never()).completeBatch(any());
+        }
+
+        @Test
+        @DisplayName("dispatchRetries() → debe reclamar mensajes FALLIDO")
+        void dispatchRetries_debeReclamarFallidos() {
+            // Given
+            when(messageService.claimBatch(any(), any(), anyInt(), any())).thenReturn(Collections.emptyList());
+
+            // When
+            messageDispatcher.dispatchRetries();
+
+            // Then
+            verify(messageService).claimBatch(eq(EstadoEnvio.FALLIDO), any(), anyInt(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Límite por destinatario")
+    class LimitePorDestinatario {
+
+        @Test
+        @DisplayName("dos mensajes al mismo cliente en un lote → el segundo debe postergarse")
+        void dispatchPending_mismoDestinatario_debePostergarSegundo() {
+            // Given
+            Mensaje primero = mensaje(1L, "+56911111111");
+            Mensaje segundo = mensaje(2L, "+56911111111");
+            LocalDateTime antes = LocalDateTime.now();
+            when(messageService.claimBatch(any(), any(), anyInt(), any()))
+                .thenReturn(List.of(primero, segundo))
+                .thenReturn(Collections.emptyList());
+
+            // When
+            int enviados = messageDispatcher.dispatchPending();
+
+            // Then
+            assertThat(enviados).isEqualTo(1);
+            verify(messageService).sendMessage(primero);
+            verify(messageService, never()).sendMessage(segundo);
+            assertThat(segundo.getIntentos()).isZero();
+            assertThat(segundo.getFechaProgramada()).isAfter(antes);
+            verify(messageService).completeBatch(List.of(primero, segundo));
+        }
+
+        @Test
+        @DisplayName("reserveSlot() → debe separar los turnos por el intervalo configurado")
+        void reserveSlot_debeSepararTurnos() {
+            // Given
+            LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+            // When / Then
+            assertThat(messageDispatcher.reserveSlot("+569", now)).isEqualTo(now);
+            assertThat(messageDispatcher.reserveSlot("+569", now)).isEqualTo(now.plusSeconds(1));
+            assertThat(messageDispatcher.reserveSlot("+569", now)).isEqualTo(now.plusSeconds(2));
+            assertThat(messageDispatcher.reserveSlot("+570", now)).isEqualTo(now);
+            assertThat(messageDispatcher.reserveSlot("+569", now.plusSeconds(10))).isEqualTo(now.plusSeconds(10));
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrencia")
+    class Concurrencia {
+
+        @Test
+        @DisplayName("no debe superar el máximo de envíos simultáneos")
+        void dispatchPending_debeRespetarMaximoConcurrente() {
+            // Given
+            messageDispatcher = dispatcher(20, 3);
+
+            List<Mensaje> lote = new ArrayList<>();
+            for (long id = 1; id <= 12; id++) {
+                lote.add(mensaje(id, "+5699000000" + id));
+            }
+            when(messageService.claimBatch(any(), any(), anyInt(), any())).thenReturn(lote);
+
+            AtomicInteger enCurso = new AtomicInteger();
+            AtomicInteger maximo = new AtomicInteger();
+            when(messageService.sendMessage(any())).thenAnswer(invocation -> {
+                maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                return CompletableFuture.supplyAsync(() -> {
+                    sleep(20);
+                    enCurso.decrementAndGet();
+                    return invocation.<Mensaje>getArgument(0);
+                });
+            });
+
+            // When
+            messageDispatcher.dispatchPending();
+
+            // Then
+            verify(messageService, times(12)).sendMessage(any());
+            assertThat(maximo.get()).isBetween(1, 3);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private MessageDispatcher dispatcher(int batchSize, int maxConcurrentSends) {
+        return new MessageDispatcher(messageService, new MessagingProperties(
+            batchSize, maxConcurrentSends, Duration.ofSeconds(60), Duration.ofSeconds(1)));
+    }
+
+    private static Mensaje mensaje(Long id, String telefono) {
+        return Mensaje.builder()
+            .id(id)
+            .ticket(ticketWaiting().telefono(telefono).build())
+            .plantilla(MessageTemplate.TOTEM_TICKET_CREADO)
+            .estadoEnvio(EstadoEnvio.PENDIENTE)
+            .fechaProgramada(LocalDateTime.now().minusSeconds(1))
+            .intentos(0)
+            .build();
+    }
+}
@@ -2,10 +2,14 @@ package com.example.ticketero.service;
 
 import com.example.ticketero.model.entity.Advisor;
 import com.example.ticketero.model.entity.Mensaje;
+import com.example.ticketero.model.entity.TelegramChat;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.EstadoEnvio;
 import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.notification.NotificationException;
+import com.example.ticketero.notification.NotificationGateway;
 import com.example.ticketero.repository.MensajeRepository;
+import com.example.ticketero.repository.TelegramChatRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -18,6 +22,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static com.example.ticketero.testutil.TestDataBuilder.*;
 import static org.assertj.core.api.Assertions.*;
@@ -31,9 +37,18 @@ class MessageServiceTest {
     @Mock
     private MensajeRepository mensajeRepository;
 
+    @Mock
+    private TelegramChatRepository telegramChatRepository;
+
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private NotificationGateway notificationGateway;
+
+    @Mock
+    private TicketeroMetrics ticketeroMetrics;
+
     @InjectMocks
     private MessageService messageService;
 
@@ -176,13 +191,56 @@ class MessageServiceTest {
     }
 
     @Nested
-    @DisplayName("processPendingMessages()")
-    class ProcesarMensajesPendientes {
+    @DisplayName("scheduleMessages()")
+    class ProgramarMensajesPorLote {
 
         @Test
-        @DisplayName("con mensajes pendientes → debe procesarlos")
-        void processPendingMessages_conMensajes_debeProcesar() {
+        @DisplayName("debe guardar todos los mensajes con un solo saveAll")
+        @SuppressWarnings("unchecked")
+        void scheduleMessages_debeGuardarEnLote() {
             // Given
+            List<Ticket> tickets = List.of(
+                ticketWaiting().id(1L).numero("C01").build(),
+                ticketWaiting().id(2L).numero("C02").telefono(null).build(),
+                ticketWaiting().id(3L).numero("C03").build()
+            );
+
+            // When
+            messageService.scheduleMessages(tickets, MessageTemplate.TOTEM_ES_TU_TURNO);
+
+            // Then - el ticket sin teléfono se omite
+            ArgumentCaptor<List<Mensaje>> captor = ArgumentCaptor.forClass(List.class);
+            verify(mensajeRepository).saveAll(captor.capture());
+            verify(mensajeRepository, never()).save(any());
+            assertThat(captor.getValue())
+                .extracting(mensaje -> mensaje.getTicket().getNumero())
+                .containsExactly("C01", "C03");
+            assertThat(captor.getValue())
+                .allMatch(mensaje -> mensaje.getPlantilla() == MessageTemplate.TOTEM_ES_TU_TURNO
+                    && mensaje.getEstadoEnvio() == EstadoEnvio.PENDIENTE);
+        }
+
+        @Test
+        @DisplayName("sin mensajes que programar → no debe ir a la BD")
+        void scheduleMessages_listaVacia_noDebeGuardar() {
+            // When
+            messageService.scheduleMessages(Collections.emptyList(), MessageTemplate.TOTEM_PROXIMO_TURNO);
+
+            // Then
+            verifyNoInteractions(mensajeRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("claimBatch()")
+    class ReclamarLote {
+
+        @Test
+        @DisplayName("con mensajes vencidos → debe reservarlos y cargarlos con su ticket")
+        void claimBatch_conMensajes_debeReservarYCargar() {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime leaseUntil = now.plusSeconds(60);
             Mensaje mensaje = Mensaje.builder()
                 .id(1L)
                 .ticket(ticketWaiting().telefono("+56912345678").build())
@@ -191,28 +249,96 @@ class MessageServiceTest {
                 .intentos(0)
                 .build();
 
-            when(mensajeRepository.findPendingMessages(any())).thenReturn(List.of(mensaje));
+            when(mensajeRepository.lockDueMessageIds("PENDIENTE", 4, now, 100)).thenReturn(List.of(1L));
+            when(mensajeRepository.findWithTicketByIdIn(List.of(1L))).thenReturn(List.of(mensaje));
+            when(telegramChatRepository.findByTelefonoIn(Set.of("+56912345678")))
+                .thenReturn(List.of(TelegramChat.builder().telefono("+56912345678").chatId("987654321").build()));
 
             // When
-            messageService.processPendingMessages();
+            List<Mensaje> batch = messageService.claimBatch(EstadoEnvio.PENDIENTE, now, 100, leaseUntil);
 
             // Then
-            verify(mensajeRepository).findPendingMessages(any(LocalDateTime.class));
-            // Verificar que se intenta procesar el mensaje (incrementa intentos)
-            assertThat(mensaje.getIntentos()).isEqualTo(1);
+            assertThat(batch).containsExactly(mensaje);
+            assertThat(mensaje.getChatId()).isEqualTo("987654321");
+            verify(mensajeRepository).leaseUntil(List.of(1L), leaseUntil);
         }
 
         @Test
-        @DisplayName("sin mensajes pendientes → no debe hacer nada")
-        void processPendingMessages_sinMensajes_noDebeHacerNada() {
+        @DisplayName("cliente sin chat vinculado → el mensaje debe quedar sin chat")
+        void claimBatch_sinChatVinculado_debeQuedarSinChat() {
             // Given
-            when(mensajeRepository.findPendingMessages(any())).thenReturn(Collections.emptyList());
+            LocalDateTime now = LocalDateTime.now();
+            Mensaje mensaje = Mensaje.builder()
+                .id(1L)
+                .ticket(ticketWaiting().telefono("+56912345678").build())
+                .plantilla(MessageTemplate.TOTEM_TICKET_CREADO)
+                .estadoEnvio(EstadoEnvio.PENDIENTE)
+                .intentos(0)
+                .build();
+
+            when(mensajeRepository.lockDueMessageIds("PENDIENTE", 4, now, 100)).thenReturn(List.of(1L));
+            when(mensajeRepository.findWithTicketByIdIn(List.of(1L))).thenReturn(List.of(mensaje));
+            when(telegramChatRepository.findByTelefonoIn(any())).thenReturn(List.of());
 
             // When
-            messageService.processPendingMessages();
+            List<Mensaje> batch = messageService.claimBatch(EstadoEnvio.PENDIENTE, now, 100, now.plusSeconds(60));
 
             // Then
-            verify(mensajeRepository).findPendingMessages(any());
+            assertThat(batch).containsExactly(mensaje);
+            assertThat(mensaje.getChatId()).isNull();
+        }
+
+        @Test
+        @DisplayName("sin mensajes vencidos → no debe reservar nada")
+        void claimBatch_sinMensajes_noDebeReservar() {
+            // Given
+            when(mensajeRepository.lockDueMessageIds(anyString(), anyInt(), any(), anyInt()))
+                .thenReturn(Collections.emptyList());
+
+            // When
+            List<Mensaje> batch = messageService.claimBatch(
+                EstadoEnvio.PENDIENTE, LocalDateTime.now(), 100, LocalDateTime.now());
+
+            // Then
+            assertThat(batch).isEmpty();
+            verify(mensajeRepository, never()).leaseUntil(any(), any());
+            verify(mensajeRepository, never()).findWithTicketByIdIn(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("completeBatch()")
+    class CompletarLote {
+
+        @Test
+        @DisplayName("debe copiar el resultado del envío a las entidades administradas")
+        void completeBatch_debeCopiarResultado() {
+            // Given
+            LocalDateTime enviado = LocalDateTime.now();
+            Mensaje resultado = Mensaje.builder()
+                .id(1L)
+                .estadoEnvio(EstadoEnvio.ENVIADO)
+                .intentos(1)
+                .fechaProgramada(enviado.minusSeconds(5))
+                .fechaEnvio(enviado)
+                .telegramMessageId("msg_1")
+                .build();
+            Mensaje administrado = Mensaje.builder()
+                .id(1L)
+                .estadoEnvio(EstadoEnvio.PENDIENTE)
+                .intentos(0)
+                .build();
+
+            when(mensajeRepository.findAllById(Set.of(1L))).thenReturn(List.of(administrado));
+
+            // When
+            messageService.completeBatch(List.of(resultado));
+
+            // Then
+            assertThat(administrado.getEstadoEnvio()).isEqualTo(EstadoEnvio.ENVIADO);
+            assertThat(administrado.getIntentos()).isEqualTo(1);
+            assertThat(administrado.getFechaEnvio()).isEqualTo(enviado);
+            assertThat(administrado.getTelegramMessageId()).isEqualTo("msg_1");
             verify(mensajeRepository, never()).save(any());
         }
     }
@@ -237,19 +363,24 @@ class MessageServiceTest {
                 .ticket(ticket)
                 .plantilla(MessageTemplate.TOTEM_TICKET_CREADO)
                 .estadoEnvio(EstadoEnvio.PENDIENTE)
+                .chatId("987654321")
                 .intentos(0)
                 .build();
 
+            when(notificationGateway.send(eq("987654321"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture("msg_12345"));
+
             // When
-            messageService.sendMessage(mensaje);
+            messageService.sendMessage(mensaje).join();
 
             // Then
             assertThat(mensaje.getEstadoEnvio()).isEqualTo(EstadoEnvio.ENVIADO);
             assertThat(mensaje.getFechaEnvio()).isNotNull();
             assertThat(mensaje.getTelegramMessageId()).isNotNull();
             assertThat(mensaje.getIntentos()).isEqualTo(1);
-            
-            verify(mensajeRepository).save(mensaje);
+
+            // El guardado lo hace completeBatch para todo el lote
+            verifyNoInteractions(mensajeRepository);
         }
 
         @Test
@@ -265,15 +396,20 @@ class MessageServiceTest {
                 .ticket(ticket)
                 .plantilla(MessageTemplate.TOTEM_PROXIMO_TURNO)
                 .estadoEnvio(EstadoEnvio.PENDIENTE)
+                .chatId("987654321")
                 .intentos(0)
                 .build();
 
+            when(notificationGateway.send(eq("987654321"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture("msg_12345"));
+
             // When
-            messageService.sendMessage(mensaje);
+            messageService.sendMessage(mensaje).join();
 
             // Then
             assertThat(mensaje.getEstadoEnvio()).isEqualTo(EstadoEnvio.ENVIADO);
             assertThat(mensaje.getTelegramMessageId()).contains("msg_");
+            verify(notificationGateway).send(eq("987654321"), contains("Pronto será tu turno"));
         }
 
         @Test
@@ -291,56 +427,72 @@ class MessageServiceTest {
                 .ticket(ticket)
                 .plantilla(MessageTemplate.TOTEM_ES_TU_TURNO)
                 .estadoEnvio(EstadoEnvio.PENDIENTE)
+                .chatId("987654321")
                 .intentos(0)
                 .build();
 
+            when(notificationGateway.send(eq("987654321"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture("msg_12345"));
+
             // When
-            messageService.sendMessage(mensaje);
+            messageService.sendMessage(mensaje).join();
 
             // Then
             assertThat(mensaje.getEstadoEnvio()).isEqualTo(EstadoEnvio.ENVIADO);
             assertThat(mensaje.getTelegramMessageId()).contains("msg_");
+            verify(notificationGateway).send(eq("987654321"), contains("N/A"));
         }
-    }
-
-    @Nested
-    @DisplayName("processRetryMessages()")
-    class ProcesarMensajesReintento {
 
         @Test
-        @DisplayName("con mensajes para reintentar → debe procesarlos")
-        void processRetryMessages_conMensajes_debeProcesar() {
+        @DisplayName("Telegram falla → debe programar reintento con backoff")
+        void sendMessage_falla_debeProgramarReintento() {
             // Given
             Mensaje mensaje = Mensaje.builder()
                 .id(1L)
-                .ticket(ticketWaiting().telefono("+56912345678").build())
-                .plantilla(MessageTemplate.TOTEM_TICKET_CREADO)
+                .ticket(ticketWaiting().telefono("+56912345678").numero("C01").build())
+                .plantilla(MessageTemplate.TOTEM_PROXIMO_TURNO)
                 .estadoEnvio(EstadoEnvio.PENDIENTE)
+                .chatId("987654321")
+                .fechaProgramada(LocalDateTime.now().minusMinutes(1))
                 .intentos(1)
                 .build();
+            LocalDateTime antes = LocalDateTime.now();
 
-            when(mensajeRepository.findRetryableMessages(any())).thenReturn(List.of(mensaje));
+            when(notificationGateway.send(anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new NotificationException("Telegram responded 500", 500)));
 
             // When
-            messageService.processRetryMessages();
+            messageService.sendMessage(mensaje).join();
 
             // Then
-            verify(mensajeRepository).findRetryableMessages(any(LocalDateTime.class));
+            assertThat(mensaje.getEstadoEnvio()).isEqualTo(EstadoEnvio.PENDIENTE);
             assertThat(mensaje.getIntentos()).isEqualTo(2);
+            assertThat(mensaje.getFechaProgramada()).isAfterOrEqualTo(antes);
+            assertThat(mensaje.getFechaEnvio()).isNull();
         }
 
         @Test
-        @DisplayName("sin mensajes para reintentar → no debe hacer nada")
-        void processRetryMessages_sinMensajes_noDebeHacerNada() {
+        @DisplayName("cuarto intento fallido → debe marcar como FALLIDO")
+        void sendMessage_cuartoIntentoFallido_debeMarcarFallido() {
             // Given
-            when(mensajeRepository.findRetryableMessages(any())).thenReturn(Collections.emptyList());
+            Mensaje mensaje = Mensaje.builder()
+                .id(1L)
+                .ticket(ticketWaiting().telefono("+56912345678").numero("C01").build())
+                .plantilla(MessageTemplate.TOTEM_PROXIMO_TURNO)
+                .estadoEnvio(EstadoEnvio.PENDIENTE)
+                .chatId("987654321")
+                .intentos(3)
+                .build();
+
+            when(notificationGateway.send(anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new NotificationException("Telegram responded 500", 500)));
 
             // When
-            messageService.processRetryMessages();
+            messageService.sendMessage(mensaje).join();
 
             // Then
-            verify(mensajeRepository).findRetryableMessages(any());
-            verify(mensajeRepository, never()).save(any());
+            assertThat(mensaje.getEstadoEnvio()).isEqualTo(EstadoEnvio.FALLIDO);
+            assertThat(mensaje.getIntentos()).isEqualTo(4);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.OutboxProperties;
+import com.example.ticketero.model.entity.OutboxEvent;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.OutboxEventType;
+import com.example.ticketero.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxService - Unit Tests")
+class OutboxServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxService(outboxEventRepository, jdbcTemplate, new OutboxProperties(true, 3, 7));
+    }
+
+    @Nested
+    @DisplayName("Publicación")
+    class Publicar {
+
+        @Test
+        @DisplayName("ticketCreated() → debe guardar el estado del ticket en el payload")
+        void ticketCreated_debeGuardarPayload() {
+            // Given
+            Ticket ticket = ticketWaiting().id(7L).numero("C07").createdAt(NOW).positionInQueue(4).build();
+
+            // When
+            outboxService.ticketCreated(ticket, "12345678");
+
+            // Then
+            ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+            verify(outboxEventRepository).save(captor.capture());
+            OutboxEvent event = captor.getValue();
+            assertThat(event.getEventType()).isEqualTo(OutboxEventType.TICKET_CREADO);
+            assertThat(event.getAggregateId()).isEqualTo("7");
+            assertThat(event.getPayload())
+                .containsEntry("numero", "C07")
+                .containsEntry("queueType", "CAJA")
+                .containsEntry("createdAt", NOW.toString())
+                .containsEntry("nationalId", "12345678")
+                .containsEntry("positionInQueue", 4);
+        }
+
+        @Test
+        @DisplayName("ticketCompleted() → debe incluir los tiempos de asignación y término")
+        void ticketCompleted_debeIncluirTiempos() {
+            // Given
+            Ticket ticket = ticketCompleted().createdAt(NOW.minusMinutes(20))
+                .assignedAt(NOW.minusMinutes(8)).completedAt(NOW).build();
+
+            // When
+            outboxService.ticketCompleted(ticket);
+
+            // Then
+            ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+            verify(outboxEventRepository).save(captor.capture());
+            assertThat(captor.getValue().timestamp("assignedAt")).isEqualTo(NOW.minusMinutes(8));
+            assertThat(captor.getValue().timestamp("completedAt")).isEqualTo(NOW);
+        }
+    }
+
+    @Nested
+    @DisplayName("consumeBatch()")
+    class ConsumirLote {
+
+        @Test
+        @DisplayName("consumidor tomado por otro nodo → no debe leer el outbox")
+        void consumeBatch_consumidorBloqueado_noDebeLeer() {
+            // Given
+            when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("audit"))).thenReturn(List.of());
+
+            // When
+            int read = outboxService.consumeBatch(new RecordingConsumer());
+
+            // Then
+            assertThat(read).isZero();
+            verifyNoInteractions(outboxEventRepository);
+        }
+
+        @Test
+        @DisplayName("lote con eventos ajenos → debe entregar solo los suyos y avanzar hasta el último leído")
+        void consumeBatch_debeFiltrarYAvanzarPosicion() {
+            // Given
+            RecordingConsumer consumer = new RecordingConsumer();
+            lockedAt(new OutboxService.Position(100, 10));
+            when(outboxEventRepository.findAfter(100, 10, 3)).thenReturn(List.of(
+                event(11, 100, OutboxEventType.TICKET_CREADO),
+                event(12, 101, OutboxEventType.TICKET_PROXIMO),
+                event(13, 102, OutboxEventType.TICKET_COMPLETADO)));
+
+            // When
+            int read = outboxService.consumeBatch(consumer);
+
+            // Then
+            assertThat(read).isEqualTo(3);
+            assertThat(consumer.received).extracting(OutboxEvent::getId).containsExactly(11L);
+            verify(jdbcTemplate).update(startsWith("UPDATE outbox_offset"), eq(102L), eq(13L), eq("audit"));
+        }
+
+        @Test
+        @DisplayName("sin eventos nuevos → no debe llamar al consumidor ni mover la posición")
+        void consumeBatch_sinEventos_noDebeAvanzar() {
+            // Given
+            RecordingConsumer consumer = new RecordingConsumer();
+            lockedAt(new OutboxService.Position(100, 10));
+            when(outboxEventRepository.findAfter(100, 10, 3)).thenReturn(List.of());
+
+            // When
+            int read = outboxService.consumeBatch(consumer);
+
+            // Then
+            assertThat(read).isZero();
+            assertThat(consumer.received).isEmpty();
+            verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("error en el consumidor → debe propagarse sin mover la posición")
+        void consumeBatch_errorEnConsumidor_noDebeAvanzar() {
+            // Given
+            RecordingConsumer consumer = new RecordingConsumer();
+            consumer.failure = new IllegalStateException("boom");
+            lockedAt(new OutboxService.Position(0, 0));
+            when(outboxEventRepository.findAfter(0, 0, 3)).thenReturn(List.of(event(1, 50, OutboxEventType.TICKET_CREADO)));
+
+            // When / Then
+            assertThatThrownBy(() -> outboxService.consumeBatch(consumer)).isInstanceOf(IllegalStateException.class);
+            verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void lockedAt(OutboxService.Position position) {
+            when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("audit"))).thenReturn(List.of(position));
+        }
+    }
+
+    private static OutboxEvent event(long id, long txid, OutboxEventType type) {
+        return OutboxEvent.builder()
+            .id(id)
+            .txid(txid)
+            .eventType(type)
+            .payload(Map.of("ticketId", id))
+            .build();
+    }
+
+    private static class RecordingConsumer implements OutboxConsumer {
+
+        private final List<OutboxEvent> received = new CopyOnWriteArrayList<>();
+        private RuntimeException failure;
+
+        @Override
+        public String name() {
+            return "audit";
+        }
+
+        @Override
+        public Set<OutboxEventType> eventTypes() {
+            return EnumSet.of(OutboxEventType.TICKET_CREADO);
+        }
+
+        @Override
+        public void consume(List<OutboxEvent> events) {
+            if (failure != null) {
+                throw failure;
+            }
+            received.addAll(events);
+        }
+    }
+}
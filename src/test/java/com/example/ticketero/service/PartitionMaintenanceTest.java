@@ -0,0 +1,140 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.PartitioningProperties;
+import com.example.ticketero.service.PartitionMaintenance.Partition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PartitionMaintenance - Unit Tests")
+class PartitionMaintenanceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 15);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PartitionMaintenance partitionMaintenance;
+
+    @BeforeEach
+    void setUp() {
+        partitionMaintenance = new PartitionMaintenance(jdbcTemplate, new PartitioningProperties(true, 2, 7));
+    }
+
+    @Nested
+    @DisplayName("createUpcomingPartitions()")
+    class CrearParticiones {
+
+        @Test
+        @DisplayName("debe pedir la partición de hoy y de los días configurados para cada tabla")
+        void createUpcomingPartitions_debeCrearDiasFuturos() {
+            // Given
+            when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyString(), any(LocalDate.class)))
+                .thenReturn(false);
+            when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("ticket"), eq(TODAY.plusDays(2))))
+                .thenReturn(true);
+
+            // When
+            int created = partitionMaintenance.createUpcomingPartitions(TODAY);
+
+            // Then
+            assertThat(created).isEqualTo(1);
+            for (String table : PartitionMaintenance.PARTITIONED_TABLES) {
+                for (int offset = 0; offset <= 2; offset++) {
+                    verify(jdbcTemplate).queryForObject(
+                        "SELECT create_daily_partition(?, ?)", Boolean.class, table, TODAY.plusDays(offset));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("error en una tabla → debe seguir con las demás")
+        void createUpcomingPartitions_errorEnUnaTabla_debeContinuar() {
+            // Given
+            when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyString(), any(LocalDate.class)))
+                .thenReturn(true);
+            when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("mensaje"), any(LocalDate.class)))
+                .thenThrow(new DataAccessResourceFailureException("lock timeout"));
+
+            // When
+            int created = partitionMaintenance.createUpcomingPartitions(TODAY);
+
+            // Then
+            assertThat(created).isEqualTo(6);
+        }
+    }
+
+    @Nested
+    @DisplayName("archiveExpiredPartitions()")
+    class ArchivarParticiones {
+
+        @Test
+        @DisplayName("debe desacoplar y archivar solo las particiones fuera de la retención")
+        void archiveExpiredPartitions_debeArchivarSoloVencidas() {
+            // Given: retención de 7 días → se archiva lo anterior al 8 de enero
+            givenPartitions("ticket",
+                partition("ticket_p20240106"),
+                partition("ticket_p20240107"),
+                partition("ticket_p20240108"));
+            givenPartitions("mensaje", partition("mensaje_p20240115"));
+            givenPartitions("audit_log");
+
+            // When
+            int archived = partitionMaintenance.archiveExpiredPartitions(TODAY);
+
+            // Then
+            assertThat(archived).isEqualTo(2);
+            verify(jdbcTemplate).execute("ALTER TABLE ticket DETACH PARTITION \"ticket_p20240106\" CONCURRENTLY");
+            verify(jdbcTemplate).execute("ALTER TABLE \"ticket_p20240106\" SET SCHEMA archive");
+            verify(jdbcTemplate).execute("ALTER TABLE ticket DETACH PARTITION \"ticket_p20240107\" CONCURRENTLY");
+            verify(jdbcTemplate).execute("ALTER TABLE \"ticket_p20240107\" SET SCHEMA archive");
+            verify(jdbcTemplate, never()).execute(contains("ticket_p20240108"));
+            verify(jdbcTemplate, never()).execute(contains("mensaje_p"));
+        }
+
+        @Test
+        @DisplayName("error al desacoplar → no debe mover la partición y debe seguir")
+        void archiveExpiredPartitions_errorAlDesacoplar_debeContinuar() {
+            // Given
+            givenPartitions("ticket", partition("ticket_p20240101"));
+            givenPartitions("mensaje", partition("mensaje_p20240101"));
+            givenPartitions("audit_log");
+            doThrow(new DataAccessResourceFailureException("lock timeout"))
+                .when(jdbcTemplate).execute("ALTER TABLE ticket DETACH PARTITION \"ticket_p20240101\" CONCURRENTLY");
+
+            // When
+            int archived = partitionMaintenance.archiveExpiredPartitions(TODAY);
+
+            // Then
+            assertThat(archived).isEqualTo(1);
+            verify(jdbcTemplate, never()).execute("ALTER TABLE \"ticket_p20240101\" SET SCHEMA archive");
+            verify(jdbcTemplate).execute("ALTER TABLE \"mensaje_p20240101\" SET SCHEMA archive");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenPartitions(String table, Partition... partitions) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(table))).thenReturn(List.of(partitions));
+    }
+
+    private static Partition partition(String name) {
+        LocalDate day = LocalDate.parse(name.substring(name.length() - 8), DateTimeFormatter.BASIC_ISO_DATE);
+        return new Partition(name, day.plusDays(1).atStartOfDay());
+    }
+}
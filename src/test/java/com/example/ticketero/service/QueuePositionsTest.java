@@ -0,0 +1,132 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.QueueWatermark;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.QueueWatermarkRepository;
+import com.example.ticketero.repository.QueueWatermarkRepository.IssuedSeq;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QueuePositions - Unit Tests")
+class QueuePositionsTest {
+
+    @Mock
+    private QueueWatermarkRepository queueWatermarkRepository;
+
+    @InjectMocks
+    private QueuePositions queuePositions;
+
+    @Nested
+    @DisplayName("issue()")
+    class Emitir {
+
+        @Test
+        @DisplayName("debe tomar el número de la secuencia de la cola y restar la marca")
+        void issue_debeDerivarPosicionDeLaMarca() {
+            // Given
+            when(queueWatermarkRepository.issue("queue_seq_personal_banker", "PERSONAL_BANKER"))
+                .thenReturn(issued(125, 120));
+
+            // When
+            QueuePositions.Issued issued = queuePositions.issue(QueueType.PERSONAL_BANKER);
+
+            // Then
+            assertThat(issued.queueSeq()).isEqualTo(125);
+            assertThat(issued.position()).isEqualTo(5);
+        }
+    }
+
+    @Nested
+    @DisplayName("positionOf()")
+    class Posicion {
+
+        @Test
+        @DisplayName("ticket con número de llegada → debe ser su número menos la marca")
+        void positionOf_debeRestarMarca() {
+            // Given
+            Ticket ticket = ticketWaiting().queueSeq(58L).build();
+            when(queueWatermarkRepository.findById(QueueType.CAJA))
+                .thenReturn(Optional.of(QueueWatermark.builder().queueType(QueueType.CAJA).servedSeq(50L).build()));
+
+            // When + Then
+            assertThat(queuePositions.positionOf(ticket)).hasValue(8);
+        }
+
+        @Test
+        @DisplayName("marca adelantada por una atención fuera de orden → debe quedar en 1")
+        void positionOf_marcaAdelantada_debeQuedarEnUno() {
+            // Given
+            Ticket ticket = ticketWaiting().queueSeq(49L).build();
+            when(queueWatermarkRepository.findById(QueueType.CAJA))
+                .thenReturn(Optional.of(QueueWatermark.builder().queueType(QueueType.CAJA).servedSeq(50L).build()));
+
+            // When + Then
+            assertThat(queuePositions.positionOf(ticket)).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("ticket sin número de llegada → debe retornar vacío sin consultar")
+        void positionOf_sinNumero_debeRetornarVacio() {
+            // When
+            OptionalInt position = queuePositions.positionOf(ticketWaiting().build());
+
+            // Then
+            assertThat(position).isEmpty();
+            verifyNoInteractions(queueWatermarkRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("markServed()")
+    class MarcarAtendidos {
+
+        @Test
+        @DisplayName("debe avanzar una vez por cola hasta el mayor número atendido")
+        void markServed_debeAvanzarPorCola() {
+            // Given
+            List<Ticket> served = List.of(
+                ticketInProgress().queueType(QueueType.CAJA).queueSeq(11L).build(),
+                ticketInProgress().queueType(QueueType.CAJA).queueSeq(12L).build(),
+                ticketInProgress().queueType(QueueType.GERENCIA).queueSeq(3L).build(),
+                ticketInProgress().queueType(QueueType.EMPRESAS).build());
+
+            // When
+            queuePositions.markServed(served);
+
+            // Then
+            verify(queueWatermarkRepository).advance("CAJA", 12L);
+            verify(queueWatermarkRepository).advance("GERENCIA", 3L);
+            verify(queueWatermarkRepository, times(2)).advance(anyString(), anyLong());
+        }
+    }
+
+    private static IssuedSeq issued(long queueSeq, long servedSeq) {
+        return new IssuedSeq() {
+            @Override
+            public long getQueueSeq() {
+                return queueSeq;
+            }
+
+            @Override
+            public long getServedSeq() {
+                return servedSeq;
+            }
+        };
+    }
+}
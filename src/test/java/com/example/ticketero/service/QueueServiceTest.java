@@ -2,11 +2,10 @@ package com.example.ticketero.service;
 
 import com.example.ticketero.model.dto.response.QueueStatsResponse;
 import com.example.ticketero.model.dto.response.QueueSummaryResponse;
-import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.entity.QueueDailyStats;
 import com.example.ticketero.model.enums.QueueType;
-import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.QueueDailyStatsRepository;
 import com.example.ticketero.repository.QueueStatsRepository;
-import com.example.ticketero.repository.TicketRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -15,8 +14,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Collections;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static com.example.ticketero.testutil.TestDataBuilder.*;
 import static org.assertj.core.api.Assertions.*;
@@ -28,10 +29,13 @@ import static org.mockito.Mockito.*;
 class QueueServiceTest {
 
     @Mock
-    private TicketRepository ticketRepository;
+    private QueueStatsRepository queueStatsRepository;
 
     @Mock
-    private QueueStatsRepository queueStatsRepository;
+    private QueueDailyStatsRepository queueDailyStatsRepository;
+
+    @Mock
+    private QueueStateCounters queueStateCounters;
 
     @InjectMocks
     private QueueService queueService;
@@ -41,13 +45,38 @@ class QueueServiceTest {
     class ObtenerResumenTodasColas {
 
         @Test
-        @DisplayName("debe retornar resumen de todas las colas")
+        @DisplayName("contadores en memoria listos → no debe consultar los tickets activos")
+        void getAllQueuesSummary_contadoresListos_noDebeConsultarTickets() {
+            // Given
+            when(queueStateCounters.aggregateByQueue(any(LocalDateTime.class))).thenReturn(Optional.of(List.of(
+                queueAggregate(QueueType.CAJA, 4, 1, 1))));
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of());
+
+            // When
+            List<QueueSummaryResponse> result = queueService.getAllQueuesSummary();
+
+            // Then
+            assertThat(result).filteredOn(summary -> summary.queueType() == QueueType.CAJA)
+                .singleElement()
+                .satisfies(caja -> {
+                    assertThat(caja.ticketsWaiting()).isEqualTo(4);
+                    assertThat(caja.criticalTickets()).isEqualTo(1);
+                });
+            verifyNoInteractions(queueStatsRepository);
+        }
+
+        @Test
+        @DisplayName("debe retornar resumen de todas las colas con una query de estado y una de estadísticas")
         void getAllQueuesSummary_debeRetornarTodasLasColas() {
             // Given
-            when(ticketRepository.countByQueueTypeAndStatus(any(), any())).thenReturn(5L);
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(), any())).thenReturn(20L);
-            when(queueStatsRepository.getAverageWaitTimeToday(any())).thenReturn(10.0);
-            when(ticketRepository.findCriticalTickets(any())).thenReturn(Collections.emptyList());
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(List.of(
+                queueAggregate(QueueType.CAJA, 5, 2, 0),
+                queueAggregate(QueueType.GERENCIA, 1, 1, 0)
+            ));
+            when(queueDailyStatsRepository.findByIdBusinessDate(LocalDate.now())).thenReturn(List.of(
+                queueDailyStats(QueueType.CAJA, 20, 22, 10.0, 5.0),
+                queueDailyStats(QueueType.GERENCIA, 3, 4, 30.0, 25.0)
+            ));
 
             // When
             List<QueueSummaryResponse> summaries = queueService.getAllQueuesSummary();
@@ -56,6 +85,28 @@ class QueueServiceTest {
             assertThat(summaries).hasSize(4); // CAJA, PERSONAL_BANKER, EMPRESAS, GERENCIA
             assertThat(summaries).extracting(QueueSummaryResponse::queueType)
                 .containsExactlyInAnyOrder(QueueType.CAJA, QueueType.PERSONAL_BANKER, QueueType.EMPRESAS, QueueType.GERENCIA);
+            verify(queueStatsRepository, times(1)).aggregateByQueue(any(LocalDateTime.class));
+            verify(queueDailyStatsRepository, times(1)).findByIdBusinessDate(any());
+            verifyNoMoreInteractions(queueStatsRepository, queueDailyStatsRepository);
+        }
+
+        @Test
+        @DisplayName("cola sin tickets en el agregado ni estadísticas del día → debe quedar en cero")
+        void summarize_colaAusente_debeQuedarEnCero() {
+            // When
+            List<QueueSummaryResponse> summaries = queueService.summarize(
+                List.of(queueAggregate(QueueType.CAJA, 5, 2, 0)),
+                List.of(queueDailyStats(QueueType.CAJA, 20, 22, 10.0, 5.0)));
+
+            // Then
+            QueueSummaryResponse empresas = summaries.stream()
+                .filter(q -> q.queueType() == QueueType.EMPRESAS)
+                .findFirst().orElseThrow();
+            assertThat(empresas.ticketsWaiting()).isZero();
+            assertThat(empresas.ticketsBeingServed()).isZero();
+            assertThat(empresas.totalTicketsToday()).isZero();
+            assertThat(empresas.averageWaitTimeToday()).isZero();
+            assertThat(empresas.status()).isEqualTo("NORMAL");
         }
     }
 
@@ -67,16 +118,10 @@ class QueueServiceTest {
         @DisplayName("debe calcular resumen correctamente")
         void getQueueSummary_debeCalcularCorrectamente() {
             // Given
-            when(ticketRepository.countByQueueTypeAndStatus(QueueType.CAJA, TicketStatus.EN_ESPERA))
-                .thenReturn(8L);
-            when(ticketRepository.countByQueueTypeAndStatus(QueueType.CAJA, TicketStatus.ATENDIENDO))
-                .thenReturn(2L);
-            when(queueStatsRepository.countTodayByQueueAndStatus(QueueType.CAJA, TicketStatus.COMPLETADO))
-                .thenReturn(45L);
-            when(queueStatsRepository.getAverageWaitTimeToday(QueueType.CAJA))
-                .thenReturn(12.5);
-            when(ticketRepository.findCriticalTickets(any()))
-                .thenReturn(Collections.emptyList());
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(List.of(
+                queueAggregate(QueueType.CAJA, 8, 2, 0)));
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of(
+                queueDailyStats(QueueType.CAJA, 45, 50, 12.5, 5.0)));
 
             // When
             QueueSummaryResponse summary = queueService.getQueueSummary(QueueType.CAJA);
@@ -95,23 +140,10 @@ class QueueServiceTest {
         @DisplayName("con tickets críticos → debe marcar status CRITICAL")
         void getQueueSummary_conTicketsCriticos_debeMarcarCritical() {
             // Given - Necesitamos >2 tickets críticos para CRITICAL
-            List<Ticket> criticalTickets = List.of(
-                ticketWaiting().queueType(QueueType.CAJA).build(),
-                ticketWaiting().queueType(QueueType.CAJA).build(),
-                ticketWaiting().queueType(QueueType.CAJA).build(), // 3 tickets de CAJA
-                ticketWaiting().queueType(QueueType.PERSONAL_BANKER).build()
-            );
-
-            when(ticketRepository.countByQueueTypeAndStatus(QueueType.CAJA, TicketStatus.EN_ESPERA))
-                .thenReturn(5L); // Menos de 10 para que no sea HIGH_LOAD
-            when(ticketRepository.countByQueueTypeAndStatus(QueueType.CAJA, TicketStatus.ATENDIENDO))
-                .thenReturn(1L);
-            when(queueStatsRepository.countTodayByQueueAndStatus(QueueType.CAJA, TicketStatus.COMPLETADO))
-                .thenReturn(10L);
-            when(queueStatsRepository.getAverageWaitTimeToday(QueueType.CAJA))
-                .thenReturn(5.0);
-            when(ticketRepository.findCriticalTickets(any()))
-                .thenReturn(criticalTickets);
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(List.of(
+                queueAggregate(QueueType.CAJA, 5, 1, 3),
+                queueAggregate(QueueType.PERSONAL_BANKER, 2, 0, 1)));
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of());
 
             // When
             QueueSummaryResponse summary = queueService.getQueueSummary(QueueType.CAJA);
@@ -125,10 +157,10 @@ class QueueServiceTest {
         @DisplayName("sin datos de tiempo promedio → debe usar 0")
         void getQueueSummary_sinDatosTiempo_debeUsar0() {
             // Given
-            when(ticketRepository.countByQueueTypeAndStatus(any(), any())).thenReturn(1L);
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(), any())).thenReturn(5L);
-            when(queueStatsRepository.getAverageWaitTimeToday(any())).thenReturn(null);
-            when(ticketRepository.findCriticalTickets(any())).thenReturn(Collections.emptyList());
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(List.of(
+                queueAggregate(QueueType.CAJA, 1, 1, 0)));
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of(
+                queueDailyStats(QueueType.CAJA, 5, 0, null, 5.0)));
 
             // When
             QueueSummaryResponse summary = queueService.getQueueSummary(QueueType.CAJA);
@@ -141,10 +173,9 @@ class QueueServiceTest {
         @DisplayName("debe determinar status según carga")
         void getQueueSummary_debeDeterminarStatusSegunCarga() {
             // Given - NORMAL (≤5 waiting, 0 critical)
-            when(ticketRepository.countByQueueTypeAndStatus(any(), any())).thenReturn(3L);
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(), any())).thenReturn(10L);
-            when(queueStatsRepository.getAverageWaitTimeToday(any())).thenReturn(5.0);
-            when(ticketRepository.findCriticalTickets(any())).thenReturn(Collections.emptyList());
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(List.of(
+                queueAggregate(QueueType.CAJA, 3, 3, 0)));
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of());
 
             // When
             QueueSummaryResponse summary = queueService.getQueueSummary(QueueType.CAJA);
@@ -162,18 +193,10 @@ class QueueServiceTest {
         @DisplayName("debe calcular estadísticas completas")
         void getQueueStats_debeCalcularEstadisticasCompletas() {
             // Given
-            when(queueStatsRepository.countTodayByQueueAndStatus(QueueType.CAJA, TicketStatus.COMPLETADO))
-                .thenReturn(50L);
-            when(ticketRepository.countByQueueTypeAndStatus(QueueType.CAJA, TicketStatus.EN_ESPERA))
-                .thenReturn(8L);
-            when(ticketRepository.countByQueueTypeAndStatus(QueueType.CAJA, TicketStatus.ATENDIENDO))
-                .thenReturn(3L);
-            when(queueStatsRepository.getAverageServiceTimeToday(QueueType.CAJA))
-                .thenReturn(4.5);
-            when(queueStatsRepository.getAverageWaitTimeToday(QueueType.CAJA))
-                .thenReturn(15.0);
-            when(ticketRepository.findCriticalTickets(any()))
-                .thenReturn(Collections.emptyList());
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(List.of(
+                queueAggregate(QueueType.CAJA, 8, 3, 1),
+                queueAggregate(QueueType.GERENCIA, 2, 1, 0)));
+            givenStatsDeHoy(queueDailyStats(QueueType.CAJA, 50, 53, 15.0, 4.5));
 
             // When
             QueueStatsResponse stats = queueService.getQueueStats(QueueType.CAJA);
@@ -185,6 +208,7 @@ class QueueServiceTest {
             assertThat(stats.ticketsBeingServed()).isEqualTo(3);
             assertThat(stats.averageServiceTimeMinutes()).isEqualTo(4);
             assertThat(stats.averageWaitTimeMinutes()).isEqualTo(15);
+            assertThat(stats.criticalTickets()).isEqualTo(1);
             assertThat(stats.efficiency()).isGreaterThan(0.0);
             assertThat(stats.trends()).containsKeys("waitTimeVsPrevious", "serviceTimeVsPrevious");
         }
@@ -193,16 +217,15 @@ class QueueServiceTest {
         @DisplayName("sin datos de tiempo → debe usar valores por defecto")
         void getQueueStats_sinDatosTiempo_debeUsarDefaults() {
             // Given
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(), any())).thenReturn(10L);
-            when(ticketRepository.countByQueueTypeAndStatus(any(), any())).thenReturn(5L);
-            when(queueStatsRepository.getAverageServiceTimeToday(any())).thenReturn(null);
-            when(queueStatsRepository.getAverageWaitTimeToday(any())).thenReturn(null);
-            when(ticketRepository.findCriticalTickets(any())).thenReturn(Collections.emptyList());
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(List.of());
+            when(queueDailyStatsRepository.findById(any())).thenReturn(Optional.empty());
 
             // When
             QueueStatsResponse stats = queueService.getQueueStats(QueueType.CAJA);
 
             // Then
+            assertThat(stats.ticketsCompleted()).isZero();
+            assertThat(stats.ticketsWaiting()).isZero();
             assertThat(stats.averageServiceTimeMinutes()).isEqualTo(5); // Default de CAJA
             assertThat(stats.averageWaitTimeMinutes()).isEqualTo(0);
             assertThat(stats.efficiency()).isEqualTo(85.0); // Default
@@ -212,12 +235,8 @@ class QueueServiceTest {
         @DisplayName("debe calcular eficiencia correctamente")
         void getQueueStats_debeCalcularEficiencia() {
             // Given - tiempo real = tiempo estimado → 100% eficiencia
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(), any())).thenReturn(10L);
-            when(ticketRepository.countByQueueTypeAndStatus(any(), any())).thenReturn(5L);
-            when(queueStatsRepository.getAverageServiceTimeToday(QueueType.CAJA))
-                .thenReturn(5.0); // Igual al estimado de CAJA
-            when(queueStatsRepository.getAverageWaitTimeToday(any())).thenReturn(10.0);
-            when(ticketRepository.findCriticalTickets(any())).thenReturn(Collections.emptyList());
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(List.of());
+            givenStatsDeHoy(queueDailyStats(QueueType.CAJA, 10, 10, 10.0, 5.0)); // Igual al estimado de CAJA
 
             // When
             QueueStatsResponse stats = queueService.getQueueStats(QueueType.CAJA);
@@ -235,15 +254,10 @@ class QueueServiceTest {
         @DisplayName("determineQueueStatus debe clasificar correctamente")
         void determineQueueStatus_debeClasificarCorrectamente() {
             // Given - Testear indirectamente a través de getQueueSummary
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(), any())).thenReturn(10L);
-            when(queueStatsRepository.getAverageWaitTimeToday(any())).thenReturn(5.0);
-            when(ticketRepository.findCriticalTickets(any())).thenReturn(Collections.emptyList());
-
             // HIGH_LOAD (>10 waiting)
-            when(ticketRepository.countByQueueTypeAndStatus(any(), eq(TicketStatus.EN_ESPERA)))
-                .thenReturn(15L);
-            when(ticketRepository.countByQueueTypeAndStatus(any(), eq(TicketStatus.ATENDIENDO)))
-                .thenReturn(2L);
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(List.of(
+                queueAggregate(QueueType.CAJA, 15, 2, 0)));
+            when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of());
 
             // When
             QueueSummaryResponse summary = queueService.getQueueSummary(QueueType.CAJA);
@@ -256,12 +270,8 @@ class QueueServiceTest {
         @DisplayName("calculateEfficiency debe manejar casos edge")
         void calculateEfficiency_debeManejarcasosEdge() {
             // Given - Testear indirectamente con tiempo muy diferente
-            when(queueStatsRepository.countTodayByQueueAndStatus(any(), any())).thenReturn(10L);
-            when(ticketRepository.countByQueueTypeAndStatus(any(), any())).thenReturn(5L);
-            when(queueStatsRepository.getAverageServiceTimeToday(QueueType.CAJA))
-                .thenReturn(10.0); // Doble del estimado (5 min)
-            when(queueStatsRepository.getAverageWaitTimeToday(any())).thenReturn(10.0);
-            when(ticketRepository.findCriticalTickets(any())).thenReturn(Collections.emptyList());
+            when(queueStatsRepository.aggregateByQueue(any(LocalDateTime.class))).thenReturn(List.of());
+            givenStatsDeHoy(queueDailyStats(QueueType.CAJA, 10, 10, 10.0, 10.0)); // Doble del estimado (5 min)
 
             // When
             QueueStatsResponse stats = queueService.getQueueStats(QueueType.CAJA);
@@ -271,4 +281,9 @@ class QueueServiceTest {
             assertThat(stats.efficiency()).isEqualTo(0.0);
         }
     }
-}
\ No newline at end of file
+
+    private void givenStatsDeHoy(QueueDailyStats stats) {
+        when(queueDailyStatsRepository.findById(new QueueDailyStats.Key(LocalDate.now(), stats.getQueueType())))
+            .thenReturn(Optional.of(stats));
+    }
+}
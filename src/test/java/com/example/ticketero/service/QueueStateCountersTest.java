@@ -0,0 +1,255 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.QueueStatsRepository;
+import com.example.ticketero.repository.QueueStatsRepository.QueueAggregate;
+import com.example.ticketero.repository.QueueStatsRepository.StatusCount;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QueueStateCounters - Unit Tests")
+class QueueStateCountersTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    @Mock
+    private QueueStatsRepository queueStatsRepository;
+
+    @Mock
+    private AdvisorRepository advisorRepository;
+
+    @Mock
+    private LiveQueueIndex liveQueueIndex;
+
+    @InjectMocks
+    private QueueStateCounters queueStateCounters;
+
+    @Nested
+    @DisplayName("Transiciones")
+    class Transiciones {
+
+        @Test
+        @DisplayName("ticket creado y luego asignado → debe moverse de EN_ESPERA a ATENDIENDO")
+        void onTicketStatusChanged_debeMoverConteos() {
+            // When
+            queueStateCounters.onTicketStatusChanged(ticketEvent(null, TicketStatus.EN_ESPERA));
+            queueStateCounters.onTicketStatusChanged(ticketEvent(null, TicketStatus.EN_ESPERA));
+            queueStateCounters.onTicketStatusChanged(ticketEvent(TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO));
+
+            // Then
+            assertThat(queueStateCounters.ticketCount(QueueType.CAJA, TicketStatus.EN_ESPERA)).isEqualTo(1);
+            assertThat(queueStateCounters.servingCount(QueueType.CAJA)).isEqualTo(1);
+            assertThat(queueStateCounters.waitingCount(QueueType.EMPRESAS)).isZero();
+        }
+
+        @Test
+        @DisplayName("ticket completado → debe salir de los conteos sin contar el estado terminal")
+        void onTicketStatusChanged_completado_noDebeContarTerminal() {
+            // Given
+            queueStateCounters.onTicketStatusChanged(ticketEvent(TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO));
+
+            // When
+            queueStateCounters.onTicketStatusChanged(ticketEvent(TicketStatus.ATENDIENDO, TicketStatus.COMPLETADO));
+
+            // Then
+            assertThat(queueStateCounters.servingCount(QueueType.CAJA)).isZero();
+            assertThat(queueStateCounters.ticketCount(QueueType.CAJA, TicketStatus.COMPLETADO)).isZero();
+        }
+
+        @Test
+        @DisplayName("asesor pasa a BUSY → debe moverse en el total y en cada cola que atiende")
+        void onAdvisorStatusChanged_debeMoverConteosPorCola() {
+            // When
+            queueStateCounters.onAdvisorStatusChanged(advisorEvent(null, AdvisorStatus.AVAILABLE));
+            queueStateCounters.onAdvisorStatusChanged(advisorEvent(AdvisorStatus.AVAILABLE, AdvisorStatus.BUSY));
+
+            // Then
+            assertThat(queueStateCounters.advisorCount(AdvisorStatus.AVAILABLE)).isZero();
+            assertThat(queueStateCounters.advisorCount(AdvisorStatus.BUSY)).isEqualTo(1);
+            assertThat(queueStateCounters.advisorCount(QueueType.CAJA, AdvisorStatus.BUSY)).isEqualTo(1);
+            assertThat(queueStateCounters.advisorCount(QueueType.PERSONAL_BANKER, AdvisorStatus.BUSY)).isEqualTo(1);
+            assertThat(queueStateCounters.advisorCount(QueueType.EMPRESAS, AdvisorStatus.BUSY)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("reconcile()")
+    class Reconciliar {
+
+        @Test
+        @DisplayName("debe reemplazar los conteos por los de la BD e informar la corrección")
+        void reconcile_debeCorregirDesdeLaBD() {
+            // Given: un evento perdido dejó CAJA con un ticket de más
+            queueStateCounters.onTicketStatusChanged(ticketEvent(null, TicketStatus.EN_ESPERA));
+            queueStateCounters.onTicketStatusChanged(ticketEvent(null, TicketStatus.EN_ESPERA));
+            when(queueStatsRepository.countActiveByQueueAndStatus()).thenReturn(List.of(
+                statusCount(QueueType.CAJA, TicketStatus.EN_ESPERA, 1),
+                statusCount(QueueType.EMPRESAS, TicketStatus.ATENDIENDO, 2)));
+            when(advisorRepository.findAll()).thenReturn(List.of(
+                advisor(AdvisorStatus.AVAILABLE, List.of(QueueType.CAJA)),
+                advisor(AdvisorStatus.OFFLINE, List.of(QueueType.EMPRESAS, QueueType.GERENCIA))));
+
+            // When
+            long drift = queueStateCounters.reconcile();
+
+            // Then
+            // Tickets 1 + 2, asesores por cola 3 y por estado 2
+            assertThat(drift).isEqualTo(8);
+            assertThat(queueStateCounters.isReady()).isTrue();
+            assertThat(queueStateCounters.waitingCount(QueueType.CAJA)).isEqualTo(1);
+            assertThat(queueStateCounters.servingCount(QueueType.EMPRESAS)).isEqualTo(2);
+            assertThat(queueStateCounters.advisorCount(AdvisorStatus.OFFLINE)).isEqualTo(1);
+            assertThat(queueStateCounters.advisorCount(QueueType.GERENCIA, AdvisorStatus.OFFLINE)).isEqualTo(1);
+            assertThat(queueStateCounters.reconciledAt()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("ya cargados → solo debe corregir la diferencia que se repite en dos reconciliaciones")
+        void reconcile_cargados_debeCorregirSoloDiferenciaPersistente() {
+            // Given: carga inicial con un ticket en espera
+            when(advisorRepository.findAll()).thenReturn(List.of());
+            when(queueStatsRepository.countActiveByQueueAndStatus()).thenReturn(List.of(
+                statusCount(QueueType.CAJA, TicketStatus.EN_ESPERA, 1)));
+            queueStateCounters.reconcile();
+            // Un evento de creación se pierde: la BD tiene 2
+            when(queueStatsRepository.countActiveByQueueAndStatus()).thenReturn(List.of(
+                statusCount(QueueType.CAJA, TicketStatus.EN_ESPERA, 2)));
+
+            // When / Then: la primera vez puede ser un evento en camino
+            assertThat(queueStateCounters.reconcile()).isZero();
+            assertThat(queueStateCounters.waitingCount(QueueType.CAJA)).isEqualTo(1);
+
+            // When / Then: la diferencia se repite
+            assertThat(queueStateCounters.reconcile()).isEqualTo(1);
+            assertThat(queueStateCounters.waitingCount(QueueType.CAJA)).isEqualTo(2);
+            assertThat(queueStateCounters.reconcile()).isZero();
+        }
+
+        @Test
+        @DisplayName("diferencia pasajera → no debe corregirse si el evento llega antes de la siguiente reconciliación")
+        void reconcile_diferenciaPasajera_noDebeCorregir() {
+            // Given
+            when(advisorRepository.findAll()).thenReturn(List.of());
+            when(queueStatsRepository.countActiveByQueueAndStatus()).thenReturn(List.of());
+            queueStateCounters.reconcile();
+            // El ticket ya está confirmado en la BD pero su evento aún no se aplica
+            when(queueStatsRepository.countActiveByQueueAndStatus()).thenReturn(List.of(
+                statusCount(QueueType.CAJA, TicketStatus.EN_ESPERA, 1)));
+            assertThat(queueStateCounters.reconcile()).isZero();
+
+            // When
+            queueStateCounters.onTicketStatusChanged(ticketEvent(null, TicketStatus.EN_ESPERA));
+
+            // Then
+            assertThat(queueStateCounters.reconcile()).isZero();
+            assertThat(queueStateCounters.waitingCount(QueueType.CAJA)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("contadores al día → no debe haber corrección")
+        void reconcile_alDia_noDebeCorregir() {
+            // Given
+            queueStateCounters.onTicketStatusChanged(ticketEvent(null, TicketStatus.EN_ESPERA));
+            when(queueStatsRepository.countActiveByQueueAndStatus()).thenReturn(List.of(
+                statusCount(QueueType.CAJA, TicketStatus.EN_ESPERA, 1)));
+            when(advisorRepository.findAll()).thenReturn(List.of());
+
+            // When / Then
+            assertThat(queueStateCounters.reconcile()).isZero();
+            assertThat(queueStateCounters.lastDrift()).isZero();
+        }
+
+        @Test
+        @DisplayName("BD caída al arrancar → debe quedar sin cargar y no propagar el error")
+        void initialize_errorDeBD_debeQuedarSinCargar() {
+            // Given
+            when(queueStatsRepository.countActiveByQueueAndStatus()).thenThrow(new RuntimeException("DB down"));
+
+            // When
+            assertThatCode(() -> queueStateCounters.initialize()).doesNotThrowAnyException();
+
+            // Then
+            assertThat(queueStateCounters.isReady()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("aggregateByQueue()")
+    class Agregado {
+
+        @Test
+        @DisplayName("sin reconciliar → debe retornar vacío para que se lea la BD")
+        void aggregateByQueue_sinReconciliar_debeSerVacio() {
+            assertThat(queueStateCounters.aggregateByQueue(NOW)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("listo → debe armar el agregado con los críticos de LiveQueueIndex")
+        void aggregateByQueue_listo_debeArmarAgregado() {
+            // Given
+            when(queueStatsRepository.countActiveByQueueAndStatus()).thenReturn(List.of(
+                statusCount(QueueType.CAJA, TicketStatus.EN_ESPERA, 3),
+                statusCount(QueueType.CAJA, TicketStatus.PROXIMO, 1),
+                statusCount(QueueType.CAJA, TicketStatus.ATENDIENDO, 2)));
+            when(advisorRepository.findAll()).thenReturn(List.of());
+            queueStateCounters.reconcile();
+            when(liveQueueIndex.isReady()).thenReturn(true);
+            when(liveQueueIndex.waitingSince(any(), any())).thenReturn(0);
+            when(liveQueueIndex.waitingSince(QueueType.CAJA, NOW.minusMinutes(QueueType.CAJA.getMaxWaitTimeMinutes())))
+                .thenReturn(1);
+
+            // When
+            List<QueueAggregate> aggregates = queueStateCounters.aggregateByQueue(NOW).orElseThrow();
+
+            // Then
+            assertThat(aggregates).hasSize(QueueType.values().length);
+            QueueAggregate caja = aggregates.stream()
+                .filter(aggregate -> aggregate.getQueueType().equals("CAJA"))
+                .findFirst().orElseThrow();
+            assertThat(caja.getWaiting()).isEqualTo(4);
+            assertThat(caja.getServing()).isEqualTo(2);
+            assertThat(caja.getCritical()).isEqualTo(1);
+        }
+    }
+
+    private static TicketStatusChangedEvent ticketEvent(TicketStatus previous, TicketStatus next) {
+        return new TicketStatusChangedEvent(1L, "C01", "Sucursal Centro", QueueType.CAJA, previous, next,
+            NOW, null, null, null, null, NOW);
+    }
+
+    private static AdvisorStatusChangedEvent advisorEvent(AdvisorStatus previous, AdvisorStatus next) {
+        return new AdvisorStatusChangedEvent(1L, "Ana", List.of(QueueType.CAJA, QueueType.PERSONAL_BANKER),
+            previous, next, NOW);
+    }
+
+    private static Advisor advisor(AdvisorStatus status, List<QueueType> queueTypes) {
+        return Advisor.builder().status(status).queueTypes(queueTypes).build();
+    }
+
+    private static StatusCount statusCount(QueueType queueType, TicketStatus status, long total) {
+        return new StatusCount() {
+            public String getQueueType() { return queueType.name(); }
+            public String getStatus() { return status.name(); }
+            public long getTotal() { return total; }
+        };
+    }
+}
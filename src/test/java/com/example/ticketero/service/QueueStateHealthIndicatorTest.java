@@ -0,0 +1,69 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QueueStateHealthIndicator - Unit Tests")
+class QueueStateHealthIndicatorTest {
+
+    @Mock
+    private QueueStateCounters queueStateCounters;
+
+    @InjectMocks
+    private QueueStateHealthIndicator healthIndicator;
+
+    @Test
+    @DisplayName("contadores sin cargar → debe informar UNKNOWN")
+    void health_sinCargar_debeSerUnknown() {
+        // Given
+        when(queueStateCounters.isReady()).thenReturn(false);
+
+        // When
+        Health health = healthIndicator.health();
+
+        // Then
+        assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("contadores cargados → debe informar UP con colas y asesores")
+    void health_cargados_debeIncluirConteos() {
+        // Given
+        when(queueStateCounters.isReady()).thenReturn(true);
+        when(queueStateCounters.waitingCount(any())).thenReturn(0L);
+        when(queueStateCounters.waitingCount(QueueType.CAJA)).thenReturn(4L);
+        when(queueStateCounters.advisorCount(any(AdvisorStatus.class))).thenReturn(0L);
+        when(queueStateCounters.advisorCount(AdvisorStatus.BUSY)).thenReturn(2L);
+        when(queueStateCounters.reconciledAt()).thenReturn(LocalDateTime.of(2024, 1, 15, 10, 0));
+
+        // When
+        Health health = healthIndicator.health();
+
+        // Then
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails().get("queues"))
+            .asInstanceOf(InstanceOfAssertFactories.map(String.class, Object.class))
+            .containsEntry("CAJA", Map.of("waiting", 4L, "serving", 0L));
+        assertThat(health.getDetails().get("advisors"))
+            .asInstanceOf(InstanceOfAssertFactories.map(String.class, Object.class))
+            .containsEntry("BUSY", 2L);
+        verify(queueStateCounters, never()).reconcile();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.event.QueueStatsUpdatedEvent;
+import com.example.ticketero.model.entity.OutboxEvent;
+import com.example.ticketero.model.entity.QueueDailyStats;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.OutboxEventType;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.QueueDailyStatsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QueueStatsRecorder - Unit Tests")
+class QueueStatsRecorderTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    @Mock
+    private QueueDailyStatsRepository queueDailyStatsRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private QueueStatsRecorder queueStatsRecorder;
+
+    @Nested
+    @DisplayName("recordAssignments()")
+    class RegistrarAsignaciones {
+
+        @Test
+        @DisplayName("lote de varias colas → debe escribir un upsert por cola con la suma de esperas")
+        void recordAssignments_debeAgruparPorCola() {
+            // Given
+            List<Ticket> tickets = List.of(
+                asignado(QueueType.CAJA, 3),
+                asignado(QueueType.CAJA, 12),
+                asignado(QueueType.CAJA, 70),
+                asignado(QueueType.GERENCIA, 20));
+
+            // When
+            queueStatsRecorder.recordAssignments(tickets);
+
+            // Then
+            ArgumentCaptor<QueueDailyStats> captor = ArgumentCaptor.forClass(QueueDailyStats.class);
+            verify(queueDailyStatsRepository, times(2)).accumulate(captor.capture());
+
+            QueueDailyStats caja = captor.getAllValues().get(0);
+            assertThat(caja.getId().getBusinessDate()).isEqualTo(LocalDate.of(2024, 1, 15));
+            assertThat(caja.getQueueType()).isEqualTo(QueueType.CAJA);
+            assertThat(caja.getAssignedCount()).isEqualTo(3);
+            assertThat(caja.getWaitSecondsSum()).isEqualTo((3 + 12 + 70) * 60);
+            assertThat(caja.getWaitSecondsMax()).isEqualTo(70 * 60);
+            assertThat(caja.getWaitHistogram()).containsExactly(1, 0, 1, 0, 0, 1);
+            assertThat(caja.getCompletedCount()).isZero();
+
+            QueueDailyStats gerencia = captor.getAllValues().get(1);
+            assertThat(gerencia.getQueueType()).isEqualTo(QueueType.GERENCIA);
+            assertThat(gerencia.getAverageWaitMinutes()).isEqualTo(20.0);
+        }
+
+        @Test
+        @DisplayName("lote vacío → no debe escribir")
+        void recordAssignments_loteVacio_noDebeEscribir() {
+            // When
+            queueStatsRecorder.recordAssignments(List.of());
+
+            // Then
+            verify(queueDailyStatsRepository, never()).accumulate(any(QueueDailyStats.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("recordCompletions()")
+    class RegistrarTermino {
+
+        @Test
+        @DisplayName("ticket completado → debe sumar el tiempo de atención al día de término")
+        void recordCompletions_debeSumarAtencion() {
+            // Given
+            Ticket ticket = ticketCompleted()
+                .assignedAt(NOW.minusMinutes(8))
+                .completedAt(NOW)
+                .build();
+
+            // When
+            queueStatsRecorder.recordCompletions(List.of(ticket));
+
+            // Then
+            ArgumentCaptor<QueueDailyStats> captor = ArgumentCaptor.forClass(QueueDailyStats.class);
+            verify(queueDailyStatsRepository).accumulate(captor.capture());
+            QueueDailyStats delta = captor.getValue();
+            assertThat(delta.getCompletedCount()).isEqualTo(1);
+            assertThat(delta.getServiceSecondsSum()).isEqualTo(8 * 60);
+            assertThat(delta.getAverageServiceMinutes()).isEqualTo(8.0);
+            assertThat(delta.getAssignedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("ticket sin asignación → no debe escribir")
+        void recordCompletions_sinAsignacion_noDebeEscribir() {
+            // Given
+            Ticket ticket = ticketCompleted().assignedAt(null).build();
+
+            // When
+            queueStatsRecorder.recordCompletions(List.of(ticket));
+
+            // Then
+            verifyNoInteractions(queueDailyStatsRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("consume()")
+    class ConsumirOutbox {
+
+        @Test
+        @DisplayName("eventos de asignación y término → debe acumular con los tiempos del payload")
+        void consume_debeAcumularDesdeElPayload() {
+            // Given
+            OutboxEvent asignacion = OutboxEvent.builder()
+                .eventType(OutboxEventType.TICKET_ASIGNADO)
+                .payload(Map.of(
+                    "queueType", "CAJA",
+                    "createdAt", NOW.minusMinutes(10).toString(),
+                    "assignedAt", NOW.toString()))
+                .build();
+            OutboxEvent termino = OutboxEvent.builder()
+                .eventType(OutboxEventType.TICKET_COMPLETADO)
+                .payload(Map.of(
+                    "queueType", "CAJA",
+                    "createdAt", NOW.minusMinutes(30).toString(),
+                    "assignedAt", NOW.minusMinutes(20).toString(),
+                    "completedAt", NOW.toString()))
+                .build();
+
+            // When
+            queueStatsRecorder.consume(List.of(asignacion, termino));
+
+            // Then
+            ArgumentCaptor<QueueDailyStats> captor = ArgumentCaptor.forClass(QueueDailyStats.class);
+            verify(queueDailyStatsRepository, times(2)).accumulate(captor.capture());
+            assertThat(captor.getAllValues().get(0).getWaitSecondsSum()).isEqualTo(10 * 60);
+            assertThat(captor.getAllValues().get(1).getServiceSecondsSum()).isEqualTo(20 * 60);
+        }
+
+        @Test
+        @DisplayName("lote escrito → debe publicar las colas actualizadas para invalidar el dashboard")
+        void consume_debePublicarColasActualizadas() {
+            // Given
+            OutboxEvent termino = OutboxEvent.builder()
+                .eventType(OutboxEventType.TICKET_COMPLETADO)
+                .payload(Map.of(
+                    "queueType", "EMPRESAS",
+                    "createdAt", NOW.minusMinutes(30).toString(),
+                    "assignedAt", NOW.minusMinutes(20).toString(),
+                    "completedAt", NOW.toString()))
+                .build();
+
+            // When
+            queueStatsRecorder.consume(List.of(termino));
+
+            // Then
+            verify(eventPublisher).publishEvent(new QueueStatsUpdatedEvent(Set.of(QueueType.EMPRESAS)));
+        }
+
+        @Test
+        @DisplayName("lote sin nada que escribir → no debe publicar")
+        void consume_sinCambios_noDebePublicar() {
+            // Given - asignación sin hora de creación en el payload
+            OutboxEvent asignacion = OutboxEvent.builder()
+                .eventType(OutboxEventType.TICKET_ASIGNADO)
+                .payload(Map.of("queueType", "CAJA", "assignedAt", NOW.toString()))
+                .build();
+
+            // When
+            queueStatsRecorder.consume(List.of(asignacion));
+
+            // Then
+            verifyNoInteractions(queueDailyStatsRepository, eventPublisher);
+        }
+    }
+
+    private static Ticket asignado(QueueType queueType, int waitMinutes) {
+        return ticketInProgress()
+            .queueType(queueType)
+            .createdAt(NOW.minusMinutes(waitMinutes))
+            .assignedAt(NOW)
+            .build();
+    }
+}
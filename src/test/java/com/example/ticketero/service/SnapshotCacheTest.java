@@ -0,0 +1,178 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.service.SnapshotCache.Snapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SnapshotCache - Unit Tests")
+class SnapshotCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicReference<String> content = new AtomicReference<>("v1");
+    private final MutableClock clock = new MutableClock();
+
+    @Nested
+    @DisplayName("Frescura")
+    class Frescura {
+
+        @Test
+        @DisplayName("dentro del presupuesto de antigüedad → no debe recalcular")
+        void get_snapshotFresco_noDebeRecalcular() {
+            // Given
+            SnapshotCache<String> cache = cache(Duration.ofSeconds(1));
+
+            // When
+            Snapshot<String> first = cache.get();
+            clock.advance(Duration.ofMillis(900));
+            Snapshot<String> second = cache.get();
+
+            // Then
+            assertThat(second).isSameAs(first);
+            assertThat(loads).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("vencido el presupuesto con el mismo contenido → debe conservar el ETag")
+        void get_vencidoSinCambios_debeConservarEtag() {
+            // Given
+            SnapshotCache<String> cache = cache(Duration.ofSeconds(1));
+            Snapshot<String> first = cache.get();
+
+            // When
+            clock.advance(Duration.ofSeconds(2));
+            Snapshot<String> second = cache.get();
+
+            // Then
+            assertThat(loads).hasValue(2);
+            assertThat(second.etag()).isEqualTo(first.etag());
+        }
+
+        @Test
+        @DisplayName("invalidado con contenido nuevo → debe recalcular y cambiar el ETag")
+        void get_invalidado_debeRecalcular() {
+            // Given
+            SnapshotCache<String> cache = cache(Duration.ofMinutes(1));
+            Snapshot<String> first = cache.get();
+
+            // When
+            content.set("v2");
+            cache.invalidate();
+            Snapshot<String> second = cache.get();
+
+            // Then
+            assertThat(second.value()).isEqualTo("v2");
+            assertThat(second.etag()).isNotEqualTo(first.etag()).startsWith("\"").endsWith("\"");
+        }
+
+        @Test
+        @DisplayName("error al calcular → debe propagarlo y permitir reintentar")
+        void get_errorAlCalcular_debePropagar() {
+            // Given
+            SnapshotCache<String> failing = new SnapshotCache<>(() -> {
+                if (loads.incrementAndGet() == 1) {
+                    throw new IllegalStateException("DB down");
+                }
+                return "ok";
+            }, value -> value, Duration.ofSeconds(1), clock);
+
+            // When / Then
+            assertThatThrownBy(failing::get).isInstanceOf(IllegalStateException.class);
+            assertThat(failing.get().value()).isEqualTo("ok");
+        }
+    }
+
+    @Nested
+    @DisplayName("Single-flight")
+    class SingleFlight {
+
+        @Test
+        @DisplayName("pollers concurrentes → deben compartir un solo cálculo")
+        void get_concurrente_debeCalcularUnaVez() throws Exception {
+            // Given
+            CountDownLatch release = new CountDownLatch(1);
+            SnapshotCache<String> slow = new SnapshotCache<>(() -> {
+                loads.incrementAndGet();
+                await(release);
+                return "snapshot";
+            }, value -> value, Duration.ofSeconds(1), clock);
+
+            ExecutorService pollers = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<Snapshot<String>>> results = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    results.add(pollers.submit(slow::get));
+                }
+
+                // When
+                Thread.sleep(100);
+                release.countDown();
+
+                // Then
+                Snapshot<String> first = results.get(0).get(5, TimeUnit.SECONDS);
+                for (Future<Snapshot<String>> result : results) {
+                    assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+                }
+                assertThat(loads).hasValue(1);
+            } finally {
+                pollers.shutdownNow();
+            }
+        }
+    }
+
+    private SnapshotCache<String> cache(Duration maxStaleness) {
+        return new SnapshotCache<>(() -> {
+            loads.incrementAndGet();
+            return content.get();
+        }, value -> value, maxStaleness, clock);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-15T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.TelegramChat;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.repository.TelegramChatRepository;
+import com.example.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TelegramChatService - Unit Tests")
+class TelegramChatServiceTest {
+
+    private static final UUID REFERENCIA = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+
+    @Mock
+    private TelegramChatRepository telegramChatRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @InjectMocks
+    private TelegramChatService telegramChatService;
+
+    @Nested
+    @DisplayName("linkFromStart()")
+    class VincularChat {
+
+        @Test
+        @DisplayName("/start con la referencia de un ticket → debe guardar el chat para su teléfono")
+        void linkFromStart_ticketConTelefono_debeGuardarChat() {
+            // Given
+            Ticket ticket = ticketWaiting().codigoReferencia(REFERENCIA).telefono("+56912345678").build();
+            when(ticketRepository.findByCodigoReferencia(REFERENCIA)).thenReturn(Optional.of(ticket));
+            when(telegramChatRepository.findById("+56912345678")).thenReturn(Optional.empty());
+
+            // When
+            boolean linked = telegramChatService.linkFromStart("987654321", "/start " + REFERENCIA);
+
+            // Then
+            assertThat(linked).isTrue();
+            ArgumentCaptor<TelegramChat> captor = ArgumentCaptor.forClass(TelegramChat.class);
+            verify(telegramChatRepository).save(captor.capture());
+            assertThat(captor.getValue().getTelefono()).isEqualTo("+56912345678");
+            assertThat(captor.getValue().getChatId()).isEqualTo("987654321");
+        }
+
+        @Test
+        @DisplayName("cliente que cambia de chat → debe reemplazar el chat vinculado")
+        void linkFromStart_chatExistente_debeReemplazarlo() {
+            // Given
+            Ticket ticket = ticketWaiting().codigoReferencia(REFERENCIA).telefono("+56912345678").build();
+            TelegramChat existente = TelegramChat.builder().telefono("+56912345678").chatId("111").build();
+            when(ticketRepository.findByCodigoReferencia(REFERENCIA)).thenReturn(Optional.of(ticket));
+            when(telegramChatRepository.findById("+56912345678")).thenReturn(Optional.of(existente));
+
+            // When
+            telegramChatService.linkFromStart("987654321", "/start " + REFERENCIA);
+
+            // Then
+            assertThat(existente.getChatId()).isEqualTo("987654321");
+            verify(telegramChatRepository).save(existente);
+        }
+
+        @Test
+        @DisplayName("referencia inválida o desconocida → no debe vincular")
+        void linkFromStart_referenciaInvalida_noDebeVincular() {
+            // Given
+            when(ticketRepository.findByCodigoReferencia(REFERENCIA)).thenReturn(Optional.empty());
+
+            // When / Then
+            assertThat(telegramChatService.linkFromStart("987654321", "/start no-es-uuid")).isFalse();
+            assertThat(telegramChatService.linkFromStart("987654321", "/start " + REFERENCIA)).isFalse();
+            assertThat(telegramChatService.linkFromStart("987654321", "hola")).isFalse();
+            verify(telegramChatRepository, never()).save(any());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.model.entity.OutboxEvent;
+import com.example.ticketero.model.entity.Ticket;
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.OutboxEventType;
+import com.example.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketNotifier - Unit Tests")
+class TicketNotifierTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private MessageService messageService;
+
+    @InjectMocks
+    private TicketNotifier ticketNotifier;
+
+    @Nested
+    @DisplayName("consume()")
+    class Consumir {
+
+        @Test
+        @DisplayName("lote mixto → debe cargar los tickets en una consulta y programar un lote por plantilla")
+        void consume_debeAgruparPorPlantilla() {
+            // Given
+            Ticket c01 = ticketWaiting().id(1L).numero("C01").build();
+            Ticket c02 = ticketWaiting().id(2L).numero("C02").build();
+            Ticket c03 = ticketInProgress().id(3L).numero("C03").build();
+            when(ticketRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(c01, c02, c03));
+
+            // When
+            ticketNotifier.consume(List.of(
+                event(1L, OutboxEventType.TICKET_CREADO),
+                event(2L, OutboxEventType.TICKET_CREADO),
+                event(3L, OutboxEventType.TICKET_ASIGNADO)));
+
+            // Then
+            verify(ticketRepository).findAllById(any());
+            verify(messageService).scheduleMessages(List.of(c01, c02), MessageTemplate.TOTEM_TICKET_CREADO);
+            verify(messageService).scheduleMessages(List.of(c03), MessageTemplate.TOTEM_ES_TU_TURNO);
+            verifyNoMoreInteractions(messageService);
+        }
+
+        @Test
+        @DisplayName("ticket ya archivado → no debe programarle mensajes")
+        void consume_ticketArchivado_debeOmitirlo() {
+            // Given
+            Ticket c01 = ticketWaiting().id(1L).build();
+            when(ticketRepository.findAllById(Set.of(1L, 9L))).thenReturn(List.of(c01));
+
+            // When
+            ticketNotifier.consume(List.of(
+                event(1L, OutboxEventType.TICKET_PROXIMO),
+                event(9L, OutboxEventType.TICKET_PROXIMO)));
+
+            // Then
+            verify(messageService).scheduleMessages(List.of(c01), MessageTemplate.TOTEM_PROXIMO_TURNO);
+        }
+    }
+
+    private static OutboxEvent event(long ticketId, OutboxEventType type) {
+        return OutboxEvent.builder()
+            .eventType(type)
+            .payload(Map.of("ticketId", ticketId))
+            .build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.NumberingProperties;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.repository.TicketSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketNumberAllocator - Unit Tests")
+class TicketNumberAllocatorTest {
+
+    private static final String SUCURSAL = "Sucursal Centro";
+    private static final LocalDate HOY = LocalDate.of(2024, 1, 15);
+
+    @Mock
+    private TicketSequenceRepository ticketSequenceRepository;
+
+    private TicketNumberAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new TicketNumberAllocator(ticketSequenceRepository, new NumberingProperties(5));
+    }
+
+    @Nested
+    @DisplayName("nextNumber()")
+    class SiguienteNumero {
+
+        @Test
+        @DisplayName("debe usar prefijo de la cola y dos dígitos")
+        void nextNumber_debeFormatearConPrefijo() {
+            // Given
+            when(ticketSequenceRepository.allocateBlock(eq(SUCURSAL), eq("PERSONAL_BANKER"), any(), eq(5)))
+                .thenReturn(5L);
+
+            // When
+            String numero = allocator.nextNumber(SUCURSAL, QueueType.PERSONAL_BANKER);
+
+            // Then
+            assertThat(numero).isEqualTo("P01");
+        }
+    }
+
+    @Nested
+    @DisplayName("Reserva por bloques")
+    class ReservaPorBloques {
+
+        @Test
+        @DisplayName("debe entregar un bloque completo con un solo viaje a la BD")
+        void nextValue_debeReutilizarBloque() {
+            // Given
+            when(ticketSequenceRepository.allocateBlock(SUCURSAL, "CAJA", HOY, 5)).thenReturn(5L);
+
+            // When
+            List<Long> values = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                values.add(allocator.nextValue(SUCURSAL, QueueType.CAJA, HOY));
+            }
+
+            // Then
+            assertThat(values).containsExactly(1L, 2L, 3L, 4L, 5L);
+            verify(ticketSequenceRepository, times(1)).allocateBlock(SUCURSAL, "CAJA", HOY, 5);
+        }
+
+        @Test
+        @DisplayName("al agotar el bloque → debe reservar el siguiente")
+        void nextValue_bloqueAgotado_debeReservarOtro() {
+            // Given
+            when(ticketSequenceRepository.allocateBlock(SUCURSAL, "CAJA", HOY, 5))
+                .thenReturn(5L)
+                .thenReturn(10L);
+
+            // When
+            for (int i = 0; i < 5; i++) {
+                allocator.nextValue(SUCURSAL, QueueType.CAJA, HOY);
+            }
+            long sexto = allocator.nextValue(SUCURSAL, QueueType.CAJA, HOY);
+
+            // Then
+            assertThat(sexto).isEqualTo(6L);
+            verify(ticketSequenceRepository, times(2)).allocateBlock(SUCURSAL, "CAJA", HOY, 5);
+        }
+
+        @Test
+        @DisplayName("contadores independientes por sucursal, cola y día")
+        void nextValue_debeSepararContadores() {
+            // Given
+            when(ticketSequenceRepository.allocateBlock(any(), any(), any(), anyInt())).thenReturn(5L);
+
+            // When
+            long caja = allocator.nextValue(SUCURSAL, QueueType.CAJA, HOY);
+            long gerencia = allocator.nextValue(SUCURSAL, QueueType.GERENCIA, HOY);
+            long otraSucursal = allocator.nextValue("Sucursal Norte", QueueType.CAJA, HOY);
+            long manana = allocator.nextValue(SUCURSAL, QueueType.CAJA, HOY.plusDays(1));
+
+            // Then
+            assertThat(List.of(caja, gerencia, otraSucursal, manana)).containsOnly(1L);
+            verify(ticketSequenceRepository, times(4)).allocateBlock(any(), any(), any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrencia")
+    class Concurrencia {
+
+        @Test
+        @DisplayName("totems concurrentes → no debe repetir números")
+        void nextValue_concurrente_noDebeDuplicar() throws Exception {
+            // Given - la BD entrega bloques consecutivos
+            AtomicLong lastValue = new AtomicLong();
+            when(ticketSequenceRepository.allocateBlock(any(), any(), any(), anyInt()))
+                .thenAnswer(invocation -> lastValue.addAndGet(invocation.getArgument(3, Integer.class)));
+
+            int threads = 8;
+            int perThread = 250;
+            Set<Long> issued = ConcurrentHashMap.newKeySet();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+            // When
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            issued.add(allocator.nextValue(SUCURSAL, QueueType.CAJA, HOY));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            // Then
+            assertThat(issued).hasSize(threads * perThread);
+            assertThat(lastValue.get()).isEqualTo(threads * perThread);
+        }
+    }
+}
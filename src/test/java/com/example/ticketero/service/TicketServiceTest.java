@@ -1,13 +1,16 @@
 package com.example.ticketero.service;
 
+import com.example.ticketero.event.TicketStatusChangedEvent;
 import com.example.ticketero.exception.ActiveTicketExistsException;
 import com.example.ticketero.exception.TicketNotFoundException;
 import com.example.ticketero.model.dto.request.TicketRequest;
+import com.example.ticketero.model.dto.response.TicketPositionResponse;
 import com.example.ticketero.model.dto.response.TicketResponse;
 import com.example.ticketero.model.entity.Ticket;
 import com.example.ticketero.model.enums.QueueType;
 import com.example.ticketero.model.enums.TicketStatus;
 import com.example.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -15,11 +18,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.UUID;
 
 import static com.example.ticketero.testutil.TestDataBuilder.*;
@@ -39,14 +48,40 @@ class TicketServiceTest {
     private QueueService queueService;
 
     @Mock
-    private AuditService auditService;
+    private OutboxService outboxService;
 
     @Mock
-    private MessageService messageService;
+    private TicketNumberAllocator ticketNumberAllocator;
+
+    @Mock
+    private LiveQueueIndex liveQueueIndex;
+
+    @Mock
+    private QueuePositions queuePositions;
+
+    @Mock
+    private WaitTimeEstimator waitTimeEstimator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TicketeroMetrics ticketeroMetrics;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate();
 
     @InjectMocks
     private TicketService ticketService;
 
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.setTransactionManager(transactionManager);
+    }
+
     // ============================================================
     // CREAR TICKET
     // ============================================================
@@ -66,11 +101,10 @@ class TicketServiceTest {
                 .estimatedWaitMinutes(15)
                 .build();
 
-            when(ticketRepository.existsByNationalIdAndStatusIn(eq("12345678"), any()))
+            when(ticketRepository.existsActiveByNationalId("12345678"))
                 .thenReturn(false);
-            when(ticketRepository.countByQueueTypeAndStatus(QueueType.CAJA, TicketStatus.EN_ESPERA))
-                .thenReturn(2L);
-            when(ticketRepository.findAll()).thenReturn(List.of());
+            when(queuePositions.issue(QueueType.CAJA)).thenReturn(new QueuePositions.Issued(3L, 3));
+            when(ticketNumberAllocator.nextNumber("Sucursal Centro", QueueType.CAJA)).thenReturn("C01");
             when(ticketRepository.save(any(Ticket.class))).thenReturn(ticketGuardado);
 
             // When
@@ -83,11 +117,58 @@ class TicketServiceTest {
             assertThat(response.estimatedWaitMinutes()).isEqualTo(15);
             assertThat(response.status()).isEqualTo(TicketStatus.EN_ESPERA);
 
-            // Verificar orden: primero ticket, luego auditoría y mensaje
-            var inOrder = inOrder(ticketRepository, auditService, messageService);
+            // Verificar orden: primero ticket, luego el evento del outbox (auditoría y mensaje)
+            var inOrder = inOrder(ticketRepository, outboxService);
             inOrder.verify(ticketRepository).save(any(Ticket.class));
-            inOrder.verify(auditService).logTicketCreated(any(Ticket.class), eq("12345678"));
-            inOrder.verify(messageService).scheduleTicketCreatedMessage(any(Ticket.class));
+            inOrder.verify(outboxService).ticketCreated(ticketGuardado, "12345678");
+        }
+
+        @Test
+        @DisplayName("debe publicar evento de ticket creado")
+        void crearTicket_debePublicarEvento() {
+            // Given
+            Ticket ticketGuardado = ticketWaiting().build();
+            when(ticketRepository.existsActiveByNationalId("12345678")).thenReturn(false);
+            when(queuePositions.issue(QueueType.CAJA)).thenReturn(new QueuePositions.Issued(42L, 5));
+            when(waitTimeEstimator.estimatedWaitMinutes(QueueType.CAJA, 5)).thenReturn(18);
+            when(ticketNumberAllocator.nextNumber("Sucursal Centro", QueueType.CAJA)).thenReturn("C01");
+            when(ticketRepository.save(any(Ticket.class))).thenReturn(ticketGuardado);
+
+            // When
+            ticketService.create(validTicketRequest());
+
+            // Then
+            ArgumentCaptor<Ticket> ticketCaptor = ArgumentCaptor.forClass(Ticket.class);
+            verify(ticketRepository).save(ticketCaptor.capture());
+            assertThat(ticketCaptor.getValue().getQueueSeq()).isEqualTo(42L);
+            assertThat(ticketCaptor.getValue().getPositionInQueue()).isEqualTo(5);
+            assertThat(ticketCaptor.getValue().getEstimatedWaitMinutes()).isEqualTo(18);
+            verify(ticketRepository, never()).countWaitingByQueue(any());
+
+            ArgumentCaptor<TicketStatusChangedEvent> eventCaptor = ArgumentCaptor.forClass(TicketStatusChangedEvent.class);
+            verify(eventPublisher).publishEvent(eventCaptor.capture());
+            assertThat(eventCaptor.getValue().previousStatus()).isNull();
+            assertThat(eventCaptor.getValue().newStatus()).isEqualTo(TicketStatus.EN_ESPERA);
+        }
+
+        @Test
+        @DisplayName("debe tomar el número antes de abrir la transacción")
+        void crearTicket_debeNumerarFueraDeLaTransaccion() {
+            // Given
+            when(ticketRepository.existsActiveByNationalId(any())).thenReturn(false);
+            when(queuePositions.issue(QueueType.CAJA)).thenReturn(new QueuePositions.Issued(1L, 1));
+            when(ticketNumberAllocator.nextNumber("Sucursal Centro", QueueType.CAJA)).thenReturn("C01");
+            when(ticketRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            ticketService.create(validTicketRequest());
+
+            // Then - una reserva de bloque no pide conexión mientras la transacción retiene otra
+            var inOrder = inOrder(ticketNumberAllocator, transactionManager, ticketRepository);
+            inOrder.verify(ticketNumberAllocator).nextNumber("Sucursal Centro", QueueType.CAJA);
+            inOrder.verify(transactionManager).getTransaction(any());
+            inOrder.verify(ticketRepository).save(any(Ticket.class));
+            inOrder.verify(transactionManager).commit(any());
         }
 
         @Test
@@ -96,9 +177,9 @@ class TicketServiceTest {
             // Given
             TicketRequest request = validTicketRequest();
             
-            when(ticketRepository.existsByNationalIdAndStatusIn(any(), any())).thenReturn(false);
-            when(ticketRepository.countByQueueTypeAndStatus(any(), any())).thenReturn(0L);
-            when(ticketRepository.findAll()).thenReturn(List.of());
+            when(ticketRepository.existsActiveByNationalId(any())).thenReturn(false);
+            when(queuePositions.issue(QueueType.CAJA)).thenReturn(new QueuePositions.Issued(1L, 1));
+            when(ticketNumberAllocator.nextNumber("Sucursal Centro", QueueType.CAJA)).thenReturn("C07");
             when(ticketRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
             // When
@@ -109,7 +190,7 @@ class TicketServiceTest {
             verify(ticketRepository).save(captor.capture());
 
             Ticket ticket = captor.getValue();
-            assertThat(ticket.getNumero()).startsWith("C");
+            assertThat(ticket.getNumero()).isEqualTo("C07");
             assertThat(ticket.getQueueType()).isEqualTo(QueueType.CAJA);
             assertThat(ticket.getStatus()).isEqualTo(TicketStatus.EN_ESPERA);
             assertThat(ticket.getCodigoReferencia()).isNotNull();
@@ -121,9 +202,9 @@ class TicketServiceTest {
             // Given
             TicketRequest request = ticketRequestPersonal();
             
-            when(ticketRepository.existsByNationalIdAndStatusIn(any(), any())).thenReturn(false);
-            when(ticketRepository.countByQueueTypeAndStatus(any(), any())).thenReturn(0L);
-            when(ticketRepository.findAll()).thenReturn(List.of());
+            when(ticketRepository.existsActiveByNationalId(any())).thenReturn(false);
+            when(queuePositions.issue(QueueType.PERSONAL_BANKER)).thenReturn(new QueuePositions.Issued(1L, 1));
+            when(ticketNumberAllocator.nextNumber("Sucursal Centro", QueueType.PERSONAL_BANKER)).thenReturn("P01");
             when(ticketRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
             // When
@@ -133,6 +214,7 @@ class TicketServiceTest {
             ArgumentCaptor<Ticket> captor = ArgumentCaptor.forClass(Ticket.class);
             verify(ticketRepository).save(captor.capture());
             assertThat(captor.getValue().getNumero()).startsWith("P");
+            verify(ticketRepository, never()).findAll();
         }
 
         @Test
@@ -141,9 +223,9 @@ class TicketServiceTest {
             // Given
             TicketRequest request = ticketRequestSinTelefono();
             
-            when(ticketRepository.existsByNationalIdAndStatusIn(any(), any())).thenReturn(false);
-            when(ticketRepository.countByQueueTypeAndStatus(any(), any())).thenReturn(0L);
-            when(ticketRepository.findAll()).thenReturn(List.of());
+            when(ticketRepository.existsActiveByNationalId(any())).thenReturn(false);
+            when(queuePositions.issue(QueueType.CAJA)).thenReturn(new QueuePositions.Issued(1L, 1));
+            when(ticketNumberAllocator.nextNumber(any(), any())).thenReturn("C01");
             when(ticketRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
             // When
@@ -151,7 +233,7 @@ class TicketServiceTest {
 
             // Then
             assertThat(response).isNotNull();
-            verify(messageService).scheduleTicketCreatedMessage(any());
+            verify(outboxService).ticketCreated(any(), any());
         }
 
         @Test
@@ -161,9 +243,9 @@ class TicketServiceTest {
             TicketRequest request = validTicketRequest();
             List<Ticket> activeTickets = List.of(ticketWaiting().numero("C05").build());
             
-            when(ticketRepository.existsByNationalIdAndStatusIn(eq("12345678"), any()))
+            when(ticketRepository.existsActiveByNationalId("12345678"))
                 .thenReturn(true);
-            when(ticketRepository.findByNationalIdAndStatusIn(eq("12345678"), any()))
+            when(ticketRepository.findActiveByNationalId("12345678"))
                 .thenReturn(activeTickets);
 
             // When + Then
@@ -173,6 +255,7 @@ class TicketServiceTest {
                 .hasMessageContaining("C05");
 
             verify(ticketRepository, never()).save(any());
+            verify(ticketNumberAllocator, never()).nextNumber(any(), any());
         }
     }
 
@@ -219,4 +302,111 @@ class TicketServiceTest {
             assertThat(response).isEmpty();
         }
     }
-}
\ No newline at end of file
+
+    // ============================================================
+    // CONSULTAR POSICIÓN
+    // ============================================================
+
+    @Nested
+    @DisplayName("getPosition()")
+    class ConsultarPosicion {
+
+        @Test
+        @DisplayName("con índice listo → debe usar la posición en memoria")
+        void getPosition_conIndiceListo_noDebeConsultarBD() {
+            // Given
+            Ticket ticket = ticketWaiting().numero("C07").build();
+            when(ticketRepository.findByNumero("Sucursal Centro", "C07", LocalDate.now())).thenReturn(Optional.of(ticket));
+            when(liveQueueIndex.isReady()).thenReturn(true);
+            when(liveQueueIndex.positionOf(QueueType.CAJA, ticket.getId(), ticket.getCreatedAt()))
+                .thenReturn(OptionalInt.of(4));
+            when(waitTimeEstimator.estimatedWaitMinutes(QueueType.CAJA, 4)).thenReturn(13);
+
+            // When
+            TicketPositionResponse response = ticketService.getPosition("Sucursal Centro", "C07");
+
+            // Then
+            assertThat(response.positionInQueue()).isEqualTo(4);
+            assertThat(response.estimatedWaitMinutes()).isEqualTo(13);
+            verify(ticketRepository, never()).countTicketsAheadInQueue(any(), any());
+        }
+
+        @Test
+        @DisplayName("con índice no construido → debe derivarla del número de llegada")
+        void getPosition_sinIndice_debeDerivarPosicion() {
+            // Given
+            Ticket ticket = ticketWaiting().numero("C07").queueSeq(40L).build();
+            when(ticketRepository.findByNumero("Sucursal Centro", "C07", LocalDate.now())).thenReturn(Optional.of(ticket));
+            when(liveQueueIndex.isReady()).thenReturn(false);
+            when(queuePositions.positionOf(ticket)).thenReturn(OptionalInt.of(6));
+
+            // When
+            TicketPositionResponse response = ticketService.getPosition("Sucursal Centro", "C07");
+
+            // Then
+            assertThat(response.positionInQueue()).isEqualTo(6);
+            verify(ticketRepository, never()).countTicketsAheadInQueue(any(), any());
+        }
+
+        @Test
+        @DisplayName("ticket sin número de llegada → debe contar en la BD")
+        void getPosition_sinNumeroDeLlegada_debeContarEnBD() {
+            // Given
+            Ticket ticket = ticketWaiting().numero("C07").build();
+            when(ticketRepository.findByNumero("Sucursal Centro", "C07", LocalDate.now())).thenReturn(Optional.of(ticket));
+            when(liveQueueIndex.isReady()).thenReturn(false);
+            when(ticketRepository.countTicketsAheadInQueue(QueueType.CAJA, ticket.getCreatedAt())).thenReturn(2L);
+
+            // When
+            TicketPositionResponse response = ticketService.getPosition("Sucursal Centro", "C07");
+
+            // Then
+            assertThat(response.positionInQueue()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("número sin ticket hoy en la sucursal → debe lanzar TicketNotFoundException")
+        void getPosition_sinTicketHoyEnSucursal_debeLanzarExcepcion() {
+            // Given
+            when(ticketRepository.findByNumero("Sucursal Norte", "C07", LocalDate.now())).thenReturn(Optional.empty());
+
+            // When + Then
+            assertThatThrownBy(() -> ticketService.getPosition("Sucursal Norte", "C07"))
+                .isInstanceOf(TicketNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("por id → debe seguir al ticket ya resuelto")
+        void trackPosition_porId_debeUsarElTicket() {
+            // Given
+            Ticket ticket = ticketWaiting().id(9L).numero("C07").queueSeq(40L).build();
+            when(ticketRepository.findById(9L)).thenReturn(Optional.of(ticket));
+            when(queuePositions.positionOf(ticket)).thenReturn(OptionalInt.of(2));
+
+            // When
+            TicketService.TrackedPosition tracked = ticketService.trackPosition(9L);
+
+            // Then
+            assertThat(tracked.ticketId()).isEqualTo(9L);
+            assertThat(tracked.position().positionInQueue()).isEqualTo(2);
+            verify(ticketRepository, never()).findByNumero(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("ticket aún no indexado → debe contar en la BD")
+        void getPosition_ticketNoIndexado_debeContarEnBD() {
+            // Given
+            Ticket ticket = ticketWaiting().numero("C07").build();
+            when(ticketRepository.findByNumero("Sucursal Centro", "C07", LocalDate.now())).thenReturn(Optional.of(ticket));
+            when(liveQueueIndex.isReady()).thenReturn(true);
+            when(liveQueueIndex.positionOf(any(), any(), any())).thenReturn(OptionalInt.empty());
+            when(ticketRepository.countTicketsAheadInQueue(QueueType.CAJA, ticket.getCreatedAt())).thenReturn(0L);
+
+            // When
+            TicketPositionResponse response = ticketService.getPosition("Sucursal Centro", "C07");
+
+            // Then
+            assertThat(response.positionInQueue()).isEqualTo(1);
+        }
+    }
+}
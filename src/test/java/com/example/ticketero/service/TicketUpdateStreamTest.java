@@ -0,0 +1,254 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.StreamProperties;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.dto.response.BranchDisplayEvent;
+import com.example.ticketero.model.dto.response.TicketPositionResponse;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.service.TicketService.TrackedPosition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketUpdateStream - Unit Tests")
+class TicketUpdateStreamTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 15, 10, 0);
+    private static final String BRANCH = "Sucursal Centro";
+
+    @Mock
+    private TicketService ticketService;
+
+    @Mock
+    private LiveQueueIndex liveQueueIndex;
+
+    @Mock
+    private WaitTimeEstimator waitTimeEstimator;
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private TicketUpdateStream stream;
+
+    @BeforeEach
+    void setUp() {
+        // Sin pronóstico: posición × promedio fijo de la cola
+        lenient().when(waitTimeEstimator.estimatedWaitMinutes(any(), anyInt()))
+            .thenAnswer(invocation -> invocation.<Integer>getArgument(1)
+                * invocation.<QueueType>getArgument(0).getAverageTimeMinutes());
+        stream = new TicketUpdateStream(ticketService, liveQueueIndex, waitTimeEstimator,
+                new StreamProperties(Duration.ofMinutes(30))) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Nested
+    @DisplayName("Stream de un ticket")
+    class StreamDeTicket {
+
+        @Test
+        @DisplayName("al suscribirse → debe enviar la posición actual")
+        void subscribe_debeEnviarPosicionActual() {
+            // Given
+            givenTicketEsperando("C05", 5L, 3);
+
+            // When
+            stream.subscribe(BRANCH, "C05");
+
+            // Then
+            RecordingEmitter emitter = emitters.get(0);
+            await().until(() -> !emitter.positions.isEmpty());
+            assertThat(emitter.positions.get(0).positionInQueue()).isEqualTo(3);
+            assertThat(stream.subscriberCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("la cola avanza → debe enviar la nueva posición y ETA")
+        void onTicketStatusChanged_colaAvanza_debeEnviarNuevaPosicion() {
+            // Given
+            givenTicketEsperando("C05", 5L, 3);
+            stream.subscribe(BRANCH, "C05");
+            RecordingEmitter emitter = emitters.get(0);
+            await().until(() -> emitter.positions.size() == 1);
+
+            // When: doReturn no invoca al mock, que puede estar en uso por el hilo de envío
+            doReturn(OptionalInt.of(2)).when(liveQueueIndex).positionOf(QueueType.CAJA, 5L, CREATED);
+            doReturn(7).when(waitTimeEstimator).estimatedWaitMinutes(QueueType.CAJA, 2);
+            stream.onTicketStatusChanged(event(1L, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO, "María", 3));
+
+            // Then
+            await().until(() -> emitter.positions.size() == 2);
+            TicketPositionResponse update = emitter.positions.get(1);
+            assertThat(update.positionInQueue()).isEqualTo(2);
+            assertThat(update.estimatedWaitMinutes()).isEqualTo(7);
+        }
+
+        @Test
+        @DisplayName("cambio que no mueve al ticket → no debe enviar nada")
+        void onTicketStatusChanged_sinCambioDePosicion_noDebeEnviar() {
+            // Given
+            givenTicketEsperando("C05", 5L, 3);
+            stream.subscribe(BRANCH, "C05");
+            RecordingEmitter emitter = emitters.get(0);
+
+            // When: llega un ticket nuevo al final de la cola
+            stream.onTicketStatusChanged(event(9L, null, TicketStatus.EN_ESPERA, null, null));
+
+            // Then
+            await().during(Duration.ofMillis(200)).until(() -> emitter.positions.size() == 1);
+        }
+
+        @Test
+        @DisplayName("ticket llamado y luego completado → debe enviar módulo y cerrar el stream")
+        void onTicketStatusChanged_ticketPropio_debeEnviarEstadoYCerrar() {
+            // Given
+            givenTicketEsperando("C05", 5L, 1);
+            stream.subscribe(BRANCH, "C05");
+            RecordingEmitter emitter = emitters.get(0);
+
+            // When
+            stream.onTicketStatusChanged(event(5L, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO, "María", 3));
+            await().until(() -> emitter.positions.size() == 2);
+            stream.onTicketStatusChanged(event(5L, TicketStatus.ATENDIENDO, TicketStatus.COMPLETADO, "María", 3));
+
+            // Then
+            await().until(() -> emitter.completed);
+            assertThat(emitter.positions).extracting(TicketPositionResponse::status)
+                .containsExactly(TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO, TicketStatus.COMPLETADO);
+            assertThat(emitter.positions.get(1).assignedModuleNumber()).isEqualTo(3);
+            assertThat(emitter.positions.get(1).positionInQueue()).isZero();
+            await().until(() -> stream.subscriberCount() == 0);
+        }
+
+        @Test
+        @DisplayName("ticket ya terminado → debe enviar su estado y cerrar sin suscribir")
+        void subscribe_ticketTerminado_debeCerrar() {
+            // Given
+            TicketPositionResponse completed = TicketPositionResponse.of(
+                "C05", TicketStatus.COMPLETADO, 0, QueueType.CAJA, "María", 3);
+            when(ticketService.trackPosition(BRANCH, "C05")).thenReturn(new TrackedPosition(5L, CREATED, completed));
+
+            // When
+            stream.subscribe(BRANCH, "C05");
+
+            // Then
+            RecordingEmitter emitter = emitters.get(0);
+            assertThat(emitter.positions).containsExactly(completed);
+            assertThat(emitter.completed).isTrue();
+            assertThat(stream.subscriberCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Pantalla de sucursal")
+    class PantallaDeSucursal {
+
+        @Test
+        @DisplayName("llamado a módulo en la sucursal → debe enviar el ticket llamado")
+        void onTicketStatusChanged_llamado_debeEnviarALaPantalla() {
+            // Given
+            when(liveQueueIndex.sizes(BRANCH)).thenReturn(Map.of(QueueType.CAJA, 4));
+            stream.subscribeDisplay(BRANCH);
+            RecordingEmitter display = emitters.get(0);
+
+            await().until(() -> display.displays.size() == 1);
+
+            // When
+            doReturn(Map.of(QueueType.CAJA, 3)).when(liveQueueIndex).sizes(BRANCH);
+            stream.onTicketStatusChanged(event(5L, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO, "María", 3));
+
+            // Then
+            await().until(() -> display.displays.size() == 2);
+            assertThat(display.displays.get(0).lastCall()).isNull();
+            BranchDisplayEvent call = display.displays.get(1);
+            assertThat(call.lastCall().numero()).isEqualTo("C05");
+            assertThat(call.lastCall().assignedModuleNumber()).isEqualTo(3);
+            assertThat(call.waitingByQueue()).containsEntry(QueueType.CAJA, 3);
+        }
+
+        @Test
+        @DisplayName("pantallas de distintas sucursales → cada una debe ver sus propias colas")
+        void subscribeDisplay_variasSucursales_debeContarPorSucursal() {
+            // Given
+            when(liveQueueIndex.sizes(BRANCH)).thenReturn(Map.of(QueueType.CAJA, 4));
+            when(liveQueueIndex.sizes("Sucursal Norte")).thenReturn(Map.of(QueueType.CAJA, 1));
+
+            // When
+            stream.subscribeDisplay(BRANCH);
+            stream.subscribeDisplay("Sucursal Norte");
+
+            // Then
+            await().until(() -> emitters.get(0).displays.size() == 1 && emitters.get(1).displays.size() == 1);
+            assertThat(emitters.get(0).displays.get(0).waitingByQueue()).containsEntry(QueueType.CAJA, 4);
+            assertThat(emitters.get(1).displays.get(0).waitingByQueue()).containsEntry(QueueType.CAJA, 1);
+        }
+    }
+
+    private void givenTicketEsperando(String numero, Long ticketId, int position) {
+        TicketPositionResponse response = TicketPositionResponse.of(
+            numero, TicketStatus.EN_ESPERA, position, QueueType.CAJA, null, null);
+        when(ticketService.trackPosition(BRANCH, numero)).thenReturn(new TrackedPosition(ticketId, CREATED, response));
+        lenient().when(liveQueueIndex.isReady()).thenReturn(true);
+        lenient().when(liveQueueIndex.positionOf(any(), any(), any())).thenReturn(OptionalInt.empty());
+        lenient().when(liveQueueIndex.positionOf(QueueType.CAJA, ticketId, CREATED)).thenReturn(OptionalInt.of(position));
+    }
+
+    private static TicketStatusChangedEvent event(Long ticketId, TicketStatus previous, TicketStatus next,
+                                                  String advisor, Integer module) {
+        return new TicketStatusChangedEvent(ticketId, "C0" + ticketId, BRANCH, QueueType.CAJA,
+            previous, next, CREATED, null, advisor, module, null, LocalDateTime.now());
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<TicketPositionResponse> positions = new CopyOnWriteArrayList<>();
+        private final List<BranchDisplayEvent> displays = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().forEach(part -> {
+                if (part.getData() instanceof TicketPositionResponse position) {
+                    positions.add(position);
+                } else if (part.getData() instanceof BranchDisplayEvent display) {
+                    displays.add(display);
+                }
+            });
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.MetricsProperties;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.MessageTemplate;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TicketeroMetrics - Unit Tests")
+class TicketeroMetricsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    @Mock
+    private QueueStateCounters queueStateCounters;
+
+    private SimpleMeterRegistry registry;
+    private TicketeroMetrics ticketeroMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ticketeroMetrics = new TicketeroMetrics(registry, queueStateCounters,
+            new MetricsProperties(true, Set.of("Sucursal Centro")));
+    }
+
+    @Nested
+    @DisplayName("Gauges")
+    class Gauges {
+
+        @Test
+        @DisplayName("profundidad y tickets por estado → deben leerse de QueueStateCounters")
+        void queueGauges_debenLeerseDeLosContadores() {
+            // Given
+            when(queueStateCounters.waitingCount(QueueType.CAJA)).thenReturn(7L);
+            when(queueStateCounters.ticketCount(QueueType.CAJA, TicketStatus.ATENDIENDO)).thenReturn(2L);
+
+            // When
+            double depth = registry.get("ticketero.queue.depth").tag("queue", "CAJA").gauge().value();
+            double serving = registry.get("ticketero.queue.tickets")
+                .tags("queue", "CAJA", "status", "ATENDIENDO").gauge().value();
+
+            // Then
+            assertThat(depth).isEqualTo(7.0);
+            assertThat(serving).isEqualTo(2.0);
+            assertThat(registry.find("ticketero.queue.tickets").tag("status", "COMPLETADO").gauge()).isNull();
+        }
+
+        @Test
+        @DisplayName("asesores → deben leerse por estado y por cola desde QueueStateCounters")
+        void advisorGauges_debenLeerseDeLosContadores() {
+            // Given
+            when(queueStateCounters.advisorCount(AdvisorStatus.AVAILABLE)).thenReturn(2L);
+            when(queueStateCounters.advisorCount(QueueType.PERSONAL_BANKER, AdvisorStatus.BUSY)).thenReturn(1L);
+
+            // When / Then
+            assertThat(registry.get("ticketero.advisors").tag("status", "AVAILABLE").gauge().value())
+                .isEqualTo(2.0);
+            assertThat(registry.get("ticketero.queue.advisors")
+                .tags("queue", "PERSONAL_BANKER", "status", "BUSY").gauge().value()).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tiempos de ticket")
+    class TiemposDeTicket {
+
+        @Test
+        @DisplayName("ticket asignado → debe registrar la espera desde su creación")
+        void onTicketStatusChanged_asignado_debeRegistrarEspera() {
+            // When
+            ticketeroMetrics.onTicketStatusChanged(event(TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO,
+                NOW.minusMinutes(12), NOW, NOW));
+
+            // Then
+            var timer = registry.get("ticketero.ticket.wait")
+                .tags("queue", "CAJA", "branch", "Sucursal Centro").timer();
+            assertThat(timer.count()).isEqualTo(1);
+            assertThat(timer.totalTime(TimeUnit.MINUTES)).isEqualTo(12.0);
+        }
+
+        @Test
+        @DisplayName("ticket completado → debe registrar el tiempo de atención desde la asignación")
+        void onTicketStatusChanged_completado_debeRegistrarAtencion() {
+            // When
+            ticketeroMetrics.onTicketStatusChanged(event(TicketStatus.ATENDIENDO, TicketStatus.COMPLETADO,
+                NOW.minusMinutes(20), NOW.minusMinutes(5), NOW));
+
+            // Then
+            var timer = registry.get("ticketero.ticket.service").tag("queue", "CAJA").timer();
+            assertThat(timer.totalTime(TimeUnit.MINUTES)).isEqualTo(5.0);
+            assertThat(registry.find("ticketero.ticket.wait").timer()).isNull();
+        }
+
+        @Test
+        @DisplayName("sucursal no configurada → debe etiquetarse como other")
+        void ticketCreated_sucursalNoConfigurada_debeSerOther() {
+            // When
+            ticketeroMetrics.ticketCreated(QueueType.CAJA, "Sucursal Centro", 1_000_000);
+            ticketeroMetrics.ticketCreated(QueueType.CAJA, "cualquier texto", 1_000_000);
+            ticketeroMetrics.ticketCreated(QueueType.CAJA, "otro texto", 1_000_000);
+
+            // Then
+            assertThat(registry.get("ticketero.ticket.creation").tag("branch", "Sucursal Centro").timer().count())
+                .isEqualTo(1);
+            assertThat(registry.get("ticketero.ticket.creation").tag("branch", "other").timer().count())
+                .isEqualTo(2);
+            assertThat(registry.get("ticketero.ticket.creation").timers()).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("ticket sin asignar → no debe registrar tiempos")
+        void onTicketStatusChanged_sinAsignar_noDebeRegistrar() {
+            // When
+            ticketeroMetrics.onTicketStatusChanged(event(null, TicketStatus.EN_ESPERA, NOW, null, NOW));
+
+            // Then
+            assertThat(registry.find("ticketero.ticket.wait").timer()).isNull();
+            assertThat(registry.find("ticketero.ticket.service").timer()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Ciclos y mensajes")
+    class CiclosYMensajes {
+
+        @Test
+        @DisplayName("ciclo sin asignaciones → debe etiquetarse como idle")
+        void assignmentCycle_sinAsignaciones_debeSerIdle() {
+            // When
+            ticketeroMetrics.assignmentCycle(0, 1_000_000);
+            ticketeroMetrics.assignmentCycle(3, 2_000_000);
+
+            // Then
+            assertThat(registry.get("ticketero.assignment.cycle").tag("outcome", "idle").timer().count())
+                .isEqualTo(1);
+            assertThat(registry.get("ticketero.assignment.cycle").tag("outcome", "assigned").timer().count())
+                .isEqualTo(1);
+            assertThat(registry.get("ticketero.assignment.cycle.tickets").summary().totalAmount())
+                .isEqualTo(3.0);
+        }
+
+        @Test
+        @DisplayName("reintento enviado → debe contar el reintento y los intentos del mensaje")
+        void messageAttempt_reintentoEnviado_debeContarIntentos() {
+            // When
+            ticketeroMetrics.messageAttempt(MessageTemplate.TOTEM_TICKET_CREADO, false, 1, false, 1_000_000);
+            ticketeroMetrics.messageAttempt(MessageTemplate.TOTEM_TICKET_CREADO, true, 2, true, 1_000_000);
+
+            // Then
+            assertThat(registry.get("ticketero.message.send").tag("outcome", "failed").timer().count())
+                .isEqualTo(1);
+            assertThat(registry.get("ticketero.message.retries").counter().count()).isEqualTo(1.0);
+            var attempts = registry.get("ticketero.message.attempts").tag("outcome", "sent").summary();
+            assertThat(attempts.count()).isEqualTo(1);
+            assertThat(attempts.totalAmount()).isEqualTo(2.0);
+        }
+    }
+
+    private static TicketStatusChangedEvent event(TicketStatus previous, TicketStatus next,
+                                                  LocalDateTime createdAt, LocalDateTime assignedAt,
+                                                  LocalDateTime occurredAt) {
+        return new TicketStatusChangedEvent(1L, "C01", "Sucursal Centro", QueueType.CAJA, previous, next,
+            createdAt, assignedAt != null ? 1L : null, assignedAt != null ? "Ana" : null,
+            assignedAt != null ? 1 : null, assignedAt, occurredAt);
+    }
+}
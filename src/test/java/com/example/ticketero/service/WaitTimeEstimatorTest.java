@@ -0,0 +1,150 @@
+package com.example.ticketero.service;
+
+import com.example.ticketero.config.EstimationProperties;
+import com.example.ticketero.event.AdvisorStatusChangedEvent;
+import com.example.ticketero.event.TicketStatusChangedEvent;
+import com.example.ticketero.model.entity.Advisor;
+import com.example.ticketero.model.enums.AdvisorStatus;
+import com.example.ticketero.model.enums.QueueType;
+import com.example.ticketero.model.enums.TicketStatus;
+import com.example.ticketero.repository.AdvisorRepository;
+import com.example.ticketero.repository.QueueDailyStatsRepository;
+import com.example.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.ticketero.testutil.TestDataBuilder.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WaitTimeEstimator - Unit Tests")
+class WaitTimeEstimatorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    @Mock
+    private AdvisorRepository advisorRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private QueueDailyStatsRepository queueDailyStatsRepository;
+
+    @Nested
+    @DisplayName("estimatedWaitMinutes()")
+    class EstimarEspera {
+
+        @Test
+        @DisplayName("sin reconstruir → debe usar posición × promedio fijo de la cola")
+        void estimar_sinReconstruir_debeUsarPromedioFijo() {
+            // Given
+            WaitTimeEstimator estimator = estimator(true);
+
+            // When + Then
+            assertThat(estimator.estimatedWaitMinutes(QueueType.CAJA, 3, NOW)).isEqualTo(15);
+            verifyNoInteractions(advisorRepository);
+        }
+
+        @Test
+        @DisplayName("dos asesores libres → la posición 1 no espera y el resto avanza al doble de ritmo")
+        void estimar_asesoresLibres_debeRepartirEntreEllos() {
+            // Given
+            WaitTimeEstimator estimator = rebuilt(true,
+                advisorAvailable().id(1L).build(),
+                advisorAvailable().id(2L).build());
+
+            // When + Then: 2 asesores de 5 min → 0,4 tickets por minuto
+            assertThat(estimator.estimatedWaitMinutes(QueueType.CAJA, 1, NOW)).isZero();
+            assertThat(estimator.estimatedWaitMinutes(QueueType.CAJA, 5, NOW)).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("todos ocupados → debe sumar lo que le falta al primero en liberarse")
+        void estimar_todosOcupados_debeSumarTiempoRestante() {
+            // Given
+            WaitTimeEstimator estimator = rebuilt(true, advisorAvailable().id(1L).build());
+            estimator.onTicketStatusChanged(ticketEvent(1L, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO,
+                NOW.minusMinutes(2), NOW.minusMinutes(2)));
+
+            // When + Then: le quedan 3 de sus 5 minutos, y 5 más por cada ticket adelante
+            assertThat(estimator.estimatedWaitMinutes(QueueType.CAJA, 1, NOW)).isEqualTo(3);
+            assertThat(estimator.estimatedWaitMinutes(QueueType.CAJA, 3, NOW)).isEqualTo(13);
+        }
+
+        @Test
+        @DisplayName("atención terminada → debe ajustar el promedio de la cola y la velocidad del asesor")
+        void estimar_atencionTerminada_debeAprenderTiempoReal() {
+            // Given
+            WaitTimeEstimator estimator = rebuilt(true, advisorAvailable().id(1L).build());
+            LocalDateTime assignedAt = NOW.minusMinutes(15);
+            estimator.onTicketStatusChanged(ticketEvent(1L, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO,
+                assignedAt, assignedAt));
+
+            // When: 15 min reales contra 5 esperados, suavizado 0,2
+            estimator.onTicketStatusChanged(ticketEvent(1L, TicketStatus.ATENDIENDO, TicketStatus.COMPLETADO,
+                assignedAt, NOW));
+            estimator.onAdvisorStatusChanged(advisorEvent(1L, AdvisorStatus.BUSY, AdvisorStatus.AVAILABLE));
+
+            // Then: cola 0,2·15 + 0,8·5 = 7 min, asesor 0,2·3 + 0,8·1 = 1,4 veces → 9,8 min por ticket
+            assertThat(estimator.estimatedWaitMinutes(QueueType.CAJA, 2, NOW)).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("cola sin asesores en línea → debe usar el promedio fijo")
+        void estimar_colaSinAsesores_debeUsarPromedioFijo() {
+            // Given
+            WaitTimeEstimator estimator = rebuilt(true, advisorAvailable().id(1L).build());
+            estimator.onAdvisorStatusChanged(advisorEvent(1L, AdvisorStatus.AVAILABLE, AdvisorStatus.OFFLINE));
+
+            // When + Then
+            assertThat(estimator.estimatedWaitMinutes(QueueType.CAJA, 2, NOW)).isEqualTo(10);
+            assertThat(estimator.estimatedWaitMinutes(QueueType.GERENCIA, 2, NOW)).isEqualTo(60);
+        }
+
+        @Test
+        @DisplayName("estimación deshabilitada → debe usar el promedio fijo")
+        void estimar_deshabilitada_debeUsarPromedioFijo() {
+            // Given
+            WaitTimeEstimator estimator = rebuilt(false,
+                advisorAvailable().id(1L).build(),
+                advisorAvailable().id(2L).build());
+
+            // When + Then
+            assertThat(estimator.estimatedWaitMinutes(QueueType.CAJA, 5, NOW)).isEqualTo(25);
+        }
+    }
+
+    private WaitTimeEstimator estimator(boolean enabled) {
+        return new WaitTimeEstimator(advisorRepository, ticketRepository, queueDailyStatsRepository,
+            new EstimationProperties(enabled, 0.2));
+    }
+
+    private WaitTimeEstimator rebuilt(boolean enabled, Advisor... advisors) {
+        when(advisorRepository.findAll()).thenReturn(List.of(advisors));
+        when(ticketRepository.findByStatusOrderByCreatedAtAsc(TicketStatus.ATENDIENDO)).thenReturn(List.of());
+        when(queueDailyStatsRepository.findByIdBusinessDate(any())).thenReturn(List.of());
+        WaitTimeEstimator estimator = estimator(enabled);
+        estimator.rebuild();
+        return estimator;
+    }
+
+    private static TicketStatusChangedEvent ticketEvent(Long advisorId, TicketStatus previous, TicketStatus next,
+                                                        LocalDateTime assignedAt, LocalDateTime occurredAt) {
+        return new TicketStatusChangedEvent(7L, "C07", "Sucursal Centro", QueueType.CAJA, previous, next,
+            assignedAt.minusMinutes(10), advisorId, "María López", 1, assignedAt, occurredAt);
+    }
+
+    private static AdvisorStatusChangedEvent advisorEvent(Long advisorId, AdvisorStatus previous, AdvisorStatus next) {
+        return new AdvisorStatusChangedEvent(advisorId, "María López", List.of(QueueType.CAJA), previous, next, NOW);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.ticketero.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("WaitingLine - Unit Tests")
+class WaitingLineTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 15, 9, 0);
+
+    @Nested
+    @DisplayName("rankOf()")
+    class Posicion {
+
+        @Test
+        @DisplayName("debe ordenar por hora de llegada y luego por id")
+        void rankOf_debeOrdenarPorLlegada() {
+            // Given
+            WaitingLine line = new WaitingLine();
+            line.add(3L, BASE.plusMinutes(2));
+            line.add(1L, BASE);
+            line.add(2L, BASE);
+
+            // When / Then
+            assertThat(line.rankOf(1L, BASE)).isEqualTo(0);
+            assertThat(line.rankOf(2L, BASE)).isEqualTo(1);
+            assertThat(line.rankOf(3L, BASE.plusMinutes(2))).isEqualTo(2);
+            assertThat(line.head(2)).containsExactly(1L, 2L);
+        }
+
+        @Test
+        @DisplayName("ticket ausente → debe retornar -1")
+        void rankOf_ticketAusente_debeRetornarMenosUno() {
+            // Given
+            WaitingLine line = new WaitingLine();
+            line.add(1L, BASE);
+
+            // When / Then
+            assertThat(line.rankOf(2L, BASE)).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("al salir un ticket → los de atrás deben avanzar")
+        void remove_debeAvanzarPosiciones() {
+            // Given
+            WaitingLine line = new WaitingLine();
+            for (long id = 1; id <= 5; id++) {
+                line.add(id, BASE.plusMinutes(id));
+            }
+
+            // When
+            boolean removed = line.remove(2L, BASE.plusMinutes(2));
+
+            // Then
+            assertThat(removed).isTrue();
+            assertThat(line.size()).isEqualTo(4);
+            assertThat(line.rankOf(5L, BASE.plusMinutes(5))).isEqualTo(3);
+            assertThat(line.remove(2L, BASE.plusMinutes(2))).isFalse();
+        }
+
+        @Test
+        @DisplayName("agregar dos veces el mismo ticket → no debe duplicarlo")
+        void add_duplicado_noDebeDuplicar() {
+            // Given
+            WaitingLine line = new WaitingLine();
+
+            // When
+            boolean first = line.add(1L, BASE);
+            boolean second = line.add(1L, BASE);
+
+            // Then
+            assertThat(first).isTrue();
+            assertThat(second).isFalse();
+            assertThat(line.size()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("countCreatedBefore()")
+    class CreadosAntes {
+
+        @Test
+        @DisplayName("debe contar solo los tickets creados antes del límite")
+        void countCreatedBefore_debeContarAnterioresAlLimite() {
+            // Given
+            WaitingLine line = new WaitingLine();
+            line.add(1L, BASE);
+            line.add(2L, BASE.plusMinutes(10));
+            line.add(3L, BASE.plusMinutes(20));
+
+            // When / Then
+            assertThat(line.countCreatedBefore(BASE)).isZero();
+            assertThat(line.countCreatedBefore(BASE.plusMinutes(10))).isEqualTo(1);
+            assertThat(line.countCreatedBefore(BASE.plusMinutes(30))).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("Consistencia")
+    class Consistencia {
+
+        @Test
+        @DisplayName("operaciones aleatorias → debe coincidir con una lista ordenada")
+        void operacionesAleatorias_debenCoincidirConReferencia() {
+            // Given
+            record Entry(long id, LocalDateTime createdAt) {}
+            Comparator<Entry> order = Comparator.comparing(Entry::createdAt).thenComparingLong(Entry::id);
+            TreeSet<Entry> reference = new TreeSet<>(order);
+            WaitingLine line = new WaitingLine();
+            Random random = new Random(42);
+
+            // When
+            for (int i = 0; i < 5_000; i++) {
+                long id = random.nextInt(500);
+                Entry entry = new Entry(id, BASE.plusSeconds(id % 97));
+                if (random.nextBoolean()) {
+                    assertThat(line.add(entry.id(), entry.createdAt())).isEqualTo(reference.add(entry));
+                } else {
+                    assertThat(line.remove(entry.id(), entry.createdAt())).isEqualTo(reference.remove(entry));
+                }
+            }
+
+            // Then
+            List<Entry> ordered = new ArrayList<>(reference);
+            assertThat(line.size()).isEqualTo(ordered.size());
+            for (int rank = 0; rank < ordered.size(); rank++) {
+                Entry entry = ordered.get(rank);
+                assertThat(line.rankOf(entry.id(), entry.createdAt())).isEqualTo(rank);
+            }
+            assertThat(line.head(10)).containsExactlyElementsOf(
+                ordered.stream().limit(10).map(Entry::id).toList());
+            LocalDateTime limit = BASE.plusSeconds(40);
+            assertThat(line.countCreatedBefore(limit)).isEqualTo(
+                (int) ordered.stream().filter(entry -> entry.createdAt().isBefore(limit)).count());
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.example.ticketero.testutil;
 import com.example.ticketero.model.dto.request.TicketRequest;
 import com.example.ticketero.model.entity.*;
 import com.example.ticketero.model.enums.*;
+import com.example.ticketero.repository.QueueStatsRepository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -102,4 +104,29 @@ public class TestDataBuilder {
             QueueType.PERSONAL_BANKER
         );
     }
-}
\ No newline at end of file
+
+    // ============================================================
+    // AGREGADOS Y ESTADÍSTICAS DE COLAS
+    // ============================================================
+
+    public static QueueStatsRepository.QueueAggregate queueAggregate(
+            QueueType queueType, long waiting, long serving, long critical) {
+        return new QueueStatsRepository.QueueAggregate() {
+            public String getQueueType() { return queueType.name(); }
+            public long getWaiting() { return waiting; }
+            public long getServing() { return serving; }
+            public long getCritical() { return critical; }
+        };
+    }
+
+    public static QueueDailyStats queueDailyStats(
+            QueueType queueType, long completed, long assigned,
+            Double avgWaitMinutes, Double avgServiceMinutes) {
+        QueueDailyStats stats = QueueDailyStats.empty(LocalDate.now(), queueType);
+        stats.setCompletedCount(completed);
+        stats.setAssignedCount(assigned);
+        stats.setWaitSecondsSum(avgWaitMinutes != null ? Math.round(avgWaitMinutes * 60 * assigned) : 0);
+        stats.setServiceSecondsSum(avgServiceMinutes != null ? Math.round(avgServiceMinutes * 60 * completed) : 0);
+        return stats;
+    }
+}